@@ -0,0 +1,72 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.persistence.Persistence;
+import com.breskul.bibernate.persistence.SessionFactory;
+import com.breskul.bibernate.persistence.datasource.BibernateDataSource;
+import com.breskul.bibernate.persistence.datasource.propertyreader.ApplicationPropertiesReader;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import javax.sql.DataSource;
+
+/**
+ * The in-memory H2 database of the test configuration, shared by the benchmarks of one JMH fork. The {@code persons} and {@code notes}
+ * tables come from the init script of the connection URL, {@code wide_entities} is created by {@link #createWideEntities(int)}.
+ */
+final class BenchmarkDatabase {
+
+  private static final DataSource dataSource = new BibernateDataSource().createDataSource(
+      ApplicationPropertiesReader.getInstance().readProperty());
+
+  private BenchmarkDatabase() {
+  }
+
+  static SessionFactory createSessionFactory() {
+    return Persistence.createSessionFactory();
+  }
+
+  /**
+   * Executes the given statements outside of Bibernate sessions.
+   *
+   * @param sqls the statements to execute
+   * @throws SQLException if a statement fails
+   */
+  static void execute(String... sqls) throws SQLException {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      for (String sql : sqls) {
+        statement.execute(sql);
+      }
+    }
+  }
+
+  /**
+   * @return a connection which is not managed by a Bibernate session
+   * @throws SQLException if the connection can not be opened
+   */
+  static Connection getConnection() throws SQLException {
+    return dataSource.getConnection();
+  }
+
+  /**
+   * Creates the {@code wide_entities} table filled with the given number of rows.
+   *
+   * @param rows the number of rows
+   * @throws SQLException if the table can not be created
+   */
+  static void createWideEntities(int rows) throws SQLException {
+    StringBuilder columns = new StringBuilder("id bigint primary key");
+    StringBuilder values = new StringBuilder("x");
+    for (int i = 1; i <= WideEntity.STRING_COLUMNS; i++) {
+      columns.append(", text%d varchar(64)".formatted(i));
+      values.append(", 'text %d of row ' || x".formatted(i));
+    }
+    for (int i = 1; i <= WideEntity.NUMBER_COLUMNS; i++) {
+      columns.append(", number%d bigint".formatted(i));
+      values.append(", x * %d".formatted(i));
+    }
+    execute("DROP TABLE IF EXISTS wide_entities",
+        "CREATE TABLE wide_entities (%s)".formatted(columns),
+        "INSERT INTO wide_entities SELECT %s FROM SYSTEM_RANGE(1, %d)".formatted(values, rows));
+  }
+}
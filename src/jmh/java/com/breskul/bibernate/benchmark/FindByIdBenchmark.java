@@ -0,0 +1,73 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.persistence.Session;
+import com.breskul.bibernate.persistence.SessionFactory;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Session#findById(Class, Object)} answered from the persistence context compared with a lookup in a new session, which also
+ * borrows and returns a pooled connection. {@link #openSession()} measures that overhead alone.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FindByIdBenchmark {
+
+  private static final int PERSONS = 1_000;
+
+  private SessionFactory sessionFactory;
+  private Session session;
+  private long nextId;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    sessionFactory = BenchmarkDatabase.createSessionFactory();
+    BenchmarkDatabase.execute("INSERT INTO persons (id, first_name, last_name) "
+        + "SELECT x, 'First' || x, 'Last' || x FROM SYSTEM_RANGE(1, %d)".formatted(PERSONS));
+    session = sessionFactory.openSession();
+    session.findById(Person.class, 1L);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    session.close();
+    BenchmarkDatabase.execute("DELETE FROM persons");
+  }
+
+  @Benchmark
+  public Person findByIdFirstLevelHit() {
+    return session.findById(Person.class, 1L);
+  }
+
+  @Benchmark
+  public Person findByIdCold() throws SQLException {
+    nextId = nextId % PERSONS + 1;
+    try (Session coldSession = sessionFactory.openSession()) {
+      return coldSession.findById(Person.class, nextId);
+    }
+  }
+
+  @Benchmark
+  public boolean openSession() throws SQLException {
+    try (Session emptySession = sessionFactory.openSession()) {
+      return emptySession.isOpen();
+    }
+  }
+}
@@ -0,0 +1,76 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.persistence.Session;
+import com.breskul.bibernate.persistence.SessionFactory;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * {@link Session#flush()} of a session holding {@link #entities} loaded persons, either all of them changed or none. The clean case
+ * measures dirty checking alone. Every invocation gets a freshly loaded session, so the average time per flush is reported.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FlushBenchmark {
+
+  @Param({"100", "1000"})
+  private int entities;
+
+  @Param({"true", "false"})
+  private boolean dirty;
+
+  private SessionFactory sessionFactory;
+  private Session session;
+  private long version;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    sessionFactory = BenchmarkDatabase.createSessionFactory();
+    BenchmarkDatabase.execute("INSERT INTO persons (id, first_name, last_name) "
+        + "SELECT x, 'First' || x, 'Last' || x FROM SYSTEM_RANGE(1, %d)".formatted(entities));
+  }
+
+  @Setup(Level.Invocation)
+  public void loadPersons() throws SQLException {
+    session = sessionFactory.openSession();
+    List<Person> persons = session.executeBiQLQuery("from Person", Person.class);
+    if (dirty) {
+      version++;
+      persons.forEach(person -> person.setFirstName("First" + person.getId() + "v" + version));
+    }
+  }
+
+  @TearDown(Level.Invocation)
+  public void closeSession() {
+    session.close();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    BenchmarkDatabase.execute("DELETE FROM persons");
+  }
+
+  @Benchmark
+  public void flush() {
+    session.flush();
+  }
+}
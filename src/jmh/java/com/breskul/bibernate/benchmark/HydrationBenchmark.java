@@ -0,0 +1,79 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.persistence.Session;
+import com.breskul.bibernate.persistence.SessionFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Mapping of wide rows to {@link WideEntity} instances by a native query in a new session, compared with reading the same rows with
+ * plain JDBC. The difference is the time spent in hydration and the persistence context.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HydrationBenchmark {
+
+  private static final String SELECT_SQL = "SELECT * FROM wide_entities WHERE id <= %d";
+
+  @Param({"10", "1000"})
+  private int rows;
+
+  private SessionFactory sessionFactory;
+  private Connection jdbcConnection;
+  private String sql;
+
+  @Setup(Level.Trial)
+  public void setUp() throws SQLException {
+    sessionFactory = BenchmarkDatabase.createSessionFactory();
+    BenchmarkDatabase.createWideEntities(rows);
+    jdbcConnection = BenchmarkDatabase.getConnection();
+    sql = SELECT_SQL.formatted(rows);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws SQLException {
+    jdbcConnection.close();
+  }
+
+  @Benchmark
+  public List<WideEntity> hydrateWideRows() throws SQLException {
+    try (Session session = sessionFactory.openSession()) {
+      return session.executeNativeQuery(sql, WideEntity.class);
+    }
+  }
+
+  @Benchmark
+  public void readWideRowsWithJdbc(Blackhole blackhole) throws SQLException {
+    try (PreparedStatement statement = jdbcConnection.prepareStatement(sql);
+        ResultSet resultSet = statement.executeQuery()) {
+      int columns = resultSet.getMetaData().getColumnCount();
+      while (resultSet.next()) {
+        for (int column = 1; column <= columns; column++) {
+          blackhole.consume(resultSet.getObject(column));
+        }
+      }
+    }
+  }
+}
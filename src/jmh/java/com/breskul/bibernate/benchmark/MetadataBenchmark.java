@@ -0,0 +1,73 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.data.LazyNote;
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.query.hql.BiQLMapper;
+import com.breskul.bibernate.util.AssociationUtil;
+import com.breskul.bibernate.util.EntityUtil;
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * CPU-only paths which run for every query or loaded entity: BiQL translation, lazy proxy creation and entity metadata lookups. No
+ * database is used.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MetadataBenchmark {
+
+  private static final Supplier<Person> NOT_LOADED = () -> {
+    throw new IllegalStateException("The benchmark does not initialize the proxy");
+  };
+
+  private Field personField;
+
+  @Setup(Level.Trial)
+  public void setUp() throws NoSuchFieldException {
+    AssociationUtil.initLazyProxyClasses(Set.of(Person.class));
+    personField = LazyNote.class.getDeclaredField("person");
+  }
+
+  @Benchmark
+  public String bqlToSql() {
+    return BiQLMapper.bqlToSql("select p from Person p where p.id = 5", Person.class);
+  }
+
+  @Benchmark
+  public Object createLazyProxy() {
+    return AssociationUtil.getLazyObjectProxy(personField, 1L, NOT_LOADED);
+  }
+
+  @Benchmark
+  public List<String> getEntityColumnNames() {
+    return EntityUtil.getEntityColumnNames(WideEntity.class);
+  }
+
+  @Benchmark
+  public String composeSelectBlock() {
+    return EntityUtil.composeSelectBlock(WideEntity.class);
+  }
+
+  @Benchmark
+  public Field findEntityIdField() {
+    return EntityUtil.findEntityIdField(WideEntity.class);
+  }
+}
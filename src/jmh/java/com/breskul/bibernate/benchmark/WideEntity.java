@@ -0,0 +1,64 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Entity with twenty columns used to measure hydration of wide rows.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "wide_entities")
+public class WideEntity {
+
+  static final int STRING_COLUMNS = 10;
+  static final int NUMBER_COLUMNS = 9;
+
+  @Id
+  private Long id;
+
+  @Column(name = "text1")
+  private String text1;
+  @Column(name = "text2")
+  private String text2;
+  @Column(name = "text3")
+  private String text3;
+  @Column(name = "text4")
+  private String text4;
+  @Column(name = "text5")
+  private String text5;
+  @Column(name = "text6")
+  private String text6;
+  @Column(name = "text7")
+  private String text7;
+  @Column(name = "text8")
+  private String text8;
+  @Column(name = "text9")
+  private String text9;
+  @Column(name = "text10")
+  private String text10;
+
+  @Column(name = "number1")
+  private Long number1;
+  @Column(name = "number2")
+  private Long number2;
+  @Column(name = "number3")
+  private Long number3;
+  @Column(name = "number4")
+  private Long number4;
+  @Column(name = "number5")
+  private Long number5;
+  @Column(name = "number6")
+  private Long number6;
+  @Column(name = "number7")
+  private Long number7;
+  @Column(name = "number8")
+  private Long number8;
+  @Column(name = "number9")
+  private Long number9;
+}
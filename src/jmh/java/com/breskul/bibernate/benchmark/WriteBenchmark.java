@@ -0,0 +1,98 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.persistence.Session;
+import com.breskul.bibernate.persistence.SessionFactory;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Inserting persons one {@link Session#persist(Object)} at a time, in auto-commit mode and in a single transaction, compared with a
+ * plain JDBC batch insert of the same rows. One operation inserts {@link #entities} rows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WriteBenchmark {
+
+  private static final String INSERT_SQL = "INSERT INTO persons (id, first_name, last_name) VALUES (?, ?, ?)";
+
+  @Param({"100"})
+  private int entities;
+
+  private SessionFactory sessionFactory;
+  private long nextId;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    sessionFactory = BenchmarkDatabase.createSessionFactory();
+  }
+
+  @TearDown(Level.Iteration)
+  public void deletePersons() throws SQLException {
+    BenchmarkDatabase.execute("DELETE FROM persons");
+  }
+
+  @Benchmark
+  public long persistAutoCommit() throws SQLException {
+    try (Session session = sessionFactory.openSession()) {
+      for (int i = 0; i < entities; i++) {
+        session.persist(newPerson());
+      }
+    }
+    return nextId;
+  }
+
+  @Benchmark
+  public long persistInTransaction() throws SQLException {
+    try (Session session = sessionFactory.openSession()) {
+      session.getTransaction().begin();
+      for (int i = 0; i < entities; i++) {
+        session.persist(newPerson());
+      }
+      session.getTransaction().commit();
+    }
+    return nextId;
+  }
+
+  @Benchmark
+  public int[] jdbcBatchInsert() throws SQLException {
+    try (Connection connection = BenchmarkDatabase.getConnection();
+        PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+      connection.setAutoCommit(false);
+      for (int i = 0; i < entities; i++) {
+        Person person = newPerson();
+        statement.setLong(1, person.getId());
+        statement.setString(2, person.getFirstName());
+        statement.setString(3, person.getLastName());
+        statement.addBatch();
+      }
+      int[] result = statement.executeBatch();
+      connection.commit();
+      return result;
+    }
+  }
+
+  private Person newPerson() {
+    long id = ++nextId;
+    return new Person(id, "First" + id, "Last" + id);
+  }
+}
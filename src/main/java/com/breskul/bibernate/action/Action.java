@@ -1,5 +1,6 @@
 package com.breskul.bibernate.action;
 
+import com.breskul.bibernate.persistence.EntityKey;
 import com.breskul.bibernate.persistence.Session;
 
 /**
@@ -19,4 +20,11 @@ public interface Action {
    * @return action priority
    */
   int priority();
+
+  /**
+   * Used to order actions by the foreign key depth of their table in {@link ActionQueue}
+   *
+   * @return key of the entity the action changes
+   */
+  EntityKey<?> entityKey();
 }
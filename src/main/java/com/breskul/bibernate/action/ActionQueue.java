@@ -0,0 +1,89 @@
+package com.breskul.bibernate.action;
+
+import static java.util.Comparator.comparingInt;
+
+import com.breskul.bibernate.persistence.EntityKey;
+import com.breskul.bibernate.util.CascadeUtil;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Queue of the actions of a session executed on flush.
+ * <p>
+ * Inserts are executed by the session right away and are not queued. On execution the actions are ordered by priority and then by the
+ * foreign key depth of their tables, so deletes of referencing tables run before deletes of the tables they refer to, whatever order the
+ * entities were deleted in. Actions of one depth keep the order they were added in. Every action runs its own statement.
+ */
+public class ActionQueue {
+
+  private final List<Action> actions = new ArrayList<>();
+
+  /**
+   * Adds the action to the queue.
+   *
+   * @param action - The action to add
+   */
+  public void add(Action action) {
+    actions.add(action);
+  }
+
+  /**
+   * @return whether the queue has no actions to execute
+   */
+  public boolean isEmpty() {
+    return size() == 0;
+  }
+
+  /**
+   * @return the number of queued actions
+   */
+  public int size() {
+    return actions.size();
+  }
+
+  /**
+   * Removes all queued actions without executing them.
+   */
+  public void clear() {
+    actions.clear();
+  }
+
+  /**
+   * Executes the queued actions in the order described in {@link ActionQueue} and empties the queue. If an action fails, the failed action
+   * and the actions not executed yet stay in the queue, so the next flush runs them again.
+   *
+   * @return the number of executed actions
+   */
+  public int executeAll() {
+    List<Action> ordered = order();
+    clear();
+    LinkedList<Action> pending = new LinkedList<>(ordered);
+    int executed = 0;
+    try {
+      while (!pending.isEmpty()) {
+        pending.peek().execute();
+        pending.poll();
+        executed++;
+      }
+    } finally {
+      pending.forEach(this::add);
+    }
+    return executed;
+  }
+
+  private List<Action> order() {
+    Map<Action, Integer> foreignKeyOrder = new IdentityHashMap<>();
+    for (Action action : actions) {
+      EntityKey<?> entityKey = action.entityKey();
+      int depth = entityKey == null ? 0 : CascadeUtil.getForeignKeyDepth(entityKey.entityClass());
+      foreignKeyOrder.put(action, action instanceof DeleteAction ? -depth : depth);
+    }
+    List<Action> ordered = new ArrayList<>(actions);
+    // the sort is stable, so actions of one depth keep their order, for example the order of cascaded deletes
+    ordered.sort(comparingInt(Action::priority).thenComparingInt(foreignKeyOrder::get));
+    return ordered;
+  }
+}
@@ -1,5 +1,6 @@
 package com.breskul.bibernate.action;
 
+import com.breskul.bibernate.persistence.EntityKey;
 import com.breskul.bibernate.persistence.GenericDao;
 import lombok.RequiredArgsConstructor;
 
@@ -29,4 +30,14 @@ public class InsertAction implements Action {
   public int priority() {
     return 1;
   }
+
+  /**
+   * Represents the key of the inserted entity
+   *
+   * @return returns entity key
+   */
+  @Override
+  public EntityKey<?> entityKey() {
+    return EntityKey.valueOf(entity);
+  }
 }
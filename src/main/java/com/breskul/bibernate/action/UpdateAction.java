@@ -31,4 +31,14 @@ public class UpdateAction<T> implements Action {
   public int priority() {
     return 2;
   }
+
+  /**
+   * Represents the key of the updated entity
+   *
+   * @return returns entity key
+   */
+  @Override
+  public EntityKey<?> entityKey() {
+    return entityKey;
+  }
 }
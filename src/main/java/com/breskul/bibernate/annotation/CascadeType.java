@@ -0,0 +1,28 @@
+package com.breskul.bibernate.annotation;
+
+/**
+ * Defines the set of cascadable operations that are propagated to the associated entity. The value <code>cascade=ALL</code> is equivalent
+ * to <code>cascade={PERSIST, REMOVE, DETACH}</code>.
+ */
+public enum CascadeType {
+
+  /**
+   * Cascade all operations
+   */
+  ALL,
+
+  /**
+   * Cascade persist operation, new associated entities are inserted together with the owner
+   */
+  PERSIST,
+
+  /**
+   * Cascade remove operation, associated entities are deleted together with the owner
+   */
+  REMOVE,
+
+  /**
+   * Cascade detach operation, associated entities are evicted from the session together with the owner
+   */
+  DETACH
+}
@@ -0,0 +1,35 @@
+package com.breskul.bibernate.annotation;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Specifies an index of the entity table, used when generating the DDL. Declared in {@link Table#indexes()}.
+ *
+ * <pre>
+ *   {@code
+ *   @Table(name = "notes", indexes = @Index(columnList = "person_id, created_at"))
+ * }
+ * </pre>
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target({})
+public @interface Index {
+
+  /**
+   * (Optional) The name of the index.
+   * <p> Defaults to a name generated from the table and column names.
+   */
+  String name() default "";
+
+  /**
+   * The comma separated names of the indexed columns, in index order.
+   */
+  String columnList();
+
+  /**
+   * (Optional) Whether the index is unique.
+   */
+  boolean unique() default false;
+}
@@ -0,0 +1,34 @@
+package com.breskul.bibernate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Specifies the join table of a many-to-many association. It is applied to the owning side of the association. If the
+ * <code>JoinTable</code> annotation is missing, the default values apply: the table is named after the owner table and the target table
+ * joined with an underscore, and each join column is named after its entity class and the id column of the entity, e.g.
+ * <code>person_id</code>.
+ */
+
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface JoinTable {
+
+  /**
+   * (Optional) The name of the join table.
+   */
+  String name() default "";
+
+  /**
+   * (Optional) The column of the join table which references the owning side of the association.
+   */
+  JoinColumn joinColumn() default @JoinColumn;
+
+  /**
+   * (Optional) The column of the join table which references the inverse side of the association.
+   */
+  JoinColumn inverseJoinColumn() default @JoinColumn;
+}
@@ -1,5 +1,7 @@
 package com.breskul.bibernate.annotation;
 
+import static com.breskul.bibernate.annotation.FetchType.LAZY;
+
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
@@ -25,9 +27,34 @@ import java.lang.annotation.Target;
  * <code>mappedBy</code> element to indicate the relationship
  * attribute within the embedded attribute.  The value of each identifier used with the dot notation is the name of the respective embedded
  * field or property.
+ *
+ * <p> The rows of the join table are written only by the owning side. On flush the elements of a loaded collection are compared with
+ * the elements it was loaded with, and only the join table rows of the added and removed elements are inserted and deleted.
+ *
+ * @see JoinTable
  */
 
 @Retention(RetentionPolicy.RUNTIME)
 @Target(ElementType.FIELD)
 public @interface ManyToMany {
+
+  /**
+   * (Optional) The field that owns the relationship. This element is only specified on the inverse (non-owning) side of the association.
+   */
+  String mappedBy() default "";
+
+  /**
+   * (Optional) Whether the association should be lazily
+   * loaded or must be eagerly fetched. The EAGER
+   * strategy is a requirement on the persistence provider runtime that
+   * the associated entity must be eagerly fetched. The LAZY
+   * strategy is a hint to the persistence provider runtime.
+   */
+  FetchType fetch() default LAZY;
+
+  /**
+   * (Optional) The operations that must be cascaded to the target of the association. By default no operations are cascaded. The target
+   * entities are usually shared by several owners, so cascading the remove operation is rarely appropriate.
+   */
+  CascadeType[] cascade() default {};
 }
@@ -30,4 +30,9 @@ import java.lang.annotation.Target;
 public @interface ManyToOne {
 
   FetchType fetch() default EAGER;
+
+  /**
+   * (Optional) The operations that must be cascaded to the target of the association. By default no operations are cascaded.
+   */
+  CascadeType[] cascade() default {};
 }
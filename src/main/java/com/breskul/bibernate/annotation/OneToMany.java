@@ -38,4 +38,23 @@ public @interface OneToMany {
    * strategy is a hint to the persistence provider runtime.
    */
   FetchType fetch() default LAZY;
+
+  /**
+   * (Optional) Whether the lazy collection should be extra lazy. An extra-lazy
+   * collection answers <code>size</code>, <code>isEmpty</code>, <code>contains</code>
+   * and <code>get</code> with targeted queries and loads all elements only when
+   * a full access is needed. Ignored for EAGER associations.
+   */
+  boolean extraLazy() default false;
+
+  /**
+   * (Optional) The operations that must be cascaded to the target of the association. By default no operations are cascaded.
+   */
+  CascadeType[] cascade() default {};
+
+  /**
+   * (Optional) Whether to apply the remove operation to entities that have been removed from the relationship and to cascade the remove
+   * operation to those entities.
+   */
+  boolean orphanRemoval() default false;
 }
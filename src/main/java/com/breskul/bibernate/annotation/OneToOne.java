@@ -40,4 +40,15 @@ public @interface OneToOne {
    * strategy is a hint to the persistence provider runtime.
    */
   FetchType fetch() default LAZY;
+
+  /**
+   * (Optional) The operations that must be cascaded to the target of the association. By default no operations are cascaded.
+   */
+  CascadeType[] cascade() default {};
+
+  /**
+   * (Optional) Whether to apply the remove operation to the entity that has been removed from the relationship and to cascade the remove
+   * operation to that entity.
+   */
+  boolean orphanRemoval() default false;
 }
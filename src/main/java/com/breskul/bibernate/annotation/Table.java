@@ -34,4 +34,9 @@ public @interface Table {
    * <p> Defaults to the default schema for user.
    */
   String schema() default "";
+
+  /**
+   * (Optional) Indexes of the table. Join columns of 'toOne' relations are indexed automatically.
+   */
+  Index[] indexes() default {};
 }
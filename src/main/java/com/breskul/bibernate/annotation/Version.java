@@ -0,0 +1,22 @@
+package com.breskul.bibernate.annotation;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+
+/**
+ * Specifies the version field of an entity that serves as its optimistic lock value. The version is used to ensure integrity when
+ * performing the update and delete operations: the statement only matches the row if its version equals the version of the entity, and an
+ * update increments the version automatically.
+ *
+ * <p>Only a single <code>Version</code> field should be used per entity. The following types are supported for version fields:
+ * <code>int</code>, <code>Integer</code>, <code>short</code>, <code>Short</code>, <code>long</code>, <code>Long</code>,
+ * <code>java.sql.Timestamp</code>.
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.FIELD)
+public @interface Version {
+
+}
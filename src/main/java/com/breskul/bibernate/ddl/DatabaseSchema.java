@@ -0,0 +1,87 @@
+package com.breskul.bibernate.ddl;
+
+import com.breskul.bibernate.metadata.Table;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Tables and columns which already exist in the database. The columns are read with a single {@link DatabaseMetaData#getColumns} call per
+ * schema used by the entity tables, not per table. Names are compared case-insensitively, because databases store unquoted identifiers in
+ * different cases.
+ */
+final class DatabaseSchema {
+
+  private final Map<String, Map<String, Set<String>>> columnsBySchema;
+
+  private DatabaseSchema(Map<String, Map<String, Set<String>>> columnsBySchema) {
+    this.columnsBySchema = columnsBySchema;
+  }
+
+  /**
+   * Reads the existing columns of all schemas used by the given tables.
+   *
+   * @param connection the connection to read the database metadata from
+   * @param tables     the entity tables
+   * @return the existing database schema
+   * @throws SQLException if the database metadata could not be read
+   */
+  static DatabaseSchema read(Connection connection, Collection<Table> tables) throws SQLException {
+    DatabaseMetaData metaData = connection.getMetaData();
+    Set<String> schemas = new LinkedHashSet<>();
+    tables.forEach(table -> schemas.add(schemaOf(table)));
+
+    Map<String, Map<String, Set<String>>> columnsBySchema = new HashMap<>();
+    for (String schema : schemas) {
+      String schemaPattern = schema.isEmpty() ? connection.getSchema() : toStoredCase(metaData, schema);
+      Map<String, Set<String>> columnsByTable = new HashMap<>();
+      try (ResultSet columns = metaData.getColumns(null, schemaPattern, "%", "%")) {
+        while (columns.next()) {
+          columnsByTable.computeIfAbsent(normalize(columns.getString("TABLE_NAME")), key -> new HashSet<>())
+              .add(normalize(columns.getString("COLUMN_NAME")));
+        }
+      }
+      columnsBySchema.put(schema, columnsByTable);
+    }
+    return new DatabaseSchema(columnsBySchema);
+  }
+
+  boolean hasTable(Table table) {
+    return getColumns(table) != null;
+  }
+
+  boolean hasColumn(Table table, String columnName) {
+    Set<String> columns = getColumns(table);
+    return columns != null && columns.contains(normalize(columnName));
+  }
+
+  private Set<String> getColumns(Table table) {
+    return columnsBySchema.getOrDefault(schemaOf(table), Map.of()).get(normalize(table.getName()));
+  }
+
+  private static String schemaOf(Table table) {
+    return table.getSchema() == null ? "" : table.getSchema().trim();
+  }
+
+  private static String toStoredCase(DatabaseMetaData metaData, String identifier) throws SQLException {
+    if (metaData.storesUpperCaseIdentifiers()) {
+      return identifier.toUpperCase(Locale.ROOT);
+    }
+    if (metaData.storesLowerCaseIdentifiers()) {
+      return identifier.toLowerCase(Locale.ROOT);
+    }
+    return identifier;
+  }
+
+  private static String normalize(String identifier) {
+    return identifier.toLowerCase(Locale.ROOT);
+  }
+}
@@ -0,0 +1,55 @@
+package com.breskul.bibernate.ddl;
+
+import static com.breskul.bibernate.ddl.TableCreationService.CREATE_TABLES_PROPERTY_NAME;
+
+import com.breskul.bibernate.config.PropertiesConfiguration;
+import com.breskul.bibernate.exception.InvalidPropertyValueException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Defines what is done with the database schema when the session factory is created. The mode is configured with the
+ * {@value #DDL_MODE_PROPERTY_NAME} property. When the property is absent, {@code bibernate.ddl.create_tables=true} means {@link #CREATE}.
+ */
+public enum DdlMode {
+  /**
+   * The schema is not touched.
+   */
+  NONE,
+  /**
+   * All entity tables are dropped and created again.
+   */
+  CREATE,
+  /**
+   * The schema is compared with the entity mappings, startup fails if tables or columns are missing.
+   */
+  VALIDATE,
+  /**
+   * Missing tables and columns are added, existing ones are kept.
+   */
+  UPDATE;
+
+  public static final String DDL_MODE_PROPERTY_NAME = "bibernate.ddl.mode";
+
+  /**
+   * Resolves the DDL mode from the configuration properties.
+   *
+   * @return the configured DDL mode
+   * @throws InvalidPropertyValueException if the configured mode is unknown
+   */
+  public static DdlMode fromProperties() {
+    String mode = PropertiesConfiguration.getPropertyOrDefault(DDL_MODE_PROPERTY_NAME, null);
+    if (mode == null) {
+      boolean createTables = Boolean.parseBoolean(
+          PropertiesConfiguration.getPropertyOrDefault(CREATE_TABLES_PROPERTY_NAME, "false"));
+      return createTables ? CREATE : NONE;
+    }
+    try {
+      return valueOf(mode.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value '%s' is not one of %s".formatted(DDL_MODE_PROPERTY_NAME, mode,
+              Arrays.toString(values())), e);
+    }
+  }
+}
@@ -5,22 +5,36 @@ import com.breskul.bibernate.config.PropertiesConfiguration;
 import com.breskul.bibernate.metadata.Column;
 import com.breskul.bibernate.metadata.EntitiesMetadataPersistence;
 import com.breskul.bibernate.metadata.Table;
+import com.breskul.bibernate.exception.SchemaValidationException;
 import com.breskul.bibernate.metadata.dto.ForeignKey;
+import com.breskul.bibernate.metadata.dto.TableIndex;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Set;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
 
 
 /**
- * The TableCreationService class is responsible for creating, dropping, and adding foreign keys to database tables.
+ * The TableCreationService class is responsible for creating, dropping, and adding foreign keys to database tables. It also validates and
+ * updates an existing schema, see {@link DdlMode}.
  */
 public class TableCreationService {
 
   private static final Logger logger = LoggerFactory.getLogger(TableCreationService.class);
   public static final String CREATE_TABLES_PROPERTY_NAME = "bibernate.ddl.create_tables";
+  public static final String PARALLELISM_PROPERTY_NAME = "bibernate.ddl.parallelism";
+  public static final int DEFAULT_PARALLELISM = 4;
   private static final String DROP_TABLE_SQL = "DROP TABLE IF EXISTS %s CASCADE";
+  private static final String ADD_COLUMN_SQL = "ALTER TABLE %s ADD COLUMN %s %s";
+  private static final String CREATE_INDEX_SQL = "CREATE %sINDEX IF NOT EXISTS %s ON %s (%s)";
   private static final String UNIQUE = "UNIQUE";
   private static final String NOT_NULL = "NOT NULL";
   private static final String PRIMARY_KEY = "PRIMARY KEY";
@@ -34,75 +48,216 @@ public class TableCreationService {
   private final DataSource dataSource;
   private final EntitiesMetadataPersistence entitiesMetadataPersistence;
   private final boolean showSql;
+  private final int parallelism;
 
 
   public TableCreationService(DataSource dataSource, EntitiesMetadataPersistence entitiesMetadataPersistence,
       boolean showSql) {
+    this(dataSource, entitiesMetadataPersistence, showSql, DEFAULT_PARALLELISM);
+  }
+
+  /**
+   * Creates the service which creates tables using up to {@code parallelism} connections at the same time.
+   *
+   * @param dataSource                  the data source to obtain connections from
+   * @param entitiesMetadataPersistence the metadata of the tables
+   * @param showSql                     whether the executed DDL is logged
+   * @param parallelism                 the maximum number of connections used to create tables
+   */
+  public TableCreationService(DataSource dataSource, EntitiesMetadataPersistence entitiesMetadataPersistence,
+      boolean showSql, int parallelism) {
     this.dataSource = dataSource;
     this.entitiesMetadataPersistence = entitiesMetadataPersistence;
     this.showSql = showSql;
+    this.parallelism = Math.max(1, parallelism);
   }
 
   /**
    * Processes Data Definition Language (DDL) statements to create tables and add foreign keys if specified by the configuration. The
-   * process involves dropping all existing tables, creating new tables, and adding foreign keys if necessary.
+   * process involves dropping all existing tables, creating new tables, and adding foreign keys and indexes if necessary. Statements of each step are
+   * sent in batches, tables are processed in the order of their names, so the produced DDL is reproducible.
    *
-   * @see TableCreationService#dropAllTables()
-   * @see TableCreationService#createTables()
-   * @see TableCreationService#addForeignKeys()
+   * @see TableCreationService#dropAllTables(List)
+   * @see TableCreationService#createTables(List)
+   * @see TableCreationService#addForeignKeys(List)
+   * @see TableCreationService#createIndexes(List)
    * @see PropertiesConfiguration#getPropertyOrDefault(String, String)
    */
   public void processDdl() {
-    dropAllTables();
-    createTables();
-    addForeignKeys();
+    List<Table> tables = getSortedTables();
+    dropAllTables(tables);
+    createTables(tables);
+    addForeignKeys(tables);
+    createIndexes(tables);
   }
 
-  private void dropAllTables() {
-    try (var connection = dataSource.getConnection();
-        Statement statement = connection.createStatement()) {
-      for (Table table : entitiesMetadataPersistence.getTables()) {
-        String dropSql = DROP_TABLE_SQL.formatted(table.getFullName());
-        if (showSql) {
-          logger.info("Bibernate, DDL: [{}]", dropSql);
+  /**
+   * Applies the given DDL mode.
+   *
+   * @param ddlMode the mode defining what is done with the schema
+   */
+  public void processDdl(DdlMode ddlMode) {
+    switch (ddlMode) {
+      case CREATE -> processDdl();
+      case VALIDATE -> validateSchema();
+      case UPDATE -> updateSchema();
+      case NONE -> logger.debug("Bibernate, DDL is disabled");
+    }
+  }
+
+  /**
+   * Checks that every entity table and column exists in the database. Column types and constraints are not compared.
+   *
+   * @throws SchemaValidationException if some tables or columns are missing
+   */
+  public void validateSchema() {
+    List<Table> tables = getSortedTables();
+    DatabaseSchema databaseSchema = readDatabaseSchema(tables);
+    List<String> problems = new ArrayList<>();
+    for (Table table : tables) {
+      if (!databaseSchema.hasTable(table)) {
+        problems.add("missing table [%s]".formatted(table.getFullName()));
+        continue;
+      }
+      for (Column column : table.getColumns()) {
+        if (!databaseSchema.hasColumn(table, column.getName())) {
+          problems.add("missing column [%s.%s]".formatted(table.getFullName(), column.getName()));
         }
-        statement.execute(dropSql);
       }
+    }
+    if (!problems.isEmpty()) {
+      throw new SchemaValidationException(
+          "Schema validation failed: %s".formatted(String.join(", ", problems)));
+    }
+  }
+
+  /**
+   * Creates missing entity tables and adds missing columns to existing tables, together with the foreign keys of the created tables and
+   * columns and all missing indexes. Existing tables, columns and data are kept. Added columns get only their type, constraints like {@code NOT NULL} can not be
+   * applied to a table which may already contain rows.
+   */
+  public void updateSchema() {
+    List<Table> tables = getSortedTables();
+    DatabaseSchema databaseSchema = readDatabaseSchema(tables);
+    List<Table> missingTables = new ArrayList<>();
+    List<String> addColumnQueries = new ArrayList<>();
+    List<ForeignKey> missingForeignKeys = new ArrayList<>();
+    for (Table table : tables) {
+      if (!databaseSchema.hasTable(table)) {
+        missingTables.add(table);
+        missingForeignKeys.addAll(table.getForeignKeys());
+        continue;
+      }
+      for (Column column : table.getColumns()) {
+        if (!databaseSchema.hasColumn(table, column.getName())) {
+          addColumnQueries.add(ADD_COLUMN_SQL.formatted(table.getFullName(), column.getName(),
+              column.getSqlTypeName()));
+          Optional.ofNullable(table.getForeignKey(column.getName()))
+              .ifPresent(missingForeignKeys::add);
+        }
+      }
+    }
+    createTables(missingTables);
+    executeBatch(addColumnQueries);
+    executeBatch(missingForeignKeys.stream()
+        .sorted(Comparator.comparing(ForeignKey::getConstraintName))
+        .map(this::generateFKeySQL)
+        .toList());
+    createIndexes(tables);
+  }
+
+  private List<Table> getSortedTables() {
+    return entitiesMetadataPersistence.getTables().stream()
+        .sorted(Comparator.comparing(Table::getFullName))
+        .toList();
+  }
+
+  private DatabaseSchema readDatabaseSchema(List<Table> tables) {
+    try (var connection = dataSource.getConnection()) {
+      return DatabaseSchema.read(connection, tables);
     } catch (SQLException e) {
       throw new RuntimeException(e);
     }
   }
 
-  private void createTables() {
-    try (var connection = dataSource.getConnection();
-        Statement statement = connection.createStatement()) {
-      for (Table table : entitiesMetadataPersistence.getTables()) {
-        String createQuery = generateCreateTableSql(table);
-        if (showSql) {
-          logger.info("Bibernate, DDL: [{}]", createQuery);
+  private void dropAllTables(List<Table> tables) {
+    executeBatch(tables.stream()
+        .map(table -> DROP_TABLE_SQL.formatted(table.getFullName()))
+        .toList());
+  }
+
+  /**
+   * Creates the tables. Foreign keys are added only after all tables exist, so tables do not depend on each other and are split between
+   * up to {@link #parallelism} connections.
+   */
+  private void createTables(List<Table> tables) {
+    List<String> createQueries = tables.stream()
+        .map(this::generateCreateTableSql)
+        .toList();
+    int partitions = Math.min(parallelism, createQueries.size());
+    if (partitions <= 1) {
+      executeBatch(createQueries);
+      return;
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(partitions);
+    try {
+      List<Future<?>> results = new ArrayList<>();
+      for (int partition = 0; partition < partitions; partition++) {
+        List<String> partitionQueries = new ArrayList<>();
+        for (int i = partition; i < createQueries.size(); i += partitions) {
+          partitionQueries.add(createQueries.get(i));
         }
-        statement.executeUpdate(createQuery);
+        results.add(executor.submit(() -> executeBatch(partitionQueries)));
       }
-    } catch (SQLException e) {
+      for (Future<?> result : results) {
+        result.get();
+      }
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
       throw new RuntimeException(e);
+    } finally {
+      executor.shutdown();
     }
   }
 
-  private void addForeignKeys() {
+  private void addForeignKeys(List<Table> tables) {
+    executeBatch(tables.stream()
+        .flatMap(table -> table.getForeignKeys().stream())
+        .sorted(Comparator.comparing(ForeignKey::getConstraintName))
+        .map(this::generateFKeySQL)
+        .toList());
+  }
+
+  private void createIndexes(List<Table> tables) {
+    List<String> createQueries = new ArrayList<>();
+    for (Table table : tables) {
+      for (TableIndex index : table.getIndexes()) {
+        createQueries.add(CREATE_INDEX_SQL.formatted(index.isUnique() ? "UNIQUE " : "",
+            index.getIndexName(), table.getFullName(), String.join(", ", index.getColumnNames())));
+      }
+    }
+    executeBatch(createQueries);
+  }
+
+  private void executeBatch(List<String> queries) {
+    if (queries.isEmpty()) {
+      return;
+    }
     try (var connection = dataSource.getConnection();
         Statement statement = connection.createStatement()) {
-      for (Table table : entitiesMetadataPersistence.getTables()) {
-        Set<ForeignKey> foreignKeys = table.getForeignKeys();
-        if (!foreignKeys.isEmpty()) {
-          for (ForeignKey fk : foreignKeys) {
-            String createQuery = generateFKeySQL(fk);
-            if (showSql) {
-              logger.info("Bibernate, DDL: [{}]", createQuery);
-            }
-            statement.executeUpdate(createQuery);
-          }
+      for (String query : queries) {
+        if (showSql) {
+          logger.info("Bibernate, DDL: [{}]", query);
         }
+        statement.addBatch(query);
       }
+      statement.executeBatch();
     } catch (SQLException e) {
       throw new RuntimeException(e);
     }
@@ -12,6 +12,10 @@ import com.breskul.bibernate.config.PropertiesConfiguration;
  */
 public class InvalidPropertyValueException extends RuntimeException {
 
+  public InvalidPropertyValueException(String message) {
+    super(message);
+  }
+
   public InvalidPropertyValueException(String message, Throwable cause) {
     super(message, cause);
   }
@@ -0,0 +1,12 @@
+package com.breskul.bibernate.exception;
+
+
+/**
+ * Exception thrown when a lazy association is accessed for the first time after the session that created it was closed.
+ */
+public class LazyInitializationException extends AssociationException {
+
+  public LazyInitializationException(String message) {
+    super(message);
+  }
+}
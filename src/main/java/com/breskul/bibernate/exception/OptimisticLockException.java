@@ -0,0 +1,12 @@
+package com.breskul.bibernate.exception;
+
+/**
+ * Thrown when an update or delete of a versioned entity matched no row, because the row was changed or deleted by another transaction
+ * since the entity was read.
+ */
+public class OptimisticLockException extends BibernateException {
+
+  public OptimisticLockException(String message) {
+    super(message);
+  }
+}
@@ -0,0 +1,12 @@
+package com.breskul.bibernate.exception;
+
+
+/**
+ * Exception thrown when the database schema does not contain tables or columns required by the entity mappings.
+ */
+public class SchemaValidationException extends RuntimeException {
+
+  public SchemaValidationException(String message) {
+    super(message);
+  }
+}
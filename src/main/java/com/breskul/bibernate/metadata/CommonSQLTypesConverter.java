@@ -7,6 +7,8 @@ import static java.sql.JDBCType.CHAR;
 import static java.sql.JDBCType.FLOAT;
 import static java.sql.JDBCType.INTEGER;
 import static java.sql.JDBCType.REAL;
+import static java.sql.JDBCType.SMALLINT;
+import static java.sql.JDBCType.TIMESTAMP;
 import static java.sql.JDBCType.VARCHAR;
 
 import com.breskul.bibernate.annotation.Column;
@@ -15,6 +17,7 @@ import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.sql.JDBCType;
+import java.sql.Timestamp;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -45,6 +48,8 @@ public class CommonSQLTypesConverter {
     tempMap.put(long.class.getName(), new LongColumnHandler());
     tempMap.put(Integer.class.getName(), new IntConverter());
     tempMap.put(int.class.getName(), new IntConverter());
+    tempMap.put(Short.class.getName(), new ShortConverter());
+    tempMap.put(short.class.getName(), new ShortConverter());
     tempMap.put(boolean.class.getName(), new BooleanConverter());
     tempMap.put(Boolean.class.getName(), new BooleanConverter());
     tempMap.put(Float.class.getName(), new FloatDefinitionHandler());
@@ -57,6 +62,7 @@ public class CommonSQLTypesConverter {
     tempMap.put(byte[].class.getName(), new ByteArrayConverter());
     tempMap.put(BigDecimal.class.getName(), new NumericHandler());
     tempMap.put(BigInteger.class.getName(), new NumericHandler());
+    tempMap.put(Timestamp.class.getName(), new TimestampConverter());
 
     columnHandlers = tempMap;
   }
@@ -116,6 +122,22 @@ public class CommonSQLTypesConverter {
     }
   }
 
+  static class ShortConverter implements ColumnDefinitionHandler {
+
+    @Override
+    public DataType resolveDataType(Field field) {
+      return new DataType(SMALLINT.getName());
+    }
+  }
+
+  static class TimestampConverter implements ColumnDefinitionHandler {
+
+    @Override
+    public DataType resolveDataType(Field field) {
+      return new DataType(TIMESTAMP.getName());
+    }
+  }
+
   static class CharacterConverter implements ColumnDefinitionHandler {
 
     @Override
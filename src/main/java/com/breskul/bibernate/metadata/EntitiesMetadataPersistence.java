@@ -6,11 +6,16 @@ import static com.breskul.bibernate.util.EntityUtil.getEntityTableName;
 import static com.breskul.bibernate.util.EntityUtil.resolveColumnName;
 
 import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.Index;
 import com.breskul.bibernate.annotation.ManyToOne;
 import com.breskul.bibernate.annotation.OneToOne;
+import com.breskul.bibernate.exception.EntityParseException;
 import com.breskul.bibernate.metadata.dto.ForeignKey;
+import com.breskul.bibernate.metadata.dto.JoinTableMapping;
+import com.breskul.bibernate.metadata.dto.TableIndex;
 import com.breskul.bibernate.util.EntityUtil;
 import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -19,7 +24,6 @@ import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.UUID;
 import java.util.function.Supplier;
 
 
@@ -29,6 +33,8 @@ import java.util.function.Supplier;
  */
 public class EntitiesMetadataPersistence {
 
+  private static final int MAX_CONSTRAINT_NAME_LENGTH = 63;
+
   private final Map<String, Table> tables = new HashMap<>();
 
   private final Supplier<Set<Class<?>>> entitiesSupplier;
@@ -87,11 +93,64 @@ public class EntitiesMetadataPersistence {
       GeneratedColumnsData columnsData = generatedColumnsData(entity);
       table.setColumns(columnsData.columns());
       columnsData.foreignKeys().forEach(table::addForeignKey);
+      generateIndexes(entity, table).forEach(table::addIndex);
       tables.put(tableName, table);
     }
+    for (Class<?> entity : entities) {
+      for (Field field : EntityUtil.getOwningManyToManyFields(entity)) {
+        Table joinTable = generateJoinTable(field, tables.get(getEntityTableName(entity)));
+        tables.put(joinTable.getName(), joinTable);
+      }
+    }
     return this;
   }
 
+  /**
+   * Generates the join table of an owning many-to-many association in the schema of the owner table. The table has a not null column
+   * referencing each side, a unique index over both columns, which is also used to find the rows of an owner, and an index of the column
+   * referencing the inverse side.
+   */
+  private Table generateJoinTable(Field field, Table ownerTable) {
+    JoinTableMapping mapping = EntityUtil.getJoinTableMapping(field);
+    Class<?> elementType = EntityUtil.getEntityCollectionElementType(field);
+    Table table = new Table();
+    table.setName(mapping.tableName());
+    table.setSchema(ownerTable.getSchema());
+    table.setCatalog(ownerTable.getCatalog());
+    setTableFullName(table);
+
+    Map<String, Column> columns = new LinkedHashMap<>();
+    Column joinColumn = generateJoinTableColumn(field.getDeclaringClass(), mapping.joinColumnName());
+    Column inverseJoinColumn = generateJoinTableColumn(elementType, mapping.inverseJoinColumnName());
+    columns.put(joinColumn.getName(), joinColumn);
+    columns.put(inverseJoinColumn.getName(), inverseJoinColumn);
+    table.setColumns(columns);
+
+    table.addForeignKey(new ForeignKey(mapping.tableName(), mapping.joinColumnName(),
+        getEntityTableName(field.getDeclaringClass()),
+        generateForeignKeyName(mapping.tableName(), mapping.joinColumnName())));
+    table.addForeignKey(new ForeignKey(mapping.tableName(), mapping.inverseJoinColumnName(),
+        getEntityTableName(elementType),
+        generateForeignKeyName(mapping.tableName(), mapping.inverseJoinColumnName())));
+
+    List<String> rowColumns = List.of(mapping.joinColumnName(), mapping.inverseJoinColumnName());
+    table.addIndex(new TableIndex(mapping.tableName(), generateIndexName(mapping.tableName(), rowColumns),
+        rowColumns, true));
+    table.addIndex(new TableIndex(mapping.tableName(),
+        generateIndexName(mapping.tableName(), List.of(mapping.inverseJoinColumnName())),
+        List.of(mapping.inverseJoinColumnName()), false));
+    return table;
+  }
+
+  private Column generateJoinTableColumn(Class<?> referencedEntity, String columnName) {
+    Column column = createColumn(EntityUtil.findEntityIdField(referencedEntity));
+    column.setName(columnName);
+    column.setNullable(false);
+    column.setUnique(false);
+    column.setPrimaryKey(false);
+    return column;
+  }
+
 
   private void setTableFullName(Table table) {
     String fullName = "";
@@ -169,8 +228,73 @@ public class EntitiesMetadataPersistence {
     String tableName = getEntityTableName(cls);
     String fieldName = resolveColumnName(field);
     String relatedTableName = getEntityTableName(field.getType());
-    String constraintId = "FK" + UUID.randomUUID().toString().replace("-", "");
-    return new ForeignKey(tableName, fieldName, relatedTableName, constraintId);
+    return new ForeignKey(tableName, fieldName, relatedTableName,
+        generateForeignKeyName(tableName, fieldName));
+  }
+
+  /**
+   * Generates indexes declared in the 'Table' annotation and indexes of the foreign key columns. A join column is not indexed again when
+   * it is unique or is the first column of a declared index, because the database can already use that index.
+   */
+  private List<TableIndex> generateIndexes(Class<?> entity, Table table) {
+    List<TableIndex> indexes = new ArrayList<>();
+    var tableAnnotation = entity.getAnnotation(com.breskul.bibernate.annotation.Table.class);
+    if (tableAnnotation != null) {
+      for (Index index : tableAnnotation.indexes()) {
+        List<String> columnNames = Arrays.stream(index.columnList().split(","))
+            .map(String::trim)
+            .filter(columnName -> !columnName.isEmpty())
+            .toList();
+        validateIndexColumns(entity, table, columnNames);
+        String indexName = index.name().isBlank()
+            ? generateIndexName(table.getName(), columnNames)
+            : index.name();
+        indexes.add(new TableIndex(table.getName(), indexName, columnNames, index.unique()));
+      }
+    }
+    for (ForeignKey foreignKey : table.getForeignKeys()) {
+      String columnName = foreignKey.getFieldName();
+      boolean alreadyIndexed = table.getColumn(columnName).isUnique() || indexes.stream()
+          .anyMatch(index -> index.getColumnNames().get(0).equals(columnName));
+      if (!alreadyIndexed) {
+        indexes.add(new TableIndex(table.getName(),
+            generateIndexName(table.getName(), List.of(columnName)), List.of(columnName), false));
+      }
+    }
+    return indexes;
+  }
+
+  private void validateIndexColumns(Class<?> entity, Table table, List<String> columnNames) {
+    if (columnNames.isEmpty()) {
+      throw new EntityParseException("Index of entity %s should define at least one column"
+          .formatted(entity.getName()));
+    }
+    for (String columnName : columnNames) {
+      if (table.getColumn(columnName) == null) {
+        throw new EntityParseException("Index column %s is not a column of entity %s"
+            .formatted(columnName, entity.getName()));
+      }
+    }
+  }
+
+  private String generateIndexName(String tableName, List<String> columnNames) {
+    return limitIdentifierLength("IDX_%s_%s".formatted(tableName, String.join("_", columnNames)),
+        "IDX");
+  }
+
+  /**
+   * Generates the foreign key constraint name from the table and column names, so the same mapping always produces the same name. Names
+   * longer than the identifier length supported by all databases are replaced with a name built from a hash of the full name.
+   */
+  private String generateForeignKeyName(String tableName, String columnName) {
+    return limitIdentifierLength("FK_%s_%s".formatted(tableName, columnName), "FK");
+  }
+
+  private String limitIdentifierLength(String identifier, String hashPrefix) {
+    if (identifier.length() <= MAX_CONSTRAINT_NAME_LENGTH) {
+      return identifier;
+    }
+    return "%s%08x".formatted(hashPrefix, identifier.hashCode());
   }
 
   private Column createColumn(Field field) {
@@ -0,0 +1,66 @@
+package com.breskul.bibernate.metadata;
+
+import com.breskul.bibernate.config.LoggerFactory;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Optional;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import java.util.Set;
+import lombok.experimental.UtilityClass;
+import org.slf4j.Logger;
+
+/**
+ * Registry of the entity metadata generated at compile time. The generated metadata classes are loaded once, on the first lookup. Entities
+ * without generated metadata, for example private nested classes or classes compiled without the annotation processor, are resolved with
+ * reflection by the callers.
+ */
+@UtilityClass
+public class EntityMetadataRegistry {
+
+  private static final Logger log = LoggerFactory.getLogger(EntityMetadataRegistry.class);
+
+  /**
+   * Finds the generated metadata of the entity class.
+   *
+   * @param entityClass the entity class
+   * @return the generated metadata, or empty optional if the entity has no generated metadata
+   */
+  public static Optional<GeneratedEntityMetadata> find(Class<?> entityClass) {
+    return Optional.ofNullable(Holder.METADATA.get(entityClass));
+  }
+
+  /**
+   * Returns the entity classes with generated metadata.
+   *
+   * @return the entity classes, an empty set if no metadata was generated
+   */
+  public static Set<Class<?>> getEntityClasses() {
+    return Holder.METADATA.keySet();
+  }
+
+  private static Map<Class<?>, GeneratedEntityMetadata> loadMetadata() {
+    Map<Class<?>, GeneratedEntityMetadata> metadata = new HashMap<>();
+    Iterator<GeneratedEntityMetadata> iterator =
+        ServiceLoader.load(GeneratedEntityMetadata.class).iterator();
+    while (true) {
+      try {
+        if (!iterator.hasNext()) {
+          break;
+        }
+        GeneratedEntityMetadata entityMetadata = iterator.next();
+        metadata.put(entityMetadata.getEntityClass(), entityMetadata);
+      } catch (ServiceConfigurationError e) {
+        log.warn("Skipping generated entity metadata which could not be loaded", e);
+      }
+    }
+    log.debug("Loaded generated metadata for {} entities", metadata.size());
+    return Map.copyOf(metadata);
+  }
+
+  private static class Holder {
+
+    private static final Map<Class<?>, GeneratedEntityMetadata> METADATA = loadMetadata();
+  }
+}
@@ -0,0 +1,70 @@
+package com.breskul.bibernate.metadata;
+
+import com.breskul.bibernate.metadata.dto.RelationMetadata;
+import java.util.List;
+
+/**
+ * Mapping metadata of a single entity generated at compile time by
+ * {@link com.breskul.bibernate.metadata.processor.EntityMetadataProcessor}. Implementations are registered as {@link java.util.ServiceLoader}
+ * providers and looked up through {@link EntityMetadataRegistry}, so the table and column names, the id and the relations are not derived
+ * from the entity annotations with reflection at runtime.
+ */
+public interface GeneratedEntityMetadata {
+
+  /**
+   * Returns the entity class described by this metadata.
+   *
+   * @return the entity class
+   */
+  Class<?> getEntityClass();
+
+  /**
+   * Returns the name of the entity table.
+   *
+   * @return the table name
+   */
+  String getTableName();
+
+  /**
+   * Returns the name of the field marked with the 'Id' annotation.
+   *
+   * @return the id field name
+   */
+  String getIdFieldName();
+
+  /**
+   * Returns the name of the id column.
+   *
+   * @return the id column name
+   */
+  String getIdColumnName();
+
+  /**
+   * Reads the id of the entity through a generated accessor, without looking up the 'Id' field.
+   *
+   * @param entity the entity instance of {@link #getEntityClass()}
+   * @return the entity id
+   */
+  Object getId(Object entity);
+
+  /**
+   * Returns the names of the entity columns, including join columns of 'toOne' relations, in field declaration order.
+   *
+   * @return the column names
+   */
+  List<String> getColumnNames();
+
+  /**
+   * Returns the column list used in the SELECT block of the entity queries.
+   *
+   * @return the comma separated column names
+   */
+  String getSelectColumns();
+
+  /**
+   * Returns the relation fields of the entity, in field declaration order.
+   *
+   * @return the relation descriptors
+   */
+  List<RelationMetadata> getRelations();
+}
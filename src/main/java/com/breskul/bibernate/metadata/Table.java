@@ -1,6 +1,7 @@
 package com.breskul.bibernate.metadata;
 
 import com.breskul.bibernate.metadata.dto.ForeignKey;
+import com.breskul.bibernate.metadata.dto.TableIndex;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.Map;
@@ -16,6 +17,7 @@ public class Table {
   private String name;
   private String fullName;
   private Map<String, ForeignKey> foreignKeys = new LinkedHashMap<>();
+  private Map<String, TableIndex> indexes = new LinkedHashMap<>();
   /**
    * contains all columns, including the primary key
    */
@@ -69,6 +71,34 @@ public class Table {
     return new LinkedHashSet<>(foreignKeys.values());
   }
 
+  /**
+   * Adds a {@code TableIndex} to the table.
+   *
+   * @param index the index to be added
+   */
+  public void addIndex(TableIndex index) {
+    indexes.put(index.getIndexName(), index);
+  }
+
+  /**
+   * Retrieves the {@code TableIndex} object by index name.
+   *
+   * @param indexName the name of the index
+   * @return the {@code TableIndex} object with the given name, null if no match is found
+   */
+  public TableIndex getIndex(String indexName) {
+    return indexes.get(indexName);
+  }
+
+  /**
+   * Returns the set of indexes of the table, both declared and generated for join columns.
+   *
+   * @return the set of indexes
+   */
+  public Set<TableIndex> getIndexes() {
+    return new LinkedHashSet<>(indexes.values());
+  }
+
   public String getCatalog() {
     return catalog;
   }
@@ -0,0 +1,13 @@
+package com.breskul.bibernate.metadata.dto;
+
+/**
+ * Join table of a many-to-many association seen from one of its sides.
+ *
+ * @param tableName             the name of the join table
+ * @param joinColumnName        the column referencing the entity declaring the association field
+ * @param inverseJoinColumnName the column referencing the elements of the association
+ * @param owning                whether the association field is the owning side, which writes the join table rows
+ */
+public record JoinTableMapping(String tableName, String joinColumnName, String inverseJoinColumnName, boolean owning) {
+
+}
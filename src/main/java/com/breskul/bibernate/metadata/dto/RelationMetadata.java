@@ -0,0 +1,27 @@
+package com.breskul.bibernate.metadata.dto;
+
+import com.breskul.bibernate.annotation.FetchType;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.OneToOne;
+import java.lang.annotation.Annotation;
+
+/**
+ * Relation field of an entity described by the entity metadata generated at compile time.
+ *
+ * @param fieldName      the name of the relation field
+ * @param relationType   the relation annotation of the field, one of 'ManyToOne', 'OneToOne', 'OneToMany' and 'ManyToMany'
+ * @param targetEntity   the related entity class, the element type for a collection
+ * @param joinColumnName the join column of a 'toOne' relation owned by the entity, null otherwise
+ * @param mappedBy       the field owning the relation on the other side, empty for an owning side
+ * @param fetchType      the mapped fetch type
+ */
+public record RelationMetadata(String fieldName, Class<? extends Annotation> relationType, Class<?> targetEntity,
+                               String joinColumnName, String mappedBy, FetchType fetchType) {
+
+  /**
+   * @return whether the relation is a 'toOne' relation whose join column is in the entity table
+   */
+  public boolean isToOne() {
+    return relationType == ManyToOne.class || (relationType == OneToOne.class && mappedBy.isEmpty());
+  }
+}
@@ -0,0 +1,30 @@
+package com.breskul.bibernate.metadata.dto;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+
+@AllArgsConstructor
+public class TableIndex {
+
+  private String tableName;
+  private String indexName;
+  private List<String> columnNames;
+  private boolean unique;
+
+  public String getTableName() {
+    return tableName;
+  }
+
+  public String getIndexName() {
+    return indexName;
+  }
+
+  public List<String> getColumnNames() {
+    return columnNames;
+  }
+
+  public boolean isUnique() {
+    return unique;
+  }
+
+}
@@ -0,0 +1,340 @@
+package com.breskul.bibernate.metadata.processor;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.FetchType;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.JoinColumn;
+import com.breskul.bibernate.annotation.ManyToMany;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.OneToMany;
+import com.breskul.bibernate.annotation.OneToOne;
+import com.breskul.bibernate.annotation.Table;
+import com.breskul.bibernate.metadata.GeneratedEntityMetadata;
+import com.breskul.bibernate.metadata.dto.RelationMetadata;
+import com.breskul.bibernate.util.NamingUtil;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.io.Writer;
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.NestingKind;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Annotation processor which generates a {@link GeneratedEntityMetadata} implementation for every class marked with the 'Entity'
+ * annotation and registers it as a {@link java.util.ServiceLoader} provider. The table and column names are resolved with the
+ * {@link NamingUtil} rules also used at runtime. The id is read through a {@link VarHandle} looked up once, when the metadata class is
+ * initialized.
+ * <p>
+ * Metadata is not generated for entities which can not be referenced from their package, like private nested classes, for entities
+ * without exactly one 'Id' field and for entities with a raw relation collection. Such entities are resolved with reflection at runtime.
+ */
+@SupportedAnnotationTypes("com.breskul.bibernate.annotation.Entity")
+public class EntityMetadataProcessor extends AbstractProcessor {
+
+  static final String METADATA_CLASS_SUFFIX = "_BibernateMetadata";
+  private static final String SERVICE_FILE =
+      "META-INF/services/" + GeneratedEntityMetadata.class.getName();
+
+  private final Set<String> generatedClassNames = new LinkedHashSet<>();
+
+  @Override
+  public SourceVersion getSupportedSourceVersion() {
+    return SourceVersion.latestSupported();
+  }
+
+  @Override
+  public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv) {
+    if (roundEnv.processingOver()) {
+      writeServiceFile();
+      return false;
+    }
+    for (TypeElement entity : ElementFilter.typesIn(roundEnv.getElementsAnnotatedWith(Entity.class))) {
+      if (!isAccessibleFromPackage(entity)) {
+        note(entity, "metadata is not generated for not accessible entity class");
+        continue;
+      }
+      List<VariableElement> columnFields = ElementFilter.fieldsIn(entity.getEnclosedElements()).stream()
+          .filter(EntityMetadataProcessor::isColumnField)
+          .toList();
+      List<VariableElement> idFields = columnFields.stream()
+          .filter(field -> field.getAnnotation(Id.class) != null)
+          .toList();
+      if (idFields.size() != 1) {
+        note(entity, "metadata is not generated for entity without single 'Id' field");
+        continue;
+      }
+      List<String> relations = relationLiterals(entity);
+      if (relations == null) {
+        note(entity, "metadata is not generated for entity with raw relation collection");
+        continue;
+      }
+      generateMetadataClass(entity, columnFields, idFields.get(0), relations);
+    }
+    return false;
+  }
+
+  /**
+   * @return the relation descriptors of the entity fields, or null if the element type of a relation collection is unknown
+   */
+  private List<String> relationLiterals(TypeElement entity) {
+    List<String> relations = new ArrayList<>();
+    for (VariableElement field : ElementFilter.fieldsIn(entity.getEnclosedElements())) {
+      String relation = relationLiteral(field);
+      if (relation == null) {
+        return null;
+      }
+      if (!relation.isEmpty()) {
+        relations.add(relation);
+      }
+    }
+    return relations;
+  }
+
+  private void generateMetadataClass(TypeElement entity, List<VariableElement> columnFields,
+      VariableElement idField, List<String> relations) {
+    String packageName = processingEnv.getElementUtils().getPackageOf(entity).getQualifiedName()
+        .toString();
+    String simpleName = metadataSimpleName(entity);
+    String qualifiedName = packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    List<String> columnNames = columnFields.stream()
+        .map(EntityMetadataProcessor::resolveColumnName)
+        .toList();
+    String columnNamesLiteral = columnNames.stream()
+        .map(EntityMetadataProcessor::literal)
+        .collect(Collectors.joining(", "));
+    String entityClassLiteral = entity.getQualifiedName() + ".class";
+
+    try (PrintWriter out = new PrintWriter(
+        processingEnv.getFiler().createSourceFile(qualifiedName, entity).openWriter())) {
+      if (!packageName.isEmpty()) {
+        out.println("package " + packageName + ";");
+        out.println();
+      }
+      out.println("@javax.annotation.processing.Generated(\"" + getClass().getName() + "\")");
+      out.println("public final class " + simpleName + " implements "
+          + GeneratedEntityMetadata.class.getName() + " {");
+      out.println();
+      out.println("  private static final java.util.List<String> COLUMN_NAMES = java.util.List.of("
+          + columnNamesLiteral + ");");
+      out.println("  private static final java.util.List<" + RelationMetadata.class.getName()
+          + "> RELATIONS = java.util.List.of(" + String.join(",", relations) + ");");
+      out.println("  private static final " + VarHandle.class.getName() + " ID = findIdHandle();");
+      printGetter(out, "Class<?>", "getEntityClass", entityClassLiteral);
+      printGetter(out, "String", "getTableName", literal(NamingUtil.resolveTableName(
+          entity.getAnnotation(Table.class), entity.getSimpleName().toString())));
+      printGetter(out, "String", "getIdFieldName", literal(idField.getSimpleName().toString()));
+      printGetter(out, "String", "getIdColumnName", literal(resolveColumnName(idField)));
+      printGetter(out, "java.util.List<String>", "getColumnNames", "COLUMN_NAMES");
+      printGetter(out, "String", "getSelectColumns", literal(String.join(", ", columnNames)));
+      printGetter(out, "java.util.List<" + RelationMetadata.class.getName() + ">", "getRelations",
+          "RELATIONS");
+      out.println();
+      out.println("  @Override");
+      out.println("  public Object getId(Object entity) {");
+      out.println("    return ID.get((" + entity.getQualifiedName() + ") entity);");
+      out.println("  }");
+      out.println();
+      out.println("  private static " + VarHandle.class.getName() + " findIdHandle() {");
+      out.println("    try {");
+      out.println("      return " + MethodHandles.class.getName() + ".privateLookupIn(" + entityClassLiteral
+          + ", " + MethodHandles.class.getName() + ".lookup())");
+      out.println("          .findVarHandle(" + entityClassLiteral + ", "
+          + literal(idField.getSimpleName().toString()) + ", " + classLiteral(idField.asType()) + ");");
+      out.println("    } catch (ReflectiveOperationException e) {");
+      out.println("      throw new ExceptionInInitializerError(e);");
+      out.println("    }");
+      out.println("  }");
+      out.println("}");
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR,
+          "Could not generate Bibernate metadata: " + e.getMessage(), entity);
+      return;
+    }
+    generatedClassNames.add(qualifiedName);
+  }
+
+  private static void printGetter(PrintWriter out, String type, String name, String value) {
+    out.println();
+    out.println("  @Override");
+    out.println("  public " + type + " " + name + "() {");
+    out.println("    return " + value + ";");
+    out.println("  }");
+  }
+
+  private void writeServiceFile() {
+    Set<String> providers = new LinkedHashSet<>(readExistingProviders());
+    providers.addAll(generatedClassNames);
+    if (providers.isEmpty()) {
+      return;
+    }
+    try {
+      FileObject file = processingEnv.getFiler()
+          .createResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (Writer writer = file.openWriter()) {
+        for (String provider : providers) {
+          writer.write(provider);
+          writer.write(System.lineSeparator());
+        }
+      }
+    } catch (IOException e) {
+      processingEnv.getMessager().printMessage(Kind.ERROR,
+          "Could not register Bibernate metadata: " + e.getMessage());
+    }
+  }
+
+  /**
+   * Reads providers registered by a previous, possibly incremental, compilation which still exist.
+   */
+  private Set<String> readExistingProviders() {
+    Set<String> providers = new LinkedHashSet<>();
+    try {
+      FileObject file = processingEnv.getFiler()
+          .getResource(StandardLocation.CLASS_OUTPUT, "", SERVICE_FILE);
+      try (BufferedReader reader = new BufferedReader(
+          new InputStreamReader(file.openInputStream(), StandardCharsets.UTF_8))) {
+        reader.lines()
+            .map(String::trim)
+            .filter(line -> !line.isEmpty())
+            .filter(line -> processingEnv.getElementUtils().getTypeElement(line) != null)
+            .forEach(providers::add);
+      }
+    } catch (IOException | IllegalArgumentException e) {
+      // no providers were registered before
+    }
+    return providers;
+  }
+
+  private static boolean isAccessibleFromPackage(TypeElement entity) {
+    if (entity.getNestingKind() == NestingKind.LOCAL
+        || entity.getNestingKind() == NestingKind.ANONYMOUS) {
+      return false;
+    }
+    Element element = entity;
+    while (!(element instanceof PackageElement)) {
+      if (element.getModifiers().contains(Modifier.PRIVATE)) {
+        return false;
+      }
+      if (element instanceof TypeElement type && type.getNestingKind() == NestingKind.MEMBER
+          && !type.getModifiers().contains(Modifier.STATIC)
+          && type.getEnclosingElement().getKind() == ElementKind.CLASS) {
+        return false;
+      }
+      element = element.getEnclosingElement();
+    }
+    return true;
+  }
+
+  private static String metadataSimpleName(TypeElement entity) {
+    StringBuilder name = new StringBuilder(entity.getSimpleName());
+    Element enclosing = entity.getEnclosingElement();
+    while (enclosing instanceof TypeElement type) {
+      name.insert(0, type.getSimpleName() + "_");
+      enclosing = type.getEnclosingElement();
+    }
+    return name.append(METADATA_CLASS_SUFFIX).toString();
+  }
+
+  private static boolean isColumnField(VariableElement field) {
+    if (field.getAnnotation(OneToMany.class) != null
+        || field.getAnnotation(ManyToMany.class) != null) {
+      return false;
+    }
+    if (field.getAnnotation(OneToOne.class) != null || field.getAnnotation(ManyToOne.class) != null) {
+      return isToOneRelation(field);
+    }
+    return true;
+  }
+
+  private static boolean isToOneRelation(VariableElement field) {
+    if (field.getAnnotation(ManyToOne.class) != null) {
+      return true;
+    }
+    OneToOne oneToOne = field.getAnnotation(OneToOne.class);
+    return oneToOne != null && oneToOne.mappedBy().isEmpty();
+  }
+
+  private static String resolveColumnName(VariableElement field) {
+    return NamingUtil.resolveColumnName(field.getSimpleName().toString(), field.getAnnotation(Column.class),
+        field.getAnnotation(JoinColumn.class),
+        field.getAnnotation(OneToOne.class) != null || field.getAnnotation(ManyToOne.class) != null);
+  }
+
+  /**
+   * Renders the {@link RelationMetadata} constructor call describing the relation field.
+   *
+   * @return the constructor call, an empty string if the field is not a relation, or null if the element type of a relation collection is
+   * unknown
+   */
+  private String relationLiteral(VariableElement field) {
+    ManyToOne manyToOne = field.getAnnotation(ManyToOne.class);
+    OneToOne oneToOne = field.getAnnotation(OneToOne.class);
+    OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+    ManyToMany manyToMany = field.getAnnotation(ManyToMany.class);
+    if (manyToOne != null) {
+      return relationLiteral(field, ManyToOne.class, field.asType(), resolveColumnName(field), "",
+          manyToOne.fetch().name());
+    }
+    if (oneToOne != null) {
+      return relationLiteral(field, OneToOne.class, field.asType(),
+          isToOneRelation(field) ? resolveColumnName(field) : null, oneToOne.mappedBy(), oneToOne.fetch().name());
+    }
+    if (oneToMany == null && manyToMany == null) {
+      return "";
+    }
+    List<? extends TypeMirror> typeArguments = field.asType() instanceof DeclaredType type
+        ? type.getTypeArguments() : List.of();
+    if (typeArguments.size() != 1) {
+      return null;
+    }
+    return oneToMany != null
+        ? relationLiteral(field, OneToMany.class, typeArguments.get(0), null, "", oneToMany.fetch().name())
+        : relationLiteral(field, ManyToMany.class, typeArguments.get(0), null, manyToMany.mappedBy(),
+            manyToMany.fetch().name());
+  }
+
+  private String relationLiteral(VariableElement field, Class<? extends Annotation> relationType,
+      TypeMirror targetEntity, String joinColumnName, String mappedBy, String fetchType) {
+    return "%n      new %s(%s, %s.class, %s, %s, %s, %s.%s)".formatted(RelationMetadata.class.getName(),
+        literal(field.getSimpleName().toString()), relationType.getName(), classLiteral(targetEntity),
+        joinColumnName == null ? "null" : literal(joinColumnName), literal(mappedBy),
+        FetchType.class.getName(), fetchType);
+  }
+
+  private String classLiteral(TypeMirror type) {
+    return processingEnv.getTypeUtils().erasure(type) + ".class";
+  }
+
+  private static String literal(String value) {
+    return "\"" + value.replace("\\", "\\\\").replace("\"", "\\\"") + "\"";
+  }
+
+  private void note(TypeElement entity, String message) {
+    processingEnv.getMessager().printMessage(Kind.NOTE, "Bibernate: " + message, entity);
+  }
+}
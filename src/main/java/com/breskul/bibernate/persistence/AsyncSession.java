@@ -0,0 +1,146 @@
+package com.breskul.bibernate.persistence;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Asynchronous facade of a {@link Session}. Every operation runs on the executor of the async session and returns a
+ * {@link CompletableFuture}, so the calling thread is not blocked by JDBC I/O.
+ * <p>
+ * A session is not thread-safe, therefore the operations of one async session are executed one after another in the order they were
+ * submitted, each of them may run on a different executor thread. A failed operation completes its own future exceptionally and does not
+ * cancel the following ones. The session and its connection are opened on the executor by the first operation.
+ * <p>
+ * By default the operations run on virtual threads when the JVM supports them. Bibernate itself does not hold monitors during JDBC calls,
+ * but a connection pool or driver may do so; c3p0, for example, synchronizes its checkout, which pins the carrier thread of a virtual thread.
+ * <p>
+ * An open async session holds its connection until it is closed. With a bounded executor, tasks opening new sessions can occupy all
+ * threads while they wait for a connection, so the tasks closing the sessions which hold the connections never run. Use a bounded executor
+ * only if the number of async sessions open at the same time is limited.
+ * <pre>{@code
+ * try (AsyncSession session = sessionFactory.openAsyncSession()) {
+ *   CompletableFuture<Person> person = session.findById(Person.class, 1L);
+ *   CompletableFuture<List<Note>> notes = session.executeBiQLQuery("from Note", Note.class);
+ * }
+ * }</pre>
+ */
+public class AsyncSession implements AutoCloseable {
+
+  private final Executor executor;
+  private final CompletableFuture<Session> session;
+  private final ReentrantLock submitLock = new ReentrantLock();
+  private CompletableFuture<?> lastOperation;
+
+  AsyncSession(Supplier<Session> sessionSupplier, Executor executor) {
+    this.executor = executor;
+    this.session = CompletableFuture.supplyAsync(sessionSupplier, executor);
+    this.lastOperation = session;
+  }
+
+  /**
+   * Asynchronous version of {@link Session#findById(Class, Object)}.
+   *
+   * @param entityClass the entity class
+   * @param id          the entity identifier
+   * @param <T>         the entity type
+   * @return the future of the found entity
+   */
+  public <T> CompletableFuture<T> findById(Class<T> entityClass, Object id) {
+    return execute(session -> session.findById(entityClass, id));
+  }
+
+  /**
+   * Asynchronous version of {@link Session#executeNativeQuery(String, Class)}.
+   *
+   * @param sqlString   the native SQL query
+   * @param resultClass the entity class of the result
+   * @param <T>         the entity type
+   * @return the future of the found entities
+   */
+  public <T> CompletableFuture<List<T>> executeNativeQuery(String sqlString, Class<T> resultClass) {
+    return execute(session -> session.executeNativeQuery(sqlString, resultClass));
+  }
+
+  /**
+   * Asynchronous version of {@link Session#executeBiQLQuery(String, Class)}.
+   *
+   * @param bglString   the BiQL query
+   * @param resultClass the entity class of the result
+   * @param <T>         the entity type
+   * @return the future of the found entities
+   */
+  public <T> CompletableFuture<List<T>> executeBiQLQuery(String bglString, Class<T> resultClass) {
+    return execute(session -> session.executeBiQLQuery(bglString, resultClass));
+  }
+
+  /**
+   * Asynchronous version of {@link Session#persist(Object)}.
+   *
+   * @param entity the entity to persist
+   * @param <T>    the entity type
+   * @return the future completed when the entity is persisted
+   */
+  public <T> CompletableFuture<Void> persist(T entity) {
+    return execute(session -> {
+      session.persist(entity);
+      return null;
+    });
+  }
+
+  /**
+   * Asynchronous version of {@link Session#flush()}.
+   *
+   * @return the future completed when the session is flushed
+   */
+  public CompletableFuture<Void> flush() {
+    return execute(session -> {
+      session.flush();
+      return null;
+    });
+  }
+
+  /**
+   * Runs the given work with the underlying session after all previously submitted operations. Use it for operations without an
+   * asynchronous counterpart, for example a transaction.
+   *
+   * @param work the work which uses the session
+   * @param <R>  the result type
+   * @return the future of the work result
+   */
+  public <R> CompletableFuture<R> execute(Function<Session, R> work) {
+    submitLock.lock();
+    try {
+      CompletableFuture<R> result = lastOperation
+          .handle((ignoredResult, ignoredError) -> null)
+          .thenComposeAsync(ignored -> session.thenApply(work), executor);
+      lastOperation = result;
+      return result;
+    } finally {
+      submitLock.unlock();
+    }
+  }
+
+  /**
+   * Closes the session after all previously submitted operations.
+   *
+   * @return the future completed when the session is closed
+   */
+  public CompletableFuture<Void> closeAsync() {
+    return execute(session -> {
+      session.close();
+      return null;
+    });
+  }
+
+  /**
+   * Closes the session after all previously submitted operations and waits until it is closed.
+   */
+  @Override
+  public void close() {
+    closeAsync().exceptionally(error -> null).join();
+  }
+}
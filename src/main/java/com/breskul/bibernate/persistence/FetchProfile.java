@@ -0,0 +1,128 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.annotation.FetchType;
+import com.breskul.bibernate.annotation.ManyToMany;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.OneToMany;
+import com.breskul.bibernate.annotation.OneToOne;
+import com.breskul.bibernate.exception.AssociationException;
+import java.lang.reflect.Field;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Named fetch plan which overrides the {@code fetch} attribute of association mappings for a single call of
+ * {@link Session#findById(Class, Object, FetchProfile)}, {@link Session#executeNativeQuery(String, Class, FetchProfile)} or
+ * {@link Session#executeBiQLQuery(String, Class, FetchProfile)}. Associations which are not mentioned in the profile keep their mapped fetch
+ * type.
+ * <p>
+ * A profile is immutable, each {@code eager}/{@code lazy} call returns a new profile, so the same instance can be kept in a constant and
+ * reused across sessions and threads. One-to-many collections switched to eager by a profile are loaded for all entities of the query
+ * result with a single {@code IN} query instead of one query per entity, many-to-many collections are loaded with one joined query per
+ * entity.
+ * <pre>{@code
+ * FetchProfile PERSON_WITH_NOTES = FetchProfile.named("person-with-notes")
+ *     .eager(Person.class, "notes");
+ * List<Person> persons = session.executeBiQLQuery("from Person", Person.class, PERSON_WITH_NOTES);
+ * }</pre>
+ */
+public final class FetchProfile {
+
+  private final String name;
+  private final Map<Field, FetchType> fetchTypes;
+
+  private FetchProfile(String name, Map<Field, FetchType> fetchTypes) {
+    this.name = name;
+    this.fetchTypes = fetchTypes;
+  }
+
+  /**
+   * Creates an empty profile with the given name.
+   *
+   * @param name the profile name
+   * @return the profile without overrides
+   */
+  public static FetchProfile named(String name) {
+    Objects.requireNonNull(name, "Fetch profile name should not be null.");
+    return new FetchProfile(name, Map.of());
+  }
+
+  /**
+   * Returns a copy of this profile in which the given association is loaded eagerly.
+   *
+   * @param entityClass the entity class declaring the association
+   * @param fieldName   the association field name
+   * @return the new profile
+   * @throws AssociationException if the entity class has no such association field
+   */
+  public FetchProfile eager(Class<?> entityClass, String fieldName) {
+    return with(entityClass, fieldName, FetchType.EAGER);
+  }
+
+  /**
+   * Returns a copy of this profile in which the given association is loaded lazily.
+   *
+   * @param entityClass the entity class declaring the association
+   * @param fieldName   the association field name
+   * @return the new profile
+   * @throws AssociationException if the entity class has no such association field
+   */
+  public FetchProfile lazy(Class<?> entityClass, String fieldName) {
+    return with(entityClass, fieldName, FetchType.LAZY);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * Resolves the fetch type of the association field.
+   *
+   * @param field            the association field
+   * @param mappedFetchType  the fetch type from the association mapping
+   * @return the fetch type overridden by this profile, or the mapped one
+   */
+  FetchType getFetchType(Field field, FetchType mappedFetchType) {
+    return fetchTypes.getOrDefault(field, mappedFetchType);
+  }
+
+  /**
+   * Checks whether this profile switches the association field to eager loading.
+   *
+   * @param field the association field
+   * @return true if the profile overrides the field to be loaded eagerly
+   */
+  boolean isEager(Field field) {
+    return fetchTypes.get(field) == FetchType.EAGER;
+  }
+
+  private FetchProfile with(Class<?> entityClass, String fieldName, FetchType fetchType) {
+    Field field = findAssociationField(entityClass, fieldName);
+    Map<Field, FetchType> newFetchTypes = new HashMap<>(fetchTypes);
+    newFetchTypes.put(field, fetchType);
+    return new FetchProfile(name, Map.copyOf(newFetchTypes));
+  }
+
+  private static Field findAssociationField(Class<?> entityClass, String fieldName) {
+    try {
+      Field field = entityClass.getDeclaredField(fieldName);
+      if (!field.isAnnotationPresent(OneToMany.class)
+          && !field.isAnnotationPresent(ManyToMany.class)
+          && !field.isAnnotationPresent(ManyToOne.class)
+          && !field.isAnnotationPresent(OneToOne.class)) {
+        throw new AssociationException("Field [%s] of entity [%s] is not an association"
+            .formatted(fieldName, entityClass.getName()));
+      }
+      return field;
+    } catch (NoSuchFieldException e) {
+      throw new AssociationException("Entity [%s] has no field [%s]"
+          .formatted(entityClass.getName(), fieldName), e);
+    }
+  }
+
+  @Override
+  public String toString() {
+    return "FetchProfile[%s]".formatted(name);
+  }
+}
@@ -3,6 +3,7 @@ package com.breskul.bibernate.persistence;
 import static com.breskul.bibernate.util.AssociationUtil.getCollectionInstance;
 import static com.breskul.bibernate.util.AssociationUtil.getLazyCollectionInstance;
 import static com.breskul.bibernate.util.AssociationUtil.getLazyObjectProxy;
+import static com.breskul.bibernate.util.EntityUtil.composeSelectBlock;
 import static com.breskul.bibernate.util.EntityUtil.composeSelectBlockFromColumns;
 import static com.breskul.bibernate.util.EntityUtil.findEntityIdField;
 import static com.breskul.bibernate.util.EntityUtil.findEntityIdFieldName;
@@ -22,19 +23,31 @@ import static java.util.Objects.requireNonNull;
 import static java.util.stream.Stream.generate;
 
 import com.breskul.bibernate.annotation.FetchType;
+import com.breskul.bibernate.annotation.ManyToMany;
 import com.breskul.bibernate.annotation.ManyToOne;
 import com.breskul.bibernate.annotation.OneToMany;
 import com.breskul.bibernate.annotation.OneToOne;
 import com.breskul.bibernate.config.LoggerFactory;
+import com.breskul.bibernate.exception.AssociationException;
 import com.breskul.bibernate.exception.BiQLException;
 import com.breskul.bibernate.exception.BibernateException;
 import com.breskul.bibernate.exception.EntityIdIsNullException;
 import com.breskul.bibernate.exception.EntityQueryException;
+import com.breskul.bibernate.exception.LazyInitializationException;
+import com.breskul.bibernate.exception.OptimisticLockException;
 import com.breskul.bibernate.persistence.context.PersistenceContext;
 import com.breskul.bibernate.persistence.context.snapshot.EntityPropertySnapshot;
 import com.breskul.bibernate.persistence.context.snapshot.EntityRelationSnapshot;
+import com.breskul.bibernate.metadata.dto.JoinTableMapping;
 import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.proxy.collection.ExtraLazyQueries;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import com.breskul.bibernate.statistics.jfr.HydrationEvent;
+import com.breskul.bibernate.statistics.jfr.LazyLoadEvent;
+import com.breskul.bibernate.statistics.jfr.QueryEvent;
+import com.breskul.bibernate.util.CascadeUtil;
 import com.breskul.bibernate.util.EntityUtil;
+import com.breskul.bibernate.util.ReflectionUtil;
 import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -44,8 +57,18 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import org.slf4j.Logger;
@@ -60,9 +83,34 @@ public class GenericDao {
   private static final Logger log = LoggerFactory.getLogger(GenericDao.class);
 
   private static final String SELECT_BY_FIELD_VALUE_QUERY = "SELECT %s FROM %s WHERE %s = ? %s";
+  private static final String SELECT_BY_FIELD_VALUES_QUERY = "SELECT %s FROM %s WHERE %s IN (%s)";
+  static final int IN_LIST_CHUNK_SIZE = 256;
+  private static final String SELECT_BY_FIELD_VALUE_AND_POSITION_QUERY =
+      "SELECT %s FROM %s WHERE %s = ? ORDER BY %s %s";
+  private static final String COUNT_BY_FIELD_VALUE_QUERY = "SELECT COUNT(*) FROM %s WHERE %s = ?";
+  private static final String EXISTS_BY_FIELD_VALUE_QUERY = "SELECT 1 FROM %s WHERE %s = ? %s";
+  private static final String EXISTS_BY_ID_QUERY = "SELECT 1 FROM %s WHERE %s = ?";
+  private static final String EXISTS_BY_FIELD_VALUE_AND_ID_QUERY =
+      "SELECT 1 FROM %s WHERE %s = ? AND %s = ?";
+  private static final String ORDER_BY_CLAUSE = "ORDER BY %s";
   private static final String UPDATE_SQL = "UPDATE %s SET %s WHERE %s = ?;";
   private static final String INSERT_ENTITY_QUERY = "INSERT INTO %s (%s) VALUES (%s);";
   private static final String DELETE_ENTITY_QUERY = "DELETE FROM %s WHERE %s = ?;";
+  private static final String UPDATE_VERSIONED_SQL = "UPDATE %s SET %s WHERE %s = ? AND %s = ?;";
+  private static final String DELETE_VERSIONED_ENTITY_QUERY = "DELETE FROM %s WHERE %s = ? AND %s = ?;";
+  private static final String SELECT_BY_JOIN_TABLE_QUERY = "SELECT %s FROM %s e JOIN %s j ON e.%s = j.%s WHERE j.%s = ?";
+  private static final String SELECT_JOIN_TABLE_COLUMN_QUERY = "SELECT %s FROM %s WHERE %s = ?";
+  private static final String INSERT_JOIN_TABLE_ROW_QUERY = "INSERT INTO %s (%s, %s) VALUES (?, ?);";
+  private static final String DELETE_JOIN_TABLE_ROW_QUERY = "DELETE FROM %s WHERE %s = ? AND %s = ?;";
+  private static final String DELETE_JOIN_TABLE_ROWS_QUERY = "DELETE FROM %s WHERE %s = ?;";
+  private static final Pattern TRAILING_SEMICOLON = Pattern.compile("\\s*;?\\s*$");
+  private static final String STALE_ENTITY_MESSAGE =
+      "Entity [%s] with id [%s] and version [%s] was updated or deleted by another transaction";
+
+  /**
+   * Dialect used when none is configured: renders the defaults of {@link Dialect} and does not lock rows.
+   */
+  private static final Dialect DEFAULT_DIALECT = lockType -> "";
 
   private final Connection connection;
   private final PersistenceContext context;
@@ -71,12 +119,25 @@ public class GenericDao {
 
   private final boolean showSql;
 
+  private final BibernateStatistics statistics;
+
+  private final QueryLog queryLog;
+
+  private volatile boolean closed;
+
   public GenericDao(Connection connection, PersistenceContext context, Dialect dialect,
       boolean showSql) {
+    this(connection, context, dialect, showSql, new BibernateStatistics(false), QueryLogProperties.disabled());
+  }
+
+  public GenericDao(Connection connection, PersistenceContext context, Dialect dialect,
+      boolean showSql, BibernateStatistics statistics, QueryLogProperties queryLogProperties) {
     this.connection = connection;
     this.context = context;
-    this.dialect = dialect;
+    this.dialect = dialect != null ? dialect : DEFAULT_DIALECT;
     this.showSql = showSql;
+    this.statistics = statistics;
+    this.queryLog = new QueryLog(queryLogProperties);
   }
 
   /**
@@ -89,10 +150,37 @@ public class GenericDao {
    * @return the found entity instance or null if the entity does not exist
    */
   public <T> T findById(Class<T> cls, Object id, LockType lockType) {
+    return findById(cls, id, lockType == null ? null : LockOptions.of(lockType));
+  }
+
+  /**
+   * Find by primary key and lock the found row with the given lock options.
+   *
+   * @param cls         – entity class
+   * @param id          - primary key
+   * @param lockOptions - the lock mode and wait policy with which we do select, may be null
+   * @return the found entity instance or null if the entity does not exist
+   */
+  public <T> T findById(Class<T> cls, Object id, LockOptions lockOptions) {
+    return findById(cls, id, lockOptions, null);
+  }
+
+  /**
+   * Find by primary key and lock the found row with the given lock options, loading the associations according to the given fetch
+   * profile. Lazy associations created by the load keep using the profile when they are loaded later.
+   *
+   * @param cls          – entity class
+   * @param id           - primary key
+   * @param lockOptions  - the lock mode and wait policy with which we do select, may be null
+   * @param fetchProfile - overrides mapped fetch types of the loaded associations, may be null
+   * @return the found entity instance or null if the entity does not exist
+   */
+  public <T> T findById(Class<T> cls, Object id, LockOptions lockOptions, FetchProfile fetchProfile) {
     Field idField = findEntityIdField(cls);
     String idColumnName = resolveColumnName(idField);
     checkEntityIdType(cls, id);
-    List<T> searchResult = innerFindAllByFieldValue(cls, idColumnName, id, lockType);
+    List<T> searchResult = innerFindAllByFieldValue(cls, idColumnName, id, lockOptions,
+        LoadContext.of(fetchProfile));
     return searchResult.isEmpty() ? null : searchResult.get(0);
   }
 
@@ -107,7 +195,7 @@ public class GenericDao {
    */
   public <T> List<T> findAllByColumn(Class<T> cls, String columnName, Object columnValue) {
     validateColumnName(cls, columnName);
-    return innerFindAllByFieldValue(cls, columnName, columnValue);
+    return innerFindAllByFieldValue(cls, columnName, columnValue, LoadContext.DEFAULT);
   }
 
   /**
@@ -117,11 +205,13 @@ public class GenericDao {
    * @param cls        the entity class
    * @param fieldName  the field name to filter by
    * @param fieldValue the field value to filter by
+   * @param load       the state of the load the search belongs to
    * @return the list of found entities or an empty list if no entities match the search criteria
    * @throws EntityQueryException if an error occurs during the search
    */
-  private <T> List<T> innerFindAllByFieldValue(Class<T> cls, String fieldName, Object fieldValue) {
-    return innerFindAllByFieldValue(cls, fieldName, fieldValue, null);
+  private <T> List<T> innerFindAllByFieldValue(Class<T> cls, String fieldName, Object fieldValue,
+      LoadContext load) {
+    return innerFindAllByFieldValue(cls, fieldName, fieldValue, null, load);
   }
 
   /**
@@ -131,41 +221,140 @@ public class GenericDao {
    * @param cls        the entity class
    * @param fieldName  the field name to filter by
    * @param fieldValue the field value to filter by
-   * @param lockType   the lock mode with which we do select
+   * @param lockOptions the lock mode and wait policy with which we do select
+   * @param load       the state of the load the search belongs to
    * @return the list of found entities or an empty list if no entities match the search criteria
    * @throws EntityQueryException if an error occurs during the search
    */
   private <T> List<T> innerFindAllByFieldValue(Class<T> cls, String fieldName, Object fieldValue,
-      LockType lockType) {
+      LockOptions lockOptions, LoadContext load) {
+    return withLock(lockOptions,
+        lockClause -> innerFindAllByFieldValueWithSuffix(cls, fieldName, fieldValue, lockClause, load));
+  }
+
+  /**
+   * Runs a select with the locking clause for the given lock options. The lock timeout statement of the dialect is executed before the
+   * select and its reset statement after it.
+   *
+   * @param lockOptions the lock options, may be null
+   * @param query       runs the select with the given locking clause, which is empty if the rows are not locked
+   * @return the result of the select
+   * @throws EntityQueryException if the lock timeout could not be set or reset
+   */
+  private <R> R withLock(LockOptions lockOptions, Function<String, R> query) {
+    String lockClause = prepareLock(lockOptions);
+    R result;
+    try {
+      result = query.apply(lockClause);
+    } catch (RuntimeException e) {
+      // a failed select may have aborted the transaction, whose rollback undoes the lock timeout anyway
+      try {
+        resetLockTimeout(lockOptions);
+      } catch (EntityQueryException resetException) {
+        e.addSuppressed(resetException);
+      }
+      throw e;
+    }
+    resetLockTimeout(lockOptions);
+    return result;
+  }
+
+  /**
+   * Renders the locking clause for the given lock options and executes the lock timeout statement of the dialect, if it has one. The
+   * statement sets the timeout for the current transaction, so a lock timeout is rejected outside a transaction.
+   *
+   * @param lockOptions the lock options, may be null
+   * @return the locking clause, or an empty string if the rows are not locked
+   * @throws EntityQueryException if the lock timeout could not be set or the connection is in auto-commit mode
+   */
+  private String prepareLock(LockOptions lockOptions) {
+    if (lockOptions == null) {
+      return "";
+    }
+    String lockTimeoutStatement = dialect.getLockTimeoutStatement(lockOptions);
+    if (lockTimeoutStatement != null) {
+      if (isAutoCommit()) {
+        throw new EntityQueryException(
+            "Could not set lock timeout [%s] outside a transaction, begin a transaction first".formatted(lockTimeoutStatement));
+      }
+      executeLockTimeoutStatement(lockTimeoutStatement);
+    }
+    return dialect.getLockOptionsClause(lockOptions);
+  }
+
+  /**
+   * Executes the lock timeout reset statement of the dialect after a locking select, if it has one.
+   *
+   * @param lockOptions the lock options, may be null
+   * @throws EntityQueryException if the lock timeout could not be reset
+   */
+  private void resetLockTimeout(LockOptions lockOptions) {
+    String lockTimeoutResetStatement = dialect.getLockTimeoutResetStatement(lockOptions);
+    if (lockTimeoutResetStatement != null) {
+      executeLockTimeoutStatement(lockTimeoutResetStatement);
+    }
+  }
+
+  private void executeLockTimeoutStatement(String sql) {
+    if (showSql) {
+      log.info("Bibernate, lock timeout: [{}]", sql);
+    }
+    try (Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    } catch (SQLException e) {
+      throw new EntityQueryException("Could not set lock timeout [%s]".formatted(sql), e);
+    }
+  }
+
+  private boolean isAutoCommit() {
+    try {
+      return connection.getAutoCommit();
+    } catch (SQLException e) {
+      throw new EntityQueryException("Could not read the auto-commit mode of the connection", e);
+    }
+  }
+
+  /**
+   * Perform an internal search for entities of the specified class filtered by a field value and ordered by the entity id. Used to load
+   * extra-lazy collections, so the element positions match the positions used by the targeted queries.
+   *
+   * @param <T>        the type parameter
+   * @param cls        the entity class
+   * @param fieldName  the field name to filter by
+   * @param fieldValue the field value to filter by
+   * @param load       the state of the load the search belongs to
+   * @return the list of found entities or an empty list if no entities match the search criteria
+   * @throws EntityQueryException if an error occurs during the search
+   */
+  private <T> List<T> innerFindAllByFieldValueOrderedById(Class<T> cls, String fieldName,
+      Object fieldValue, LoadContext load) {
+    return innerFindAllByFieldValueWithSuffix(cls, fieldName, fieldValue,
+        ORDER_BY_CLAUSE.formatted(findEntityIdFieldName(cls)), load);
+  }
+
+  private <T> List<T> innerFindAllByFieldValueWithSuffix(Class<T> cls, String fieldName,
+      Object fieldValue, String sqlSuffix, LoadContext load) {
     String tableName = getEntityTableName(cls);
-    List<Field> columnFields = getClassColumnFields(cls);
 
-    String lockClause = dialect == null ? "" : dialect.getLockClause(lockType);
-    String sql = SELECT_BY_FIELD_VALUE_QUERY.formatted(composeSelectBlockFromColumns(columnFields),
-        tableName, fieldName, lockClause);
+    String sql = SELECT_BY_FIELD_VALUE_QUERY.formatted(composeSelectBlock(cls), tableName,
+        fieldName, sqlSuffix);
 
     if (showSql) {
       log.info("Bibernate, query: [{}]", sql);
     }
-    List<T> result = new ArrayList<>();
     try (PreparedStatement statement = connection.prepareStatement(sql)) {
       statement.setObject(1, fieldValue);
-      ResultSet resultSet = statement.executeQuery();
-      while (resultSet.next()) {
-        T entity = mapResult(resultSet, cls);
-        result.add(entity);
-      }
+      return queryEntities(statement, sql, cls, load, fieldValue);
     } catch (SQLException e) {
       throw new EntityQueryException(
           "Could not read entity data from database for entity [%s] by field [%s]=%s"
               .formatted(cls, fieldName, fieldValue), e);
     }
-    return result;
   }
 
   /**
    * Saves a given entity. Use the returned instance for further operations as the save operation might have changed the entity instance
-   * completely.
+   * completely. An entity without id gets the key generated by the database, an assigned id is inserted as it is.
    *
    * @param entity must not be {@literal null}.
    * @return the saved entity; will never be {@literal null}.
@@ -175,41 +364,31 @@ public class GenericDao {
   public <T> T save(T entity) {
     requireNonNull(entity, "Entity should not be null.");
     Class<?> cls = entity.getClass();
-    String tableName = getEntityTableName(cls);
     Field idField = findEntityIdField(cls);
-    List<Field> columnFields = getClassColumnFields(cls, field -> !field.equals(idField)).stream()
-        .filter(field1 -> EntityUtil.isSimpleColumn(field1) || EntityUtil.isToOneRelation(field1))
-        .toList();
-
-    String questionMarks = generate(() -> "?")
-        .limit(columnFields.size())
-        .collect(Collectors.joining(", "));
-    String sql = INSERT_ENTITY_QUERY.formatted(tableName,
-        composeSelectBlockFromColumns(columnFields), questionMarks);
+    boolean assignedId = getEntityId(entity) != null;
+    List<Field> columnFields = getInsertColumnFields(cls, assignedId);
+    String sql = composeInsertQuery(cls, columnFields);
 
     if (showSql) {
       log.info("Bibernate, save entity: [{}]", sql);
     }
-    try (var statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
-      for (int i = 0; i < columnFields.size(); i++) {
-        Field field = columnFields.get(i);
-        field.setAccessible(true);
-        Object parameter = EntityUtil.isToOneRelation(field)
-            ? EntityUtil.getEntityId(field.get(entity))
-            : field.get(entity);
-        statement.setObject(i + 1, parameter);
-      }
-      int result = statement.executeUpdate();
+    try (var statement = assignedId ? connection.prepareStatement(sql)
+        : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+      Object[] parameters = setInsertParameters(statement, entity, columnFields);
+      int result = timedUpdate(statement, sql, cls, parameters);
       if (result != 1) {
         throw new EntityQueryException(
             "Could not save entity to database for entity [%s]"
                 .formatted(entity));
       }
-      ResultSet generatedKeys = statement.getGeneratedKeys();
-      generatedKeys.next();
-      Object idValue = idField.getType().cast(generatedKeys.getObject(1));
-      idField.setAccessible(true);
-      idField.set(entity, idValue);
+      if (!assignedId) {
+        ResultSet generatedKeys = statement.getGeneratedKeys();
+        generatedKeys.next();
+        Object idValue = idField.getType().cast(generatedKeys.getObject(1));
+        idField.setAccessible(true);
+        idField.set(entity, idValue);
+      }
+      statistics.entityInserted(cls);
     } catch (SQLException e) {
       throw new EntityQueryException(
           "Could not save entity to database for entity [%s]"
@@ -226,9 +405,118 @@ public class GenericDao {
     return entity;
   }
 
+  /**
+   * Saves the given entities of one class with one JDBC batch. The entities must either all have assigned ids or all get the keys generated
+   * by the database, and none of them may refer to another one of the batch, since the referenced id is not known before the batch runs.
+   *
+   * @param entities the entities to save, must not be empty
+   * @throws EntityQueryException If an error occurs during the save operation.
+   */
+  public void saveAll(List<?> entities) {
+    Class<?> cls = entities.get(0).getClass();
+    Field idField = findEntityIdField(cls);
+    boolean assignedId = getEntityId(entities.get(0)) != null;
+    List<Field> columnFields = getInsertColumnFields(cls, assignedId);
+    String sql = composeInsertQuery(cls, columnFields);
+
+    if (showSql) {
+      log.info("Bibernate, save entities: [{}]", sql);
+    }
+    try (var statement = assignedId ? connection.prepareStatement(sql)
+        : connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+      for (Object entity : entities) {
+        setInsertParameters(statement, entity, columnFields);
+        statement.addBatch();
+      }
+      timedBatch(statement, sql, cls, entities.size());
+      if (!assignedId) {
+        ResultSet generatedKeys = statement.getGeneratedKeys();
+        for (Object entity : entities) {
+          if (!generatedKeys.next()) {
+            throw new EntityQueryException("Could not read generated id for entity [%s]".formatted(entity));
+          }
+          idField.setAccessible(true);
+          idField.set(entity, idField.getType().cast(generatedKeys.getObject(1)));
+        }
+      }
+      entities.forEach(entity -> statistics.entityInserted(cls));
+    } catch (SQLException | IllegalAccessException e) {
+      throw new EntityQueryException(
+          "Could not save entities to database for entity [%s]".formatted(cls), e);
+    } catch (ClassCastException e) {
+      throw new EntityQueryException(
+          "Could not cast id value to type [%s] for entity [%s]"
+              .formatted(idField.getType().getSimpleName(), cls), e);
+    }
+  }
+
+  private List<Field> getInsertColumnFields(Class<?> cls, boolean assignedId) {
+    Field idField = findEntityIdField(cls);
+    return getClassColumnFields(cls, field -> assignedId || !field.equals(idField)).stream()
+        .filter(field -> EntityUtil.isSimpleColumn(field) || EntityUtil.isToOneRelation(field))
+        .toList();
+  }
+
+  private String composeInsertQuery(Class<?> cls, List<Field> columnFields) {
+    String questionMarks = generate(() -> "?")
+        .limit(columnFields.size())
+        .collect(Collectors.joining(", "));
+    return INSERT_ENTITY_QUERY.formatted(getEntityTableName(cls),
+        composeSelectBlockFromColumns(columnFields), questionMarks);
+  }
+
+  /**
+   * Sets the initial version of a new versioned entity and binds its column values to the insert statement.
+   *
+   * @return the bound parameters
+   */
+  private Object[] setInsertParameters(PreparedStatement statement, Object entity, List<Field> columnFields)
+      throws SQLException, IllegalAccessException {
+    EntityUtil.findEntityVersionField(entity.getClass())
+        .filter(versionField -> ReflectionUtil.readFieldValue(entity, versionField) == null)
+        .ifPresent(versionField ->
+            writeFieldValue(versionField, entity, EntityUtil.initialVersion(versionField)));
+    Object[] parameters = new Object[columnFields.size()];
+    for (int i = 0; i < columnFields.size(); i++) {
+      Field field = columnFields.get(i);
+      field.setAccessible(true);
+      Object parameter = EntityUtil.isToOneRelation(field)
+          ? EntityUtil.getEntityId(field.get(entity))
+          : field.get(entity);
+      statement.setObject(i + 1, parameter);
+      parameters[i] = parameter;
+    }
+    return parameters;
+  }
+
+  /**
+   * Checks whether the row of an entity exists, without loading it.
+   *
+   * @param cls the entity class
+   * @param id  the entity id
+   * @return true if the row exists, false otherwise
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  public boolean existsById(Class<?> cls, Object id) {
+    String sql = EXISTS_BY_ID_QUERY.formatted(getEntityTableName(cls), findEntityIdFieldName(cls));
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, id);
+      long startTime = startTime();
+      boolean exists = timedQuery(statement, sql, cls, startTime, null).next();
+      logQuery(sql, startTime, exists ? 1 : 0, id);
+      return exists;
+    } catch (SQLException e) {
+      throw new EntityQueryException("Could not check entity [%s] with id [%s]".formatted(cls, id), e);
+    }
+  }
+
   /**
    * Deletes an entity from the database using its ID. This method finds the entity's ID field, constructs a DELETE SQL query, and executes
-   * it. The entity must not be null and must have a non-null ID.
+   * it. The entity must not be null and must have a non-null ID. The join table rows of owning many-to-many associations of the entity are
+   * deleted first.
    *
    * @param <T>    the type of the entity
    * @param entity the entity to be deleted
@@ -239,7 +527,11 @@ public class GenericDao {
     requireNonNull(entity, "Entity should not be null.");
     Class<?> cls = entity.getClass();
     String tableName = getEntityTableName(cls);
-    String deleteSql = DELETE_ENTITY_QUERY.formatted(tableName, findEntityIdFieldName(cls));
+    Optional<Field> versionField = EntityUtil.findEntityVersionField(cls);
+    String deleteSql = versionField
+        .map(field -> DELETE_VERSIONED_ENTITY_QUERY.formatted(tableName, findEntityIdFieldName(cls),
+            resolveColumnName(field)))
+        .orElseGet(() -> DELETE_ENTITY_QUERY.formatted(tableName, findEntityIdFieldName(cls)));
     if (showSql) {
       log.info("Bibernate, delete entity: [{}]", deleteSql);
     }
@@ -248,13 +540,26 @@ public class GenericDao {
       if (idObject == null) {
         throw new EntityIdIsNullException("Entity ID is null for [%s]".formatted(entity));
       }
+      for (Field field : EntityUtil.getOwningManyToManyFields(cls)) {
+        deleteJoinTableRows(field, idObject);
+      }
       statement.setObject(1, idObject);
-      int result = statement.executeUpdate();
+      if (versionField.isPresent()) {
+        statement.setObject(2, ReflectionUtil.readFieldValue(entity, versionField.get()));
+      }
+      int result = versionField.isPresent()
+          ? timedUpdate(statement, deleteSql, cls, idObject, ReflectionUtil.readFieldValue(entity, versionField.get()))
+          : timedUpdate(statement, deleteSql, cls, idObject);
+      if (result != 1 && versionField.isPresent()) {
+        throw new OptimisticLockException(STALE_ENTITY_MESSAGE.formatted(cls.getName(), idObject,
+            ReflectionUtil.readFieldValue(entity, versionField.get())));
+      }
       if (result != 1) {
         throw new EntityQueryException(
             "Could not delete entity to database for entity [%s]"
                 .formatted(entity));
       }
+      statistics.entityDeleted(cls);
     } catch (SQLException e) {
       throw new EntityQueryException(
           "Could not delete entity from the database for entity [%s]"
@@ -266,57 +571,100 @@ public class GenericDao {
   /**
    * Executes an update query for the specified entity key with the given parameters. This method dynamically determines whether to use a
    * dynamic update query based on the entity class.
+   * <p>
+   * For an entity with a {@link com.breskul.bibernate.annotation.Version} field the query only matches the row with the version of the
+   * entity and sets the next version. After the update the entity gets the new version and its snapshot is refreshed, so the next flush
+   * compares against the flushed state.
    *
    * @param <T>        the type of the entity
    * @param entityKey  the entity key representing the entity to update
    * @param parameters the parameters to be used in the update query
    * @return the number of rows affected by the update query
-   * @throws BibernateException if an SQL exception occurs while executing the update query
+   * @throws EntityQueryException     if an SQL exception occurs while executing the update query
+   * @throws OptimisticLockException if the versioned entity was updated or deleted by another transaction
    */
   public <T> int executeUpdate(EntityKey<T> entityKey, Object... parameters) {
-    boolean isDynamicUpdate = EntityUtil.isDynamicUpdate(entityKey.entityClass());
-    String updateSql =
-        isDynamicUpdate ? prepareDynamicUpdateQuery(entityKey) : prepareUpdateQuery(entityKey);
+    Class<T> entityClass = entityKey.entityClass();
+    Optional<Field> versionField = EntityUtil.findEntityVersionField(entityClass);
+    if (versionField.isPresent()) {
+      return executeVersionedUpdate(entityKey, versionField.get(), parameters);
+    }
+    String updateSql = UPDATE_SQL.formatted(getEntityTableName(entityClass),
+        composeSetClause(getUpdatedColumnNames(entityKey)), findEntityIdFieldName(entityClass));
     if (showSql) {
       log.info("Bibernate, update entity: [{}]", updateSql);
     }
     try (PreparedStatement preparedStatement = connection.prepareStatement(updateSql)) {
       setParameters(preparedStatement, entityKey.id(), parameters);
-      return preparedStatement.executeUpdate();
+      int result = timedUpdate(preparedStatement, updateSql, entityClass,
+          Stream.concat(Arrays.stream(parameters), Stream.of(entityKey.id())).toArray());
+      if (result > 0) {
+        statistics.entityUpdated(entityClass);
+        // the flushed state is the new snapshot, so the entity is not updated again by the next flush
+        context.refreshSnapshot(context.getEntity(entityKey));
+      }
+      return result;
     } catch (SQLException e) {
       throw new EntityQueryException("Failed to execute update query: [%s] with parameters %s"
           .formatted(updateSql, Arrays.toString(parameters)), e);
     }
   }
 
-  /**
-   * Prepares an update query for the specified entity key. This method constructs an update SQL query string to update all columns of the
-   * entity.
-   *
-   * @param <T>       the type of the entity
-   * @param entityKey the entity key representing the entity to update
-   * @return a standard update SQL query string
-   */
-  private <T> String prepareUpdateQuery(EntityKey<T> entityKey) {
+  private <T> int executeVersionedUpdate(EntityKey<T> entityKey, Field versionField, Object... parameters) {
     Class<T> entityClass = entityKey.entityClass();
-    String setUpdatedColumnsSql = EntityUtil.getEntityColumnNames(entityClass).stream()
-        .map("%s = ?"::formatted)
-        .collect(Collectors.joining(", "));
-    String tableName = EntityUtil.getEntityTableName(entityClass);
-    String primaryKeyName = EntityUtil.findEntityIdFieldName(entityClass);
-    return UPDATE_SQL.formatted(tableName, setUpdatedColumnsSql, primaryKeyName);
+    T entity = context.getEntity(entityKey);
+    Object currentVersion = ReflectionUtil.readFieldValue(entity, versionField);
+    Object nextVersion = EntityUtil.nextVersion(versionField, currentVersion);
+
+    // the version column is always set to the next version, whatever value the entity holds
+    String versionColumn = resolveColumnName(versionField);
+    List<String> columns = getUpdatedColumnNames(entityKey);
+    List<Object> values = new ArrayList<>(Arrays.asList(parameters));
+    int versionIndex = columns.indexOf(versionColumn);
+    if (versionIndex >= 0) {
+      columns.remove(versionIndex);
+      values.remove(versionIndex);
+    }
+    columns.add(versionColumn);
+    values.add(nextVersion);
+
+    String updateSql = UPDATE_VERSIONED_SQL.formatted(getEntityTableName(entityClass), composeSetClause(columns),
+        findEntityIdFieldName(entityClass), versionColumn);
+    if (showSql) {
+      log.info("Bibernate, update entity: [{}]", updateSql);
+    }
+    int result;
+    try (PreparedStatement preparedStatement = connection.prepareStatement(updateSql)) {
+      setParameters(preparedStatement, entityKey.id(), values.toArray());
+      preparedStatement.setObject(values.size() + 2, currentVersion);
+      result = timedUpdate(preparedStatement, updateSql, entityClass,
+          Stream.concat(values.stream(), Stream.of(entityKey.id(), currentVersion)).toArray());
+    } catch (SQLException e) {
+      throw new EntityQueryException("Failed to execute update query: [%s] with parameters %s"
+          .formatted(updateSql, values), e);
+    }
+    if (result == 0) {
+      throw new OptimisticLockException(STALE_ENTITY_MESSAGE.formatted(entityClass.getName(), entityKey.id(),
+          currentVersion));
+    }
+    writeFieldValue(versionField, entity, nextVersion);
+    statistics.entityUpdated(entityClass);
+    context.refreshSnapshot(entity);
+    return result;
   }
 
   /**
-   * Prepares a dynamic update query for the specified entity key. This method constructs an update SQL query string only for columns that
-   * were actually updated  based on the differences between the initial and current states of the entity.
+   * Returns the names of the columns to update for the specified entity key: all columns of the entity, or for a dynamic update entity
+   * only columns that were actually updated based on the differences between the initial and current states of the entity.
    *
    * @param <T>       the type of the entity
    * @param entityKey the entity key representing the entity to update
-   * @return a dynamic update SQL query string
+   * @return a modifiable list of column names, in the order of the update parameters
    */
-  private <T> String prepareDynamicUpdateQuery(EntityKey<T> entityKey) {
-    Class<T> entityClass = entityKey.entityClass();
+  private <T> List<String> getUpdatedColumnNames(EntityKey<T> entityKey) {
+    if (!EntityUtil.isDynamicUpdate(entityKey.entityClass())) {
+      return EntityUtil.getEntityColumnNames(entityKey.entityClass());
+    }
 
     // Obtain initial and current states for simple columns and to-one relation columns
     List<EntityPropertySnapshot> initialState = context.getEntityPropertySnapshot(entityKey);
@@ -331,19 +679,47 @@ public class GenericDao {
     currentEntityToOneRelationValues.removeAll(entityToOneRelationSnapshot);
 
     // Extract column names for simple columns and to-one relation columns
-    Stream<Object> simpleColumns = currentState.stream()
+    Stream<String> simpleColumns = currentState.stream()
         .map(EntityPropertySnapshot::columnName);
-    Stream<Object> toOneRelations = currentEntityToOneRelationValues.stream()
+    Stream<String> toOneRelations = currentEntityToOneRelationValues.stream()
         .map(EntityRelationSnapshot::columnName);
-    String setUpdatedColumnsSql = Stream.concat(simpleColumns, toOneRelations)
+    return Stream.concat(simpleColumns, toOneRelations)
         .filter(Objects::nonNull)
+        .collect(Collectors.toCollection(ArrayList::new));
+  }
+
+  private static String composeSetClause(List<String> columns) {
+    return columns.stream()
         .map("%s = ?"::formatted)
         .collect(Collectors.joining(", "));
+  }
 
-    // Construct the dynamic update SQL query string
-    String tableName = EntityUtil.getEntityTableName(entityClass);
-    String primaryKeyName = EntityUtil.findEntityIdFieldName(entityClass);
-    return UPDATE_SQL.formatted(tableName, setUpdatedColumnsSql, primaryKeyName);
+  /**
+   * Maps all rows of the ResultSet to entities of the specified class. Collections switched to eager loading by the active fetch profile
+   * are collected while the rows are mapped and then loaded for all mapped entities at once.
+   *
+   * @param resultSet - The ResultSet object containing the data to be mapped
+   * @param cls       - The class of the entity object
+   * @param load      - The state of the load the result belongs to
+   * @param <T>       - The type parameter representing the entity class
+   * @return The mapped entities
+   * @throws SQLException if the ResultSet could not be read
+   */
+  private <T> List<T> mapResults(ResultSet resultSet, Class<T> cls, LoadContext load)
+      throws SQLException {
+    Map<Field, AssociationBatch> batches = new LinkedHashMap<>();
+    List<T> result = new ArrayList<>();
+    HydrationEvent event = new HydrationEvent();
+    event.begin();
+    while (resultSet.next()) {
+      result.add(mapResult(resultSet, cls, load, batches));
+    }
+    event.complete(cls, result.size());
+    batches.values().forEach(AssociationBatch::load);
+    if (EntityUtil.hasToOneRelations(cls)) {
+      result.forEach(context::takeToOneRelationSnapshot);
+    }
+    return result;
   }
 
   /**
@@ -352,15 +728,19 @@ public class GenericDao {
    *
    * @param resultSet - The ResultSet object containing the data to be mapped
    * @param cls       - The class of the entity object
+   * @param load      - The state of the load the result belongs to
+   * @param batches   - The collections of the result switched to eager loading by the fetch profile, loaded after the whole result
    * @param <T>       - The type parameter representing the entity class
    * @return The mapped entity object
    * @throws EntityQueryException if there is an error during the mapping process
    */
-  private <T> T mapResult(ResultSet resultSet, Class<T> cls) {
+  private <T> T mapResult(ResultSet resultSet, Class<T> cls, LoadContext load,
+      Map<Field, AssociationBatch> batches) {
     List<Field> columnFields = getClassEntityFields(cls);
 
     try {
       T entity = createEntityInstance(cls);
+      statistics.entityLoaded(cls);
       for (Field field : columnFields) {
         field.setAccessible(true);
 
@@ -374,18 +754,16 @@ public class GenericDao {
       for (Field field : columnFields) {
         field.setAccessible(true);
         if (field.isAnnotationPresent(ManyToOne.class)) {
-          mapManyToOneRelationship(resultSet, field, entity);
+          mapManyToOneRelationship(resultSet, field, entity, load, batches);
         } else if (field.isAnnotationPresent(OneToMany.class)) {
-          mapOneToManyRelationship(resultSet, cls, field, entity);
+          mapOneToManyRelationship(resultSet, cls, field, entity, load, batches);
         } else if (field.isAnnotationPresent(OneToOne.class)) {
-          mapOneToOneRelationship(resultSet, field, entity);
+          mapOneToOneRelationship(resultSet, field, entity, load, batches);
+        } else if (field.isAnnotationPresent(ManyToMany.class)) {
+          mapManyToManyRelationship(resultSet, cls, field, entity, load, batches);
         }
       }
 
-      if (EntityUtil.hasToOneRelations(cls)) {
-        context.takeToOneRelationSnapshot(entity);
-      }
-
       return entity;
     } catch (SQLException e) {
       throw new EntityQueryException("Could not read single row data from database for entity [%s]"
@@ -393,82 +771,526 @@ public class GenericDao {
     }
   }
 
-  private <T> void mapOneToOneRelationship(ResultSet resultSet, Field field, T entity)
-      throws SQLException {
+  private <T> void mapOneToOneRelationship(ResultSet resultSet, Field field, T entity,
+      LoadContext load, Map<Field, AssociationBatch> batches) throws SQLException {
     String joinColumnName = resolveColumnName(field);
     Field relatedEntityIdField = findEntityIdField(field.getType());
 
     if (isToOneRelation(field)) {
       Object relatedEntityId = resultSet.getObject(joinColumnName);
       String relatedEntityIdColumnName = resolveColumnName(relatedEntityIdField);
-      writeFieldValue(field, entity,
-          createAssocitatedObject(field, relatedEntityIdColumnName, relatedEntityId, field.getType()));
+      writeFieldValue(field, entity, createAssocitatedObject(field, relatedEntityIdColumnName,
+          relatedEntityId, relatedEntityId, field.getType(), entity, load, batches));
     } else {
       Field id = EntityUtil.findEntityIdField(entity.getClass());
       String idColumnName = resolveColumnName(id);
       Object entityId = resultSet.getObject(idColumnName);
       joinColumnName = getJoinColumnName(field.getType(), entity.getClass());
       writeFieldValue(field, entity,
-          createAssocitatedObject(field, joinColumnName, entityId, field.getType()));
+          createAssocitatedObject(field, joinColumnName, entityId, null, field.getType(), entity, load, batches));
     }
   }
 
-  private <T> void mapManyToOneRelationship(ResultSet resultSet, Field field, T entity)
-      throws SQLException {
+  private <T> void mapManyToOneRelationship(ResultSet resultSet, Field field, T entity,
+      LoadContext load, Map<Field, AssociationBatch> batches) throws SQLException {
     String joinColumnName = resolveColumnName(field);
     Field relatedEntityIdField = findEntityIdField(field.getType());
     Object relatedEntityId = resultSet.getObject(joinColumnName);
     String relatedEntityIdColumnName = resolveColumnName(relatedEntityIdField);
-    writeFieldValue(field, entity,
-        createAssocitatedObject(field, relatedEntityIdColumnName, relatedEntityId, field.getType()));
+    writeFieldValue(field, entity, createAssocitatedObject(field, relatedEntityIdColumnName,
+        relatedEntityId, relatedEntityId, field.getType(), entity, load, batches));
   }
 
   private <T> void mapOneToManyRelationship(ResultSet resultSet, Class<T> cls, Field field,
-      T entity) throws SQLException {
+      T entity, LoadContext load, Map<Field, AssociationBatch> batches) throws SQLException {
     Class<?> relatedEntityType = getEntityCollectionElementType(field);
     String joinColumnName = getJoinColumnName(relatedEntityType, cls);
     Object id = extractIdFromResultSet(cls, resultSet);
     writeFieldValue(field, entity,
-        createAssociatedCollection(field, relatedEntityType, joinColumnName, id));
+        createAssociatedCollection(field, relatedEntityType, joinColumnName, id, entity, load, batches));
   }
 
   private Collection<Object> createAssociatedCollection(Field field, Class<?> relatedEntityType,
-      String joinColumnName, Object id) {
-    FetchType fetchType = field.getAnnotation(OneToMany.class).fetch();
+      String joinColumnName, Object id, Object owner, LoadContext load,
+      Map<Field, AssociationBatch> batches) {
+    OneToMany oneToMany = field.getAnnotation(OneToMany.class);
+    FetchType fetchType = load.resolveFetchType(field, oneToMany.fetch());
     log.debug(
         "Resolving [{}] collection for [{}.{}.{}] field by related column [{}] with value [{}]",
         fetchType, field.getDeclaringClass().getPackageName(),
         field.getDeclaringClass().getSimpleName(), field.getName(), joinColumnName, id);
+    if (load.isBatched(field)) {
+      return ((CollectionBatch) batches
+          .computeIfAbsent(field, key -> new OneToManyBatch(key, relatedEntityType, joinColumnName, load)))
+          .add(id, owner);
+    }
+    return switch (fetchType) {
+      case EAGER -> getCollectionInstance(field, snapshotCollection(owner, field,
+          () -> innerFindAllByFieldValue(relatedEntityType, joinColumnName, id, load)).get());
+      case LAZY -> oneToMany.extraLazy()
+          ? getLazyCollectionInstance(field, snapshotCollection(owner, field,
+              lazyLoader(field, load, lazyLoad -> this.innerFindAllByFieldValueOrderedById(
+                  relatedEntityType, joinColumnName, id, lazyLoad))),
+              new ExtraLazyCollectionQueries(field, relatedEntityType, joinColumnName, id, load))
+          : getLazyCollectionInstance(field, snapshotCollection(owner, field, lazyLoader(field, load,
+              lazyLoad -> this.innerFindAllByFieldValue(relatedEntityType, joinColumnName, id, lazyLoad))));
+    };
+  }
+
+  private <T> void mapManyToManyRelationship(ResultSet resultSet, Class<T> cls, Field field,
+      T entity, LoadContext load, Map<Field, AssociationBatch> batches) throws SQLException {
+    Object id = extractIdFromResultSet(cls, resultSet);
+    writeFieldValue(field, entity, createManyToManyCollection(field, id, entity, load, batches));
+  }
+
+  private Collection<Object> createManyToManyCollection(Field field, Object id, Object owner,
+      LoadContext load, Map<Field, AssociationBatch> batches) {
+    ManyToMany manyToMany = field.getAnnotation(ManyToMany.class);
+    FetchType fetchType = load.resolveFetchType(field, manyToMany.fetch());
+    Class<?> relatedEntityType = getEntityCollectionElementType(field);
+    JoinTableMapping joinTable = EntityUtil.getJoinTableMapping(field);
+    log.debug(
+        "Resolving [{}] collection for [{}.{}.{}] field by join table [{}] with value [{}]",
+        fetchType, field.getDeclaringClass().getPackageName(),
+        field.getDeclaringClass().getSimpleName(), field.getName(), joinTable.tableName(), id);
+    if (load.isBatched(field)) {
+      return ((CollectionBatch) batches
+          .computeIfAbsent(field, key -> new ManyToManyBatch(key, relatedEntityType, joinTable, load)))
+          .add(id, owner);
+    }
     return switch (fetchType) {
-      case EAGER -> getCollectionInstance(field,
-          innerFindAllByFieldValue(relatedEntityType, joinColumnName, id));
-      case LAZY -> getLazyCollectionInstance(field,
-          () -> this.innerFindAllByFieldValue(relatedEntityType, joinColumnName, id));
+      case EAGER -> getCollectionInstance(field, snapshotCollection(owner, field,
+          () -> findAllByJoinTable(relatedEntityType, joinTable, id, load)).get());
+      case LAZY -> getLazyCollectionInstance(field, snapshotCollection(owner, field, lazyLoader(field, load,
+          lazyLoad -> findAllByJoinTable(relatedEntityType, joinTable, id, lazyLoad))));
     };
   }
 
+  /**
+   * Finds the elements of a many-to-many collection with a single query joining the element table with the join table.
+   *
+   * @param cls       the element entity class
+   * @param joinTable the join table seen from the collection field
+   * @param ownerId   the id of the entity owning the collection
+   * @param load      the state of the load the search belongs to
+   * @return the managed elements of the collection
+   * @throws EntityQueryException if an error occurs during the search
+   */
+  private <T> List<T> findAllByJoinTable(Class<T> cls, JoinTableMapping joinTable, Object ownerId,
+      LoadContext load) {
+    String selectBlock = Arrays.stream(composeSelectBlock(cls).split(","))
+        .map(column -> "e." + column.strip())
+        .collect(Collectors.joining(", "));
+    String sql = SELECT_BY_JOIN_TABLE_QUERY.formatted(selectBlock, getEntityTableName(cls),
+        joinTable.tableName(), findEntityIdFieldName(cls), joinTable.inverseJoinColumnName(),
+        joinTable.joinColumnName());
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, ownerId);
+      // an element shared by several collections is mapped once per query, the managed instance is returned
+      return queryEntities(statement, sql, cls, load, ownerId).stream()
+          .map(element -> context.getEntity(EntityKey.valueOf(element)))
+          .collect(Collectors.toCollection(ArrayList::new));
+    } catch (SQLException e) {
+      throw new EntityQueryException(
+          "Could not read entity data from database for entity [%s] by join table [%s]=%s"
+              .formatted(cls, joinTable.tableName(), ownerId), e);
+    }
+  }
+
+  /**
+   * Reads the join table rows of the given owners, in chunks of at most {@value #IN_LIST_CHUNK_SIZE} owner ids.
+   *
+   * @param joinTable the join table seen from the collection field
+   * @param ownerIds  the ids of the entities owning the collections
+   * @param load      the state of the load the query belongs to
+   * @return the element ids by owner id
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  private Map<Object, List<Object>> findJoinTableRows(JoinTableMapping joinTable, Collection<Object> ownerIds,
+      LoadContext load) {
+    List<Object> values = new ArrayList<>(ownerIds);
+    Map<Object, List<Object>> elementIdsByOwnerId = new HashMap<>();
+    for (int from = 0; from < values.size(); from += IN_LIST_CHUNK_SIZE) {
+      List<Object> chunk = values.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, values.size()));
+      String sql = SELECT_BY_FIELD_VALUES_QUERY.formatted(
+          "%s, %s".formatted(joinTable.joinColumnName(), joinTable.inverseJoinColumnName()), joinTable.tableName(),
+          joinTable.joinColumnName(), generate(() -> "?").limit(chunk.size()).collect(Collectors.joining(", ")));
+      if (showSql) {
+        log.info("Bibernate, query: [{}]", sql);
+      }
+      try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        for (int i = 0; i < chunk.size(); i++) {
+          statement.setObject(i + 1, chunk.get(i));
+        }
+        long startTime = startTime();
+        ResultSet resultSet = timedQuery(statement, sql, null, startTime, load.lazyAssociation());
+        int rowCount = 0;
+        while (resultSet.next()) {
+          elementIdsByOwnerId.computeIfAbsent(resultSet.getObject(1), key -> new ArrayList<>()).add(resultSet.getObject(2));
+          rowCount++;
+        }
+        logQuery(sql, startTime, rowCount, chunk.toArray());
+      } catch (SQLException e) {
+        throw new EntityQueryException("Could not read join table [%s] rows for owner ids %s"
+            .formatted(joinTable.tableName(), chunk), e);
+      }
+    }
+    return elementIdsByOwnerId;
+  }
+
+  /**
+   * Reads the ids of the elements of an owning many-to-many collection from its join table, without loading the elements.
+   *
+   * @param field   the owning many-to-many field
+   * @param ownerId the id of the entity owning the collection
+   * @return the ids of the elements referenced by the join table rows of the owner
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  public Set<Object> findJoinTableElementIds(Field field, Object ownerId) {
+    JoinTableMapping joinTable = EntityUtil.getJoinTableMapping(field);
+    String sql = SELECT_JOIN_TABLE_COLUMN_QUERY.formatted(joinTable.inverseJoinColumnName(),
+        joinTable.tableName(), joinTable.joinColumnName());
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, ownerId);
+      long startTime = startTime();
+      ResultSet resultSet = timedQuery(statement, sql, field.getDeclaringClass(), startTime, null);
+      Set<Object> elementIds = new HashSet<>();
+      while (resultSet.next()) {
+        elementIds.add(resultSet.getObject(1));
+      }
+      logQuery(sql, startTime, elementIds.size(), ownerId);
+      return elementIds;
+    } catch (SQLException e) {
+      throw new EntityQueryException("Could not read join table [%s] rows for owner id [%s]"
+          .formatted(joinTable.tableName(), ownerId), e);
+    }
+  }
+
+  /**
+   * Writes the changes of an owning many-to-many collection to its join table. The rows of removed elements are deleted and the rows of
+   * added elements inserted, each statement is sent as a single JDBC batch for all the given rows.
+   *
+   * @param field       the owning many-to-many field
+   * @param removedRows the owner id and element id pairs to delete
+   * @param addedRows   the owner id and element id pairs to insert
+   * @throws EntityQueryException if a batch could not be executed
+   */
+  public void updateJoinTable(Field field, List<Object[]> removedRows, List<Object[]> addedRows) {
+    JoinTableMapping joinTable = EntityUtil.getJoinTableMapping(field);
+    executeJoinTableBatch(DELETE_JOIN_TABLE_ROW_QUERY.formatted(joinTable.tableName(),
+        joinTable.joinColumnName(), joinTable.inverseJoinColumnName()), field, removedRows);
+    executeJoinTableBatch(INSERT_JOIN_TABLE_ROW_QUERY.formatted(joinTable.tableName(),
+        joinTable.joinColumnName(), joinTable.inverseJoinColumnName()), field, addedRows);
+  }
+
+  private void executeJoinTableBatch(String sql, Field field, List<Object[]> rows) {
+    if (rows.isEmpty()) {
+      return;
+    }
+    if (showSql) {
+      log.info("Bibernate, join table batch: [{}], rows: {}", sql, rows.size());
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      for (Object[] row : rows) {
+        statement.setObject(1, row[0]);
+        statement.setObject(2, row[1]);
+        statement.addBatch();
+      }
+      timedBatch(statement, sql, field.getDeclaringClass(), rows.size());
+    } catch (SQLException e) {
+      throw new EntityQueryException("Could not execute join table batch [%s] of [%s.%s] for %d rows"
+          .formatted(sql, field.getDeclaringClass().getSimpleName(), field.getName(), rows.size()), e);
+    }
+  }
+
+  private void deleteJoinTableRows(Field field, Object ownerId) throws SQLException {
+    JoinTableMapping joinTable = EntityUtil.getJoinTableMapping(field);
+    String sql = DELETE_JOIN_TABLE_ROWS_QUERY.formatted(joinTable.tableName(), joinTable.joinColumnName());
+    if (showSql) {
+      log.info("Bibernate, delete join table rows: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, ownerId);
+      timedUpdate(statement, sql, field.getDeclaringClass(), ownerId);
+    }
+  }
+
+  /**
+   * Wraps the loader of a collection with orphan removal or of an owning many-to-many collection, so the loaded elements are recorded in
+   * the persistence context and the elements removed or added later can be found at flush.
+   *
+   * @param owner  the entity owning the collection
+   * @param field  the collection field
+   * @param loader the collection loader
+   * @return the loader which takes the collection snapshot, or the given loader if the collection changes are not tracked
+   */
+  private Supplier<Collection<?>> snapshotCollection(Object owner, Field field, Supplier<Collection<?>> loader) {
+    if (!CascadeUtil.isOrphanRemoval(field) && !EntityUtil.isOwningManyToMany(field)) {
+      return loader;
+    }
+    return () -> {
+      Collection<?> elements = loader.get();
+      context.takeCollectionSnapshot(owner, field, elements);
+      return elements;
+    };
+  }
+
+  /**
+   * Finds entities of the specified class whose field value is one of the given values. The values are sent in chunks of at most
+   * {@value #IN_LIST_CHUNK_SIZE}, so the number of bind parameters stays below driver limits and the full chunks share one statement.
+   *
+   * @param <T>         the type parameter
+   * @param cls         the entity class
+   * @param fieldName   the field name to filter by
+   * @param fieldValues the field values to filter by
+   * @param load        the state of the load the search belongs to
+   * @return the list of found entities or an empty list if no entities match the search criteria
+   * @throws EntityQueryException if an error occurs during the search
+   */
+  private <T> List<T> findAllByFieldValues(Class<T> cls, String fieldName,
+      Collection<Object> fieldValues, LoadContext load) {
+    List<Object> values = new ArrayList<>(fieldValues);
+    List<T> result = new ArrayList<>();
+    for (int from = 0; from < values.size(); from += IN_LIST_CHUNK_SIZE) {
+      result.addAll(findAllByFieldValuesChunk(cls, fieldName,
+          values.subList(from, Math.min(from + IN_LIST_CHUNK_SIZE, values.size())), load));
+    }
+    return result;
+  }
+
+  private <T> List<T> findAllByFieldValuesChunk(Class<T> cls, String fieldName,
+      List<Object> fieldValues, LoadContext load) {
+    String questionMarks = generate(() -> "?")
+        .limit(fieldValues.size())
+        .collect(Collectors.joining(", "));
+    String sql = SELECT_BY_FIELD_VALUES_QUERY.formatted(
+        composeSelectBlock(cls), getEntityTableName(cls),
+        fieldName, questionMarks);
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      int parameterIndex = 1;
+      for (Object fieldValue : fieldValues) {
+        statement.setObject(parameterIndex++, fieldValue);
+      }
+      return queryEntities(statement, sql, cls, load, fieldValues.toArray());
+    } catch (SQLException e) {
+      throw new EntityQueryException(
+          "Could not read entity data from database for entity [%s] by field [%s] in %s"
+              .formatted(cls, fieldName, fieldValues), e);
+    }
+  }
+
+  /**
+   * Counts entities of the specified class filtered by a field value.
+   *
+   * @param cls        the entity class
+   * @param fieldName  the field name to filter by
+   * @param fieldValue the field value to filter by
+   * @param load       the state of the load the query belongs to
+   * @return the number of matching entities
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  private int countByFieldValue(Class<?> cls, String fieldName, Object fieldValue, LoadContext load) {
+    String sql = COUNT_BY_FIELD_VALUE_QUERY.formatted(getEntityTableName(cls), fieldName);
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, fieldValue);
+      long startTime = startTime();
+      ResultSet resultSet = timedQuery(statement, sql, cls, startTime, load.lazyAssociation());
+      resultSet.next();
+      logQuery(sql, startTime, 1, fieldValue);
+      return resultSet.getInt(1);
+    } catch (SQLException e) {
+      throw new EntityQueryException(
+          "Could not count entities [%s] by field [%s]=%s".formatted(cls, fieldName, fieldValue), e);
+    }
+  }
+
+  /**
+   * Checks whether any entity of the specified class is filtered by a field value. At most one row is read, using the row limit clause of
+   * the dialect.
+   *
+   * @param cls        the entity class
+   * @param fieldName  the field name to filter by
+   * @param fieldValue the field value to filter by
+   * @param load       the state of the load the query belongs to
+   * @return true if such entity exists, false otherwise
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  private boolean existsByFieldValue(Class<?> cls, String fieldName, Object fieldValue, LoadContext load) {
+    String sql = EXISTS_BY_FIELD_VALUE_QUERY.formatted(getEntityTableName(cls), fieldName, dialect.getLimitOffsetClause(1));
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, fieldValue);
+      statement.setInt(2, 0);
+      long startTime = startTime();
+      boolean exists = timedQuery(statement, sql, cls, startTime, load.lazyAssociation()).next();
+      logQuery(sql, startTime, exists ? 1 : 0, fieldValue, 0);
+      return exists;
+    } catch (SQLException e) {
+      throw new EntityQueryException(
+          "Could not check entities [%s] by field [%s]=%s".formatted(cls, fieldName, fieldValue), e);
+    }
+  }
+
+  /**
+   * Checks whether an entity of the specified class with the given id is filtered by a field value.
+   *
+   * @param cls        the entity class
+   * @param fieldName  the field name to filter by
+   * @param fieldValue the field value to filter by
+   * @param id         the entity id
+   * @param load       the state of the load the query belongs to
+   * @return true if such entity exists, false otherwise
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  private boolean existsByFieldValueAndId(Class<?> cls, String fieldName, Object fieldValue,
+      Object id, LoadContext load) {
+    String sql = EXISTS_BY_FIELD_VALUE_AND_ID_QUERY.formatted(getEntityTableName(cls), fieldName,
+        findEntityIdFieldName(cls));
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, fieldValue);
+      statement.setObject(2, id);
+      long startTime = startTime();
+      boolean exists = timedQuery(statement, sql, cls, startTime, load.lazyAssociation()).next();
+      logQuery(sql, startTime, exists ? 1 : 0, fieldValue, id);
+      return exists;
+    } catch (SQLException e) {
+      throw new EntityQueryException(
+          "Could not check entity [%s] with id [%s] by field [%s]=%s".formatted(cls, id, fieldName,
+              fieldValue), e);
+    }
+  }
+
+  /**
+   * Finds the entity at the given position among entities of the specified class filtered by a field value and ordered by the entity id.
+   *
+   * @param <T>        the type parameter
+   * @param cls        the entity class
+   * @param fieldName  the field name to filter by
+   * @param fieldValue the field value to filter by
+   * @param position   the zero-based entity position
+   * @param load       the state of the load the query belongs to
+   * @return the found entity or null if there is no entity at the given position
+   * @throws EntityQueryException if an error occurs during the query
+   */
+  private <T> T findByFieldValueAndPosition(Class<T> cls, String fieldName, Object fieldValue,
+      int position, LoadContext load) {
+    String sql = SELECT_BY_FIELD_VALUE_AND_POSITION_QUERY.formatted(
+        composeSelectBlock(cls), getEntityTableName(cls),
+        fieldName, findEntityIdFieldName(cls), dialect.getLimitOffsetClause(1));
+    if (showSql) {
+      log.info("Bibernate, query: [{}]", sql);
+    }
+    try (PreparedStatement statement = connection.prepareStatement(sql)) {
+      statement.setObject(1, fieldValue);
+      statement.setInt(2, position);
+      List<T> result = queryEntities(statement, sql, cls, load, fieldValue, position);
+      return result.isEmpty() ? null : context.getEntity(EntityKey.valueOf(result.get(0)));
+    } catch (SQLException e) {
+      throw new EntityQueryException(
+          "Could not read entity [%s] at position [%d] by field [%s]=%s".formatted(cls, position,
+              fieldName, fieldValue), e);
+    }
+  }
+
+  /**
+   * Resolves the 'toOne' associated object either eagerly or as a lazy proxy.
+   *
+   * @param field                     the association field
+   * @param relatedEntityIdColumnName the column of the related table used to find the related entity
+   * @param relatedEntityId           the value of the related table column
+   * @param proxyIdentifier           the identifier of the related entity if it is known, used to answer id getter of lazy proxy
+   * @param clz                       the related entity class
+   * @param owner                     the entity owning the association
+   * @param load                      the state of the load the association belongs to
+   * @param batches                   the associations of the query result switched to eager loading by the fetch profile
+   * @return the related entity, its lazy proxy, or null if there is no related entity or it is loaded later with its batch
+   */
   private Object createAssocitatedObject(Field field, String relatedEntityIdColumnName,
-      Object relatedEntityId, Class<?> clz) {
+      Object relatedEntityId, Object proxyIdentifier, Class<?> clz, Object owner, LoadContext load,
+      Map<Field, AssociationBatch> batches) {
+    if (relatedEntityId == null) {
+      return null;
+    }
+    if (load.isBatched(field)) {
+      return ((ToOneBatch) batches
+          .computeIfAbsent(field, key -> new ToOneBatch(key, clz, relatedEntityIdColumnName, proxyIdentifier != null, load)))
+          .add(relatedEntityId, owner);
+    }
 
-    FetchType fetchType = field.isAnnotationPresent(ManyToOne.class)
+    FetchType fetchType = load.resolveFetchType(field, field.isAnnotationPresent(ManyToOne.class)
         ? field.getAnnotation(ManyToOne.class).fetch()
-        : field.getAnnotation(OneToOne.class).fetch();
+        : field.getAnnotation(OneToOne.class).fetch());
     log.debug(
         "Resolving [{}] parent object for [{}.{}.{}] field by related column [{}] with value [{}]",
         fetchType, field.getDeclaringClass().getPackageName(),
         field.getDeclaringClass().getSimpleName(), field.getName(), relatedEntityIdColumnName,
         relatedEntityId);
     return switch (fetchType) {
-      case EAGER -> fetchRelatedEntity(clz, relatedEntityIdColumnName, relatedEntityId);
-      case LAZY -> getLazyObjectProxy(field,
-          () -> fetchRelatedEntity(clz, relatedEntityIdColumnName, relatedEntityId));
+      case EAGER -> fetchRelatedEntity(clz, relatedEntityIdColumnName, relatedEntityId, load);
+      case LAZY -> getLazyObjectProxy(field, proxyIdentifier, lazyLoader(field, load,
+          lazyLoad -> fetchRelatedEntity(clz, relatedEntityIdColumnName, relatedEntityId, lazyLoad)));
+    };
+  }
+
+  /**
+   * Wraps the loader of a lazy association, so the association can not be loaded after this DAO is closed. The loader runs with the fetch
+   * profile of the load which created the association, and its queries are attributed to the association. Both are passed to the loader
+   * rather than kept in this DAO, so lazy loads running on different threads do not affect each other.
+   *
+   * @param field  the association field
+   * @param load   the state of the load which created the association
+   * @param loader the association loader
+   * @return the loader which checks that this DAO is still open
+   */
+  private <T> Supplier<T> lazyLoader(Field field, LoadContext load, Function<LoadContext, T> loader) {
+    LoadContext lazyLoad = load.lazyLoadOf(field);
+    return () -> {
+      verifyOpenForLazyLoading(field);
+      statistics.lazyInitialized(field.getDeclaringClass(), field.getName());
+      LazyLoadEvent event = new LazyLoadEvent();
+      event.begin();
+      T result = loader.apply(lazyLoad);
+      event.complete(field.getDeclaringClass(), field.getName());
+      return result;
     };
   }
 
-  private Object fetchRelatedEntity(Class<?> clz, String columnName, Object id) {
+  private void verifyOpenForLazyLoading(Field field) {
+    if (closed) {
+      throw new LazyInitializationException(
+          "Could not lazily load [%s.%s] association: the session is closed".formatted(
+              field.getDeclaringClass().getName(), field.getName()));
+    }
+  }
+
+  /**
+   * Closes this DAO. Lazy associations created by it can not be loaded after that.
+   */
+  public void close() {
+    closed = true;
+  }
+
+  private Object fetchRelatedEntity(Class<?> clz, String columnName, Object id, LoadContext load) {
     var relatedEntity = context.getEntity(clz, id);
     if (relatedEntity == null) {
-      var relatedEntities = innerFindAllByFieldValue(clz, columnName, id);
+      var relatedEntities = innerFindAllByFieldValue(clz, columnName, id, load);
       if (!relatedEntities.isEmpty()) {
         relatedEntity = relatedEntities.get(0);
         relatedEntity = context.put(relatedEntity);
@@ -483,6 +1305,79 @@ public class GenericDao {
     return resultSet.getObject(idColumnName);
   }
 
+  /**
+   * Executes the query and maps its result. The slow query log gets the execution time without the mapping.
+   */
+  private <T> List<T> queryEntities(PreparedStatement statement, String sql, Class<T> cls, LoadContext load,
+      Object... parameters) throws SQLException {
+    long startTime = startTime();
+    ResultSet resultSet = timedQuery(statement, sql, cls, startTime, load.lazyAssociation());
+    long executionTime = elapsedSince(startTime);
+    List<T> result = mapResults(resultSet, cls, load);
+    if (queryLog.isSlowQueryLogEnabled()) {
+      queryLog.queryExecuted(sql, parameters, executionTime, result.size());
+    }
+    return result;
+  }
+
+  /**
+   * Executes the query and records its statistics. A query run to load a lazy association is reported to the N+1 select detector.
+   */
+  private ResultSet timedQuery(PreparedStatement statement, String sql, Class<?> entityClass, long startTime,
+      Field lazyAssociation) throws SQLException {
+    QueryEvent event = new QueryEvent();
+    event.begin();
+    ResultSet resultSet = statement.executeQuery();
+    statistics.queryExecuted(sql, startTime);
+    event.complete(entityClass, sql, -1);
+    if (lazyAssociation != null) {
+      queryLog.lazyLoadQueryExecuted(lazyAssociation, sql);
+    }
+    return resultSet;
+  }
+
+  private int timedUpdate(PreparedStatement statement, String sql, Class<?> entityClass, Object... parameters)
+      throws SQLException {
+    QueryEvent event = new QueryEvent();
+    event.begin();
+    long startTime = startTime();
+    int result = statement.executeUpdate();
+    statistics.queryExecuted(sql, startTime);
+    event.complete(entityClass, sql, result);
+    logQuery(sql, startTime, result, parameters);
+    return result;
+  }
+
+  private void timedBatch(PreparedStatement statement, String sql, Class<?> entityClass, int batchSize)
+      throws SQLException {
+    QueryEvent event = new QueryEvent();
+    event.begin();
+    long startTime = startTime();
+    int[] results = statement.executeBatch();
+    statistics.queryExecuted(sql, startTime);
+    // drivers may report Statement.SUCCESS_NO_INFO instead of the update count of a batched statement
+    long rowCount = Arrays.stream(results).filter(result -> result > 0).sum();
+    event.complete(entityClass, sql, rowCount);
+    logQuery(sql, startTime, rowCount, "batch of %d".formatted(batchSize));
+  }
+
+  private void logQuery(String sql, long startTime, long rowCount, Object... parameters) {
+    if (queryLog.isSlowQueryLogEnabled()) {
+      queryLog.queryExecuted(sql, parameters, elapsedSince(startTime), rowCount);
+    }
+  }
+
+  /**
+   * @return the current {@link System#nanoTime()} if statistics or the slow query log need it, zero otherwise
+   */
+  private long startTime() {
+    return statistics.isEnabled() || queryLog.isSlowQueryLogEnabled() ? System.nanoTime() : 0;
+  }
+
+  private static long elapsedSince(long startTime) {
+    return startTime == 0 ? 0 : System.nanoTime() - startTime;
+  }
+
   private void setParameters(PreparedStatement preparedStatement,
       Object primaryKey,
       Object... params) throws SQLException {
@@ -525,22 +1420,345 @@ public class GenericDao {
    * @throws BiQLException if there is an error executing the query or mapping the results
    */
   public <T> List<T> executeNativeQuery(String sql, Class<T> entityClass) {
-    List<T> result = new ArrayList<>();
+    return executeNativeQuery(sql, entityClass, null);
+  }
+
+  /**
+   * Executes a native SQL query which locks the selected rows with the given lock options. The locking clause of the dialect is appended
+   * to the query, which therefore should not end with a locking clause itself.
+   *
+   * @param <T>         the generic type of the entity class
+   * @param sql         the SQL query to be executed
+   * @param entityClass the class of the entities in the result list
+   * @param lockOptions the lock mode and wait policy, may be null
+   * @return a list of entities of type {@code T}, mapped from the result set
+   * @throws BiQLException if there is an error executing the query or mapping the results
+   */
+  public <T> List<T> executeNativeQuery(String sql, Class<T> entityClass, LockOptions lockOptions) {
+    return executeNativeQuery(sql, entityClass, lockOptions, null);
+  }
+
+  /**
+   * Executes a native SQL query with the given lock options, loading the associations of the result according to the given fetch profile.
+   *
+   * @param <T>          the generic type of the entity class
+   * @param sql          the SQL query to be executed
+   * @param entityClass  the class of the entities in the result list
+   * @param lockOptions  the lock mode and wait policy, may be null
+   * @param fetchProfile overrides mapped fetch types of the loaded associations, may be null
+   * @return a list of entities of type {@code T}, mapped from the result set
+   * @throws BiQLException if there is an error executing the query or mapping the results
+   */
+  public <T> List<T> executeNativeQuery(String sql, Class<T> entityClass, LockOptions lockOptions,
+      FetchProfile fetchProfile) {
+    return withLock(lockOptions, lockClause -> {
+      String lockingSql = lockClause.isEmpty() ? sql
+          : "%s %s".formatted(TRAILING_SEMICOLON.matcher(sql).replaceFirst(""), lockClause);
+      if (showSql) {
+        log.info("Bibernate, query: [{}]", lockingSql);
+      }
+      try (PreparedStatement statement = connection.prepareStatement(lockingSql)) {
+        return queryEntities(statement, lockingSql, entityClass, LoadContext.of(fetchProfile));
+      } catch (SQLException e) {
+        throw new BiQLException(
+            "Could not execute native query [%s] for entity [%s]"
+                .formatted(lockingSql, entityClass), e);
+      }
+    });
+  }
+
+  /**
+   * Executes a bulk update or delete statement, for example converted from BiQL by
+   * {@link com.breskul.bibernate.query.hql.BiQLMapper#bulkBqlToSql(String, Class)}. The changed rows are not loaded, entities of the
+   * persistence context are not changed.
+   *
+   * @param sql         the SQL statement with positional parameters
+   * @param entityClass the entity class whose table is changed
+   * @param parameters  the values of the positional parameters
+   * @return the number of changed rows
+   * @throws BiQLException if there is an error executing the statement
+   */
+  public int executeBulkUpdate(String sql, Class<?> entityClass, Object... parameters) {
     if (showSql) {
-      log.info("Bibernate, query: [{}]", sql);
+      log.info("Bibernate, bulk update: [{}]", sql);
     }
     try (PreparedStatement statement = connection.prepareStatement(sql)) {
-      ResultSet resultSet = statement.executeQuery();
-      while (resultSet.next()) {
-        T entity = mapResult(resultSet, entityClass);
-        result.add(entity);
+      for (int i = 0; i < parameters.length; i++) {
+        statement.setObject(i + 1, parameters[i]);
       }
+      return timedUpdate(statement, sql, entityClass, parameters);
     } catch (SQLException e) {
       throw new BiQLException(
-          "Could not execute native query [%s] for entity [%s]"
-              .formatted(sql, entityClass), e);
+          "Could not execute bulk statement [%s] for entity [%s] with parameters %s"
+              .formatted(sql, entityClass, Arrays.toString(parameters)), e);
     }
-    return result;
   }
 
+  /**
+   * State of one load passed along its calls: the fetch profile overriding mapped fetch types, and the lazy association whose loading
+   * runs the queries, if any. It is not kept in the DAO, so lazy loads running on different threads do not share it.
+   *
+   * @param fetchProfile    the fetch profile, or null to use mapped fetch types
+   * @param lazyAssociation the lazy association being loaded, or null
+   */
+  private record LoadContext(FetchProfile fetchProfile, Field lazyAssociation) {
+
+    private static final LoadContext DEFAULT = new LoadContext(null, null);
+
+    private static LoadContext of(FetchProfile fetchProfile) {
+      return fetchProfile == null ? DEFAULT : new LoadContext(fetchProfile, null);
+    }
+
+    private LoadContext lazyLoadOf(Field field) {
+      return new LoadContext(fetchProfile, field);
+    }
+
+    private FetchType resolveFetchType(Field field, FetchType mappedFetchType) {
+      return fetchProfile == null ? mappedFetchType : fetchProfile.getFetchType(field, mappedFetchType);
+    }
+
+    /**
+     * @return whether the collections of the field are switched to eager by the fetch profile and loaded in batches
+     */
+    private boolean isBatched(Field field) {
+      return fetchProfile != null && fetchProfile.isEager(field);
+    }
+  }
+
+  /**
+   * Associations of the same field collected while mapping a query result, loaded by a single query after the whole result is mapped.
+   */
+  private interface AssociationBatch {
+
+    void load();
+  }
+
+  /**
+   * Collections of the same field collected while mapping a query result. All of them are loaded together after the whole result is
+   * mapped, by queries filtered with the ids of all owners.
+   */
+  private abstract class CollectionBatch implements AssociationBatch {
+
+    private final Field field;
+    private final Map<Object, List<Object>> ownersById = new LinkedHashMap<>();
+
+    private CollectionBatch(Field field) {
+      this.field = field;
+    }
+
+    /**
+     * Adds the owner to the batch and returns its collection, which stays empty until the batch is loaded.
+     */
+    private Collection<Object> add(Object ownerId, Object owner) {
+      ownersById.computeIfAbsent(ownerId, key -> new ArrayList<>()).add(owner);
+      return getCollectionInstance(field);
+    }
+
+    /**
+     * Finds the elements of the collections of the given owners.
+     *
+     * @return the managed elements by owner id
+     */
+    protected abstract Map<Object, List<Object>> findElementsByOwnerId(Set<Object> ownerIds);
+
+    /**
+     * Loads the elements of all collections and adds them to the collections directly. The collections are part of the query result, so
+     * this is not a lazy initialization and is neither counted nor reported as one.
+     */
+    @Override
+    @SuppressWarnings("unchecked")
+    public void load() {
+      Map<Object, List<Object>> elementsByOwnerId = findElementsByOwnerId(ownersById.keySet());
+      ownersById.forEach((ownerId, owners) -> owners.forEach(owner -> {
+        List<Object> elements = elementsByOwnerId.getOrDefault(ownerId, List.of());
+        ((Collection<Object>) ReflectionUtil.readFieldValue(owner, field))
+            .addAll(snapshotCollection(owner, field, () -> elements).get());
+      }));
+    }
+  }
+
+  /**
+   * One-to-many collections of the same field, loaded by a single query filtered by the join column with the ids of all owners.
+   */
+  private class OneToManyBatch extends CollectionBatch {
+
+    private final Class<?> relatedEntityType;
+    private final String joinColumnName;
+    private final Field ownerField;
+    private final LoadContext load;
+
+    private OneToManyBatch(Field field, Class<?> relatedEntityType, String joinColumnName, LoadContext load) {
+      super(field);
+      this.relatedEntityType = relatedEntityType;
+      this.joinColumnName = joinColumnName;
+      this.ownerField = findOwnerField(relatedEntityType, field.getDeclaringClass());
+      this.load = load;
+    }
+
+    @Override
+    protected Map<Object, List<Object>> findElementsByOwnerId(Set<Object> ownerIds) {
+      Map<Object, List<Object>> elementsByOwnerId = new HashMap<>();
+      for (Object element : findAllByFieldValues(relatedEntityType, joinColumnName, ownerIds, load)) {
+        Object ownerId = getEntityId(ReflectionUtil.readFieldValue(element, ownerField));
+        elementsByOwnerId.computeIfAbsent(ownerId, key -> new ArrayList<>()).add(element);
+      }
+      return elementsByOwnerId;
+    }
+  }
+
+  /**
+   * Many-to-many collections of the same field. The join table rows of all owners are read by a single query filtered by the join column,
+   * then the elements are loaded by a single query filtered by their ids.
+   */
+  private class ManyToManyBatch extends CollectionBatch {
+
+    private final Class<?> relatedEntityType;
+    private final JoinTableMapping joinTable;
+    private final LoadContext load;
+
+    private ManyToManyBatch(Field field, Class<?> relatedEntityType, JoinTableMapping joinTable, LoadContext load) {
+      super(field);
+      this.relatedEntityType = relatedEntityType;
+      this.joinTable = joinTable;
+      this.load = load;
+    }
+
+    @Override
+    protected Map<Object, List<Object>> findElementsByOwnerId(Set<Object> ownerIds) {
+      Map<Object, List<Object>> elementIdsByOwnerId = findJoinTableRows(joinTable, ownerIds, load);
+      Set<Object> elementIds = new LinkedHashSet<>();
+      elementIdsByOwnerId.values().forEach(elementIds::addAll);
+      Map<Object, Object> elementsById = new HashMap<>();
+      for (Object element : findAllByFieldValues(relatedEntityType, findEntityIdFieldName(relatedEntityType),
+          elementIds, load)) {
+        // an element shared by several collections is mapped once per query, the managed instance is used
+        Object managedElement = context.getEntity(EntityKey.valueOf(element));
+        elementsById.put(getEntityId(managedElement), managedElement);
+      }
+      Map<Object, List<Object>> elementsByOwnerId = new HashMap<>();
+      elementIdsByOwnerId.forEach((ownerId, ownerElementIds) -> elementsByOwnerId.put(ownerId,
+          ownerElementIds.stream().map(elementsById::get).filter(Objects::nonNull)
+              .collect(Collectors.toCollection(ArrayList::new))));
+      return elementsByOwnerId;
+    }
+  }
+
+  /**
+   * 'ToOne' associations of the same field collected while mapping a query result. The related entities which are not managed yet are
+   * loaded by a single query filtered by their ids or, for the inverse side of a one-to-one association, by the join column with the ids of
+   * all owners.
+   */
+  private class ToOneBatch implements AssociationBatch {
+
+    private final Field field;
+    private final Class<?> relatedEntityType;
+    private final String columnName;
+    private final Field ownerField;
+    private final LoadContext load;
+    private final Map<Object, List<Object>> ownersByKey = new LinkedHashMap<>();
+
+    private ToOneBatch(Field field, Class<?> relatedEntityType, String columnName, boolean owningSide,
+        LoadContext load) {
+      this.field = field;
+      this.relatedEntityType = relatedEntityType;
+      this.columnName = columnName;
+      this.ownerField = owningSide ? null : findOwnerField(relatedEntityType, field.getDeclaringClass());
+      this.load = load;
+    }
+
+    /**
+     * Adds the owner to the batch. Returns the related entity if it is already managed, null if it is loaded with the batch.
+     */
+    private Object add(Object key, Object owner) {
+      if (ownerField == null) {
+        Object relatedEntity = context.getEntity(relatedEntityType, key);
+        if (relatedEntity != null) {
+          return relatedEntity;
+        }
+      }
+      ownersByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(owner);
+      return null;
+    }
+
+    @Override
+    public void load() {
+      if (ownersByKey.isEmpty()) {
+        return;
+      }
+      for (Object relatedEntity : findAllByFieldValues(relatedEntityType, columnName,
+          ownersByKey.keySet(), load)) {
+        Object key = ownerField == null ? getEntityId(relatedEntity)
+            : getEntityId(ReflectionUtil.readFieldValue(relatedEntity, ownerField));
+        Object managedEntity = context.getEntity(EntityKey.valueOf(relatedEntity));
+        ownersByKey.getOrDefault(key, List.of())
+            .forEach(owner -> writeFieldValue(field, owner, managedEntity));
+      }
+    }
+  }
+
+  private static Field findOwnerField(Class<?> relatedEntityType, Class<?> ownerType) {
+    return Arrays.stream(relatedEntityType.getDeclaredFields())
+        .filter(relatedField -> relatedField.getType().equals(ownerType))
+        .findFirst()
+        .orElseThrow(() -> new AssociationException(
+            "Can't find related entity [%s] field in [%s].".formatted(ownerType,
+                relatedEntityType)));
+  }
+
+  /**
+   * Targeted queries of an extra-lazy one-to-many collection, filtered by the join column of the related entity. Like a lazy load of the
+   * collection, the queries run with the fetch profile of the load which created the collection and are attributed to the collection.
+   */
+  private class ExtraLazyCollectionQueries implements ExtraLazyQueries<Object> {
+
+    private final Field field;
+    private final Class<?> relatedEntityType;
+    private final String joinColumnName;
+    private final Object id;
+    private final LoadContext lazyLoad;
+
+    private ExtraLazyCollectionQueries(Field field, Class<?> relatedEntityType,
+        String joinColumnName, Object id, LoadContext load) {
+      this.field = field;
+      this.relatedEntityType = relatedEntityType;
+      this.joinColumnName = joinColumnName;
+      this.id = id;
+      this.lazyLoad = load.lazyLoadOf(field);
+    }
+
+    @Override
+    public int count() {
+      verifyOpenForLazyLoading(field);
+      return countByFieldValue(relatedEntityType, joinColumnName, id, lazyLoad);
+    }
+
+    @Override
+    public boolean exists() {
+      verifyOpenForLazyLoading(field);
+      return existsByFieldValue(relatedEntityType, joinColumnName, id, lazyLoad);
+    }
+
+    @Override
+    public boolean contains(Object element) {
+      verifyOpenForLazyLoading(field);
+      if (!relatedEntityType.isInstance(element)) {
+        return false;
+      }
+      Object elementId = getEntityId(element);
+      return elementId != null
+          && existsByFieldValueAndId(relatedEntityType, joinColumnName, id, elementId, lazyLoad);
+    }
+
+    @Override
+    public Object get(int index) {
+      verifyOpenForLazyLoading(field);
+      Object element = index < 0 ? null
+          : findByFieldValueAndPosition(relatedEntityType, joinColumnName, id, index, lazyLoad);
+      if (element == null) {
+        throw new IndexOutOfBoundsException(
+            "Index %d out of bounds for [%s] collection".formatted(index, relatedEntityType));
+      }
+      return element;
+    }
+  }
 }
@@ -0,0 +1,106 @@
+package com.breskul.bibernate.persistence;
+
+import java.time.Duration;
+import java.util.Objects;
+
+/**
+ * Pessimistic lock of the rows selected by {@link Session#findById(Class, Object, LockOptions)},
+ * {@link Session#executeNativeQuery(String, Class, LockOptions)} or {@link Session#executeBiQLQuery(String, Class, LockOptions)}, together
+ * with the behaviour when a row is already locked by another transaction. By default the query waits until the lock is released, it can
+ * fail immediately, skip the locked rows, or wait for a limited time instead. The clauses are rendered by the
+ * {@link com.breskul.bibernate.persistence.dialect.Dialect} of the session factory.
+ * <p>
+ * Skipping locked rows lets many workers consume the same queue table in parallel, each of them claims the rows which are not claimed yet
+ * by the others:
+ * <pre>{@code
+ * LockOptions CLAIM = LockOptions.of(LockType.PESSIMISTIC_WRITE).skipLocked();
+ * List<Job> jobs = session.executeNativeQuery("select * from jobs where status = 'NEW' limit 10", Job.class, CLAIM);
+ * }</pre>
+ * The options are immutable, each {@code noWait}/{@code skipLocked}/{@code timeout} call returns new options. Locks are held until the end
+ * of the transaction, so they only make sense inside a {@link com.breskul.bibernate.transaction.Transaction}.
+ */
+public final class LockOptions {
+
+  private final LockType lockType;
+  private final WaitPolicy waitPolicy;
+  private final Duration timeout;
+
+  private LockOptions(LockType lockType, WaitPolicy waitPolicy, Duration timeout) {
+    this.lockType = lockType;
+    this.waitPolicy = waitPolicy;
+    this.timeout = timeout;
+  }
+
+  /**
+   * Creates options which wait until the locked rows are released.
+   *
+   * @param lockType the lock mode
+   * @return the new options
+   */
+  public static LockOptions of(LockType lockType) {
+    Objects.requireNonNull(lockType, "Lock type should not be null.");
+    return new LockOptions(lockType, WaitPolicy.WAIT, null);
+  }
+
+  /**
+   * Returns a copy of these options which fails immediately if a selected row is locked.
+   *
+   * @return the new options
+   */
+  public LockOptions noWait() {
+    return new LockOptions(lockType, WaitPolicy.NO_WAIT, null);
+  }
+
+  /**
+   * Returns a copy of these options which leaves out the rows locked by other transactions.
+   *
+   * @return the new options
+   */
+  public LockOptions skipLocked() {
+    return new LockOptions(lockType, WaitPolicy.SKIP_LOCKED, null);
+  }
+
+  /**
+   * Returns a copy of these options which waits at most the given time for a locked row.
+   *
+   * @param timeout the lock timeout, at least one millisecond
+   * @return the new options
+   * @throws IllegalArgumentException if the timeout is shorter than one millisecond
+   */
+  public LockOptions timeout(Duration timeout) {
+    Objects.requireNonNull(timeout, "Lock timeout should not be null.");
+    if (timeout.toMillis() < 1) {
+      throw new IllegalArgumentException("Lock timeout should be at least 1 ms, but was %s".formatted(timeout));
+    }
+    return new LockOptions(lockType, WaitPolicy.WAIT, timeout);
+  }
+
+  public LockType getLockType() {
+    return lockType;
+  }
+
+  public WaitPolicy getWaitPolicy() {
+    return waitPolicy;
+  }
+
+  /**
+   * @return the lock timeout, or {@code null} if the query waits until the lock is released
+   */
+  public Duration getTimeout() {
+    return timeout;
+  }
+
+  @Override
+  public String toString() {
+    return "LockOptions[lockType=%s, waitPolicy=%s, timeout=%s]".formatted(lockType, waitPolicy, timeout);
+  }
+
+  /**
+   * Behaviour of a locking query when a selected row is locked by another transaction.
+   */
+  public enum WaitPolicy {
+    WAIT,
+    NO_WAIT,
+    SKIP_LOCKED
+  }
+}
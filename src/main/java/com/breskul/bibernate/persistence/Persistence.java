@@ -1,19 +1,30 @@
 package com.breskul.bibernate.persistence;
 
-import static com.breskul.bibernate.ddl.TableCreationService.CREATE_TABLES_PROPERTY_NAME;
+import static com.breskul.bibernate.ddl.TableCreationService.DEFAULT_PARALLELISM;
+import static com.breskul.bibernate.ddl.TableCreationService.PARALLELISM_PROPERTY_NAME;
 
 import com.breskul.bibernate.config.PropertiesConfiguration;
+import com.breskul.bibernate.ddl.DdlMode;
 import com.breskul.bibernate.ddl.TableCreationService;
 import com.breskul.bibernate.exception.BibernateException;
 import com.breskul.bibernate.metadata.EntitiesMetadataPersistence;
+import com.breskul.bibernate.metadata.EntityMetadataRegistry;
 import com.breskul.bibernate.persistence.datasource.BibernateDataSource;
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.ReplicaProperties;
+import com.breskul.bibernate.persistence.datasource.ReplicaRouter;
+import com.breskul.bibernate.persistence.datasource.ReplicaRouter.Replica;
 import com.breskul.bibernate.persistence.datasource.connectionpools.CentralConnectionPoolFactory;
 import com.breskul.bibernate.persistence.datasource.propertyreader.ApplicationPropertiesReader;
 import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import com.breskul.bibernate.util.AssociationUtil;
 import com.breskul.bibernate.util.EntityUtil;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
 
 /**
  * The Persistence class provides a convenient way to create a Bibernate SessionFactory based on configuration properties. It retrieves
@@ -45,18 +56,48 @@ public class Persistence {
     var factory = CentralConnectionPoolFactory.getConnectionPoolFactory(persistenceProperties.type());
     var dataSource = factory.createDataSource(persistenceProperties);
 
-    EntitiesMetadataPersistence entitiesMetadataPersistence = EntitiesMetadataPersistence.createInstance(
-        EntityUtil::getAllEntitiesClasses);
-    boolean createTables = Boolean.parseBoolean(
-        PropertiesConfiguration.getPropertyOrDefault(CREATE_TABLES_PROPERTY_NAME, "false"));
-    if (createTables) {
+    Set<Class<?>> entityClasses = findEntityClasses();
+    AssociationUtil.initLazyProxyClasses(entityClasses);
+    DdlMode ddlMode = DdlMode.fromProperties();
+    if (ddlMode != DdlMode.NONE) {
+      // the table model is derived from the entity annotations, so it is built only when the schema is processed
+      EntitiesMetadataPersistence entitiesMetadataPersistence = EntitiesMetadataPersistence.createInstance(
+          () -> entityClasses);
+      int ddlParallelism = PropertiesConfiguration.getPropertyAsIntOrDefault(PARALLELISM_PROPERTY_NAME,
+          DEFAULT_PARALLELISM);
       TableCreationService tableCreationService = new TableCreationService(dataSource, entitiesMetadataPersistence,
-          persistenceProperties.showSql());
-      tableCreationService.processDdl();
+          persistenceProperties.showSql(), ddlParallelism);
+      tableCreationService.processDdl(ddlMode);
     }
 
     Dialect dialect = getDialectInstance(persistenceProperties);
-    return new SessionFactory(dataSource, dialect, persistenceProperties.showSql());
+    return new SessionFactory(dataSource, dialect, persistenceProperties.showSql(),
+        factory.getStatistics(dataSource).orElse(null), createReplicaRouter(persistenceProperties),
+        BibernateStatistics.fromProperties(), QueryLogProperties.fromProperties());
+  }
+
+  /**
+   * Finds the entity classes in the metadata generated at compile time. The ClassIndex lookup is used only when no metadata was generated,
+   * for example when the entities were compiled without the annotation processor.
+   */
+  private static Set<Class<?>> findEntityClasses() {
+    Set<Class<?>> entityClasses = EntityMetadataRegistry.getEntityClasses();
+    return entityClasses.isEmpty() ? EntityUtil.getAllEntitiesClasses() : entityClasses;
+  }
+
+  private static ReplicaRouter createReplicaRouter(PersistenceProperties persistenceProperties) {
+    ReplicaProperties replicaProperties = ReplicaProperties.fromProperties(persistenceProperties);
+    if (replicaProperties.urls().isEmpty()) {
+      return null;
+    }
+    List<Replica> replicas = new ArrayList<>();
+    for (String url : replicaProperties.urls()) {
+      // every data source needs its own factory, the default factory configures and returns itself
+      var factory = CentralConnectionPoolFactory.getConnectionPoolFactory(persistenceProperties.type());
+      var dataSource = factory.createDataSource(replicaProperties.toPersistenceProperties(persistenceProperties, url));
+      replicas.add(new Replica(dataSource, factory.getStatistics(dataSource).orElse(null)));
+    }
+    return new ReplicaRouter(replicas, replicaProperties.routing());
   }
 
   private static Dialect getDialectInstance(PersistenceProperties persistenceProperties) {
@@ -0,0 +1,90 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.config.LoggerFactory;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import java.lang.reflect.Field;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+
+/**
+ * Slow query log and N+1 select detector of a single session, configured by {@link QueryLogProperties}.
+ * <p>
+ * A statement which took at least the slow query threshold is logged at WARN level with its bind parameters, duration and row count. The
+ * detector counts statements executed while a lazy association is loaded, per association and statement shape. When a shape exceeds the
+ * threshold for an association, a single warning names the association, the association is then usually loaded once per owner entity.
+ * Lazy associations of one session may be loaded on several threads, so the counters are updated atomically.
+ */
+class QueryLog {
+
+  private static final Logger log = LoggerFactory.getLogger(QueryLog.class);
+
+  static final String MASKED_PARAMETER = "***";
+
+  private final long slowQueryThresholdNanos;
+  private final boolean maskParameters;
+  private final int nPlusOneThreshold;
+  private final Map<LazyLoadQuery, Integer> lazyLoadExecutions = new ConcurrentHashMap<>();
+
+  QueryLog(QueryLogProperties properties) {
+    this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(properties.slowQueryThresholdMillis());
+    this.maskParameters = properties.maskParameters();
+    this.nPlusOneThreshold = properties.nPlusOneThreshold();
+  }
+
+  /**
+   * @return whether statement durations have to be measured for the slow query log
+   */
+  boolean isSlowQueryLogEnabled() {
+    return slowQueryThresholdNanos > 0;
+  }
+
+  /**
+   * Logs the statement if it took at least the slow query threshold.
+   *
+   * @param sql        the executed SQL
+   * @param parameters the bind parameters in the order of their placeholders
+   * @param nanos      the execution time
+   * @param rowCount   the number of returned or updated rows
+   */
+  void queryExecuted(String sql, Object[] parameters, long nanos, long rowCount) {
+    if (isSlowQueryLogEnabled() && nanos >= slowQueryThresholdNanos) {
+      log.warn("Bibernate, slow query: [{}], parameters: {}, duration: {} ms, rows: {}", sql, formatParameters(parameters),
+          TimeUnit.NANOSECONDS.toMillis(nanos), rowCount);
+    }
+  }
+
+  /**
+   * Counts a statement executed to load the given lazy association and warns once when its shape exceeds the N+1 threshold.
+   *
+   * @param association the lazy association being loaded
+   * @param sql         the executed SQL
+   */
+  void lazyLoadQueryExecuted(Field association, String sql) {
+    if (nPlusOneThreshold == 0) {
+      return;
+    }
+    LazyLoadQuery query = new LazyLoadQuery(association, BibernateStatistics.toSqlShape(sql));
+    int executions = lazyLoadExecutions.merge(query, 1, Integer::sum);
+    if (executions == nPlusOneThreshold + 1) {
+      log.warn("Bibernate, possible N+1 select: [{}] executed more than {} times to lazily load [{}.{}] association, "
+              + "consider an eager fetch profile for it", query.sqlShape(), nPlusOneThreshold,
+          association.getDeclaringClass().getSimpleName(), association.getName());
+    }
+  }
+
+  private String formatParameters(Object[] parameters) {
+    if (!maskParameters) {
+      return Arrays.deepToString(parameters);
+    }
+    String[] masked = new String[parameters.length];
+    Arrays.fill(masked, MASKED_PARAMETER);
+    return Arrays.toString(masked);
+  }
+
+  private record LazyLoadQuery(Field association, String sqlShape) {
+
+  }
+}
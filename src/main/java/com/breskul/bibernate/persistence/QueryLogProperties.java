@@ -0,0 +1,59 @@
+package com.breskul.bibernate.persistence;
+
+import com.breskul.bibernate.config.PropertiesConfiguration;
+import com.breskul.bibernate.exception.InvalidPropertyValueException;
+
+/**
+ * Settings of the slow query log and the N+1 select detector, read from the {@code bibernate.log.*} properties. Both are disabled by
+ * default.
+ * <p>
+ * Supported properties:
+ * <ul>
+ *   <li>{@value #SLOW_QUERY_THRESHOLD} - milliseconds after which an executed statement is logged with its bind parameters, duration and
+ *   row count, {@code 0} disables the log</li>
+ *   <li>{@value #MASK_PARAMETERS} - whether bind parameter values are replaced by {@code ***} in the slow query log</li>
+ *   <li>{@value #N_PLUS_ONE_THRESHOLD} - the number of executions of the same statement shape by lazy loads of one association within a
+ *   session after which a N+1 select warning is logged, {@code 0} disables the detector</li>
+ * </ul>
+ *
+ * @param slowQueryThresholdMillis milliseconds after which a statement is logged as slow, 0 if disabled
+ * @param maskParameters           whether bind parameter values are masked
+ * @param nPlusOneThreshold        lazy load executions of a statement shape tolerated per association, 0 if disabled
+ */
+public record QueryLogProperties(long slowQueryThresholdMillis, boolean maskParameters, int nPlusOneThreshold) {
+
+  public static final String SLOW_QUERY_THRESHOLD = "bibernate.log.slow_query_threshold";
+  public static final String MASK_PARAMETERS = "bibernate.log.mask_parameters";
+  public static final String N_PLUS_ONE_THRESHOLD = "bibernate.log.n_plus_one_threshold";
+
+  public QueryLogProperties {
+    if (slowQueryThresholdMillis < 0) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value should not be negative!".formatted(SLOW_QUERY_THRESHOLD));
+    }
+    if (nPlusOneThreshold < 0) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value should not be negative!".formatted(N_PLUS_ONE_THRESHOLD));
+    }
+  }
+
+  /**
+   * @return the settings with the slow query log and the N+1 select detector disabled
+   */
+  public static QueryLogProperties disabled() {
+    return new QueryLogProperties(0, false, 0);
+  }
+
+  /**
+   * Reads the settings from the configuration properties, absent properties disable the corresponding feature.
+   *
+   * @return the configured settings
+   * @throws InvalidPropertyValueException if some property value is not a number or is negative
+   */
+  public static QueryLogProperties fromProperties() {
+    return new QueryLogProperties(
+        PropertiesConfiguration.getPropertyAsIntOrDefault(SLOW_QUERY_THRESHOLD, 0),
+        Boolean.parseBoolean(PropertiesConfiguration.getPropertyOrDefault(MASK_PARAMETERS, "false").trim()),
+        PropertiesConfiguration.getPropertyAsIntOrDefault(N_PLUS_ONE_THRESHOLD, 0));
+  }
+}
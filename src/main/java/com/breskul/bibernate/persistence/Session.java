@@ -1,30 +1,53 @@
 package com.breskul.bibernate.persistence;
 
 import static com.breskul.bibernate.util.EntityUtil.findEntityIdFieldName;
-import static java.util.Comparator.comparing;
 
-import com.breskul.bibernate.action.Action;
+import com.breskul.bibernate.action.ActionQueue;
 import com.breskul.bibernate.action.DeleteAction;
 import com.breskul.bibernate.action.InsertAction;
 import com.breskul.bibernate.action.UpdateAction;
+import com.breskul.bibernate.annotation.CascadeType;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.OneToOne;
 import com.breskul.bibernate.config.LoggerFactory;
+import com.breskul.bibernate.exception.AssociationException;
 import com.breskul.bibernate.exception.BibernateException;
 import com.breskul.bibernate.exception.EntityIsNotManagedException;
 import com.breskul.bibernate.persistence.context.PersistenceContext;
 import com.breskul.bibernate.persistence.context.snapshot.EntityPropertySnapshot;
 import com.breskul.bibernate.persistence.context.snapshot.EntityRelationSnapshot;
 import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.proxy.LazyProxy;
 import com.breskul.bibernate.query.hql.BiQLMapper;
+import com.breskul.bibernate.query.hql.BiQLStatement;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import com.breskul.bibernate.statistics.Statistics;
+import com.breskul.bibernate.statistics.jfr.DirtyCheckEvent;
+import com.breskul.bibernate.statistics.jfr.FlushEvent;
 import com.breskul.bibernate.transaction.Transaction;
 import com.breskul.bibernate.transaction.TransactionStatus;
+import com.breskul.bibernate.util.AssociationUtil;
+import com.breskul.bibernate.util.CascadeUtil;
 import com.breskul.bibernate.util.EntityUtil;
+import com.breskul.bibernate.util.ReflectionUtil;
+import java.lang.reflect.Field;
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
-import java.util.PriorityQueue;
-import java.util.Queue;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import javax.sql.DataSource;
 import org.slf4j.Logger;
@@ -40,6 +63,16 @@ import org.slf4j.Logger;
  * <p>
  * Additionally, the session class manages the persistence context, which stores first-level cached entities and their snapshots. It also
  * maintains an action queue to track operations performed within the session.
+ * <p>
+ * A long batch session can keep its persistence context small with {@link #evict(Object)} and {@link #clear()}, or with
+ * {@link #setManagedEntityLimit(int)}, which flushes and clears the session whenever the number of managed entities reaches the limit:
+ * <pre>{@code
+ * session.setManagedEntityLimit(1000);
+ * for (Object id : ids) {
+ *   session.findById(Person.class, id).setFirstName("Mike");
+ * }
+ * session.flush();
+ * }</pre>
  */
 public class Session implements AutoCloseable {
 
@@ -47,17 +80,46 @@ public class Session implements AutoCloseable {
 
   private final GenericDao genericDao;
   private final PersistenceContext persistenceContext;
-  private final Queue<Action> actionQueue = new PriorityQueue<>(comparing(Action::priority));
+  private final ActionQueue actionQueue = new ActionQueue();
   private final Connection connection;
+  private final boolean readOnly;
+  private final BibernateStatistics statistics;
 
   private Transaction transaction;
   private boolean sessionStatus;
+  private int managedEntityLimit;
+  private Consumer<Session> managedEntityLimitCallback;
+  private boolean managedEntityLimitReached;
 
   public Session(DataSource dataSource, Dialect dialect, boolean showSql) throws SQLException {
+    this(dataSource, dialect, showSql, false, new BibernateStatistics(false), QueryLogProperties.disabled());
+  }
+
+  /**
+   * Creates a session. A read-only session marks its connection read-only, rejects persist, merge and delete calls and does not flush
+   * changes of loaded entities.
+   *
+   * @param dataSource         the data source to obtain the session connection from
+   * @param dialect            the database dialect
+   * @param showSql            whether the executed SQL is logged
+   * @param readOnly           whether the session is read-only
+   * @param statistics         the statistics the session records to
+   * @param queryLogProperties the settings of the slow query log and the N+1 select detector
+   * @throws SQLException if the connection can not be obtained
+   */
+  Session(DataSource dataSource, Dialect dialect, boolean showSql, boolean readOnly, BibernateStatistics statistics,
+      QueryLogProperties queryLogProperties) throws SQLException {
+    long connectionRequestStartTime = statistics.startTime();
     connection = dataSource.getConnection();
+    statistics.sessionOpened(connectionRequestStartTime);
     connection.setAutoCommit(true);
+    // always set, a pooled connection may come back read-only if the pool does not reset the flag
+    connection.setReadOnly(readOnly);
+    this.readOnly = readOnly;
+    this.statistics = statistics;
     persistenceContext = new PersistenceContext();
-    genericDao = new GenericDao(connection, persistenceContext, dialect, showSql);
+    persistenceContext.setDefaultReadOnly(readOnly);
+    genericDao = new GenericDao(connection, persistenceContext, dialect, showSql, statistics, queryLogProperties);
     sessionStatus = true;
   }
 
@@ -70,24 +132,63 @@ public class Session implements AutoCloseable {
    * @return object of entity class
    */
   public <T> T findById(Class<T> entityClass, Object id) {
-    return findById(entityClass, id, null);
+    return findById(entityClass, id, (LockType) null);
   }
 
   public <T> T findById(Class<T> entityClass, Object id, LockType lockType) {
+    return findById(entityClass, id, lockType == null ? null : LockOptions.of(lockType));
+  }
+
+  /**
+   * Find entry by id for specified entity class and lock its row. The entity is always selected from the database, even if it is in the
+   * persistence context.
+   *
+   * @param entityClass represents table
+   * @param id          is used search
+   * @param lockOptions the lock mode and the behaviour when the row is locked by another transaction
+   * @param <T>         represent type of entity
+   * @return object of entity class, or null if it does not exist or was skipped as locked
+   */
+  public <T> T findById(Class<T> entityClass, Object id, LockOptions lockOptions) {
+    return findById(entityClass, id, lockOptions, null);
+  }
+
+  /**
+   * Find entry by id for specified entity class, loading its associations according to the given fetch profile. If the entity is already
+   * in the persistence context, the cached instance is returned as is.
+   *
+   * @param entityClass  represents table
+   * @param id           is used search
+   * @param fetchProfile overrides mapped fetch types of the loaded associations
+   * @param <T>          represent type of entity
+   * @return object of entity class
+   */
+  public <T> T findById(Class<T> entityClass, Object id, FetchProfile fetchProfile) {
+    return findById(entityClass, id, null, fetchProfile);
+  }
+
+  private <T> T findById(Class<T> entityClass, Object id, LockOptions lockOptions, FetchProfile fetchProfile) {
     verifyIsSessionOpen();
     Objects.requireNonNull(id, "Required id to load load entity, pleas provide not null value");
-    return Optional.ofNullable(persistenceContext.getEntity(entityClass, id))
-        .filter(entity -> lockType == null)
-        .orElseGet(() -> find(EntityKey.of(entityClass, id), lockType));
+    checkManagedEntityLimit();
+    if (lockOptions == null) {
+      T cachedEntity = persistenceContext.getEntity(entityClass, id);
+      if (cachedEntity != null) {
+        statistics.firstLevelCacheHit();
+        return cachedEntity;
+      }
+      statistics.firstLevelCacheMiss();
+    }
+    return find(EntityKey.of(entityClass, id), lockOptions, fetchProfile);
   }
 
   private <T> T find(EntityKey<? extends T> entityKey) {
-    return find(entityKey, null);
+    return find(entityKey, null, null);
   }
 
-  private <T> T find(EntityKey<? extends T> entityKey, LockType lockType) {
+  private <T> T find(EntityKey<? extends T> entityKey, LockOptions lockOptions, FetchProfile fetchProfile) {
     verifyIsSessionOpen();
-    T entity = genericDao.findById(entityKey.entityClass(), entityKey.id(), lockType);
+    T entity = genericDao.findById(entityKey.entityClass(), entityKey.id(), lockOptions, fetchProfile);
     if (entity == null) {
       return null;
     }
@@ -111,6 +212,8 @@ public class Session implements AutoCloseable {
    * @return The updated managed entity.
    */
   public <T> T mergeEntity(T mergeEntity) {
+    verifyIsSessionWritable();
+    checkManagedEntityLimit();
     var mergeEntityKey = EntityKey.valueOf(mergeEntity);
     if (persistenceContext.contains(mergeEntity)) {
       T cachedEntity = persistenceContext.getEntity(mergeEntityKey);
@@ -147,14 +250,96 @@ public class Session implements AutoCloseable {
   }
 
   /**
-   * Make an instance managed and persistent.
+   * Make an instance managed and persistent. New entities reachable from it along associations with {@link CascadeType#PERSIST} are
+   * persisted too, referenced entities before the entities which refer to them, and entities of one class one after another with one JDBC
+   * batch. Persisting a managed entity only cascades to its associations, detached entities reachable from it are left as they are.
    *
    * @param entity entity instance
+   * @throws BibernateException if the entity is detached, use {@link #mergeEntity(Object)} for it instead
    */
   public <T> void persist(T entity) {
     verifyIsSessionOpen();
-    new InsertAction(genericDao, entity).execute();
-    persistenceContext.put(entity);
+    verifyIsSessionWritable();
+    checkManagedEntityLimit();
+    boolean managed = entity instanceof LazyProxy || persistenceContext.contains(entity);
+    if (!managed && !isTransient(entity)) {
+      throw new BibernateException("Detached entity [%s] passed to persist".formatted(EntityKey.valueOf(entity)));
+    }
+    List<Object> cascaded = CascadeUtil.collectCascaded(entity, CascadeType.PERSIST, this::isTransient);
+    insert(CascadeUtil.sortByForeignKeys(managed ? cascaded.subList(1, cascaded.size()) : cascaded));
+  }
+
+  /**
+   * Inserts entities sorted by foreign keys. Adjacent entities of one class are inserted with one JDBC batch, a batch ends where an entity
+   * refers to another one of the batch or where the entities switch between assigned and generated ids.
+   */
+  private void insert(List<Object> entities) {
+    List<Object> batch = new ArrayList<>();
+    Set<Object> batched = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object entity : entities) {
+      if (!batch.isEmpty() && !fitsInsertBatch(batch.get(0), batched, entity)) {
+        insertBatch(batch);
+        batch.clear();
+        batched.clear();
+      }
+      batch.add(entity);
+      batched.add(entity);
+    }
+    if (!batch.isEmpty()) {
+      insertBatch(batch);
+    }
+    for (Object entity : entities) {
+      for (Field field : CascadeUtil.getCascadedFields(entity.getClass(), CascadeType.REMOVE)) {
+        if (CascadeUtil.isOrphanRemoval(field) && EntityUtil.isCollectionEntityField(field)
+            && ReflectionUtil.readFieldValue(entity, field) instanceof Collection<?> elements) {
+          persistenceContext.takeCollectionSnapshot(entity, field, elements);
+        }
+      }
+      for (Field field : EntityUtil.getOwningManyToManyFields(entity.getClass())) {
+        // a new entity has no join table rows yet, all its elements are inserted on flush
+        persistenceContext.takeCollectionSnapshot(entity, field, List.of());
+      }
+    }
+  }
+
+  private boolean fitsInsertBatch(Object first, Set<Object> batched, Object entity) {
+    if (first.getClass() != entity.getClass()
+        || (EntityUtil.getEntityId(first) == null) != (EntityUtil.getEntityId(entity) == null)) {
+      return false;
+    }
+    return Arrays.stream(entity.getClass().getDeclaredFields())
+        .filter(EntityUtil::isToOneRelation)
+        .noneMatch(field -> batched.contains(ReflectionUtil.readFieldValue(entity, field)));
+  }
+
+  private void insertBatch(List<Object> batch) {
+    if (batch.size() == 1) {
+      new InsertAction(genericDao, batch.get(0)).execute();
+    } else {
+      genericDao.saveAll(batch);
+    }
+    batch.forEach(persistenceContext::put);
+  }
+
+  /**
+   * An entity without id is new, a managed entity and a lazy proxy are not. An unmanaged entity with an id is new only if it has not been
+   * stored yet: a versioned entity gets its version when it is inserted, so it is new while the version is null, for other entities the
+   * row is looked up by id. Every other unmanaged entity with an id is detached, e.g. evicted or cleared from this session.
+   */
+  private boolean isTransient(Object entity) {
+    if (entity instanceof LazyProxy) {
+      return false;
+    }
+    Object id = EntityUtil.getEntityId(entity);
+    if (id == null) {
+      return true;
+    }
+    if (persistenceContext.contains(entity)) {
+      return false;
+    }
+    return EntityUtil.findEntityVersionField(entity.getClass())
+        .map(versionField -> ReflectionUtil.readFieldValue(entity, versionField) == null)
+        .orElseGet(() -> !genericDao.existsById(entity.getClass(), id));
   }
 
   /**
@@ -164,6 +349,129 @@ public class Session implements AutoCloseable {
     return sessionStatus;
   }
 
+  /**
+   * Returns the statistics of the session factory which opened this session, shared by all its sessions. A session created directly has
+   * its own disabled statistics.
+   */
+  public Statistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Check if the session is read-only, such a session may use a read replica.
+   */
+  public boolean isReadOnly() {
+    return readOnly;
+  }
+
+  /**
+   * Marks a managed entity read-only or modifiable. Changes of a read-only entity are not flushed, and the entity is skipped by dirty
+   * checking, so a flush does not compare entities that are only read. A read-only entity can still be deleted.
+   *
+   * @param entity   the managed entity
+   * @param readOnly whether the entity is read-only
+   * @param <T>      the type of the entity
+   * @throws EntityIsNotManagedException if the entity is not in the persistence context
+   */
+  public <T> void setReadOnly(T entity, boolean readOnly) {
+    verifyIsSessionOpen();
+    if (!persistenceContext.contains(entity)) {
+      throw new EntityIsNotManagedException(
+          "Entity [%s] could not be marked read-only because not found in the persistent context.".formatted(entity));
+    }
+    persistenceContext.setReadOnly(entity, readOnly);
+  }
+
+  /**
+   * Check if the managed entity is read-only.
+   *
+   * @param entity the managed entity
+   * @param <T>    the type of the entity
+   * @return {@code true} if the entity is read-only, {@code false} otherwise
+   */
+  public <T> boolean isReadOnly(T entity) {
+    verifyIsSessionOpen();
+    return persistenceContext.isReadOnly(entity);
+  }
+
+  /**
+   * Sets whether entities loaded or persisted by this session from now on are read-only, for example before loading a large result to only read
+   * it. All entities of a read-only session are read-only.
+   *
+   * @param defaultReadOnly whether loaded entities are read-only
+   */
+  public void setDefaultReadOnly(boolean defaultReadOnly) {
+    verifyIsSessionOpen();
+    persistenceContext.setDefaultReadOnly(readOnly || defaultReadOnly);
+  }
+
+  /**
+   * Check if the entity is managed by this session.
+   *
+   * @param entity the entity
+   * @param <T>    the type of the entity
+   * @return {@code true} if the entity is in the persistence context, {@code false} otherwise
+   */
+  public <T> boolean contains(T entity) {
+    verifyIsSessionOpen();
+    return persistenceContext.contains(entity);
+  }
+
+  /**
+   * Removes the entity from the persistence context. Its changes which were not flushed are not flushed, later changes are not tracked
+   * and the next {@link #findById(Class, Object)} loads a new instance. Managed entities reachable from it along loaded associations with
+   * {@link CascadeType#DETACH} are evicted too. Does nothing if the entity is not managed.
+   *
+   * @param entity the managed entity
+   * @param <T>    the type of the entity
+   */
+  public <T> void evict(T entity) {
+    verifyIsSessionOpen();
+    log.trace("Evicting entity: {}", entity);
+    CascadeUtil.collectCascaded(entity, CascadeType.DETACH, persistenceContext::contains)
+        .forEach(persistenceContext::delete);
+  }
+
+  /**
+   * Evicts all entities from the persistence context and discards the actions which were not flushed, such as pending deletes.
+   */
+  public void clear() {
+    verifyIsSessionOpen();
+    persistenceContext.clear();
+    actionQueue.clear();
+  }
+
+  /**
+   * Sets a soft limit on the number of managed entities, on reaching it the session is flushed and cleared. The limit is checked before
+   * an entity is loaded, queried, persisted or merged, so the entities returned by the latest operation stay managed until the next
+   * one, and a single query may exceed the limit.
+   *
+   * @param limit the number of managed entities, 0 disables the limit
+   * @see #setManagedEntityLimit(int, Consumer)
+   */
+  public void setManagedEntityLimit(int limit) {
+    setManagedEntityLimit(limit, session -> {
+      session.flush();
+      session.clear();
+    });
+  }
+
+  /**
+   * Sets a soft limit on the number of managed entities, on reaching it the given callback is invoked. The callback is expected to shrink
+   * the persistence context, for example to flush the session and evict the processed entities.
+   *
+   * @param limit    the number of managed entities, 0 disables the limit
+   * @param callback invoked with this session before an operation when the limit is reached
+   * @throws IllegalArgumentException if the limit is negative
+   */
+  public void setManagedEntityLimit(int limit, Consumer<Session> callback) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Managed entity limit should not be negative");
+    }
+    this.managedEntityLimit = limit;
+    this.managedEntityLimitCallback = Objects.requireNonNull(callback);
+  }
+
   /**
    * Returns session transaction. If session does not have it or transaction was completed or rolled back then creates new
    * {@link Transaction}
@@ -186,7 +494,8 @@ public class Session implements AutoCloseable {
   }
 
   /**
-   * Creates delete action and put it in action queue
+   * Creates delete action and put it in action queue. Managed entities reachable from it along associations with
+   * {@link CascadeType#REMOVE} or orphan removal are deleted too, entities which refer to others before the referenced ones.
    *
    * @param entity represents entity that will be deleted
    * @param <T>    represents type of entry
@@ -194,8 +503,21 @@ public class Session implements AutoCloseable {
   public <T> void delete(T entity) {
     verifyEntityManaged(entity);
     verifyIsSessionOpen();
-    actionQueue.offer(new DeleteAction(genericDao, entity));
-    persistenceContext.delete(entity);
+    verifyIsSessionWritable();
+    scheduleDeletes(List.of(entity));
+  }
+
+  private void scheduleDeletes(List<?> entities) {
+    Set<Object> removed = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (Object entity : entities) {
+      removed.addAll(CascadeUtil.collectCascaded(entity, CascadeType.REMOVE, persistenceContext::contains));
+    }
+    List<Object> ordered = new ArrayList<>(CascadeUtil.sortByForeignKeys(removed));
+    Collections.reverse(ordered);
+    for (Object removedEntity : ordered) {
+      actionQueue.add(new DeleteAction(genericDao, removedEntity));
+      persistenceContext.delete(removedEntity);
+    }
   }
 
   /**
@@ -207,6 +529,7 @@ public class Session implements AutoCloseable {
    * @return a list of objects of type T
    */
   public <T> List<T> executeNativeQuery(String sqlString, Class<T> resultClass) {
+    checkManagedEntityLimit();
     return genericDao.executeNativeQuery(sqlString, resultClass);
   }
 
@@ -222,9 +545,156 @@ public class Session implements AutoCloseable {
     return executeNativeQuery(BiQLMapper.bqlToSql(bglString, resultClass), resultClass);
   }
 
+  /**
+   * Executes a SQL query and returns the results as a list of the specified type, loading associations according to the given fetch
+   * profile.
+   *
+   * @param <T>          the type of the result list
+   * @param sqlString    the SQL query to execute
+   * @param resultClass  the class of the results
+   * @param fetchProfile overrides mapped fetch types of the loaded associations
+   * @return a list of objects of type T
+   */
+  public <T> List<T> executeNativeQuery(String sqlString, Class<T> resultClass,
+      FetchProfile fetchProfile) {
+    checkManagedEntityLimit();
+    return genericDao.executeNativeQuery(sqlString, resultClass, null, fetchProfile);
+  }
+
+  /**
+   * Converts a BiQL query to SQL and executes it, loading associations according to the given fetch profile.
+   *
+   * @param <T>          the type of the result list
+   * @param bglString    the BiQL query string
+   * @param resultClass  the class of the results
+   * @param fetchProfile overrides mapped fetch types of the loaded associations
+   * @return a list of objects of type T
+   */
+  public <T> List<T> executeBiQLQuery(String bglString, Class<T> resultClass,
+      FetchProfile fetchProfile) {
+    return executeNativeQuery(BiQLMapper.bqlToSql(bglString, resultClass), resultClass,
+        fetchProfile);
+  }
+
+  /**
+   * Executes a SQL query which locks the selected rows, for example to claim rows of a queue table with
+   * {@link LockOptions#skipLocked()}. The locking clause of the dialect is appended to the query.
+   *
+   * @param <T>         the type of the result list
+   * @param sqlString   the SQL query to execute, without a locking clause
+   * @param resultClass the class of the results
+   * @param lockOptions the lock mode and the behaviour when a row is locked by another transaction
+   * @return a list of objects of type T
+   */
+  public <T> List<T> executeNativeQuery(String sqlString, Class<T> resultClass, LockOptions lockOptions) {
+    checkManagedEntityLimit();
+    return genericDao.executeNativeQuery(sqlString, resultClass, lockOptions);
+  }
+
+  /**
+   * Converts a BiQL query to SQL and executes it, locking the selected rows with the given lock options.
+   *
+   * @param <T>         the type of the result list
+   * @param bglString   the BiQL query string
+   * @param resultClass the class of the results
+   * @param lockOptions the lock mode and the behaviour when a row is locked by another transaction
+   * @return a list of objects of type T
+   */
+  public <T> List<T> executeBiQLQuery(String bglString, Class<T> resultClass, LockOptions lockOptions) {
+    return executeNativeQuery(BiQLMapper.bqlToSql(bglString, resultClass), resultClass, lockOptions);
+  }
+
+  /**
+   * Converts a bulk BiQL update or delete statement to SQL and executes it as a single statement, without loading the changed rows.
+   *
+   * @param bqlString   the BiQL statement, for example {@code update Person p set p.firstName = 'Mike' where p.lastName = 'Doe'}
+   * @param entityClass the entity class whose table is changed
+   * @return the number of updated or deleted rows
+   * @see #executeBiQLUpdate(String, Class, Map)
+   */
+  public <T> int executeBiQLUpdate(String bqlString, Class<T> entityClass) {
+    return executeBiQLUpdate(bqlString, entityClass, Map.of());
+  }
+
+  /**
+   * Converts a bulk BiQL update or delete statement with named parameters to SQL and executes it as a single statement, without loading
+   * the changed rows. The session is flushed before, so the statement sees its pending changes. All entities of the class are evicted
+   * after, since any of them may have been changed, they are loaded again by later finds and queries. Managed entities which refer to an
+   * evicted entity along a loaded association are evicted too, so no managed entity keeps a stale instance. An update of a versioned
+   * entity increments the version of the changed rows.
+   *
+   * @param bqlString   the BiQL statement, for example {@code delete from Person p where p.lastName = :lastName}
+   * @param entityClass the entity class whose table is changed
+   * @param parameters  the values of the named parameters
+   * @return the number of updated or deleted rows
+   * @throws com.breskul.bibernate.exception.BiQLException if the statement is malformed, a parameter value is missing or the statement
+   *                                                        fails
+   */
+  public <T> int executeBiQLUpdate(String bqlString, Class<T> entityClass, Map<String, ?> parameters) {
+    verifyIsSessionOpen();
+    verifyIsSessionWritable();
+    BiQLStatement statement = BiQLMapper.bulkBqlToSql(bqlString, entityClass);
+    Object[] values = statement.bindParameters(parameters);
+    flush();
+    int result = genericDao.executeBulkUpdate(statement.sql(), entityClass, values);
+    evictAll(entityClass);
+    return result;
+  }
+
+  /**
+   * Evicts the entities of the class and the managed entities which refer to them along loaded associations, repeatedly, then cascades
+   * the eviction along {@link CascadeType#DETACH}.
+   */
+  private void evictAll(Class<?> entityClass) {
+    Map<Class<?>, List<Field>> associationFields = new HashMap<>();
+    List<Object> managed = persistenceContext.getEntityKeys().stream()
+        .<Object>map(persistenceContext::getEntity)
+        .toList();
+    Set<Object> evicted = Collections.newSetFromMap(new IdentityHashMap<>());
+    managed.stream().filter(entity -> entity.getClass() == entityClass).forEach(evicted::add);
+    boolean referencesEvicted = !evicted.isEmpty();
+    while (referencesEvicted) {
+      referencesEvicted = false;
+      for (Object entity : managed) {
+        List<Field> fields = associationFields.computeIfAbsent(entity.getClass(), Session::getAssociationFields);
+        if (!evicted.contains(entity) && refersToAny(entity, fields, evicted)) {
+          evicted.add(entity);
+          referencesEvicted = true;
+        }
+      }
+    }
+    log.debug("Evicting {} entities after a bulk statement on {}", evicted.size(), entityClass.getName());
+    for (Object entity : evicted) {
+      CascadeUtil.collectCascaded(entity, CascadeType.DETACH, persistenceContext::contains)
+          .forEach(persistenceContext::delete);
+    }
+  }
+
+  private static List<Field> getAssociationFields(Class<?> cls) {
+    return Arrays.stream(cls.getDeclaredFields())
+        .filter(field -> EntityUtil.isCollectionEntityField(field) || field.isAnnotationPresent(ManyToOne.class)
+            || field.isAnnotationPresent(OneToOne.class))
+        .toList();
+  }
+
+  private static boolean refersToAny(Object entity, List<Field> associationFields, Set<Object> entities) {
+    for (Field field : associationFields) {
+      Object value = ReflectionUtil.readFieldValue(entity, field);
+      if (value == null || !AssociationUtil.isInitialized(value)) {
+        continue;
+      }
+      if (value instanceof Collection<?> collection ? collection.stream().anyMatch(entities::contains) : entities.contains(value)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Closes the session, performing necessary operations such as dirty checking, clearing the persistence context, clearing the action
-   * queue, and updating the session status.
+   * queue, and updating the session status. The connection of a read-only session is switched back to read-write and closed, which
+   * returns it to the pool. Lazy associations which were not
+   * loaded before can not be loaded after the session is closed.
    */
   @Override
   public void close() {
@@ -232,10 +702,31 @@ public class Session implements AutoCloseable {
     actionQueue.clear();
 
     if (transaction != null && transaction.getStatus().canRollback()) {
-      transaction.rollback();
+      try {
+        transaction.rollback();
+      } catch (BibernateException e) {
+        // the connection may be broken, e.g. evicted by the pool after a lock timeout, it is closed anyway
+        log.warn("Bibernate, failed to roll back transaction of closed session", e);
+      }
     }
 
+    genericDao.close();
+    if (sessionStatus) {
+      statistics.sessionClosed();
+    }
     sessionStatus = false;
+    try {
+      if (readOnly) {
+        connection.setReadOnly(false);
+      }
+    } catch (SQLException e) {
+      log.warn("Bibernate, failed to reset read-only flag of session connection", e);
+    }
+    try {
+      connection.close();
+    } catch (SQLException e) {
+      log.warn("Bibernate, failed to close session connection", e);
+    }
   }
 
   /**
@@ -243,21 +734,131 @@ public class Session implements AutoCloseable {
    */
   public void flush() {
     verifyIsSessionOpen();
+    FlushEvent event = new FlushEvent();
+    event.begin();
+    long startTime = statistics.startTime();
+    if (!readOnly) {
+      cascadePersist();
+      removeOrphans();
+      flushJoinTables();
+    }
     performDirtyChecking();
     log.trace("Flushing session action queue");
-    while (!actionQueue.isEmpty()) {
-      actionQueue.poll().execute();
+    int actionCount = actionQueue.executeAll();
+    statistics.flushed(startTime);
+    event.complete(persistenceContext.getEntityKeys().size(), actionCount);
+  }
+
+  /**
+   * Persists new entities added to associations with {@link CascadeType#PERSIST} of managed entities.
+   */
+  private void cascadePersist() {
+    List<Object> transientEntities = new ArrayList<>();
+    for (EntityKey<?> entityKey : List.copyOf(persistenceContext.getEntityKeys())) {
+      if (CascadeUtil.getCascadedFields(entityKey.entityClass(), CascadeType.PERSIST).isEmpty()
+          || persistenceContext.isReadOnly(persistenceContext.getEntity(entityKey))) {
+        continue;
+      }
+      List<Object> cascaded = CascadeUtil.collectCascaded(persistenceContext.getEntity(entityKey), CascadeType.PERSIST,
+          this::isTransient);
+      transientEntities.addAll(cascaded.subList(1, cascaded.size()));
+    }
+    if (!transientEntities.isEmpty()) {
+      Set<Object> unique = Collections.newSetFromMap(new IdentityHashMap<>());
+      insert(CascadeUtil.sortByForeignKeys(transientEntities.stream().filter(unique::add).toList()));
     }
   }
 
   /**
-   * Performs dirty checking on entities in the persistence context and flushes any changes found.
+   * Deletes entities removed from associations with orphan removal of managed entities.
+   */
+  private void removeOrphans() {
+    List<Object> orphans = persistenceContext.findOrphans();
+    if (!orphans.isEmpty()) {
+      log.debug("Deleting {} orphan entities", orphans.size());
+      scheduleDeletes(orphans);
+    }
+  }
+
+  /**
+   * Writes the changes of loaded owning many-to-many collections of managed entities to their join tables. The element ids of a collection
+   * are compared with its snapshot, only the rows of removed and added elements are deleted and inserted, in one batch per join table and
+   * statement. A collection replaced before it was loaded has no snapshot, its rows are read from the join table instead.
+   *
+   * @throws AssociationException if a collection contains an entity which is not persisted
+   */
+  private void flushJoinTables() {
+    Map<Field, List<Object[]>> removedRows = new LinkedHashMap<>();
+    Map<Field, List<Object[]>> addedRows = new LinkedHashMap<>();
+    List<Runnable> snapshotUpdates = new ArrayList<>();
+    for (EntityKey<?> ownerKey : List.copyOf(persistenceContext.getEntityKeys())) {
+      List<Field> fields = EntityUtil.getOwningManyToManyFields(ownerKey.entityClass());
+      Object owner = persistenceContext.getEntity(ownerKey);
+      if (fields.isEmpty() || persistenceContext.isReadOnly(owner)) {
+        continue;
+      }
+      for (Field field : fields) {
+        Object value = ReflectionUtil.readFieldValue(owner, field);
+        if (value != null && !AssociationUtil.isInitialized(value)) {
+          continue;
+        }
+        Collection<?> elements = value == null ? List.of() : (Collection<?>) value;
+        Set<Object> currentIds = getElementIds(field, elements);
+        Set<EntityKey<?>> snapshot = persistenceContext.getCollectionSnapshot(ownerKey, field);
+        Set<Object> snapshotIds = snapshot == null ? genericDao.findJoinTableElementIds(field, ownerKey.id())
+            : snapshot.stream().map(EntityKey::id).collect(Collectors.toSet());
+        if (currentIds.equals(snapshotIds)) {
+          continue;
+        }
+        snapshotIds.stream()
+            .filter(elementId -> !currentIds.contains(elementId))
+            .forEach(elementId -> removedRows.computeIfAbsent(field, key -> new ArrayList<>())
+                .add(new Object[]{ownerKey.id(), elementId}));
+        currentIds.stream()
+            .filter(elementId -> !snapshotIds.contains(elementId))
+            .forEach(elementId -> addedRows.computeIfAbsent(field, key -> new ArrayList<>())
+                .add(new Object[]{ownerKey.id(), elementId}));
+        snapshotUpdates.add(() -> persistenceContext.takeCollectionSnapshot(owner, field, elements));
+      }
+    }
+    Set<Field> changedFields = new LinkedHashSet<>(removedRows.keySet());
+    changedFields.addAll(addedRows.keySet());
+    for (Field field : changedFields) {
+      genericDao.updateJoinTable(field, removedRows.getOrDefault(field, List.of()),
+          addedRows.getOrDefault(field, List.of()));
+    }
+    snapshotUpdates.forEach(Runnable::run);
+  }
+
+  private static Set<Object> getElementIds(Field field, Collection<?> elements) {
+    Set<Object> elementIds = new HashSet<>();
+    for (Object element : elements) {
+      Object elementId = element == null ? null : EntityUtil.getEntityId(element);
+      if (elementId == null) {
+        throw new AssociationException(
+            "Collection [%s.%s] references an unsaved entity [%s], persist it first or cascade the persist operation to it"
+                .formatted(field.getDeclaringClass().getSimpleName(), field.getName(), element));
+      }
+      elementIds.add(elementId);
+    }
+    return elementIds;
+  }
+
+  /**
+   * Performs dirty checking on the modifiable entities in the persistence context and flushes any changes found. Every modifiable entity
+   * is compared with its snapshot, read-only entities are skipped.
    */
   private void performDirtyChecking() {
+    if (readOnly) {
+      return;
+    }
     log.trace("Executing dirty checking...");
-    persistenceContext.getEntityKeys().stream()
-        .filter(persistenceContext::isDirty)
-        .forEach(this::flushChanges);
+    DirtyCheckEvent event = new DirtyCheckEvent();
+    event.begin();
+    int checkedCount = persistenceContext.getModifiableEntityCount();
+    List<EntityKey<?>> dirtyEntityKeys = persistenceContext.getDirtyEntityKeys();
+    dirtyEntityKeys.forEach(this::flushChanges);
+    event.complete(checkedCount, dirtyEntityKeys.size());
   }
 
   /**
@@ -274,7 +875,7 @@ public class Session implements AutoCloseable {
     if (EntityUtil.isDynamicUpdate(entityKey.entityClass())) {
       parameters = prepareDynamicParameters(entityKey, updatedEntity);
     }
-    actionQueue.offer(new UpdateAction<>(genericDao, entityKey, parameters));
+    actionQueue.add(new UpdateAction<>(genericDao, entityKey, parameters));
   }
 
   private <T> void checkIdNotAltered(EntityKey<T> entityKey) {
@@ -320,12 +921,32 @@ public class Session implements AutoCloseable {
     return Stream.concat(simpleColumnParams, toOneRelationParams).toArray();
   }
 
+  private void checkManagedEntityLimit() {
+    if (managedEntityLimit == 0 || managedEntityLimitReached
+        || persistenceContext.getEntityKeys().size() < managedEntityLimit) {
+      return;
+    }
+    log.debug("Bibernate, managed entity limit {} reached", managedEntityLimit);
+    managedEntityLimitReached = true;
+    try {
+      managedEntityLimitCallback.accept(this);
+    } finally {
+      managedEntityLimitReached = false;
+    }
+  }
+
   private void verifyIsSessionOpen() {
     if (!sessionStatus) {
       throw new IllegalStateException("Session is closed");
     }
   }
 
+  private void verifyIsSessionWritable() {
+    if (readOnly) {
+      throw new BibernateException("Session is read-only");
+    }
+  }
+
   private <T> void verifyEntityManaged(T entity) {
     if (!persistenceContext.contains(entity)) {
       throw new EntityIsNotManagedException(
@@ -1,19 +1,58 @@
 package com.breskul.bibernate.persistence;
 
+import com.breskul.bibernate.exception.BibernateException;
+import com.breskul.bibernate.persistence.datasource.ReplicaRouter;
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
 import com.breskul.bibernate.persistence.dialect.Dialect;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import com.breskul.bibernate.statistics.Statistics;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
 import javax.sql.DataSource;
 
-public class SessionFactory {
+public class SessionFactory implements AutoCloseable {
 
   private final DataSource dataSource;
   private final Dialect dialect;
   private final boolean showSql;
+  private final PoolStatistics poolStatistics;
+  private final ReplicaRouter replicaRouter;
+  private final BibernateStatistics statistics;
+  private final QueryLogProperties queryLogProperties;
+  private final ReentrantLock asyncExecutorLock = new ReentrantLock();
+  private volatile Executor asyncExecutor;
 
   protected SessionFactory(DataSource dataSource, Dialect dialect, boolean showSql) {
+    this(dataSource, dialect, showSql, null, null, new BibernateStatistics(false), QueryLogProperties.disabled());
+  }
+
+  /**
+   * Creates a session factory with all its optional collaborators.
+   *
+   * @param dataSource         the data source of the primary database
+   * @param dialect            the database dialect
+   * @param showSql            whether the executed SQL is logged
+   * @param poolStatistics     the statistics of the connection pool, or null if the data source does not expose them
+   * @param replicaRouter      the router of read-only sessions to read replicas, or null if no replicas are configured
+   * @param statistics         the statistics shared by all sessions of the factory
+   * @param queryLogProperties the settings of the slow query log and the N+1 select detector
+   */
+  protected SessionFactory(DataSource dataSource, Dialect dialect, boolean showSql, PoolStatistics poolStatistics,
+      ReplicaRouter replicaRouter, BibernateStatistics statistics, QueryLogProperties queryLogProperties) {
     this.dataSource = dataSource;
     this.dialect = dialect;
     this.showSql = showSql;
+    this.poolStatistics = poolStatistics;
+    this.replicaRouter = replicaRouter;
+    this.statistics = statistics;
+    this.queryLogProperties = queryLogProperties;
   }
 
   /**
@@ -31,6 +70,132 @@ public class SessionFactory {
    *                      {@code dataSource} or initializing the session.
    */
   public Session openSession() throws SQLException {
-    return new Session(dataSource, dialect, showSql);
+    return new Session(dataSource, dialect, showSql, false, statistics, queryLogProperties);
+  }
+
+  /**
+   * Opens a new read-only session. When read replicas are configured, the session connection is obtained from a replica chosen by the
+   * configured {@link com.breskul.bibernate.persistence.datasource.ReplicaRouting}, otherwise from the primary database. Sessions opened
+   * with {@link #openSession()} always use the primary database, so writes and transactions which write never reach a replica.
+   *
+   * @return A new read-only {@link Session}.
+   * @throws SQLException If there is a problem obtaining a connection.
+   */
+  public Session openReadOnlySession() throws SQLException {
+    DataSource readDataSource = replicaRouter == null ? dataSource : replicaRouter.select();
+    return new Session(readDataSource, dialect, showSql, true, statistics, queryLogProperties);
+  }
+
+  /**
+   * Returns the statistics of the connection pool behind this session factory.
+   *
+   * @return the pool statistics, or an empty optional if the configured data source does not expose them
+   */
+  public Optional<PoolStatistics> getPoolStatistics() {
+    return Optional.ofNullable(poolStatistics);
+  }
+
+  /**
+   * Returns the statistics of all sessions opened by this session factory. They are collected only when enabled, see {@link Statistics}.
+   *
+   * @return the session factory statistics
+   */
+  public Statistics getStatistics() {
+    return statistics;
+  }
+
+  /**
+   * Opens a new asynchronous session which runs its operations on virtual threads, one virtual thread per operation. On a JVM without
+   * virtual threads a shared pool of daemon platform threads is used.
+   *
+   * @return A new {@link AsyncSession}, its connection is obtained by the first operation.
+   */
+  public AsyncSession openAsyncSession() {
+    return openAsyncSession(getDefaultAsyncExecutor());
+  }
+
+  /**
+   * Opens a new asynchronous session which runs its operations on the given executor.
+   *
+   * @param executor the executor running the session operations
+   * @return A new {@link AsyncSession}, its connection is obtained by the first operation.
+   */
+  public AsyncSession openAsyncSession(Executor executor) {
+    return new AsyncSession(() -> {
+      try {
+        return openSession();
+      } catch (SQLException e) {
+        throw new BibernateException("Failed to open session", e);
+      }
+    }, executor);
+  }
+
+  /**
+   * Closes the data sources of the primary database and of the read replicas, when they are closeable, and stops the default executor of
+   * asynchronous sessions. Connection pools stop their background threads and close idle connections, connections which are in use are
+   * closed when they are returned. Sessions must not be opened after the factory is closed.
+   *
+   * @throws BibernateException if a data source could not be closed, the failures of other data sources are added as suppressed
+   */
+  @Override
+  public void close() {
+    BibernateException failure = null;
+    List<DataSource> dataSources = new ArrayList<>();
+    dataSources.add(dataSource);
+    if (replicaRouter != null) {
+      dataSources.addAll(replicaRouter.getDataSources());
+    }
+    for (DataSource closedDataSource : dataSources) {
+      if (closedDataSource instanceof AutoCloseable closeable) {
+        try {
+          closeable.close();
+        } catch (Exception e) {
+          if (failure == null) {
+            failure = new BibernateException("Failed to close data source", e);
+          } else {
+            failure.addSuppressed(e);
+          }
+        }
+      }
+    }
+    if (asyncExecutor instanceof ExecutorService executorService) {
+      executorService.shutdown();
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private Executor getDefaultAsyncExecutor() {
+    Executor executor = asyncExecutor;
+    if (executor == null) {
+      asyncExecutorLock.lock();
+      try {
+        executor = asyncExecutor;
+        if (executor == null) {
+          executor = createDefaultAsyncExecutor();
+          asyncExecutor = executor;
+        }
+      } finally {
+        asyncExecutorLock.unlock();
+      }
+    }
+    return executor;
+  }
+
+  /**
+   * Virtual threads are looked up reflectively, because the library is compiled for Java 17.
+   */
+  private static ExecutorService createDefaultAsyncExecutor() {
+    try {
+      return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+    } catch (ReflectiveOperationException e) {
+      AtomicInteger threadNumber = new AtomicInteger();
+      return Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "bibernate-async-" + threadNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+      });
+    }
   }
 }
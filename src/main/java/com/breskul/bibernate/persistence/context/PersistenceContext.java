@@ -1,15 +1,22 @@
 package com.breskul.bibernate.persistence.context;
 
+import com.breskul.bibernate.annotation.CascadeType;
 import com.breskul.bibernate.config.LoggerFactory;
 import com.breskul.bibernate.exception.BibernateException;
 import com.breskul.bibernate.persistence.EntityKey;
 import com.breskul.bibernate.persistence.context.snapshot.EntityPropertySnapshot;
 import com.breskul.bibernate.persistence.context.snapshot.EntityRelationSnapshot;
+import com.breskul.bibernate.util.CascadeUtil;
 import com.breskul.bibernate.util.EntityUtil;
-import java.util.Arrays;
+import com.breskul.bibernate.util.ReflectionUtil;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -18,6 +25,11 @@ import org.slf4j.Logger;
 /**
  * A persistence context that manages first-level caching of entities and their snapshots. This class provides methods for retrieving,
  * caching, and managing entity snapshots.
+ * <p>
+ * Only modifiable entities have snapshots. Read-only entities, marked by {@link #setReadOnly(Object, boolean)} or loaded while
+ * {@link #setDefaultReadOnly(boolean)} is on, are not snapshotted and skip dirty checking. Changes are not tracked as they are made, so
+ * a flush still compares every modifiable entity with its snapshot, and its cost grows with the number of modifiable entities, not with
+ * the number of changed ones. Marking entities which are only read as read-only is the way to keep it small.
  */
 public class PersistenceContext {
 
@@ -38,6 +50,18 @@ public class PersistenceContext {
    */
   private final Map<EntityKey<?>, List<EntityRelationSnapshot>> toOneRelationSnapshots = new ConcurrentHashMap<>();
 
+  /**
+   * Keys of managed entities which are excluded from dirty checking.
+   */
+  private final Set<EntityKey<?>> readOnlyEntityKeys = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Map to store the element keys of loaded collections with orphan removal, by owner and collection field.
+   */
+  private final Map<EntityKey<?>, Map<Field, Set<EntityKey<?>>>> collectionSnapshots = new ConcurrentHashMap<>();
+
+  private volatile boolean defaultReadOnly;
+
 
   /**
    * Retrieves the entity associated with the specified entity class and ID.
@@ -135,7 +159,10 @@ public class PersistenceContext {
    */
   public <T> T put(T entity) {
     log.debug("Caching entity: {}", entity);
-    firstLevelCache.putIfAbsent(EntityKey.valueOf(entity), entity);
+    EntityKey<T> entityKey = EntityKey.valueOf(entity);
+    if (firstLevelCache.putIfAbsent(entityKey, entity) == null && defaultReadOnly) {
+      readOnlyEntityKeys.add(entityKey);
+    }
     takeSimpleSnapshot(entity);
     return entity;
   }
@@ -159,7 +186,75 @@ public class PersistenceContext {
    * @return {@code true} if the entity has changed, {@code false} otherwise.
    */
   public boolean isDirty(EntityKey<?> entityKey) {
-    return hasChanged(entityKey);
+    return entitySnapshots.containsKey(entityKey) && hasChanged(entityKey);
+  }
+
+  /**
+   * Finds the modifiable entities which changed since they were loaded or last flushed, comparing every modifiable entity with its
+   * snapshot. Read-only entities are not checked.
+   *
+   * @return the keys of the changed entities
+   */
+  public List<EntityKey<?>> getDirtyEntityKeys() {
+    List<EntityKey<?>> dirtyEntityKeys = new ArrayList<>();
+    for (EntityKey<?> entityKey : entitySnapshots.keySet()) {
+      if (hasChanged(entityKey)) {
+        dirtyEntityKeys.add(entityKey);
+      }
+    }
+    return dirtyEntityKeys;
+  }
+
+  /**
+   * Marks a managed entity read-only or modifiable. The snapshots of a read-only entity are discarded, its changes are not flushed. When
+   * the entity becomes modifiable again, its current state is taken as the new snapshot, so changes made while it was read-only are not
+   * flushed either.
+   *
+   * @param entity   The managed entity.
+   * @param readOnly Whether the entity is read-only.
+   * @param <T>      The type of the entity.
+   */
+  public <T> void setReadOnly(T entity, boolean readOnly) {
+    EntityKey<T> entityKey = EntityKey.valueOf(entity);
+    if (readOnly) {
+      readOnlyEntityKeys.add(entityKey);
+      entitySnapshots.remove(entityKey);
+      toOneRelationSnapshots.remove(entityKey);
+    } else if (readOnlyEntityKeys.remove(entityKey)) {
+      takeSimpleSnapshot(entity);
+      if (EntityUtil.hasToOneRelations(entityKey.entityClass())) {
+        takeToOneRelationSnapshot(entity);
+      }
+    }
+  }
+
+  /**
+   * @param entity The managed entity.
+   * @param <T>    The type of the entity.
+   * @return {@code true} if the entity is read-only, {@code false} otherwise.
+   */
+  public <T> boolean isReadOnly(T entity) {
+    return readOnlyEntityKeys.contains(EntityKey.valueOf(entity));
+  }
+
+  /**
+   * Sets whether entities added to this context from now on are read-only. Entities which are already managed keep their state.
+   *
+   * @param defaultReadOnly Whether new entities are read-only.
+   */
+  public void setDefaultReadOnly(boolean defaultReadOnly) {
+    this.defaultReadOnly = defaultReadOnly;
+  }
+
+  public boolean isDefaultReadOnly() {
+    return defaultReadOnly;
+  }
+
+  /**
+   * @return the number of managed entities which are dirty checked on flush
+   */
+  public int getModifiableEntityCount() {
+    return entitySnapshots.size();
   }
 
   /**
@@ -173,6 +268,8 @@ public class PersistenceContext {
     firstLevelCache.remove(key);
     entitySnapshots.remove(key);
     toOneRelationSnapshots.remove(key);
+    readOnlyEntityKeys.remove(key);
+    collectionSnapshots.remove(key);
   }
 
   /**
@@ -183,6 +280,8 @@ public class PersistenceContext {
     firstLevelCache.clear();
     entitySnapshots.clear();
     toOneRelationSnapshots.clear();
+    readOnlyEntityKeys.clear();
+    collectionSnapshots.clear();
   }
 
   /**
@@ -194,13 +293,31 @@ public class PersistenceContext {
   public <T> void takeSimpleSnapshot(T entity) {
     EntityKey<T> entityKey = EntityKey.valueOf(entity);
 
-    if (!entitySnapshots.containsKey(entityKey)) {
+    if (!entitySnapshots.containsKey(entityKey) && !readOnlyEntityKeys.contains(entityKey)) {
       List<EntityPropertySnapshot> values = EntityUtil.getEntitySimpleColumnValues(entity);
       entitySnapshots.put(entityKey, values);
     }
     log.debug("Simple snapshot taken for entity: {}", entity);
   }
 
+  /**
+   * Replaces the snapshots of the specified entity with its current state, after the state was written to the database.
+   *
+   * @param entity The entity to take a snapshot of.
+   * @param <T>    The type of the entity.
+   */
+  public <T> void refreshSnapshot(T entity) {
+    EntityKey<T> entityKey = EntityKey.valueOf(entity);
+    if (readOnlyEntityKeys.contains(entityKey)) {
+      return;
+    }
+    entitySnapshots.put(entityKey, EntityUtil.getEntitySimpleColumnValues(entity));
+    if (toOneRelationSnapshots.containsKey(entityKey)) {
+      toOneRelationSnapshots.put(entityKey, EntityUtil.getEntityToOneRelationValues(entity));
+    }
+    log.debug("Snapshot refreshed for entity: {}", entity);
+  }
+
   /**
    * Takes a snapshot of to-one relations of the specified entity.
    *
@@ -210,7 +327,7 @@ public class PersistenceContext {
   public <T> void takeToOneRelationSnapshot(T entity) {
     EntityKey<T> entityKey = EntityKey.valueOf(entity);
 
-    if (!toOneRelationSnapshots.containsKey(entityKey)) {
+    if (!toOneRelationSnapshots.containsKey(entityKey) && !readOnlyEntityKeys.contains(entityKey)) {
       List<EntityRelationSnapshot> entityToOneRelationValues =
           EntityUtil.getEntityToOneRelationValues(entity);
       toOneRelationSnapshots.put(entityKey, entityToOneRelationValues);
@@ -227,14 +344,99 @@ public class PersistenceContext {
    * @return {@code true} if the entity has changed, {@code false} otherwise.
    */
   private <T> boolean hasChanged(EntityKey<T> entityKey) {
-    Object[] currentEntityState = EntityUtil.getEntitySimpleColumnValues(
-        getEntity(entityKey)).stream().map(EntityPropertySnapshot::columnValue).toArray();
-    Object[] initialEntityState = getEntitySnapshot(entityKey);
-
-    return !Arrays.equals(currentEntityState, initialEntityState)
+    return EntityUtil.isSimpleColumnValueChanged(getEntity(entityKey), entitySnapshots.get(entityKey))
         || isToOneRelationChanged(entityKey);
   }
 
+  /**
+   * Takes a snapshot of the elements of a loaded collection with orphan removal or of an owning many-to-many collection, elements which
+   * are not stored yet are skipped.
+   *
+   * @param owner    The entity owning the collection.
+   * @param field    The collection field.
+   * @param elements The elements of the collection.
+   * @param <T>      The type of the owner entity.
+   */
+  public <T> void takeCollectionSnapshot(T owner, Field field, Collection<?> elements) {
+    collectionSnapshots.computeIfAbsent(EntityKey.valueOf(owner), key -> new ConcurrentHashMap<>())
+        .put(field, toEntityKeys(elements));
+    log.debug("Snapshot of [{}] collection taken for entity: {}", field.getName(), owner);
+  }
+
+  /**
+   * Retrieves the collection snapshot taken by {@link #takeCollectionSnapshot(Object, Field, Collection)}.
+   *
+   * @param ownerKey The key of the entity owning the collection.
+   * @param field    The collection field.
+   * @return the keys of the elements in the snapshot, or null if no snapshot was taken
+   */
+  public Set<EntityKey<?>> getCollectionSnapshot(EntityKey<?> ownerKey, Field field) {
+    Map<Field, Set<EntityKey<?>>> snapshots = collectionSnapshots.get(ownerKey);
+    return snapshots == null ? null : snapshots.get(field);
+  }
+
+  /**
+   * Finds the managed entities which were removed from a collection with orphan removal since it was loaded or last checked, or replaced
+   * in a to-one association with orphan removal since the owner was loaded or last updated. The collection snapshots are updated to the
+   * current elements.
+   *
+   * @return the managed orphan entities
+   */
+  public List<Object> findOrphans() {
+    List<Object> orphans = new ArrayList<>();
+    collectionSnapshots.forEach((ownerKey, snapshots) -> {
+      Object owner = firstLevelCache.get(ownerKey);
+      if (owner == null || readOnlyEntityKeys.contains(ownerKey)) {
+        return;
+      }
+      snapshots.replaceAll((field, snapshot) -> {
+        if (!CascadeUtil.isOrphanRemoval(field)) {
+          return snapshot;
+        }
+        Collection<?> elements = (Collection<?>) ReflectionUtil.readFieldValue(owner, field);
+        Set<EntityKey<?>> currentKeys = toEntityKeys(elements == null ? List.of() : elements);
+        snapshot.stream()
+            .filter(elementKey -> !currentKeys.contains(elementKey))
+            .map(firstLevelCache::get)
+            .filter(Objects::nonNull)
+            .forEach(orphans::add);
+        return currentKeys;
+      });
+    });
+    toOneRelationSnapshots.forEach((ownerKey, snapshot) -> {
+      Object owner = firstLevelCache.get(ownerKey);
+      if (owner == null) {
+        return;
+      }
+      for (Field field : CascadeUtil.getCascadedFields(ownerKey.entityClass(), CascadeType.REMOVE)) {
+        if (!CascadeUtil.isOrphanRemoval(field) || !EntityUtil.isToOneRelation(field)) {
+          continue;
+        }
+        String columnName = EntityUtil.resolveColumnName(field);
+        Object related = ReflectionUtil.readFieldValue(owner, field);
+        Object currentId = related == null ? null : EntityUtil.getEntityId(related);
+        snapshot.stream()
+            .filter(relationSnapshot -> relationSnapshot.columnName().equals(columnName))
+            .map(EntityRelationSnapshot::columnValue)
+            .filter(snapshotId -> snapshotId != null && !snapshotId.equals(currentId))
+            .map(snapshotId -> firstLevelCache.get(EntityKey.of(field.getType(), snapshotId)))
+            .filter(Objects::nonNull)
+            .forEach(orphans::add);
+      }
+    });
+    return orphans;
+  }
+
+  private static Set<EntityKey<?>> toEntityKeys(Collection<?> elements) {
+    Set<EntityKey<?>> keys = new HashSet<>();
+    for (Object element : elements) {
+      if (element != null && EntityUtil.getEntityId(element) != null) {
+        keys.add(EntityKey.valueOf(element));
+      }
+    }
+    return keys;
+  }
+
   /**
    * Checks if the to-one relations of the entity associated with the specified key have changed.
    *
@@ -0,0 +1,330 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import com.breskul.bibernate.config.LoggerFactory;
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+
+/**
+ * Lightweight connection pool used by {@link BibernateDataSource}. The number of open connections is bounded by a semaphore, idle
+ * connections are kept in a lock-free deque, the most recently returned connection is borrowed first so the rest can reach the idle
+ * timeout.
+ * <p>
+ * A connection which was idle for longer than {@value #VALIDATION_BYPASS_MILLIS} ms is validated before it is borrowed. Connections older
+ * than the max lifetime are closed instead of being borrowed or returned, a background daemon thread closes such connections and idle
+ * connections above the minimum idle count. The pool does not open connections in advance.
+ */
+class BibernateConnectionPool implements PoolStatistics, AutoCloseable {
+
+  static final long VALIDATION_BYPASS_MILLIS = 500;
+  private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+  private static final long MAX_EVICTION_INTERVAL_MILLIS = 30_000;
+
+  private static final Logger logger = LoggerFactory.getLogger(BibernateConnectionPool.class);
+
+  private final ConnectionSupplier connectionSupplier;
+  private final PoolProperties poolProperties;
+  private final Semaphore permits;
+  private final ConcurrentLinkedDeque<PooledConnection> idleConnections = new ConcurrentLinkedDeque<>();
+  private final AtomicInteger idleCount = new AtomicInteger();
+  private final AtomicInteger activeCount = new AtomicInteger();
+  private final ReentrantLock evictorLock = new ReentrantLock();
+  private volatile ScheduledExecutorService evictor;
+  private volatile boolean closed;
+
+  BibernateConnectionPool(ConnectionSupplier connectionSupplier, PoolProperties poolProperties) {
+    this.connectionSupplier = connectionSupplier;
+    this.poolProperties = poolProperties;
+    this.permits = new Semaphore(poolProperties.maximumPoolSize(), true);
+  }
+
+  /**
+   * Borrows a connection from the pool, opening a new one if there is no usable idle connection.
+   *
+   * @return the connection which returns to the pool when it is closed
+   * @throws SQLTransientConnectionException if no connection is available within the connection timeout
+   * @throws SQLException                    if the pool is closed or a new connection can not be opened
+   */
+  Connection getConnection() throws SQLException {
+    verifyOpen();
+    acquirePermit();
+    try {
+      PooledConnection pooledConnection = pollUsableConnection();
+      if (pooledConnection == null) {
+        pooledConnection = new PooledConnection(connectionSupplier.connect());
+        startEvictor();
+      }
+      activeCount.incrementAndGet();
+      return pooledConnection.borrow();
+    } catch (SQLException | RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  @Override
+  public int getActiveConnections() {
+    return activeCount.get();
+  }
+
+  @Override
+  public int getIdleConnections() {
+    return idleCount.get();
+  }
+
+  @Override
+  public int getThreadsAwaitingConnection() {
+    return permits.getQueueLength();
+  }
+
+  @Override
+  public int getMaximumPoolSize() {
+    return poolProperties.maximumPoolSize();
+  }
+
+  /**
+   * Closes idle connections and stops the eviction thread. Borrowed connections are closed when they are returned.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (evictor != null) {
+      evictor.shutdownNow();
+    }
+    PooledConnection pooledConnection;
+    while ((pooledConnection = pollIdle()) != null) {
+      pooledConnection.closePhysical();
+    }
+  }
+
+  private void verifyOpen() throws SQLException {
+    if (closed) {
+      throw new SQLException("Bibernate connection pool is closed");
+    }
+  }
+
+  private void acquirePermit() throws SQLException {
+    try {
+      if (!permits.tryAcquire(poolProperties.connectionTimeout(), TimeUnit.MILLISECONDS)) {
+        throw new SQLTransientConnectionException(
+            "Connection is not available, request timed out after %d ms (active: %d, maximum: %d)".formatted(
+                poolProperties.connectionTimeout(), activeCount.get(), poolProperties.maximumPoolSize()));
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new SQLTransientConnectionException("Interrupted while waiting for a connection", e);
+    }
+  }
+
+  private PooledConnection pollUsableConnection() {
+    PooledConnection pooledConnection;
+    while ((pooledConnection = pollIdle()) != null) {
+      long now = System.currentTimeMillis();
+      if (pooledConnection.isExpired(now)) {
+        pooledConnection.closePhysical();
+      } else if (now - pooledConnection.lastUsedAt > VALIDATION_BYPASS_MILLIS && !pooledConnection.isValid()) {
+        logger.debug("Bibernate, closing broken pooled connection");
+        pooledConnection.closePhysical();
+      } else {
+        return pooledConnection;
+      }
+    }
+    return null;
+  }
+
+  private PooledConnection pollIdle() {
+    PooledConnection pooledConnection = idleConnections.pollFirst();
+    if (pooledConnection != null) {
+      idleCount.decrementAndGet();
+    }
+    return pooledConnection;
+  }
+
+  private void release(PooledConnection pooledConnection) {
+    activeCount.decrementAndGet();
+    try {
+      if (closed || pooledConnection.isExpired(System.currentTimeMillis()) || !pooledConnection.reset()) {
+        pooledConnection.closePhysical();
+      } else {
+        pooledConnection.lastUsedAt = System.currentTimeMillis();
+        idleConnections.offerFirst(pooledConnection);
+        idleCount.incrementAndGet();
+        if (closed && idleConnections.remove(pooledConnection)) {
+          idleCount.decrementAndGet();
+          pooledConnection.closePhysical();
+        }
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  private void startEvictor() {
+    if (evictor != null) {
+      return;
+    }
+    evictorLock.lock();
+    try {
+      if (evictor == null && !closed) {
+        long interval = Math.max(VALIDATION_BYPASS_MILLIS,
+            Math.min(poolProperties.idleTimeout(), MAX_EVICTION_INTERVAL_MILLIS));
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "bibernate-pool-evictor");
+          thread.setDaemon(true);
+          return thread;
+        });
+        executor.scheduleWithFixedDelay(this::evictIdleConnections, interval, interval, TimeUnit.MILLISECONDS);
+        evictor = executor;
+      }
+    } finally {
+      evictorLock.unlock();
+    }
+  }
+
+  /**
+   * Closes idle connections which reached the max lifetime, and connections idle for longer than the idle timeout while there are more
+   * idle connections than the configured minimum. The least recently used connections are checked first.
+   */
+  void evictIdleConnections() {
+    long now = System.currentTimeMillis();
+    Iterator<PooledConnection> iterator = idleConnections.descendingIterator();
+    while (iterator.hasNext()) {
+      PooledConnection pooledConnection = iterator.next();
+      boolean evict = pooledConnection.isExpired(now)
+          || (pooledConnection.isIdleTimedOut(now) && idleCount.get() > poolProperties.minimumIdle());
+      if (evict && idleConnections.removeLastOccurrence(pooledConnection)) {
+        idleCount.decrementAndGet();
+        pooledConnection.closePhysical();
+      }
+    }
+  }
+
+  /**
+   * Opens a new physical connection.
+   */
+  @FunctionalInterface
+  interface ConnectionSupplier {
+
+    Connection connect() throws SQLException;
+  }
+
+  private class PooledConnection {
+
+    private final Connection physicalConnection;
+    private final long createdAt = System.currentTimeMillis();
+    private volatile long lastUsedAt = createdAt;
+
+    private PooledConnection(Connection physicalConnection) {
+      this.physicalConnection = physicalConnection;
+    }
+
+    private Connection borrow() {
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+          new BorrowedConnection());
+    }
+
+    private boolean isExpired(long now) {
+      return poolProperties.maxLifetime() > 0 && now - createdAt >= poolProperties.maxLifetime();
+    }
+
+    private boolean isIdleTimedOut(long now) {
+      return poolProperties.idleTimeout() > 0 && now - lastUsedAt >= poolProperties.idleTimeout();
+    }
+
+    private boolean isValid() {
+      try {
+        return physicalConnection.isValid(VALIDATION_TIMEOUT_SECONDS);
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+
+    /**
+     * Rolls back a not finished transaction and restores auto-commit and the read-write mode, so the next borrower gets a clean
+     * connection.
+     */
+    private boolean reset() {
+      try {
+        if (physicalConnection.isClosed()) {
+          return false;
+        }
+        if (!physicalConnection.getAutoCommit()) {
+          physicalConnection.rollback();
+          physicalConnection.setAutoCommit(true);
+        }
+        if (physicalConnection.isReadOnly()) {
+          physicalConnection.setReadOnly(false);
+        }
+        physicalConnection.clearWarnings();
+        return true;
+      } catch (SQLException e) {
+        return false;
+      }
+    }
+
+    private void closePhysical() {
+      try {
+        physicalConnection.close();
+      } catch (SQLException e) {
+        logger.debug("Bibernate, failed to close pooled connection", e);
+      }
+    }
+
+    /**
+     * The connection handed out to a single borrower. Closing it returns the physical connection to the pool, further calls fail.
+     */
+    private class BorrowedConnection implements InvocationHandler {
+
+      private boolean returned;
+
+      @Override
+      public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        switch (method.getName()) {
+          case "close" -> {
+            if (!returned) {
+              returned = true;
+              release(PooledConnection.this);
+            }
+            return null;
+          }
+          case "isClosed" -> {
+            return returned || physicalConnection.isClosed();
+          }
+          case "equals" -> {
+            return proxy == args[0];
+          }
+          case "hashCode" -> {
+            return System.identityHashCode(proxy);
+          }
+          case "toString" -> {
+            return "BibernatePooledConnection[%s]".formatted(physicalConnection);
+          }
+          default -> {
+            if (returned) {
+              throw new SQLException("Connection is closed");
+            }
+            try {
+              return method.invoke(physicalConnection, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+          }
+        }
+      }
+    }
+  }
+}
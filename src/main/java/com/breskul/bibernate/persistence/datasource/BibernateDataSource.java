@@ -3,6 +3,7 @@ package com.breskul.bibernate.persistence.datasource;
 import com.breskul.bibernate.config.LoggerFactory;
 import com.breskul.bibernate.exception.BibernateException;
 import com.breskul.bibernate.persistence.datasource.connectionpools.ConnectionPoolFactory;
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
 import java.sql.Connection;
 import java.sql.Driver;
 import java.sql.DriverManager;
@@ -10,12 +11,16 @@ import java.sql.SQLException;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
+import javax.sql.DataSource;
 
 /**
  * The BibernateDataSource class represents a data source for Bibernate connections. It provides flexibility to work with either the default
  * DriverManager-based mechanism for finding the appropriate Driver class or a specified custom Driver class.
+ * <p>
+ * Connections for the configured user are pooled by a built-in pool configured with {@link PoolProperties}, closing such a connection
+ * returns it to the pool. Connections requested for other credentials are opened directly and are not pooled.
  */
-public class BibernateDataSource extends AbstractDataSource implements ConnectionPoolFactory {
+public class BibernateDataSource extends AbstractDataSource implements ConnectionPoolFactory, AutoCloseable {
 
   protected final org.slf4j.Logger logger = LoggerFactory.getLogger(getClass());
 
@@ -23,6 +28,8 @@ public class BibernateDataSource extends AbstractDataSource implements Connectio
   private String username;
   private String password;
   private Driver delegateDriver;
+  private Properties connectionProperties;
+  private BibernateConnectionPool connectionPool;
 
   /**
    * Default constructor for BibernateDataSource. This constructor is used when a specific Driver class is not specified. It relies on
@@ -46,20 +53,51 @@ public class BibernateDataSource extends AbstractDataSource implements Connectio
     this.username = properties.username();
     this.password = properties.password();
     this.delegateDriver = Objects.requireNonNull(prepareDriver(properties), "Driver class name cannot be null");
+    PoolProperties pool = PoolProperties.orDefaults(properties.pool());
+    this.connectionProperties = createConnectionProperties(this.username, this.password, pool);
+    this.connectionPool = new BibernateConnectionPool(() -> delegateDriver.connect(this.url, connectionProperties), pool);
     return this;
   }
 
   @Override
   public Connection getConnection() throws SQLException {
-    return getConnection(this.username, this.password);
+    return connectionPool.getConnection();
   }
 
   @Override
   public Connection getConnection(String username, String password) throws SQLException {
+    if (Objects.equals(this.username, username) && Objects.equals(this.password, password)) {
+      return getConnection();
+    }
+    return delegateDriver.connect(this.url, createConnectionProperties(username, password, null));
+  }
+
+  @Override
+  public Optional<PoolStatistics> getStatistics(DataSource dataSource) {
+    if (dataSource instanceof BibernateDataSource bibernateDataSource && bibernateDataSource.connectionPool != null) {
+      return Optional.of(bibernateDataSource.connectionPool);
+    }
+    return Optional.empty();
+  }
+
+  /**
+   * Closes the idle pooled connections, connections which are in use are closed when they are returned.
+   */
+  @Override
+  public void close() {
+    if (connectionPool != null) {
+      connectionPool.close();
+    }
+  }
+
+  private static Properties createConnectionProperties(String username, String password, PoolProperties pool) {
     Properties properties = new Properties();
     properties.setProperty("user", username);
     properties.setProperty("password", password);
-    return delegateDriver.connect(this.url, properties);
+    if (pool != null && pool.prepareThreshold() != null) {
+      properties.setProperty("prepareThreshold", pool.prepareThreshold().toString());
+    }
+    return properties;
   }
 
   private Driver prepareDriver(PersistenceProperties properties) {
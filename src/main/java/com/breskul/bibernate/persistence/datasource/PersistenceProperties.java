@@ -1,6 +1,10 @@
 package com.breskul.bibernate.persistence.datasource;
 
 public record PersistenceProperties(String url, String username, String password, String driverClass, String type, String dialectClass,
-                                    boolean showSql) {
+                                    boolean showSql, PoolProperties pool) {
 
+  public PersistenceProperties(String url, String username, String password, String driverClass, String type, String dialectClass,
+      boolean showSql) {
+    this(url, username, password, driverClass, type, dialectClass, showSql, PoolProperties.defaults());
+  }
 }
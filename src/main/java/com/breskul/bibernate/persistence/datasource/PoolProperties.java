@@ -0,0 +1,115 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import com.breskul.bibernate.config.PropertiesConfiguration;
+import com.breskul.bibernate.exception.InvalidPropertyValueException;
+
+/**
+ * Connection pool settings read from the {@code bibernate.pool.*} properties. The same settings are mapped to HikariCP, Apache DBCP and
+ * c3p0, so switching {@code bibernate.datasource.type} does not require a new configuration.
+ * <p>
+ * Supported properties:
+ * <ul>
+ *   <li>{@value #MAXIMUM_POOL_SIZE} - the maximum number of connections, defaults to {@code 2 * cores + 1}</li>
+ *   <li>{@value #MINIMUM_IDLE} - the minimum number of idle connections, defaults to the maximum pool size</li>
+ *   <li>{@value #CONNECTION_TIMEOUT} - milliseconds to wait for a free connection, defaults to {@value #DEFAULT_CONNECTION_TIMEOUT}</li>
+ *   <li>{@value #IDLE_TIMEOUT} - milliseconds after which an idle connection is closed, defaults to {@value #DEFAULT_IDLE_TIMEOUT}</li>
+ *   <li>{@value #MAX_LIFETIME} - milliseconds after which a connection is replaced, defaults to {@value #DEFAULT_MAX_LIFETIME}</li>
+ *   <li>{@value #LEAK_DETECTION_THRESHOLD} - milliseconds after which a not returned connection is reported, {@code 0} disables the
+ *   detection and is the default</li>
+ *   <li>{@value #STATEMENT_CACHE_SIZE} - the number of cached prepared statements per connection, {@code 0} disables the pool
+ *   statement cache and is the default</li>
+ *   <li>{@value #PREPARE_THRESHOLD} - the PostgreSQL driver {@code prepareThreshold} passed as a connection property, not set by
+ *   default</li>
+ * </ul>
+ *
+ * @param maximumPoolSize          the maximum number of connections
+ * @param minimumIdle              the minimum number of idle connections
+ * @param connectionTimeout        milliseconds to wait for a connection
+ * @param idleTimeout              milliseconds an idle connection is kept
+ * @param maxLifetime              the maximum connection lifetime in milliseconds
+ * @param leakDetectionThreshold   milliseconds after which a borrowed connection is reported as leaked, 0 if disabled
+ * @param statementCacheSize       the number of cached prepared statements per connection, 0 if disabled
+ * @param prepareThreshold         the driver prepare threshold or null if the driver default is used
+ */
+public record PoolProperties(int maximumPoolSize, int minimumIdle, long connectionTimeout, long idleTimeout, long maxLifetime,
+                             long leakDetectionThreshold, int statementCacheSize, Integer prepareThreshold) {
+
+  public static final String MAXIMUM_POOL_SIZE = "bibernate.pool.maximum_pool_size";
+  public static final String MINIMUM_IDLE = "bibernate.pool.minimum_idle";
+  public static final String CONNECTION_TIMEOUT = "bibernate.pool.connection_timeout";
+  public static final String IDLE_TIMEOUT = "bibernate.pool.idle_timeout";
+  public static final String MAX_LIFETIME = "bibernate.pool.max_lifetime";
+  public static final String LEAK_DETECTION_THRESHOLD = "bibernate.pool.leak_detection_threshold";
+  public static final String STATEMENT_CACHE_SIZE = "bibernate.pool.statement_cache_size";
+  public static final String PREPARE_THRESHOLD = "bibernate.pool.prepare_threshold";
+
+  public static final long DEFAULT_CONNECTION_TIMEOUT = 30_000;
+  public static final long DEFAULT_IDLE_TIMEOUT = 600_000;
+  public static final long DEFAULT_MAX_LIFETIME = 1_800_000;
+
+  public PoolProperties {
+    if (maximumPoolSize < 1) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value should be positive!".formatted(MAXIMUM_POOL_SIZE));
+    }
+    if (minimumIdle < 0 || minimumIdle > maximumPoolSize) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value should be between 0 and %d!".formatted(MINIMUM_IDLE, maximumPoolSize));
+    }
+  }
+
+  /**
+   * Creates the settings used when no {@code bibernate.pool.*} property is configured. The pool size is derived from the number of
+   * available processors.
+   *
+   * @return the default pool settings
+   */
+  public static PoolProperties defaults() {
+    int maximumPoolSize = defaultMaximumPoolSize();
+    return new PoolProperties(maximumPoolSize, maximumPoolSize, DEFAULT_CONNECTION_TIMEOUT, DEFAULT_IDLE_TIMEOUT,
+        DEFAULT_MAX_LIFETIME, 0, 0, null);
+  }
+
+  /**
+   * Reads the pool settings from the configuration properties, absent properties get their default values.
+   *
+   * @return the configured pool settings
+   * @throws InvalidPropertyValueException if some property value is not a number or is out of range
+   */
+  public static PoolProperties fromProperties() {
+    int maximumPoolSize = PropertiesConfiguration.getPropertyAsIntOrDefault(MAXIMUM_POOL_SIZE, defaultMaximumPoolSize());
+    String prepareThreshold = PropertiesConfiguration.getPropertyOrDefault(PREPARE_THRESHOLD, null);
+    return new PoolProperties(maximumPoolSize,
+        PropertiesConfiguration.getPropertyAsIntOrDefault(MINIMUM_IDLE, maximumPoolSize),
+        getPropertyAsLongOrDefault(CONNECTION_TIMEOUT, DEFAULT_CONNECTION_TIMEOUT),
+        getPropertyAsLongOrDefault(IDLE_TIMEOUT, DEFAULT_IDLE_TIMEOUT),
+        getPropertyAsLongOrDefault(MAX_LIFETIME, DEFAULT_MAX_LIFETIME),
+        getPropertyAsLongOrDefault(LEAK_DETECTION_THRESHOLD, 0),
+        PropertiesConfiguration.getPropertyAsIntOrDefault(STATEMENT_CACHE_SIZE, 0),
+        prepareThreshold == null ? null : PropertiesConfiguration.getPropertyAsInt(PREPARE_THRESHOLD));
+  }
+
+  /**
+   * Returns the given settings or the default ones if the settings are not provided.
+   *
+   * @param poolProperties the configured settings, may be null
+   * @return the pool settings to apply
+   */
+  public static PoolProperties orDefaults(PoolProperties poolProperties) {
+    return poolProperties == null ? defaults() : poolProperties;
+  }
+
+  private static int defaultMaximumPoolSize() {
+    return Runtime.getRuntime().availableProcessors() * 2 + 1;
+  }
+
+  private static long getPropertyAsLongOrDefault(String propertyName, long defaultValue) {
+    String property = PropertiesConfiguration.getPropertyOrDefault(propertyName, null);
+    try {
+      return property == null ? defaultValue : Long.parseLong(property.trim());
+    } catch (NumberFormatException ex) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value is not a number!".formatted(propertyName), ex);
+    }
+  }
+}
@@ -0,0 +1,51 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import com.breskul.bibernate.config.PropertiesConfiguration;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Read replica settings. Replicas are configured with the comma-separated {@value #REPLICA_URLS} property, they use the driver, data
+ * source type and pool settings of the primary database. The credentials of the primary database are used unless
+ * {@value #REPLICA_USERNAME} and {@value #REPLICA_PASSWORD} are set.
+ *
+ * @param urls     the JDBC URLs of the replicas, empty if there are no replicas
+ * @param username the replica username
+ * @param password the replica password
+ * @param routing  the strategy choosing a replica for a read-only session
+ */
+public record ReplicaProperties(List<String> urls, String username, String password, ReplicaRouting routing) {
+
+  public static final String REPLICA_URLS = "bibernate.replica.urls";
+  public static final String REPLICA_USERNAME = "bibernate.replica.username";
+  public static final String REPLICA_PASSWORD = "bibernate.replica.password";
+
+  /**
+   * Reads the replica settings from the configuration properties.
+   *
+   * @param primary the properties of the primary database
+   * @return the replica settings
+   */
+  public static ReplicaProperties fromProperties(PersistenceProperties primary) {
+    List<String> urls = Arrays.stream(PropertiesConfiguration.getPropertyOrDefault(REPLICA_URLS, "").split(","))
+        .map(String::trim)
+        .filter(url -> !url.isEmpty())
+        .toList();
+    return new ReplicaProperties(urls,
+        PropertiesConfiguration.getPropertyOrDefault(REPLICA_USERNAME, primary.username()),
+        PropertiesConfiguration.getPropertyOrDefault(REPLICA_PASSWORD, primary.password()),
+        ReplicaRouting.fromProperties());
+  }
+
+  /**
+   * Creates the persistence properties of a replica from the properties of the primary database.
+   *
+   * @param primary the properties of the primary database
+   * @param url     the replica URL
+   * @return the replica persistence properties
+   */
+  public PersistenceProperties toPersistenceProperties(PersistenceProperties primary, String url) {
+    return new PersistenceProperties(url, username, password, primary.driverClass(), primary.type(), primary.dialectClass(),
+        primary.showSql(), primary.pool());
+  }
+}
@@ -0,0 +1,79 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+
+/**
+ * Chooses the replica data source for a read-only session according to the {@link ReplicaRouting}. The router is thread-safe.
+ */
+public class ReplicaRouter {
+
+  private final List<Replica> replicas;
+  private final ReplicaRouting routing;
+  private final AtomicInteger nextReplica = new AtomicInteger();
+
+  /**
+   * Creates the router.
+   *
+   * @param replicas the replicas in the configuration order, there should be at least one
+   * @param routing  the routing strategy
+   */
+  public ReplicaRouter(List<Replica> replicas, ReplicaRouting routing) {
+    if (replicas.isEmpty()) {
+      throw new IllegalArgumentException("At least one replica is required");
+    }
+    this.replicas = List.copyOf(replicas);
+    this.routing = Objects.requireNonNull(routing);
+  }
+
+  /**
+   * Chooses the replica for the next read-only session.
+   *
+   * @return the replica data source
+   */
+  public DataSource select() {
+    return switch (routing) {
+      case ROUND_ROBIN -> replicas.get(Math.floorMod(nextReplica.getAndIncrement(), replicas.size())).dataSource();
+      case LEAST_CONNECTIONS -> selectLeastUsed();
+    };
+  }
+
+  /**
+   * Returns the data sources of all replicas.
+   *
+   * @return the replica data sources in the configuration order
+   */
+  public List<DataSource> getDataSources() {
+    return replicas.stream().map(Replica::dataSource).toList();
+  }
+
+  private DataSource selectLeastUsed() {
+    Replica selected = replicas.get(0);
+    int selectedConnections = selected.activeConnections();
+    for (int i = 1; i < replicas.size(); i++) {
+      Replica replica = replicas.get(i);
+      int activeConnections = replica.activeConnections();
+      if (activeConnections < selectedConnections) {
+        selected = replica;
+        selectedConnections = activeConnections;
+      }
+    }
+    return selected.dataSource();
+  }
+
+  /**
+   * Replica data source with the statistics of its pool.
+   *
+   * @param dataSource the replica data source
+   * @param statistics the pool statistics, or null if the data source does not expose them
+   */
+  public record Replica(DataSource dataSource, PoolStatistics statistics) {
+
+    private int activeConnections() {
+      return statistics == null ? 0 : statistics.getActiveConnections();
+    }
+  }
+}
@@ -0,0 +1,44 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import com.breskul.bibernate.config.PropertiesConfiguration;
+import com.breskul.bibernate.exception.InvalidPropertyValueException;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * Defines how a replica is chosen for a read-only session. The strategy is configured with the {@value #REPLICA_ROUTING_PROPERTY_NAME}
+ * property, {@link #ROUND_ROBIN} is used by default.
+ */
+public enum ReplicaRouting {
+  /**
+   * Replicas are used one after another.
+   */
+  ROUND_ROBIN,
+  /**
+   * The replica with the fewest connections in use is chosen, ties are resolved in the configuration order. Replicas which do not expose
+   * pool statistics are treated as not used.
+   */
+  LEAST_CONNECTIONS;
+
+  public static final String REPLICA_ROUTING_PROPERTY_NAME = "bibernate.replica.routing";
+
+  /**
+   * Resolves the replica routing from the configuration properties.
+   *
+   * @return the configured routing
+   * @throws InvalidPropertyValueException if the configured routing is unknown
+   */
+  public static ReplicaRouting fromProperties() {
+    String routing = PropertiesConfiguration.getPropertyOrDefault(REPLICA_ROUTING_PROPERTY_NAME, null);
+    if (routing == null) {
+      return ROUND_ROBIN;
+    }
+    try {
+      return valueOf(routing.trim().toUpperCase(Locale.ROOT));
+    } catch (IllegalArgumentException e) {
+      throw new InvalidPropertyValueException(
+          "\"%s\" property value '%s' is not one of %s".formatted(REPLICA_ROUTING_PROPERTY_NAME, routing,
+              Arrays.toString(values())), e);
+    }
+  }
+}
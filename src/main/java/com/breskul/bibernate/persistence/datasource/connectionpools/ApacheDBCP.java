@@ -1,15 +1,20 @@
 package com.breskul.bibernate.persistence.datasource.connectionpools;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
+import java.util.Optional;
 import org.apache.commons.dbcp2.BasicDataSource;
 
 /**
  * ApacheDBCPFactory is an implementation of the {@link ConnectionPoolFactory} interface that creates and configures instances of Apache
  * Commons DBCP's {@link BasicDataSource}. This class utilizes the provided {@link PersistenceProperties} to set up the data source
- * connection details such as the URL, username, and password.
+ * connection details such as the URL, username, and password, and applies the {@link PoolProperties} pool settings. Leak detection is
+ * mapped to logging and removing abandoned connections.
  */
 public class ApacheDBCP implements ConnectionPoolFactory {
 
+  private static final long EVICTION_RUN_INTERVAL = 30_000;
+
   /**
    * Creates a {@link BasicDataSource} instance configured with the specified {@link PersistenceProperties}.
    * <p>
@@ -27,6 +32,61 @@ public class ApacheDBCP implements ConnectionPoolFactory {
     dataSource.setUrl(properties.url());
     dataSource.setUsername(properties.username());
     dataSource.setPassword(properties.password());
+    PoolProperties pool = PoolProperties.orDefaults(properties.pool());
+    dataSource.setMaxTotal(pool.maximumPoolSize());
+    dataSource.setMaxIdle(pool.maximumPoolSize());
+    dataSource.setMinIdle(pool.minimumIdle());
+    dataSource.setMaxWaitMillis(pool.connectionTimeout());
+    dataSource.setMinEvictableIdleTimeMillis(pool.idleTimeout());
+    dataSource.setTimeBetweenEvictionRunsMillis(Math.min(pool.idleTimeout(), EVICTION_RUN_INTERVAL));
+    dataSource.setMaxConnLifetimeMillis(pool.maxLifetime());
+    if (pool.leakDetectionThreshold() > 0) {
+      dataSource.setLogAbandoned(true);
+      dataSource.setRemoveAbandonedOnMaintenance(true);
+      dataSource.setRemoveAbandonedTimeout((int) Math.max(1, pool.leakDetectionThreshold() / 1000));
+    }
+    if (pool.statementCacheSize() > 0) {
+      dataSource.setPoolPreparedStatements(true);
+      dataSource.setMaxOpenPreparedStatements(pool.statementCacheSize());
+    }
+    if (pool.prepareThreshold() != null) {
+      dataSource.addConnectionProperty("prepareThreshold", pool.prepareThreshold().toString());
+    }
     return dataSource;
   }
+
+  /**
+   * Returns the statistics of the DBCP data source. DBCP does not expose the number of waiting threads, so it is reported as
+   * {@link PoolStatistics#NOT_TRACKED}.
+   *
+   * @param dataSource the data source created by this factory
+   * @return the pool statistics
+   */
+  @Override
+  public Optional<PoolStatistics> getStatistics(javax.sql.DataSource dataSource) {
+    if (!(dataSource instanceof BasicDataSource basicDataSource)) {
+      return Optional.empty();
+    }
+    return Optional.of(new PoolStatistics() {
+      @Override
+      public int getActiveConnections() {
+        return basicDataSource.getNumActive();
+      }
+
+      @Override
+      public int getIdleConnections() {
+        return basicDataSource.getNumIdle();
+      }
+
+      @Override
+      public int getThreadsAwaitingConnection() {
+        return NOT_TRACKED;
+      }
+
+      @Override
+      public int getMaximumPoolSize() {
+        return basicDataSource.getMaxTotal();
+      }
+    });
+  }
 }
@@ -1,12 +1,17 @@
 package com.breskul.bibernate.persistence.datasource.connectionpools;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.Properties;
 
 /**
  * C3P0 is an implementation of the {@link ConnectionPoolFactory} interface that produces configured instances of C3P0's
  * {@link ComboPooledDataSource}. Utilizing {@link PersistenceProperties}, it sets up the data source connection specifics such as the JDBC
- * URL, username, and password.
+ * URL, username, and password, and applies the {@link PoolProperties} pool settings. c3p0 configures timeouts in seconds, so millisecond
+ * values are rounded up, except the checkout timeout which c3p0 takes in milliseconds.
  */
 public class C3P0 implements ConnectionPoolFactory {
 
@@ -26,9 +31,78 @@ public class C3P0 implements ConnectionPoolFactory {
   @Override
   public javax.sql.DataSource createDataSource(PersistenceProperties properties) {
     ComboPooledDataSource cpds = new ComboPooledDataSource();
+    PoolProperties pool = PoolProperties.orDefaults(properties.pool());
+    if (pool.prepareThreshold() != null) {
+      // driver properties replace user and password, so they are set first
+      Properties driverProperties = new Properties();
+      driverProperties.setProperty("prepareThreshold", pool.prepareThreshold().toString());
+      cpds.setProperties(driverProperties);
+    }
     cpds.setJdbcUrl(properties.url());
     cpds.setUser(properties.username());
     cpds.setPassword(properties.password());
+    cpds.setMaxPoolSize(pool.maximumPoolSize());
+    cpds.setMinPoolSize(pool.minimumIdle());
+    cpds.setInitialPoolSize(pool.minimumIdle());
+    cpds.setCheckoutTimeout((int) pool.connectionTimeout());
+    cpds.setMaxIdleTime(toSeconds(pool.idleTimeout()));
+    cpds.setMaxConnectionAge(toSeconds(pool.maxLifetime()));
+    if (pool.leakDetectionThreshold() > 0) {
+      cpds.setUnreturnedConnectionTimeout(toSeconds(pool.leakDetectionThreshold()));
+      cpds.setDebugUnreturnedConnectionStackTraces(true);
+    }
+    cpds.setMaxStatementsPerConnection(pool.statementCacheSize());
     return cpds;
   }
+
+  @Override
+  public Optional<PoolStatistics> getStatistics(javax.sql.DataSource dataSource) {
+    if (!(dataSource instanceof ComboPooledDataSource cpds)) {
+      return Optional.empty();
+    }
+    return Optional.of(new PoolStatistics() {
+      @Override
+      public int getActiveConnections() {
+        return read(cpds::getNumBusyConnectionsDefaultUser);
+      }
+
+      @Override
+      public int getIdleConnections() {
+        return read(cpds::getNumIdleConnectionsDefaultUser);
+      }
+
+      @Override
+      public int getTotalConnections() {
+        return read(cpds::getNumConnectionsDefaultUser);
+      }
+
+      @Override
+      public int getThreadsAwaitingConnection() {
+        return read(cpds::getNumThreadsAwaitingCheckoutDefaultUser);
+      }
+
+      @Override
+      public int getMaximumPoolSize() {
+        return cpds.getMaxPoolSize();
+      }
+    });
+  }
+
+  private static int toSeconds(long millis) {
+    return (int) Math.ceil(millis / 1000.0);
+  }
+
+  private static int read(StatisticReader reader) {
+    try {
+      return reader.read();
+    } catch (SQLException e) {
+      return PoolStatistics.NOT_TRACKED;
+    }
+  }
+
+  @FunctionalInterface
+  private interface StatisticReader {
+
+    int read() throws SQLException;
+  }
 }
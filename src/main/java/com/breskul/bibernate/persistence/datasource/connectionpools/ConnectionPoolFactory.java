@@ -1,6 +1,7 @@
 package com.breskul.bibernate.persistence.datasource.connectionpools;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import java.util.Optional;
 
 /**
  * The ConnectionPoolFactory interface defines a method for creating data sources. This interface is used to abstract the creation of
@@ -17,4 +18,14 @@ public interface ConnectionPoolFactory {
    * @return A configured {@link javax.sql.DataSource} instance ready for use.
    */
   javax.sql.DataSource createDataSource(PersistenceProperties properties);
+
+  /**
+   * Returns the statistics of a data source created by this factory.
+   *
+   * @param dataSource the data source returned by {@link #createDataSource(PersistenceProperties)}
+   * @return the pool statistics, or an empty optional if the data source is not pooled
+   */
+  default Optional<PoolStatistics> getStatistics(javax.sql.DataSource dataSource) {
+    return Optional.empty();
+  }
 }
@@ -1,16 +1,23 @@
 package com.breskul.bibernate.persistence.datasource.connectionpools;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import java.util.Optional;
 
 /**
  * HikariCP is an implementation of the {@link ConnectionPoolFactory} interface, specialized in creating and configuring instances of
  * HikariCP's {@link HikariDataSource}. This class leverages {@link PersistenceProperties} to configure the data source with the necessary
- * details such as JDBC URL, username, and password for database connectivity.
+ * details such as JDBC URL, username, and password for database connectivity, and applies the {@link PoolProperties} pool settings.
+ * HikariCP has no statement cache of its own, so the statement cache size is passed to the PostgreSQL driver as
+ * {@code preparedStatementCacheQueries}.
  */
 public class HikariCP implements ConnectionPoolFactory {
 
+  private static final String POSTGRESQL_URL_PREFIX = "jdbc:postgresql:";
+
   /**
    * Creates a {@link HikariDataSource} instance configured with the provided {@link PersistenceProperties}.
    * <p>
@@ -29,6 +36,56 @@ public class HikariCP implements ConnectionPoolFactory {
     config.setJdbcUrl(properties.url());
     config.setUsername(properties.username());
     config.setPassword(properties.password());
+    PoolProperties pool = PoolProperties.orDefaults(properties.pool());
+    config.setMaximumPoolSize(pool.maximumPoolSize());
+    config.setMinimumIdle(pool.minimumIdle());
+    config.setConnectionTimeout(pool.connectionTimeout());
+    config.setIdleTimeout(pool.idleTimeout());
+    config.setMaxLifetime(pool.maxLifetime());
+    config.setLeakDetectionThreshold(pool.leakDetectionThreshold());
+    if (pool.statementCacheSize() > 0 && properties.url().startsWith(POSTGRESQL_URL_PREFIX)) {
+      config.addDataSourceProperty("preparedStatementCacheQueries", pool.statementCacheSize());
+    }
+    if (pool.prepareThreshold() != null) {
+      config.addDataSourceProperty("prepareThreshold", pool.prepareThreshold());
+    }
     return new HikariDataSource(config);
   }
+
+  @Override
+  public Optional<PoolStatistics> getStatistics(javax.sql.DataSource dataSource) {
+    if (!(dataSource instanceof HikariDataSource hikariDataSource)) {
+      return Optional.empty();
+    }
+    return Optional.of(new PoolStatistics() {
+      @Override
+      public int getActiveConnections() {
+        return poolBean().map(HikariPoolMXBean::getActiveConnections).orElse(0);
+      }
+
+      @Override
+      public int getIdleConnections() {
+        return poolBean().map(HikariPoolMXBean::getIdleConnections).orElse(0);
+      }
+
+      @Override
+      public int getTotalConnections() {
+        return poolBean().map(HikariPoolMXBean::getTotalConnections).orElse(0);
+      }
+
+      @Override
+      public int getThreadsAwaitingConnection() {
+        return poolBean().map(HikariPoolMXBean::getThreadsAwaitingConnection).orElse(0);
+      }
+
+      @Override
+      public int getMaximumPoolSize() {
+        return hikariDataSource.getMaximumPoolSize();
+      }
+
+      private Optional<HikariPoolMXBean> poolBean() {
+        return Optional.ofNullable(hikariDataSource.getHikariPoolMXBean());
+      }
+    });
+  }
 }
@@ -0,0 +1,40 @@
+package com.breskul.bibernate.persistence.datasource.connectionpools;
+
+/**
+ * Read-only view of the current state of a connection pool. Every call returns the live value reported by the underlying pool, so the
+ * values are not consistent with each other when connections are borrowed concurrently.
+ */
+public interface PoolStatistics {
+
+  /**
+   * Value returned when the underlying pool does not track the requested metric.
+   */
+  int NOT_TRACKED = -1;
+
+  /**
+   * @return the number of connections borrowed from the pool
+   */
+  int getActiveConnections();
+
+  /**
+   * @return the number of open connections waiting in the pool
+   */
+  int getIdleConnections();
+
+  /**
+   * @return the number of open connections, both active and idle
+   */
+  default int getTotalConnections() {
+    return getActiveConnections() + getIdleConnections();
+  }
+
+  /**
+   * @return the number of threads waiting for a connection, or {@link #NOT_TRACKED}
+   */
+  int getThreadsAwaitingConnection();
+
+  /**
+   * @return the maximum number of connections the pool opens
+   */
+  int getMaximumPoolSize();
+}
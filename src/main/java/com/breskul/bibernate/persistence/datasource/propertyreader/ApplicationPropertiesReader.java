@@ -2,6 +2,7 @@ package com.breskul.bibernate.persistence.datasource.propertyreader;
 
 import com.breskul.bibernate.config.PropertiesConfiguration;
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
 import java.util.Objects;
 
 /**
@@ -39,7 +40,7 @@ public class ApplicationPropertiesReader implements PropertyReader {
   /**
    * Reads application properties related to database connections and returns them as DataSourceProperties.
    *
-   * @return DataSourceProperties containing the connection URL, username, password, and driver class.
+   * @return DataSourceProperties containing the connection URL, username, password, driver class and pool settings.
    * @throws NullPointerException If any of the required properties is null.
    * @see PersistenceProperties
    */
@@ -55,7 +56,9 @@ public class ApplicationPropertiesReader implements PropertyReader {
     String dialectClass = PropertiesConfiguration.getPropertyOrDefault(DIALECT_CLASS, null);
     boolean showSql = Boolean.parseBoolean(PropertiesConfiguration.getPropertyOrDefault(SHOW_SQL, "").toLowerCase());
 
-    return new PersistenceProperties(url, username, password, driverClass, type, dialectClass, showSql);
+    PoolProperties pool = PoolProperties.fromProperties();
+
+    return new PersistenceProperties(url, username, password, driverClass, type, dialectClass, showSql, pool);
   }
 }
 
@@ -1,8 +1,69 @@
 package com.breskul.bibernate.persistence.dialect;
 
+import com.breskul.bibernate.exception.BibernateException;
+import com.breskul.bibernate.persistence.LockOptions;
 import com.breskul.bibernate.persistence.LockType;
 
 public interface Dialect {
 
   String getLockClause(LockType lockType);
+
+  /**
+   * Returns the locking clause appended to a select for the given lock options. By default the clause of the lock type is followed by the
+   * standard {@code NOWAIT} or {@code SKIP LOCKED}, a lock timeout is not supported.
+   *
+   * @param lockOptions the lock options, may be {@code null}
+   * @return the locking clause, or an empty string if the rows are not locked
+   * @throws BibernateException if the dialect does not support the wait policy of the options
+   */
+  default String getLockOptionsClause(LockOptions lockOptions) {
+    if (lockOptions == null) {
+      return "";
+    }
+    String lockClause = getLockClause(lockOptions.getLockType());
+    if (lockClause.isEmpty()) {
+      return lockClause;
+    }
+    if (lockOptions.getTimeout() != null) {
+      throw new BibernateException("Dialect %s does not support lock timeout".formatted(getClass().getSimpleName()));
+    }
+    return switch (lockOptions.getWaitPolicy()) {
+      case WAIT -> lockClause;
+      case NO_WAIT -> lockClause + " NOWAIT";
+      case SKIP_LOCKED -> lockClause + " SKIP LOCKED";
+    };
+  }
+
+  /**
+   * Returns the statement which is executed before a locking select to limit the time it waits for locked rows, for databases which do
+   * not support a timeout in the locking clause.
+   *
+   * @param lockOptions the lock options, may be {@code null}
+   * @return the statement, or {@code null} if nothing has to be executed
+   */
+  default String getLockTimeoutStatement(LockOptions lockOptions) {
+    return null;
+  }
+
+  /**
+   * Returns the statement which is executed after a locking select to undo the {@link #getLockTimeoutStatement(LockOptions) lock timeout
+   * statement}, so the timeout does not apply to the following statements of the transaction.
+   *
+   * @param lockOptions the lock options, may be {@code null}
+   * @return the statement, or {@code null} if nothing has to be executed
+   */
+  default String getLockTimeoutResetStatement(LockOptions lockOptions) {
+    return null;
+  }
+
+  /**
+   * Returns the clause appended to an ordered select to skip rows and return at most the given number of the following rows. The number of
+   * skipped rows is bound to the only parameter of the clause. By default the {@code LIMIT n OFFSET ?} clause of H2 and PostgreSQL is used.
+   *
+   * @param limit the maximum number of rows returned
+   * @return the row limiting clause
+   */
+  default String getLimitOffsetClause(int limit) {
+    return "LIMIT %d OFFSET ?".formatted(limit);
+  }
 }
@@ -1,6 +1,8 @@
 package com.breskul.bibernate.persistence.dialect;
 
+import com.breskul.bibernate.persistence.LockOptions;
 import com.breskul.bibernate.persistence.LockType;
+import java.math.BigDecimal;
 
 public class H2Dialect implements Dialect {
 
@@ -14,4 +16,20 @@ public class H2Dialect implements Dialect {
       default -> "";
     };
   }
+
+  /**
+   * H2 has no shared row locks, a read lock does not lock rows. A lock timeout is rendered as {@code WAIT} with fractional seconds.
+   */
+  @Override
+  public String getLockOptionsClause(LockOptions lockOptions) {
+    if (lockOptions == null || lockOptions.getTimeout() == null) {
+      return Dialect.super.getLockOptionsClause(lockOptions);
+    }
+    String lockClause = getLockClause(lockOptions.getLockType());
+    if (lockClause.isEmpty()) {
+      return lockClause;
+    }
+    BigDecimal seconds = BigDecimal.valueOf(lockOptions.getTimeout().toMillis(), 3).stripTrailingZeros();
+    return "%s WAIT %s".formatted(lockClause, seconds.toPlainString());
+  }
 }
@@ -1,5 +1,6 @@
 package com.breskul.bibernate.persistence.dialect;
 
+import com.breskul.bibernate.persistence.LockOptions;
 import com.breskul.bibernate.persistence.LockType;
 
 public class PostgresDialect implements Dialect {
@@ -14,4 +15,38 @@ public class PostgresDialect implements Dialect {
       case PESSIMISTIC_WRITE -> "FOR UPDATE";
     };
   }
+
+  /**
+   * PostgreSQL has no timeout in the locking clause, the timeout is set by {@link #getLockTimeoutStatement(LockOptions)} instead.
+   */
+  @Override
+  public String getLockOptionsClause(LockOptions lockOptions) {
+    if (lockOptions == null || lockOptions.getTimeout() == null) {
+      return Dialect.super.getLockOptionsClause(lockOptions);
+    }
+    return getLockClause(lockOptions.getLockType());
+  }
+
+  /**
+   * Sets {@code lock_timeout} for the current transaction. It is reset by {@link #getLockTimeoutResetStatement(LockOptions)} after the
+   * locking select. {@code SET LOCAL} has no effect outside a transaction.
+   */
+  @Override
+  public String getLockTimeoutStatement(LockOptions lockOptions) {
+    if (lockOptions == null || lockOptions.getTimeout() == null) {
+      return null;
+    }
+    return "SET LOCAL lock_timeout = %d".formatted(lockOptions.getTimeout().toMillis());
+  }
+
+  /**
+   * Resets {@code lock_timeout} of the current transaction to its default.
+   */
+  @Override
+  public String getLockTimeoutResetStatement(LockOptions lockOptions) {
+    if (lockOptions == null || lockOptions.getTimeout() == null) {
+      return null;
+    }
+    return "SET LOCAL lock_timeout = DEFAULT";
+  }
 }
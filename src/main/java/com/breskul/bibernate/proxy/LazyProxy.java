@@ -0,0 +1,24 @@
+package com.breskul.bibernate.proxy;
+
+import com.breskul.bibernate.proxy.interceptor.LazyInterceptor;
+
+/**
+ * Interface implemented by every generated lazy to-one proxy class. The proxy class is generated once per entity type, so the
+ * per-instance state (the delegate supplier and the loaded object) is kept in the {@link LazyInterceptor} stored in the proxy field.
+ */
+public interface LazyProxy {
+
+  /**
+   * Returns the interceptor which handles all method calls of this proxy instance.
+   *
+   * @return the proxy interceptor
+   */
+  LazyInterceptor<?> getBibernateInterceptor();
+
+  /**
+   * Sets the interceptor which handles all method calls of this proxy instance.
+   *
+   * @param interceptor the proxy interceptor
+   */
+  void setBibernateInterceptor(LazyInterceptor<?> interceptor);
+}
@@ -0,0 +1,41 @@
+package com.breskul.bibernate.proxy.collection;
+
+/**
+ * Targeted queries used by extra-lazy collections to answer size, emptiness, containment and positional access without loading the whole
+ * collection. They are used only until the collection is fully loaded.
+ *
+ * @param <T> the type of elements in the collection
+ */
+public interface ExtraLazyQueries<T> {
+
+  /**
+   * Counts the collection elements.
+   *
+   * @return the number of elements in the collection
+   */
+  int count();
+
+  /**
+   * Checks whether the collection has any element, without counting all of them.
+   *
+   * @return true if the collection has at least one element, false otherwise
+   */
+  boolean exists();
+
+  /**
+   * Checks whether the collection contains the given element.
+   *
+   * @param element the element to look for
+   * @return true if the element belongs to the collection, false otherwise
+   */
+  boolean contains(Object element);
+
+  /**
+   * Loads the collection element at the given position.
+   *
+   * @param index the element position
+   * @return the element at the given position
+   * @throws IndexOutOfBoundsException if there is no element at the given position
+   */
+  T get(int index);
+}
@@ -7,6 +7,7 @@ import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -17,38 +18,85 @@ import java.util.stream.Stream;
 
 /**
  * LazyList represents a lazily initialized list that delegates its operations to another list. The delegate list is supplied by a supplier,
- * which allows for lazy initialization.
+ * which allows for lazy initialization. The delegate list is loaded only once, even when the first access happens concurrently.
  *
  * @param <T> the type of elements in the list
  */
 public class LazyList<T> implements List<T> {
 
   private final Supplier<Collection<? extends T>> delegateSupplier;
-  private List<T> delegate;
+  private final ExtraLazyQueries<T> extraLazyQueries;
+  private volatile List<T> delegate;
+  private final ReentrantLock initializationLock = new ReentrantLock();
 
   public LazyList(Supplier<Collection<? extends T>> delegateSupplier) {
+    this(delegateSupplier, null);
+  }
+
+  /**
+   * Creates extra-lazy list. Until the list is loaded, {@code size}, {@code isEmpty}, {@code contains} and {@code get} are answered by the
+   * given targeted queries instead of loading all elements.
+   *
+   * @param delegateSupplier the supplier of all list elements
+   * @param extraLazyQueries the targeted queries, or null for a plain lazy list
+   */
+  public LazyList(Supplier<Collection<? extends T>> delegateSupplier,
+      ExtraLazyQueries<T> extraLazyQueries) {
     this.delegateSupplier = delegateSupplier;
+    this.extraLazyQueries = extraLazyQueries;
   }
 
   private List<T> getDelegateList() {
-    if (delegate == null) {
-      delegate = new ArrayList<>(delegateSupplier.get());
+    List<T> result = delegate;
+    if (result == null) {
+      initializationLock.lock();
+      try {
+        result = delegate;
+        if (result == null) {
+          result = new ArrayList<>(delegateSupplier.get());
+          delegate = result;
+        }
+      } finally {
+        initializationLock.unlock();
+      }
     }
-    return delegate;
+    return result;
+  }
+
+  /**
+   * Checks whether the delegate list was already loaded.
+   *
+   * @return true if the delegate list was loaded, false otherwise
+   */
+  public boolean isInitialized() {
+    return delegate != null;
+  }
+
+  private boolean isExtraLazyAccess() {
+    return delegate == null && extraLazyQueries != null;
   }
 
   @Override
   public int size() {
+    if (isExtraLazyAccess()) {
+      return extraLazyQueries.count();
+    }
     return getDelegateList().size();
   }
 
   @Override
   public boolean isEmpty() {
+    if (isExtraLazyAccess()) {
+      return !extraLazyQueries.exists();
+    }
     return getDelegateList().isEmpty();
   }
 
   @Override
   public boolean contains(Object o) {
+    if (isExtraLazyAccess()) {
+      return extraLazyQueries.contains(o);
+    }
     return getDelegateList().contains(o);
   }
 
@@ -129,6 +177,9 @@ public class LazyList<T> implements List<T> {
 
   @Override
   public T get(int index) {
+    if (isExtraLazyAccess()) {
+      return extraLazyQueries.get(index);
+    }
     return getDelegateList().get(index);
   }
 
@@ -5,6 +5,7 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.Set;
 import java.util.Spliterator;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Consumer;
 import java.util.function.IntFunction;
 import java.util.function.Predicate;
@@ -13,39 +14,86 @@ import java.util.stream.Stream;
 
 /**
  * LazySet represents a lazily initialized set that delegates its operations to another set. The delegate set is supplied by a supplier,
- * which allows for lazy initialization.
+ * which allows for lazy initialization. The delegate set is loaded only once, even when the first access happens concurrently.
  *
  * @param <T> the type of elements in the set
  */
 public class LazySet<T> implements Set<T> {
 
   private final Supplier<Collection<? extends T>> delegateSupplier;
+  private final ExtraLazyQueries<T> extraLazyQueries;
 
-  private Set<T> delegate;
+  private volatile Set<T> delegate;
+  private final ReentrantLock initializationLock = new ReentrantLock();
 
   public LazySet(Supplier<Collection<? extends T>> delegateSupplier) {
+    this(delegateSupplier, null);
+  }
+
+  /**
+   * Creates extra-lazy set. Until the set is loaded, {@code size}, {@code isEmpty} and {@code contains} are answered by the given
+   * targeted queries instead of loading all elements.
+   *
+   * @param delegateSupplier the supplier of all set elements
+   * @param extraLazyQueries the targeted queries, or null for a plain lazy set
+   */
+  public LazySet(Supplier<Collection<? extends T>> delegateSupplier,
+      ExtraLazyQueries<T> extraLazyQueries) {
     this.delegateSupplier = delegateSupplier;
+    this.extraLazyQueries = extraLazyQueries;
   }
 
   private Set<T> getDelegateSet() {
-    if (delegate == null) {
-      delegate = new HashSet<>(delegateSupplier.get());
+    Set<T> result = delegate;
+    if (result == null) {
+      initializationLock.lock();
+      try {
+        result = delegate;
+        if (result == null) {
+          result = new HashSet<>(delegateSupplier.get());
+          delegate = result;
+        }
+      } finally {
+        initializationLock.unlock();
+      }
     }
-    return delegate;
+    return result;
+  }
+
+  /**
+   * Checks whether the delegate set was already loaded.
+   *
+   * @return true if the delegate set was loaded, false otherwise
+   */
+  public boolean isInitialized() {
+    return delegate != null;
+  }
+
+  private boolean isExtraLazyAccess() {
+    return delegate == null && extraLazyQueries != null;
   }
 
   @Override
   public int size() {
+    if (isExtraLazyAccess()) {
+      return extraLazyQueries.count();
+    }
     return getDelegateSet().size();
   }
 
   @Override
   public boolean isEmpty() {
+    if (isExtraLazyAccess()) {
+      return !extraLazyQueries.exists();
+    }
     return getDelegateSet().isEmpty();
   }
 
   @Override
   public boolean contains(Object o) {
+    if (isExtraLazyAccess()) {
+      return extraLazyQueries.contains(o);
+    }
     return getDelegateSet().contains(o);
   }
 
@@ -1,30 +1,54 @@
 package com.breskul.bibernate.proxy.interceptor;
 
+import com.breskul.bibernate.util.EntityUtil;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Supplier;
 import net.bytebuddy.implementation.bind.annotation.AllArguments;
 import net.bytebuddy.implementation.bind.annotation.Origin;
 import net.bytebuddy.implementation.bind.annotation.RuntimeType;
+import net.bytebuddy.implementation.bind.annotation.This;
 
 /**
- * A class that provides lazy initialization and interception for a given object.
+ * A class that provides lazy initialization and interception for a given object. The interceptor may carry the identifier of the proxied
+ * entity, in which case the identifier getter and the {@link Object} identity methods are answered without initialization.
  *
  * @param <T> The type of the object to be lazily initialized and intercepted.
  */
 public class LazyInterceptor<T> {
 
-  private T object;
+  private volatile T object;
+  private volatile boolean initialized;
+  private final ReentrantLock initializationLock = new ReentrantLock();
   private final Supplier<T> supplier;
+  private final Object identifier;
+  private final String identifierGetterName;
 
 
   public LazyInterceptor(Supplier<T> supplier) {
+    this(supplier, null, null);
+  }
+
+  /**
+   * Creates interceptor which knows the identifier of the proxied entity.
+   *
+   * @param supplier             The supplier of the real object.
+   * @param identifier           The identifier of the proxied entity, or null if it is unknown.
+   * @param identifierGetterName The name of the identifier getter method, or null if it is unknown.
+   */
+  public LazyInterceptor(Supplier<T> supplier, Object identifier, String identifierGetterName) {
     this.supplier = supplier;
+    this.identifier = identifier;
+    this.identifierGetterName = identifierGetterName;
   }
 
   /**
-   * Intercepts a method call on a lazily initialized object and initialize real object when lazy object first accessed.
+   * Intercepts a method call on a lazily initialized object and initialize real object when lazy object first accessed. Calls of the
+   * identifier getter are answered with the known identifier, and {@code equals}/{@code hashCode} not overridden by the entity use the proxy
+   * identity, so neither of them initializes the real object.
    *
+   * @param proxy  The proxy instance on which the method is called.
    * @param method The method being intercepted.
    * @param args   The arguments passed to the method.
    * @return The result of invoking the method on the lazily initialized object.
@@ -32,12 +56,69 @@ public class LazyInterceptor<T> {
    * @throws IllegalAccessException    If the intercepted method cannot be accessed.
    */
   @RuntimeType
-  public Object intercept(@Origin Method method, @AllArguments Object[] args)
+  public Object intercept(@This Object proxy, @Origin Method method, @AllArguments Object[] args)
       throws InvocationTargetException, IllegalAccessException {
-    if (object == null) {
-      object = supplier.get();
+    if (!initialized && isIdentifierGetter(method)) {
+      return identifier;
+    }
+    if (method.getDeclaringClass() == Object.class) {
+      switch (method.getName()) {
+        case "hashCode":
+          return System.identityHashCode(proxy);
+        case "equals":
+          return proxy == args[0];
+        default:
+          break;
+      }
     }
-    return method.invoke(object, args);
+    return method.invoke(getObject(), args);
   }
 
+  /**
+   * Checks whether the real object was already loaded.
+   *
+   * @return true if the real object was loaded, false otherwise
+   */
+  public boolean isInitialized() {
+    return initialized;
+  }
+
+  /**
+   * Returns the identifier of the proxied entity without initialization. When the real object is already loaded its current identifier is
+   * returned.
+   *
+   * @return the entity identifier or null if it is unknown
+   */
+  public Object getIdentifier() {
+    T loaded = object;
+    return initialized && loaded != null ? EntityUtil.getEntityId(loaded) : identifier;
+  }
+
+  /**
+   * Returns the real object, loading it on the first call. Concurrent first calls load the object only once, a null result is kept as well,
+   * so a missing entity is not queried again. The load is guarded by a lock rather than a monitor, so a virtual thread waiting for the
+   * query does not pin its carrier thread.
+   *
+   * @return the real object, or null if the supplier found none
+   */
+  public T getObject() {
+    if (!initialized) {
+      initializationLock.lock();
+      try {
+        if (!initialized) {
+          object = supplier.get();
+          initialized = true;
+        }
+      } finally {
+        initializationLock.unlock();
+      }
+    }
+    return object;
+  }
+
+  private boolean isIdentifierGetter(Method method) {
+    return identifier != null
+        && method.getParameterCount() == 0
+        && method.getName().equals(identifierGetterName);
+  }
 }
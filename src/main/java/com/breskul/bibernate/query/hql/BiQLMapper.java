@@ -7,9 +7,15 @@ import com.breskul.bibernate.config.LoggerFactory;
 import com.breskul.bibernate.exception.BiQLException;
 import com.breskul.bibernate.util.EntityUtil;
 import java.lang.reflect.Field;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import org.slf4j.Logger;
 
 
@@ -24,6 +30,10 @@ public class BiQLMapper {
 
   private static final String BIQL_HAS_INCORRECT_STRUCTURE = "BiQL has incorrect structure";
 
+  private static final Pattern BULK_BIQL = Pattern.compile(
+      "^\\s*(update|delete\\s+from)\\s+(\\w+)(?:\\s+(?!set\\b|where\\b)(\\w+))?(\\s.*)?$",
+      Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+
   private BiQLMapper() {
 
   }
@@ -70,6 +80,141 @@ public class BiQLMapper {
     return result;
   }
 
+  /**
+   * Converts a bulk BiQL update or delete statement to a single SQL statement, which changes the rows without loading them as entities.
+   * Field names, optionally qualified by the entity alias, are replaced with column names, named parameters such as {@code :age} are
+   * replaced with positional parameters. String literals are copied as is. An update of an entity with a
+   * {@link com.breskul.bibernate.annotation.Version} field also increments the version, so optimistic locking detects the change; the
+   * version must not be set by the statement itself.
+   * <pre>
+   *   update Person p set p.firstName = :name where p.lastName = 'Doe'
+   *   delete from Person where id = :id
+   * </pre>
+   *
+   * @param <T>         The type of the entity class associated with the BiQL statement.
+   * @param bql         The BiQL statement to be converted.
+   * @param entityClass The class of the entity which the BiQL statement is targeting.
+   * @return the SQL statement and the names of its parameters in the order of their placeholders
+   * @throws BiQLException If the BiQL statement is malformed or refers to an unknown field of the entity.
+   */
+  public static <T> BiQLStatement bulkBqlToSql(String bql, Class<T> entityClass) {
+    if (Objects.isNull(entityClass)) {
+      throw new BiQLException("EntityClass should not be null");
+    }
+    if (Objects.isNull(bql) || bql.isBlank()) {
+      throw new BiQLException("BiQL should not be null or empty");
+    }
+    Matcher matcher = BULK_BIQL.matcher(bql);
+    if (!matcher.matches()) {
+      log.error("Bulk bql [{}] does not start with update or delete from", bql);
+      throw new BiQLException(BIQL_HAS_INCORRECT_STRUCTURE);
+    }
+    String entityClassName = entityClass.getSimpleName();
+    if (!matcher.group(2).equals(entityClassName)) {
+      throw new BiQLException(
+          "BiQL does not contain entity with type %s".formatted(entityClassName));
+    }
+    boolean isUpdate = matcher.group(1).equalsIgnoreCase(SqlKeyword.UPDATE.name());
+    String rest = Objects.requireNonNullElse(matcher.group(4), "");
+    String[] setClause = rest.strip().split("\\s+", 2);
+    if (isUpdate && (setClause.length < 2 || !setClause[0].equalsIgnoreCase(SqlKeyword.SET.name()))) {
+      log.error("Bulk update bql [{}] does not contain set clause", bql);
+      throw new BiQLException(BIQL_HAS_INCORRECT_STRUCTURE);
+    }
+
+    Map<String, String> columnNames = new HashMap<>();
+    for (Field field : getClassEntityFields(entityClass)) {
+      if (!EntityUtil.isCollectionEntityField(field)) {
+        columnNames.put(field.getName(), resolveColumnName(field));
+      }
+    }
+    String statementStart = isUpdate
+        ? SqlKeyword.UPDATE.name().toLowerCase()
+        : "%s %s".formatted(SqlKeyword.DELETE.name().toLowerCase(), SqlKeyword.FROM.name().toLowerCase());
+    List<String> parameterNames = new ArrayList<>();
+    String clauses = translateBulkClauses(rest, matcher.group(3), columnNames, parameterNames, entityClassName);
+    if (isUpdate) {
+      clauses = incrementVersion(clauses, entityClass);
+    }
+    String sql = "%s %s%s".formatted(statementStart, EntityUtil.getEntityTableName(entityClass), clauses);
+    return new BiQLStatement(sql, parameterNames);
+  }
+
+  /**
+   * Adds the assignment of the next version to the translated set clause of a versioned entity. A numeric version is incremented by one, a
+   * timestamp version is set to the current time.
+   */
+  private static String incrementVersion(String clauses, Class<?> entityClass) {
+    return EntityUtil.findEntityVersionField(entityClass)
+        .map(versionField -> {
+          String versionColumn = resolveColumnName(versionField);
+          String nextVersion = versionField.getType() == Timestamp.class
+              ? "CURRENT_TIMESTAMP"
+              : "%s + 1".formatted(versionColumn);
+          int setEnd = clauses.length() - clauses.stripLeading().length() + SqlKeyword.SET.name().length();
+          return "%s %s = %s,%s".formatted(clauses.substring(0, setEnd), versionColumn, nextVersion,
+              clauses.substring(setEnd));
+        })
+        .orElse(clauses);
+  }
+
+  /**
+   * Replaces field names with column names and named parameters with {@code ?}, skipping string literals. The alias is dropped, since
+   * some databases do not accept it in the set clause.
+   */
+  private static String translateBulkClauses(String clauses, String alias, Map<String, String> columnNames,
+      List<String> parameterNames, String entityClassName) {
+    StringBuilder sql = new StringBuilder(clauses.length());
+    int i = 0;
+    while (i < clauses.length()) {
+      char c = clauses.charAt(i);
+      if (c == '\'') {
+        int end = clauses.indexOf('\'', i + 1);
+        while (end != -1 && end + 1 < clauses.length() && clauses.charAt(end + 1) == '\'') {
+          end = clauses.indexOf('\'', end + 2);
+        }
+        if (end == -1) {
+          throw new BiQLException(BIQL_HAS_INCORRECT_STRUCTURE);
+        }
+        sql.append(clauses, i, end + 1);
+        i = end + 1;
+      } else if (c == ':' && i + 1 < clauses.length() && Character.isJavaIdentifierStart(clauses.charAt(i + 1))) {
+        int end = identifierEnd(clauses, i + 1);
+        parameterNames.add(clauses.substring(i + 1, end));
+        sql.append('?');
+        i = end;
+      } else if (Character.isJavaIdentifierStart(c)) {
+        int end = identifierEnd(clauses, i);
+        String identifier = clauses.substring(i, end);
+        if (identifier.equals(alias) && end < clauses.length() && clauses.charAt(end) == '.') {
+          int fieldEnd = identifierEnd(clauses, end + 1);
+          String fieldName = clauses.substring(end + 1, fieldEnd);
+          String columnName = columnNames.get(fieldName);
+          if (columnName == null) {
+            throw new BiQLException("Entity %s does not have field %s".formatted(entityClassName, fieldName));
+          }
+          sql.append(columnName);
+          i = fieldEnd;
+        } else {
+          sql.append(columnNames.getOrDefault(identifier, identifier));
+          i = end;
+        }
+      } else {
+        sql.append(c);
+        i++;
+      }
+    }
+    return sql.toString();
+  }
+
+  private static int identifierEnd(String text, int start) {
+    int end = start;
+    while (end < text.length() && Character.isJavaIdentifierPart(text.charAt(end))) {
+      end++;
+    }
+    return end;
+  }
+
   private static boolean isSelectAll(List<String> bqlParts, int entityIndex) {
     int whereIndex = bqlParts.indexOf(SqlKeyword.WHERE.name().toLowerCase());
     int fromIndex = bqlParts.indexOf(SqlKeyword.FROM.name().toLowerCase());
@@ -0,0 +1,38 @@
+package com.breskul.bibernate.query.hql;
+
+import com.breskul.bibernate.exception.BiQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A SQL statement converted from a bulk BiQL statement by {@link BiQLMapper#bulkBqlToSql(String, Class)}.
+ *
+ * @param sql            the SQL statement with positional parameters
+ * @param parameterNames the names of the BiQL named parameters in the order of their placeholders, a name used several times is
+ *                       repeated
+ */
+public record BiQLStatement(String sql, List<String> parameterNames) {
+
+  public BiQLStatement {
+    parameterNames = List.copyOf(parameterNames);
+  }
+
+  /**
+   * Orders the values of the named parameters as the placeholders of the SQL statement.
+   *
+   * @param parameters the parameter values by name
+   * @return the values to bind to the placeholders
+   * @throws BiQLException if a value of some named parameter is not provided
+   */
+  public Object[] bindParameters(Map<String, ?> parameters) {
+    Object[] values = new Object[parameterNames.size()];
+    for (int i = 0; i < values.length; i++) {
+      String parameterName = parameterNames.get(i);
+      if (!parameters.containsKey(parameterName)) {
+        throw new BiQLException("Value of parameter [%s] is not provided".formatted(parameterName));
+      }
+      values[i] = parameters.get(parameterName);
+    }
+    return values;
+  }
+}
@@ -16,5 +16,17 @@ public enum SqlKeyword {
   /**
    * Represents the 'WHERE' keyword used in SQL queries to specify conditions that must be met for a row to be included in the result set.
    */
-  WHERE
+  WHERE,
+  /**
+   * Represents the 'UPDATE' keyword used in SQL statements to change the rows of a table.
+   */
+  UPDATE,
+  /**
+   * Represents the 'SET' keyword used in SQL update statements to assign new column values.
+   */
+  SET,
+  /**
+   * Represents the 'DELETE' keyword used in SQL statements to remove the rows of a table.
+   */
+  DELETE
 }
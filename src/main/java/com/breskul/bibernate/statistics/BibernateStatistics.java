@@ -0,0 +1,289 @@
+package com.breskul.bibernate.statistics;
+
+import com.breskul.bibernate.config.PropertiesConfiguration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.BiConsumer;
+import java.util.regex.Pattern;
+
+/**
+ * Lock-free {@link Statistics} implementation. The recording methods are called by sessions and return immediately when statistics are
+ * disabled. Timed operations get their start time from {@link #startTime()}, which is zero while disabled, so the clock is not read.
+ */
+public class BibernateStatistics implements Statistics {
+
+  public static final String STATISTICS_ENABLED_PROPERTY = "bibernate.statistics.enabled";
+
+  /**
+   * Upper limit of the query shapes kept, so an application which builds SQL with inlined values can not exhaust the memory. Queries of
+   * further shapes are only counted in {@link #getQueryExecutionCount()}.
+   */
+  static final int MAX_QUERY_SHAPES = 1_000;
+
+  private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+  private static final Pattern NUMERIC_LITERAL = Pattern.compile("(?<![\\w.])-?\\d+(?:\\.\\d+)?\\b");
+  private static final Pattern IN_LIST = Pattern.compile("(?i)\\bIN\\s*\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+  private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+  private volatile boolean enabled;
+
+  private final LongAdder sessionOpenCount = new LongAdder();
+  private final LongAdder sessionCloseCount = new LongAdder();
+  private final LongAdder queryExecutionCount = new LongAdder();
+  private final LongAdder cacheHitCount = new LongAdder();
+  private final LongAdder cacheMissCount = new LongAdder();
+  private final LongAdder lazyInitializationCount = new LongAdder();
+  private volatile TimingStatistics connectionAcquisitionTime = new TimingStatistics();
+  private volatile TimingStatistics flushTime = new TimingStatistics();
+  private final Map<Class<?>, EntityStatistics> entityStatistics = new ConcurrentHashMap<>();
+  private final Map<String, TimingStatistics> queryStatistics = new ConcurrentHashMap<>();
+  private final Map<String, LongAdder> lazyInitializations = new ConcurrentHashMap<>();
+  private final List<StatisticsListener> listeners = new CopyOnWriteArrayList<>();
+
+  public BibernateStatistics(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  /**
+   * Creates statistics enabled by the {@value #STATISTICS_ENABLED_PROPERTY} property, disabled if it is not set.
+   *
+   * @return the statistics
+   */
+  public static BibernateStatistics fromProperties() {
+    return new BibernateStatistics(Boolean.parseBoolean(
+        PropertiesConfiguration.getPropertyOrDefault(STATISTICS_ENABLED_PROPERTY, "false").trim()));
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  @Override
+  public void setEnabled(boolean enabled) {
+    this.enabled = enabled;
+  }
+
+  @Override
+  public void clear() {
+    sessionOpenCount.reset();
+    sessionCloseCount.reset();
+    queryExecutionCount.reset();
+    cacheHitCount.reset();
+    cacheMissCount.reset();
+    lazyInitializationCount.reset();
+    connectionAcquisitionTime = new TimingStatistics();
+    flushTime = new TimingStatistics();
+    entityStatistics.clear();
+    queryStatistics.clear();
+    lazyInitializations.clear();
+  }
+
+  /**
+   * @return the current {@link System#nanoTime()}, or zero if statistics are disabled
+   */
+  public long startTime() {
+    return enabled ? System.nanoTime() : 0;
+  }
+
+  public void sessionOpened(long connectionRequestStartTime) {
+    if (enabled) {
+      sessionOpenCount.increment();
+      connectionAcquisitionTime.record(elapsedSince(connectionRequestStartTime));
+    }
+  }
+
+  public void sessionClosed() {
+    if (enabled) {
+      sessionCloseCount.increment();
+    }
+  }
+
+  public void queryExecuted(String sql, long startTime) {
+    if (enabled) {
+      long nanos = elapsedSince(startTime);
+      queryExecutionCount.increment();
+      String sqlShape = toSqlShape(sql);
+      TimingStatistics statistics = queryStatistics.get(sqlShape);
+      if (statistics == null && queryStatistics.size() < MAX_QUERY_SHAPES) {
+        statistics = getOrAdd(queryStatistics, sqlShape, new TimingStatistics(), StatisticsListener::queryAdded);
+      }
+      if (statistics != null) {
+        statistics.record(nanos);
+      }
+    }
+  }
+
+  public void entityLoaded(Class<?> entityClass) {
+    if (enabled) {
+      entityStatistics(entityClass).recordLoad();
+    }
+  }
+
+  public void entityInserted(Class<?> entityClass) {
+    if (enabled) {
+      entityStatistics(entityClass).recordInsert();
+    }
+  }
+
+  public void entityUpdated(Class<?> entityClass) {
+    if (enabled) {
+      entityStatistics(entityClass).recordUpdate();
+    }
+  }
+
+  public void entityDeleted(Class<?> entityClass) {
+    if (enabled) {
+      entityStatistics(entityClass).recordDelete();
+    }
+  }
+
+  public void firstLevelCacheHit() {
+    if (enabled) {
+      cacheHitCount.increment();
+    }
+  }
+
+  public void firstLevelCacheMiss() {
+    if (enabled) {
+      cacheMissCount.increment();
+    }
+  }
+
+  public void flushed(long startTime) {
+    if (enabled) {
+      flushTime.record(elapsedSince(startTime));
+    }
+  }
+
+  public void lazyInitialized(Class<?> ownerClass, String fieldName) {
+    if (enabled) {
+      lazyInitializationCount.increment();
+      String association = ownerClass.getSimpleName() + "." + fieldName;
+      LongAdder count = lazyInitializations.get(association);
+      if (count == null) {
+        count = getOrAdd(lazyInitializations, association, new LongAdder(), StatisticsListener::lazyAssociationAdded);
+      }
+      count.increment();
+    }
+  }
+
+  @Override
+  public long getSessionOpenCount() {
+    return sessionOpenCount.sum();
+  }
+
+  @Override
+  public long getSessionCloseCount() {
+    return sessionCloseCount.sum();
+  }
+
+  @Override
+  public TimingStatistics getConnectionAcquisitionTime() {
+    return connectionAcquisitionTime;
+  }
+
+  @Override
+  public EntityStatistics getEntityStatistics(Class<?> entityClass) {
+    EntityStatistics statistics = entityStatistics.get(entityClass);
+    return statistics == null ? new EntityStatistics() : statistics;
+  }
+
+  @Override
+  public Set<Class<?>> getEntityClasses() {
+    return Set.copyOf(entityStatistics.keySet());
+  }
+
+  @Override
+  public long getQueryExecutionCount() {
+    return queryExecutionCount.sum();
+  }
+
+  @Override
+  public TimingStatistics getQueryStatistics(String sqlShape) {
+    return queryStatistics.get(sqlShape);
+  }
+
+  @Override
+  public Set<String> getQueries() {
+    return Set.copyOf(queryStatistics.keySet());
+  }
+
+  @Override
+  public long getFirstLevelCacheHitCount() {
+    return cacheHitCount.sum();
+  }
+
+  @Override
+  public long getFirstLevelCacheMissCount() {
+    return cacheMissCount.sum();
+  }
+
+  @Override
+  public long getFlushCount() {
+    return flushTime.getCount();
+  }
+
+  @Override
+  public TimingStatistics getFlushTime() {
+    return flushTime;
+  }
+
+  @Override
+  public long getLazyInitializationCount() {
+    return lazyInitializationCount.sum();
+  }
+
+  @Override
+  public Map<String, Long> getLazyInitializationCounts() {
+    Map<String, Long> counts = new HashMap<>();
+    lazyInitializations.forEach((association, count) -> counts.put(association, count.sum()));
+    return counts;
+  }
+
+  /**
+   * Replaces literals of the SQL with {@code ?}, collapses {@code IN} lists and whitespace.
+   *
+   * @param sql the executed SQL
+   * @return the query shape
+   */
+  public static String toSqlShape(String sql) {
+    String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+    shape = NUMERIC_LITERAL.matcher(shape).replaceAll("?");
+    shape = IN_LIST.matcher(shape).replaceAll("IN (?)");
+    return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+  }
+
+  @Override
+  public void addListener(StatisticsListener listener) {
+    listeners.add(listener);
+  }
+
+  private EntityStatistics entityStatistics(Class<?> entityClass) {
+    EntityStatistics statistics = entityStatistics.get(entityClass);
+    return statistics != null ? statistics
+        : getOrAdd(entityStatistics, entityClass, new EntityStatistics(), StatisticsListener::entityClassAdded);
+  }
+
+  /**
+   * Adds the value unless the map already has one for the key, notifies the listeners if the value was added. The listeners are called
+   * outside of the map update, so they may read these statistics.
+   */
+  private <K, V> V getOrAdd(Map<K, V> map, K key, V value, BiConsumer<StatisticsListener, K> notification) {
+    V existing = map.putIfAbsent(key, value);
+    if (existing != null) {
+      return existing;
+    }
+    listeners.forEach(listener -> notification.accept(listener, key));
+    return value;
+  }
+
+  private static long elapsedSince(long startTime) {
+    return startTime == 0 ? 0 : System.nanoTime() - startTime;
+  }
+}
@@ -0,0 +1,58 @@
+package com.breskul.bibernate.statistics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Numbers of entities of one class loaded, inserted, updated and deleted by all sessions of a session factory.
+ */
+public final class EntityStatistics {
+
+  private final LongAdder loadCount = new LongAdder();
+  private final LongAdder insertCount = new LongAdder();
+  private final LongAdder updateCount = new LongAdder();
+  private final LongAdder deleteCount = new LongAdder();
+
+  EntityStatistics() {
+  }
+
+  /**
+   * @return the number of entities mapped from query results, including the related entities loaded with them
+   */
+  public long getLoadCount() {
+    return loadCount.sum();
+  }
+
+  public long getInsertCount() {
+    return insertCount.sum();
+  }
+
+  public long getUpdateCount() {
+    return updateCount.sum();
+  }
+
+  public long getDeleteCount() {
+    return deleteCount.sum();
+  }
+
+  void recordLoad() {
+    loadCount.increment();
+  }
+
+  void recordInsert() {
+    insertCount.increment();
+  }
+
+  void recordUpdate() {
+    updateCount.increment();
+  }
+
+  void recordDelete() {
+    deleteCount.increment();
+  }
+
+  @Override
+  public String toString() {
+    return "EntityStatistics[load=%d, insert=%d, update=%d, delete=%d]".formatted(getLoadCount(), getInsertCount(),
+        getUpdateCount(), getDeleteCount());
+  }
+}
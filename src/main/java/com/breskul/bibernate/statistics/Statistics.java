@@ -0,0 +1,102 @@
+package com.breskul.bibernate.statistics;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Statistics of all sessions opened by a {@link com.breskul.bibernate.persistence.SessionFactory}. Collection is disabled by default, it is
+ * enabled by the {@value BibernateStatistics#STATISTICS_ENABLED_PROPERTY} property or at runtime with {@link #setEnabled(boolean)}. While
+ * disabled, sessions only check a volatile flag and do not read the clock.
+ * <p>
+ * Queries are grouped by their shape: the executed SQL with string and numeric literals replaced by {@code ?} and {@code IN} lists
+ * collapsed to a single parameter, so the same query with different arguments is counted once.
+ * <pre>{@code
+ * Statistics statistics = sessionFactory.getStatistics();
+ * statistics.getQueries().forEach(sql -> log.info("{}: {}", sql, statistics.getQueryStatistics(sql)));
+ * }</pre>
+ */
+public interface Statistics {
+
+  boolean isEnabled();
+
+  void setEnabled(boolean enabled);
+
+  /**
+   * Resets all counters.
+   */
+  void clear();
+
+  long getSessionOpenCount();
+
+  long getSessionCloseCount();
+
+  /**
+   * @return the time it took the sessions to obtain their connection from the data source
+   */
+  TimingStatistics getConnectionAcquisitionTime();
+
+  /**
+   * @param entityClass the entity class
+   * @return the statistics of the entity class, all zero if nothing was recorded for it
+   */
+  EntityStatistics getEntityStatistics(Class<?> entityClass);
+
+  /**
+   * @return the entity classes with recorded statistics
+   */
+  Set<Class<?>> getEntityClasses();
+
+  /**
+   * @return the number of executed SQL statements, including the statements of inserts, updates and deletes
+   */
+  long getQueryExecutionCount();
+
+  /**
+   * @param sqlShape the query shape, as returned by {@link #getQueries()}
+   * @return the execution times of the query shape, or {@code null} if it was not executed
+   */
+  TimingStatistics getQueryStatistics(String sqlShape);
+
+  /**
+   * @return the shapes of the executed queries
+   */
+  Set<String> getQueries();
+
+  /**
+   * @return the number of {@code findById} calls answered from the persistence context of the session
+   */
+  long getFirstLevelCacheHitCount();
+
+  /**
+   * @return the number of {@code findById} calls which had to query the database
+   */
+  long getFirstLevelCacheMissCount();
+
+  long getFlushCount();
+
+  /**
+   * @return the durations of session flushes, including dirty checking
+   */
+  TimingStatistics getFlushTime();
+
+  /**
+   * @return the number of initialized lazy associations
+   */
+  long getLazyInitializationCount();
+
+  /**
+   * Returns the number of lazy initializations per association, named {@code EntityClass.field}. An association initialized about as many
+   * times as its owner entities were loaded is a N+1 select candidate for a fetch profile.
+   *
+   * @return the initialization counts per association
+   */
+  Map<String, Long> getLazyInitializationCounts();
+
+  /**
+   * Registers a listener notified about newly tracked entity classes, query shapes and lazy associations. It is notified again for those
+   * which are recorded after {@link #clear()}.
+   *
+   * @param listener the listener
+   */
+  void addListener(StatisticsListener listener);
+}
@@ -0,0 +1,20 @@
+package com.breskul.bibernate.statistics;
+
+/**
+ * Callback notified when {@link Statistics} start tracking a new entity class, query shape or lazy association, for example to register
+ * meters for it. The callbacks run on the thread of the session which recorded the first value and must not block.
+ */
+public interface StatisticsListener {
+
+  default void entityClassAdded(Class<?> entityClass) {
+  }
+
+  default void queryAdded(String sqlShape) {
+  }
+
+  /**
+   * @param association the association, named {@code EntityClass.field}
+   */
+  default void lazyAssociationAdded(String association) {
+  }
+}
@@ -0,0 +1,95 @@
+package com.breskul.bibernate.statistics;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Execution count and time histogram of a recorded operation, such as a query shape, a flush or a connection acquisition. The histogram
+ * has decade buckets from 10 µs to 10 s and an overflow bucket. Counters are lock-free, so the values are not consistent with each other
+ * while operations are recorded concurrently.
+ */
+public final class TimingStatistics {
+
+  private static final long[] BUCKET_UPPER_BOUNDS_NANOS = {
+      10_000L, 100_000L, 1_000_000L, 10_000_000L, 100_000_000L, 1_000_000_000L, 10_000_000_000L, Long.MAX_VALUE};
+
+  /**
+   * Upper bounds of the histogram buckets, the last bucket is unbounded.
+   */
+  public static final List<Duration> BUCKET_UPPER_BOUNDS = List.of(Duration.ofNanos(10_000), Duration.ofNanos(100_000),
+      Duration.ofMillis(1), Duration.ofMillis(10), Duration.ofMillis(100), Duration.ofSeconds(1), Duration.ofSeconds(10),
+      Duration.ofNanos(Long.MAX_VALUE));
+
+  private final LongAdder count = new LongAdder();
+  private final LongAdder totalNanos = new LongAdder();
+  private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+  private final LongAdder[] buckets = new LongAdder[BUCKET_UPPER_BOUNDS_NANOS.length];
+
+  TimingStatistics() {
+    for (int i = 0; i < buckets.length; i++) {
+      buckets[i] = new LongAdder();
+    }
+  }
+
+  void record(long nanos) {
+    count.increment();
+    totalNanos.add(nanos);
+    maxNanos.accumulate(nanos);
+    int bucket = 0;
+    while (nanos > BUCKET_UPPER_BOUNDS_NANOS[bucket]) {
+      bucket++;
+    }
+    buckets[bucket].increment();
+  }
+
+  /**
+   * @return the number of recorded executions
+   */
+  public long getCount() {
+    return count.sum();
+  }
+
+  /**
+   * @return the summed time of all recorded executions
+   */
+  public Duration getTotalTime() {
+    return Duration.ofNanos(totalNanos.sum());
+  }
+
+  /**
+   * @return the mean execution time, zero if nothing was recorded
+   */
+  public Duration getMeanTime() {
+    long executions = count.sum();
+    return executions == 0 ? Duration.ZERO : Duration.ofNanos(totalNanos.sum() / executions);
+  }
+
+  /**
+   * @return the longest execution time
+   */
+  public Duration getMaxTime() {
+    return Duration.ofNanos(maxNanos.get());
+  }
+
+  /**
+   * Returns the number of executions per histogram bucket. The execution is counted in the first bucket whose upper bound from
+   * {@link #BUCKET_UPPER_BOUNDS} is not shorter than the execution time.
+   *
+   * @return the counts in the order of {@link #BUCKET_UPPER_BOUNDS}
+   */
+  public long[] getBucketCounts() {
+    long[] counts = new long[buckets.length];
+    for (int i = 0; i < buckets.length; i++) {
+      counts[i] = buckets[i].sum();
+    }
+    return counts;
+  }
+
+  @Override
+  public String toString() {
+    return "TimingStatistics[count=%d, total=%s, mean=%s, max=%s]".formatted(getCount(), getTotalTime(), getMeanTime(),
+        getMaxTime());
+  }
+}
@@ -0,0 +1,42 @@
+package com.breskul.bibernate.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Comparison of the modifiable entities in the persistence context with their snapshots, done at the start of a flush. Read-only
+ * entities are not checked.
+ */
+@Name("com.breskul.bibernate.DirtyCheck")
+@Label("Bibernate Dirty Check")
+@Category("Bibernate")
+@Description("Persistence context checked for changed entities")
+@StackTrace(false)
+public final class DirtyCheckEvent extends jdk.jfr.Event {
+
+  @Label("Entity Count")
+  @Description("Number of checked modifiable entities")
+  long entityCount;
+
+  @Label("Dirty Count")
+  @Description("Number of changed entities")
+  long dirtyCount;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the configured threshold.
+   *
+   * @param entityCount the number of checked entities
+   * @param dirtyCount  the number of changed entities
+   */
+  public void complete(long entityCount, long dirtyCount) {
+    end();
+    if (shouldCommit()) {
+      this.entityCount = entityCount;
+      this.dirtyCount = dirtyCount;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,39 @@
+package com.breskul.bibernate.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Session flush, including dirty checking and execution of the queued actions.
+ */
+@Name("com.breskul.bibernate.Flush")
+@Label("Bibernate Flush")
+@Category("Bibernate")
+@Description("Session flushed")
+public final class FlushEvent extends jdk.jfr.Event {
+
+  @Label("Entity Count")
+  @Description("Number of entities in the persistence context")
+  long entityCount;
+
+  @Label("Action Count")
+  @Description("Number of executed insert, update and delete actions")
+  long actionCount;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the configured threshold.
+   *
+   * @param entityCount the number of entities in the persistence context
+   * @param actionCount the number of executed actions
+   */
+  public void complete(long entityCount, long actionCount) {
+    end();
+    if (shouldCommit()) {
+      this.entityCount = entityCount;
+      this.actionCount = actionCount;
+      commit();
+    }
+  }
+}
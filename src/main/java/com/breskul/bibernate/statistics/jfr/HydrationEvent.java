@@ -0,0 +1,40 @@
+package com.breskul.bibernate.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Mapping of a result set to entities. Eager associations are fetched while the rows are mapped, so their {@link QueryEvent queries} are
+ * nested in this event.
+ */
+@Name("com.breskul.bibernate.Hydration")
+@Label("Bibernate Hydration")
+@Category("Bibernate")
+@Description("Result set mapped to entities")
+@StackTrace(false)
+public final class HydrationEvent extends jdk.jfr.Event {
+
+  @Label("Entity Class")
+  Class<?> entityClass;
+
+  @Label("Row Count")
+  long rowCount;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the configured threshold.
+   *
+   * @param entityClass the mapped entity class
+   * @param rowCount    the number of mapped rows
+   */
+  public void complete(Class<?> entityClass, long rowCount) {
+    end();
+    if (shouldCommit()) {
+      this.entityClass = entityClass;
+      this.rowCount = rowCount;
+      commit();
+    }
+  }
+}
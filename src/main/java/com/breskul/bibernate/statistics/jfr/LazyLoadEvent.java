@@ -0,0 +1,39 @@
+package com.breskul.bibernate.statistics.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Initialization of a lazy association. Many events of the same association within one request point to a N+1 select, the stack trace
+ * shows the code which accessed the association.
+ */
+@Name("com.breskul.bibernate.LazyLoad")
+@Label("Bibernate Lazy Load")
+@Category("Bibernate")
+@Description("Lazy association initialized")
+public final class LazyLoadEvent extends jdk.jfr.Event {
+
+  @Label("Entity Class")
+  @Description("Class declaring the association")
+  Class<?> entityClass;
+
+  @Label("Association")
+  String association;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the configured threshold.
+   *
+   * @param entityClass the class declaring the association
+   * @param association the association field name
+   */
+  public void complete(Class<?> entityClass, String association) {
+    end();
+    if (shouldCommit()) {
+      this.entityClass = entityClass;
+      this.association = association;
+      commit();
+    }
+  }
+}
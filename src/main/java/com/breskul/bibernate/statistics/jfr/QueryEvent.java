@@ -0,0 +1,54 @@
+package com.breskul.bibernate.statistics.jfr;
+
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Execution of a single SQL statement, from sending it to the database until the driver returns the result set or the update count. The
+ * stack trace of the event shows the application code which triggered the statement.
+ * <p>
+ * The Bibernate events are recorded independently of {@link com.breskul.bibernate.statistics.Statistics}, whenever a flight recording is
+ * running. Without a recording an event costs a flag check, its fields, such as the SQL shape, are only computed for committed events:
+ * <pre>
+ *   java -XX:StartFlightRecording:filename=app.jfr ...
+ *   jfr print --categories Bibernate app.jfr
+ * </pre>
+ */
+@Name("com.breskul.bibernate.Query")
+@Label("Bibernate Query")
+@Category("Bibernate")
+@Description("SQL statement executed by a session")
+public final class QueryEvent extends jdk.jfr.Event {
+
+  @Label("Entity Class")
+  Class<?> entityClass;
+
+  @Label("SQL")
+  @Description("Executed SQL with literals replaced by '?'")
+  String sql;
+
+  @Label("Row Count")
+  @Description("Number of rows changed by an update, -1 for a query")
+  long rowCount;
+
+  /**
+   * Ends the event and commits it if it is enabled and exceeds the configured threshold. The SQL shape is only computed for a committed
+   * event.
+   *
+   * @param entityClass the entity class of the statement
+   * @param sql         the executed SQL
+   * @param rowCount    the number of updated rows, or -1 for a query
+   */
+  public void complete(Class<?> entityClass, String sql, long rowCount) {
+    end();
+    if (shouldCommit()) {
+      this.entityClass = entityClass;
+      this.sql = BibernateStatistics.toSqlShape(sql);
+      this.rowCount = rowCount;
+      commit();
+    }
+  }
+}
@@ -0,0 +1,145 @@
+package com.breskul.bibernate.statistics.micrometer;
+
+import com.breskul.bibernate.statistics.EntityStatistics;
+import com.breskul.bibernate.statistics.Statistics;
+import com.breskul.bibernate.statistics.StatisticsListener;
+import com.breskul.bibernate.statistics.TimingStatistics;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Publishes {@link Statistics} of a session factory as Micrometer meters. The meters read the statistics when the registry is scraped,
+ * meters of entity classes, query shapes and lazy associations are registered when the statistics start tracking them. Micrometer is an
+ * optional dependency of Bibernate, add {@code micrometer-core} to use this binder.
+ * <pre>{@code
+ * new BibernateMetrics(sessionFactory.getStatistics(), Tags.of("factory", "main")).bindTo(registry);
+ * }</pre>
+ * The meters report zero while statistics are disabled, so {@link Statistics#setEnabled(boolean)} must be called or the
+ * {@value com.breskul.bibernate.statistics.BibernateStatistics#STATISTICS_ENABLED_PROPERTY} property set. {@link Statistics#clear()}
+ * resets the counters, which monitoring systems see as a counter reset.
+ */
+public class BibernateMetrics implements MeterBinder {
+
+  static final String SESSIONS_OPEN = "bibernate.sessions.open";
+  static final String SESSIONS_CLOSED = "bibernate.sessions.closed";
+  static final String CONNECTION_ACQUISITION = "bibernate.connections.acquisition";
+  static final String QUERY_EXECUTIONS = "bibernate.query.executions";
+  static final String QUERY = "bibernate.query";
+  static final String CACHE_REQUESTS = "bibernate.cache.first.level.requests";
+  static final String FLUSHES = "bibernate.flushes";
+  static final String LAZY_INITIALIZATIONS = "bibernate.lazy.initializations";
+  static final String ENTITY_OPERATIONS = "bibernate.entities.operations";
+
+  private final Statistics statistics;
+  private final Tags tags;
+  private final Set<MeterRegistry> registries = new CopyOnWriteArraySet<>();
+
+  public BibernateMetrics(Statistics statistics) {
+    this(statistics, Tags.empty());
+  }
+
+  public BibernateMetrics(Statistics statistics, Iterable<Tag> tags) {
+    this.statistics = statistics;
+    this.tags = Tags.of(tags);
+    statistics.addListener(new MeterRegistration());
+  }
+
+  @Override
+  public void bindTo(MeterRegistry registry) {
+    registries.add(registry);
+    counter(registry, SESSIONS_OPEN, "Opened sessions", Tags.empty(), Statistics::getSessionOpenCount);
+    counter(registry, SESSIONS_CLOSED, "Closed sessions", Tags.empty(), Statistics::getSessionCloseCount);
+    timer(registry, CONNECTION_ACQUISITION, "Time to obtain a session connection from the data source", Tags.empty(),
+        Statistics::getConnectionAcquisitionTime);
+    counter(registry, QUERY_EXECUTIONS, "Executed SQL statements", Tags.empty(), Statistics::getQueryExecutionCount);
+    counter(registry, CACHE_REQUESTS, "findById calls by persistence context result", Tags.of("result", "hit"),
+        Statistics::getFirstLevelCacheHitCount);
+    counter(registry, CACHE_REQUESTS, "findById calls by persistence context result", Tags.of("result", "miss"),
+        Statistics::getFirstLevelCacheMissCount);
+    timer(registry, FLUSHES, "Session flushes including dirty checking", Tags.empty(), Statistics::getFlushTime);
+
+    statistics.getEntityClasses().forEach(entityClass -> bindEntity(registry, entityClass));
+    statistics.getQueries().forEach(sqlShape -> bindQuery(registry, sqlShape));
+    statistics.getLazyInitializationCounts().keySet().forEach(association -> bindLazyAssociation(registry, association));
+  }
+
+  private void bindEntity(MeterRegistry registry, Class<?> entityClass) {
+    Tags entityTags = Tags.of("entity", entityClass.getName());
+    bindEntityOperation(registry, entityTags, "load", entityClass, EntityStatistics::getLoadCount);
+    bindEntityOperation(registry, entityTags, "insert", entityClass, EntityStatistics::getInsertCount);
+    bindEntityOperation(registry, entityTags, "update", entityClass, EntityStatistics::getUpdateCount);
+    bindEntityOperation(registry, entityTags, "delete", entityClass, EntityStatistics::getDeleteCount);
+  }
+
+  private void bindEntityOperation(MeterRegistry registry, Tags entityTags, String operation, Class<?> entityClass,
+      ToLongFunction<EntityStatistics> count) {
+    counter(registry, ENTITY_OPERATIONS, "Entity loads, inserts, updates and deletes", entityTags.and("operation", operation),
+        s -> count.applyAsLong(s.getEntityStatistics(entityClass)));
+  }
+
+  private void bindQuery(MeterRegistry registry, String sqlShape) {
+    timer(registry, QUERY, "Executions of a SQL statement shape", Tags.of("sql", sqlShape),
+        s -> s.getQueryStatistics(sqlShape));
+  }
+
+  private void bindLazyAssociation(MeterRegistry registry, String association) {
+    counter(registry, LAZY_INITIALIZATIONS, "Initialized lazy associations", Tags.of("association", association),
+        s -> s.getLazyInitializationCounts().getOrDefault(association, 0L));
+  }
+
+  private void counter(MeterRegistry registry, String name, String description, Tags meterTags,
+      ToLongFunction<Statistics> count) {
+    FunctionCounter.builder(name, statistics, s -> count.applyAsLong(s))
+        .description(description)
+        .tags(tags.and(meterTags))
+        .register(registry);
+  }
+
+  /**
+   * Registers a timer reading the given timing statistics, a {@code null} timing, for example of a query shape removed by
+   * {@link Statistics#clear()}, is reported as zero.
+   */
+  private void timer(MeterRegistry registry, String name, String description, Tags meterTags,
+      Function<Statistics, TimingStatistics> timing) {
+    FunctionTimer.builder(name, statistics,
+            s -> {
+              TimingStatistics timingStatistics = timing.apply(s);
+              return timingStatistics == null ? 0 : timingStatistics.getCount();
+            },
+            s -> {
+              TimingStatistics timingStatistics = timing.apply(s);
+              return timingStatistics == null ? 0 : timingStatistics.getTotalTime().toNanos();
+            },
+            TimeUnit.NANOSECONDS)
+        .description(description)
+        .tags(tags.and(meterTags))
+        .register(registry);
+  }
+
+  private class MeterRegistration implements StatisticsListener {
+
+    @Override
+    public void entityClassAdded(Class<?> entityClass) {
+      registries.forEach(registry -> bindEntity(registry, entityClass));
+    }
+
+    @Override
+    public void queryAdded(String sqlShape) {
+      registries.forEach(registry -> bindQuery(registry, sqlShape));
+    }
+
+    @Override
+    public void lazyAssociationAdded(String association) {
+      registries.forEach(registry -> bindLazyAssociation(registry, association));
+    }
+  }
+}
@@ -1,22 +1,36 @@
 package com.breskul.bibernate.util;
 
+import com.breskul.bibernate.annotation.FetchType;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.OneToOne;
 import com.breskul.bibernate.config.LoggerFactory;
 import com.breskul.bibernate.exception.AssociationException;
+import com.breskul.bibernate.metadata.EntityMetadataRegistry;
+import com.breskul.bibernate.metadata.dto.RelationMetadata;
+import com.breskul.bibernate.proxy.LazyProxy;
+import com.breskul.bibernate.proxy.collection.ExtraLazyQueries;
 import com.breskul.bibernate.proxy.collection.LazyList;
 import com.breskul.bibernate.proxy.collection.LazySet;
 import com.breskul.bibernate.proxy.interceptor.LazyInterceptor;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Optional;
 import java.util.Set;
 import java.util.function.Supplier;
+import java.util.stream.Stream;
 import net.bytebuddy.ByteBuddy;
 import net.bytebuddy.NamingStrategy;
 import net.bytebuddy.NamingStrategy.Suffixing.BaseNameResolver.ForFixedValue;
+import net.bytebuddy.TypeCache;
+import net.bytebuddy.description.modifier.Visibility;
+import net.bytebuddy.implementation.FieldAccessor;
 import net.bytebuddy.implementation.MethodDelegation;
 import net.bytebuddy.matcher.ElementMatchers;
 import org.slf4j.Logger;
@@ -30,6 +44,17 @@ public class AssociationUtil {
   private static final Logger log = LoggerFactory.getLogger(AssociationUtil.class);
 
   private static final String PROXY_NAMING_PART = "BibernateProxy";
+  private static final String INTERCEPTOR_FIELD_NAME = "$$_bibernateInterceptor";
+
+  private static final TypeCache<Class<?>> PROXY_CLASS_CACHE =
+      new TypeCache.WithInlineExpunction<>(TypeCache.Sort.SOFT);
+
+  private static final ClassValue<Optional<String>> IDENTIFIER_GETTER_NAMES = new ClassValue<>() {
+    @Override
+    protected Optional<String> computeValue(Class<?> cls) {
+      return findGetterName(cls, EntityUtil.findEntityIdField(cls));
+    }
+  };
 
   private AssociationUtil() {
   }
@@ -88,20 +113,35 @@ public class AssociationUtil {
    */
   public static Collection<Object> getLazyCollectionInstance(Field collectionField,
       Supplier<Collection<?>> delegateSupplier) {
+    return getLazyCollectionInstance(collectionField, delegateSupplier, null);
+  }
+
+  /**
+   * Retrieves a lazy instance of a Collection based on the given Field representing the collection. When extra-lazy queries are provided
+   * the collection answers size, emptiness, containment and positional access with them until it is fully loaded.
+   *
+   * @param collectionField  The Field representing the collection.
+   * @param delegateSupplier The Supplier providing the delegate collection for lazy initialization.
+   * @param extraLazyQueries The targeted queries for extra-lazy access, or null for a plain lazy collection.
+   * @return An instance of the Collection class.
+   * @throws AssociationException if the collection type is unsupported.
+   */
+  public static Collection<Object> getLazyCollectionInstance(Field collectionField,
+      Supplier<Collection<?>> delegateSupplier, ExtraLazyQueries<Object> extraLazyQueries) {
     var collectionClass = collectionField.getType();
 
     if (collectionClass.isAssignableFrom(List.class)) {
       log.trace("Generating lazy List collection for [{}.{}.{}] field",
           collectionField.getDeclaringClass().getPackageName(),
           collectionField.getDeclaringClass().getSimpleName(), collectionField.getName());
-      return new LazyList<>(delegateSupplier);
+      return new LazyList<>(delegateSupplier, extraLazyQueries);
     }
 
     if (collectionClass.isAssignableFrom(Set.class)) {
       log.trace("Generating lazy Set collection for [{}.{}.{}] field",
           collectionField.getDeclaringClass().getPackageName(),
           collectionField.getDeclaringClass().getSimpleName(), collectionField.getName());
-      return new LazySet<>(delegateSupplier);
+      return new LazySet<>(delegateSupplier, extraLazyQueries);
     }
 
     throw new AssociationException(
@@ -110,7 +150,8 @@ public class AssociationUtil {
   }
 
   /**
-   * Retrieves a lazy proxied instance of an object based on the given Field and Supplier.
+   * Retrieves a lazy proxied instance of an object based on the given Field and Supplier. The proxy class is generated only once per
+   * object type and cached, so creating a lazy reference is a constructor call plus setting the proxy interceptor.
    *
    * @param field            The Field representing the object.
    * @param delegateSupplier The Supplier providing the delegate object for lazy initialization.
@@ -118,23 +159,32 @@ public class AssociationUtil {
    * @throws AssociationException If the object type is unsupported or if there are errors in the proxy creation process.
    */
   public static Object getLazyObjectProxy(Field field, Supplier<?> delegateSupplier) {
+    return getLazyObjectProxy(field, null, delegateSupplier);
+  }
+
+  /**
+   * Retrieves a lazy proxied instance of an entity with known identifier. The proxy answers the identifier getter with the given
+   * identifier, so reading the identifier does not load the entity.
+   *
+   * @param field            The Field representing the object.
+   * @param identifier       The identifier of the proxied entity, or null if it is unknown.
+   * @param delegateSupplier The Supplier providing the delegate object for lazy initialization.
+   * @return a proxy instance of the object class.
+   * @throws AssociationException If the object type is unsupported or if there are errors in the proxy creation process.
+   */
+  public static Object getLazyObjectProxy(Field field, Object identifier,
+      Supplier<?> delegateSupplier) {
     Class<?> objectType = field.getType();
     log.trace("Generating proxy object for [{}.{}.{}] field of type [{}]",
         field.getDeclaringClass().getPackageName(), field.getDeclaringClass().getSimpleName(),
         field.getName(), field.getType());
+    String identifierGetterName = identifier == null ? null
+        : IDENTIFIER_GETTER_NAMES.get(objectType).orElse(null);
     try {
-      return new ByteBuddy()
-          .with(new NamingStrategy.SuffixingRandom(PROXY_NAMING_PART,
-              new ForFixedValue(objectType.getName())))
-          .subclass(objectType)
-          .method(ElementMatchers.any())
-          .intercept(
-              MethodDelegation.to(new LazyInterceptor<>(delegateSupplier)))
-          .make()
-          .load(objectType.getClassLoader())
-          .getLoaded()
-          .getConstructor()
-          .newInstance();
+      Object proxy = getLazyProxyClass(objectType).getConstructor().newInstance();
+      ((LazyProxy) proxy).setBibernateInterceptor(
+          new LazyInterceptor<>(delegateSupplier, identifier, identifierGetterName));
+      return proxy;
     } catch (InvocationTargetException | InstantiationException e) {
       throw new AssociationException(
           "Could not create proxy instance of target entity [%s]".formatted(objectType), e);
@@ -143,4 +193,115 @@ public class AssociationUtil {
           "Proxied entity [%s] should have public no-args constructor".formatted(objectType), e);
     }
   }
+
+  /**
+   * Checks whether the given association value is loaded. Lazy proxies and lazy collections are loaded after their first access, any other
+   * value is always considered loaded.
+   *
+   * @param association - The association value
+   * @return true if the association value is loaded, false otherwise
+   */
+  public static boolean isInitialized(Object association) {
+    if (association instanceof LazyProxy proxy) {
+      return proxy.getBibernateInterceptor().isInitialized();
+    }
+    if (association instanceof LazyList<?> lazyList) {
+      return lazyList.isInitialized();
+    }
+    if (association instanceof LazySet<?> lazySet) {
+      return lazySet.isInitialized();
+    }
+    return true;
+  }
+
+  /**
+   * Generates proxy classes for all lazy 'toOne' associations of the given entities, so that the class generation cost is paid once at
+   * session factory startup instead of on the first loaded row. The associations are found in the generated entity metadata, the fields of
+   * entities without generated metadata are scanned.
+   *
+   * @param entityClasses - The entity classes whose lazy 'toOne' associations should be prepared
+   */
+  public static void initLazyProxyClasses(Collection<Class<?>> entityClasses) {
+    entityClasses.stream()
+        .flatMap(AssociationUtil::findLazyToOneTypes)
+        .distinct()
+        .forEach(AssociationUtil::getLazyProxyClass);
+  }
+
+  private static Stream<Class<?>> findLazyToOneTypes(Class<?> entityClass) {
+    return EntityMetadataRegistry.find(entityClass)
+        .map(metadata -> metadata.getRelations().stream()
+            .filter(relation -> relation.isToOne() && relation.fetchType() == FetchType.LAZY)
+            .<Class<?>>map(RelationMetadata::targetEntity))
+        .orElseGet(() -> Arrays.stream(entityClass.getDeclaredFields())
+            .filter(AssociationUtil::isLazyToOneField)
+            .map(Field::getType));
+  }
+
+  /**
+   * Retrieves the proxy class for the given object type from the cache, generating and loading it on the first request. The cache is
+   * thread-safe and is not locked, threads which request a missing class at the same time may each generate one, and all of them get the
+   * class inserted first.
+   *
+   * @param objectType - The proxied object type
+   * @return The proxy class which extends object type and implements {@link LazyProxy}
+   */
+  public static Class<?> getLazyProxyClass(Class<?> objectType) {
+    return PROXY_CLASS_CACHE.findOrInsert(objectType.getClassLoader(), objectType,
+        () -> generateLazyProxyClass(objectType));
+  }
+
+  private static Class<?> generateLazyProxyClass(Class<?> objectType) {
+    log.debug("Generating proxy class for entity [{}]", objectType);
+    return new ByteBuddy()
+        .with(new NamingStrategy.SuffixingRandom(PROXY_NAMING_PART,
+            new ForFixedValue(objectType.getName())))
+        .subclass(objectType)
+        .defineField(INTERCEPTOR_FIELD_NAME, LazyInterceptor.class, Visibility.PRIVATE)
+        .method(ElementMatchers.any())
+        .intercept(MethodDelegation.toField(INTERCEPTOR_FIELD_NAME))
+        .implement(LazyProxy.class)
+        .intercept(FieldAccessor.ofField(INTERCEPTOR_FIELD_NAME))
+        .make()
+        .load(objectType.getClassLoader())
+        .getLoaded();
+  }
+
+  /**
+   * Finds the public no-args getter of the field. The JavaBeans {@code get} and, for a {@code boolean} field, {@code is} names are tried
+   * first, then an accessor named as the field itself, as records and fluent accessors are named. The getter must return the field type.
+   *
+   * @param cls   - The class declaring or inheriting the getter
+   * @param field - The field the getter returns
+   * @return the getter name, or an empty optional if the class has no such getter, then the getter call loads the proxied entity
+   */
+  static Optional<String> findGetterName(Class<?> cls, Field field) {
+    String fieldName = field.getName();
+    String capitalizedName = Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+    List<String> candidates = field.getType() == boolean.class
+        ? List.of("is" + capitalizedName, "get" + capitalizedName, fieldName)
+        : List.of("get" + capitalizedName, fieldName);
+    for (String candidate : candidates) {
+      try {
+        Method method = cls.getMethod(candidate);
+        if (method.getReturnType() == field.getType()) {
+          return Optional.of(candidate);
+        }
+      } catch (NoSuchMethodException e) {
+        log.trace("Entity [{}] has no getter [{}] of field [{}]", cls, candidate, fieldName);
+      }
+    }
+    return Optional.empty();
+  }
+
+  private static boolean isLazyToOneField(Field field) {
+    if (field.isAnnotationPresent(ManyToOne.class)) {
+      return field.getAnnotation(ManyToOne.class).fetch() == FetchType.LAZY;
+    }
+    if (field.isAnnotationPresent(OneToOne.class)) {
+      return EntityUtil.isToOneRelation(field)
+          && field.getAnnotation(OneToOne.class).fetch() == FetchType.LAZY;
+    }
+    return false;
+  }
 }
@@ -0,0 +1,217 @@
+package com.breskul.bibernate.util;
+
+import com.breskul.bibernate.annotation.CascadeType;
+import com.breskul.bibernate.annotation.ManyToMany;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.OneToMany;
+import com.breskul.bibernate.annotation.OneToOne;
+import java.lang.reflect.Field;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Utility class for cascading entity operations along associations and ordering the cascaded operations by foreign keys.
+ */
+public class CascadeUtil {
+
+  private static final ClassValue<Map<CascadeType, List<Field>>> CASCADED_FIELDS = new ClassValue<>() {
+    @Override
+    protected Map<CascadeType, List<Field>> computeValue(Class<?> cls) {
+      Map<CascadeType, List<Field>> cascadedFields = new EnumMap<>(CascadeType.class);
+      for (CascadeType cascadeType : List.of(CascadeType.PERSIST, CascadeType.REMOVE, CascadeType.DETACH)) {
+        cascadedFields.put(cascadeType, Arrays.stream(cls.getDeclaredFields())
+            .filter(field -> isCascaded(field, cascadeType))
+            .toList());
+      }
+      return cascadedFields;
+    }
+  };
+
+  private static final ClassValue<Integer> FOREIGN_KEY_DEPTHS = new ClassValue<>() {
+    @Override
+    protected Integer computeValue(Class<?> cls) {
+      return computeForeignKeyDepth(cls, new HashSet<>());
+    }
+  };
+
+  private CascadeUtil() {
+  }
+
+  /**
+   * Checks whether the given operation is cascaded along the association field. Orphan removal implies the remove cascade.
+   *
+   * @param field       - The association field
+   * @param cascadeType - The cascaded operation, {@link CascadeType#PERSIST}, {@link CascadeType#REMOVE} or {@link CascadeType#DETACH}
+   * @return true if the operation is cascaded, false otherwise
+   */
+  public static boolean isCascaded(Field field, CascadeType cascadeType) {
+    CascadeType[] cascade;
+    if (field.isAnnotationPresent(OneToMany.class)) {
+      cascade = field.getAnnotation(OneToMany.class).cascade();
+    } else if (field.isAnnotationPresent(ManyToOne.class)) {
+      cascade = field.getAnnotation(ManyToOne.class).cascade();
+    } else if (field.isAnnotationPresent(OneToOne.class)) {
+      cascade = field.getAnnotation(OneToOne.class).cascade();
+    } else if (field.isAnnotationPresent(ManyToMany.class)) {
+      cascade = field.getAnnotation(ManyToMany.class).cascade();
+    } else {
+      return false;
+    }
+    if (cascadeType == CascadeType.REMOVE && isOrphanRemoval(field)) {
+      return true;
+    }
+    return Arrays.stream(cascade).anyMatch(type -> type == CascadeType.ALL || type == cascadeType);
+  }
+
+  /**
+   * Checks whether entities removed from the association field are deleted.
+   *
+   * @param field - The association field
+   * @return true if the {@code orphanRemoval} of the association is set, false otherwise
+   */
+  public static boolean isOrphanRemoval(Field field) {
+    if (field.isAnnotationPresent(OneToMany.class)) {
+      return field.getAnnotation(OneToMany.class).orphanRemoval();
+    }
+    if (field.isAnnotationPresent(OneToOne.class)) {
+      return field.getAnnotation(OneToOne.class).orphanRemoval();
+    }
+    return false;
+  }
+
+  /**
+   * Retrieves the association fields of the class along which the given operation is cascaded.
+   *
+   * @param cls         - The entity class
+   * @param cascadeType - The cascaded operation, {@link CascadeType#PERSIST}, {@link CascadeType#REMOVE} or {@link CascadeType#DETACH}
+   * @return the cascaded association fields
+   */
+  public static List<Field> getCascadedFields(Class<?> cls, CascadeType cascadeType) {
+    return CASCADED_FIELDS.get(cls).getOrDefault(cascadeType, List.of());
+  }
+
+  /**
+   * Collects the root entity and the entities reachable from it along associations which cascade the given operation. The graph is only
+   * followed through the collected entities. Lazy associations which are not loaded yet are loaded for the remove operation, and skipped
+   * for the persist and detach operations, since they hold only entities which are already stored and not managed yet.
+   *
+   * @param root        - The entity the operation is applied to
+   * @param cascadeType - The cascaded operation, {@link CascadeType#PERSIST}, {@link CascadeType#REMOVE} or {@link CascadeType#DETACH}
+   * @param filter      - Selects the reachable entities the operation applies to
+   * @return the root followed by the selected reachable entities, each entity once
+   */
+  public static List<Object> collectCascaded(Object root, CascadeType cascadeType, Predicate<Object> filter) {
+    Set<Object> collected = Collections.newSetFromMap(new IdentityHashMap<>());
+    List<Object> result = new ArrayList<>();
+    Deque<Object> pending = new ArrayDeque<>();
+    collected.add(root);
+    result.add(root);
+    pending.push(root);
+    while (!pending.isEmpty()) {
+      Object entity = pending.pop();
+      for (Field field : getCascadedFields(entity.getClass(), cascadeType)) {
+        Object value = ReflectionUtil.readFieldValue(entity, field);
+        if (value == null || (cascadeType != CascadeType.REMOVE && !AssociationUtil.isInitialized(value))) {
+          continue;
+        }
+        Collection<?> associated = value instanceof Collection<?> collection ? collection : List.of(value);
+        for (Object associatedEntity : associated) {
+          if (associatedEntity != null && !collected.contains(associatedEntity) && filter.test(associatedEntity)) {
+            collected.add(associatedEntity);
+            result.add(associatedEntity);
+            pending.push(associatedEntity);
+          }
+        }
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Orders entities so that an entity comes after the entities its foreign key columns refer to, which is the order to insert them, the
+   * reverse order is the one to delete them. Entities of the same class are kept together as far as the foreign keys allow, so the
+   * statements of one table follow each other. Entities of a reference cycle keep their given order at the end.
+   *
+   * @param entities - The entities to order
+   * @return the entities, referenced entities first
+   */
+  public static List<Object> sortByForeignKeys(Collection<?> entities) {
+    Map<Object, List<Object>> dependents = new IdentityHashMap<>();
+    Map<Object, Integer> dependencyCounts = new IdentityHashMap<>();
+    entities.forEach(entity -> dependencyCounts.put(entity, 0));
+    for (Object entity : entities) {
+      for (Field field : EntityUtil.getClassColumnFields(entity.getClass(), EntityUtil::isToOneRelation)) {
+        Object referenced = ReflectionUtil.readFieldValue(entity, field);
+        if (referenced != null && referenced != entity && dependencyCounts.containsKey(referenced)) {
+          dependents.computeIfAbsent(referenced, key -> new ArrayList<>()).add(entity);
+          dependencyCounts.merge(entity, 1, Integer::sum);
+        }
+      }
+    }
+
+    List<Object> sorted = new ArrayList<>(entities.size());
+    List<Object> ready = new ArrayList<>(entities.stream().filter(entity -> dependencyCounts.get(entity) == 0).toList());
+    while (!ready.isEmpty()) {
+      // takes all ready entities of one class, the others wait for the next round together with the newly ready ones
+      Class<?> batchClass = ready.get(0).getClass();
+      List<Object> nextReady = new ArrayList<>();
+      for (Object entity : ready) {
+        if (entity.getClass() != batchClass) {
+          nextReady.add(entity);
+          continue;
+        }
+        sorted.add(entity);
+        for (Object dependent : dependents.getOrDefault(entity, List.of())) {
+          if (dependencyCounts.merge(dependent, -1, Integer::sum) == 0) {
+            nextReady.add(dependent);
+          }
+        }
+      }
+      ready = nextReady;
+    }
+    if (sorted.size() < entities.size()) {
+      Set<Object> sortedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+      sortedEntities.addAll(sorted);
+      entities.stream().filter(entity -> !sortedEntities.contains(entity)).forEach(sorted::add);
+    }
+    return sorted;
+  }
+
+  /**
+   * Retrieves the position of the entity class in the foreign key order of tables. A class without owning to-one associations has depth 0,
+   * any other class is one deeper than the deepest class it refers to, so rows of a class may be inserted after the rows of all shallower
+   * classes and deleted before them. References back into a cycle are ignored.
+   *
+   * @param cls - The entity class
+   * @return the foreign key depth of the class
+   */
+  public static int getForeignKeyDepth(Class<?> cls) {
+    return FOREIGN_KEY_DEPTHS.get(cls);
+  }
+
+  private static int computeForeignKeyDepth(Class<?> cls, Set<Class<?>> visiting) {
+    if (!visiting.add(cls)) {
+      return -1;
+    }
+    int depth = 0;
+    for (Field field : EntityUtil.getClassColumnFields(cls, EntityUtil::isToOneRelation)) {
+      Class<?> referencedClass = field.getType();
+      if (referencedClass != cls) {
+        depth = Math.max(depth, computeForeignKeyDepth(referencedClass, visiting) + 1);
+      }
+    }
+    visiting.remove(cls);
+    return depth;
+  }
+}
@@ -7,18 +7,29 @@ import com.breskul.bibernate.annotation.DynamicUpdate;
 import com.breskul.bibernate.annotation.Entity;
 import com.breskul.bibernate.annotation.Id;
 import com.breskul.bibernate.annotation.JoinColumn;
+import com.breskul.bibernate.annotation.JoinTable;
 import com.breskul.bibernate.annotation.ManyToMany;
 import com.breskul.bibernate.annotation.ManyToOne;
 import com.breskul.bibernate.annotation.OneToMany;
 import com.breskul.bibernate.annotation.OneToOne;
 import com.breskul.bibernate.annotation.Table;
+import com.breskul.bibernate.annotation.Version;
+import com.breskul.bibernate.exception.AssociationException;
 import com.breskul.bibernate.exception.EntityParseException;
+import com.breskul.bibernate.metadata.EntityMetadataRegistry;
+import com.breskul.bibernate.metadata.GeneratedEntityMetadata;
+import com.breskul.bibernate.metadata.dto.JoinTableMapping;
+import com.breskul.bibernate.metadata.dto.RelationMetadata;
 import com.breskul.bibernate.persistence.context.snapshot.EntityPropertySnapshot;
 import com.breskul.bibernate.persistence.context.snapshot.EntityRelationSnapshot;
+import com.breskul.bibernate.proxy.LazyProxy;
 import java.lang.reflect.Field;
 import java.lang.reflect.ParameterizedType;
+import java.sql.Timestamp;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Locale;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -35,6 +46,43 @@ import org.atteo.classindex.ClassIndex;
 @UtilityClass
 public class EntityUtil {
 
+  /**
+   * Simple column fields per class, read on every snapshot and dirty check.
+   */
+  private static final ClassValue<List<Field>> SIMPLE_COLUMN_FIELDS = new ClassValue<>() {
+    @Override
+    protected List<Field> computeValue(Class<?> cls) {
+      return Arrays.stream(cls.getDeclaredFields())
+          .filter(field -> !isCollectionEntityField(field) && !isToOneRelation(field))
+          .toList();
+    }
+  };
+
+  private static final ClassValue<Boolean> HAS_TO_ONE_RELATIONS = new ClassValue<>() {
+    @Override
+    protected Boolean computeValue(Class<?> cls) {
+      return EntityMetadataRegistry.find(cls)
+          .map(metadata -> metadata.getRelations().stream().anyMatch(RelationMetadata::isToOne))
+          .orElseGet(() -> Arrays.stream(cls.getDeclaredFields()).anyMatch(EntityUtil::isToOneRelation));
+    }
+  };
+
+  private static final ClassValue<Optional<Field>> VERSION_FIELDS = new ClassValue<>() {
+    @Override
+    protected Optional<Field> computeValue(Class<?> cls) {
+      return computeEntityVersionField(cls);
+    }
+  };
+
+  private static final ClassValue<List<Field>> OWNING_MANY_TO_MANY_FIELDS = new ClassValue<>() {
+    @Override
+    protected List<Field> computeValue(Class<?> cls) {
+      return Arrays.stream(cls.getDeclaredFields())
+          .filter(EntityUtil::isOwningManyToMany)
+          .toList();
+    }
+  };
+
   /**
    * Validates if the given class is marked with the 'Entity' annotation.
    *
@@ -74,9 +122,11 @@ public class EntityUtil {
    * @return The table name for the entity class
    */
   public static String getEntityTableName(Class<?> cls) {
-    return Optional.ofNullable(cls.getAnnotation(Table.class))
-        .map(Table::name)
-        .orElseGet(() -> generateTableName(cls.getSimpleName()));
+    Optional<GeneratedEntityMetadata> metadata = EntityMetadataRegistry.find(cls);
+    if (metadata.isPresent()) {
+      return metadata.get().getTableName();
+    }
+    return NamingUtil.resolveTableName(cls.getAnnotation(Table.class), cls.getSimpleName());
   }
 
 
@@ -91,6 +141,10 @@ public class EntityUtil {
    * @see EntityUtil#resolveColumnName(Field)
    */
   public static <T> List<String> getEntityColumnNames(Class<? extends T> entityClass) {
+    Optional<GeneratedEntityMetadata> metadata = EntityMetadataRegistry.find(entityClass);
+    if (metadata.isPresent()) {
+      return new ArrayList<>(metadata.get().getColumnNames());
+    }
     return Arrays.stream(entityClass.getDeclaredFields())
         .filter(EntityUtil::isColumnField)
         .map(EntityUtil::resolveColumnName)
@@ -116,9 +170,7 @@ public class EntityUtil {
    * @return A list of fields representing simple columns (without relations) in the class
    */
   public static List<Field> getEntitySimpleColumnFields(Class<?> cls) {
-    return Arrays.stream(cls.getDeclaredFields())
-        .filter(field -> !isCollectionEntityField(field) && !isToOneRelation(field))
-        .toList();
+    return SIMPLE_COLUMN_FIELDS.get(cls);
   }
 
   /**
@@ -138,6 +190,25 @@ public class EntityUtil {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Compares the simple column values of the entity with a snapshot taken by {@link #getEntitySimpleColumnValues(Object)}. The values are
+   * read one by one and the comparison stops at the first difference, so no copy of the current state is built.
+   *
+   * @param entity   - The entity to compare
+   * @param snapshot - The snapshot of the entity simple column values
+   * @param <T>      - The type of the entity
+   * @return true if some simple column value differs from the snapshot, false otherwise
+   */
+  public static <T> boolean isSimpleColumnValueChanged(T entity, List<EntityPropertySnapshot> snapshot) {
+    List<Field> fields = getEntitySimpleColumnFields(entity.getClass());
+    for (int i = 0; i < fields.size(); i++) {
+      if (!Objects.equals(readEntityColumnValue(entity, fields.get(i)), snapshot.get(i).columnValue())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
   /**
    * Determines if the given field is a collection entity field.
    *
@@ -176,6 +247,73 @@ public class EntityUtil {
     return false;
   }
 
+  /**
+   * Determines if the given field is the owning side of a @ManyToMany association, which writes the join table rows.
+   *
+   * @param field - The field to check
+   * @return true if the field is a @ManyToMany association without 'mappedBy', false otherwise
+   */
+  public static boolean isOwningManyToMany(Field field) {
+    return field.isAnnotationPresent(ManyToMany.class)
+        && field.getAnnotation(ManyToMany.class).mappedBy().isEmpty();
+  }
+
+  /**
+   * Retrieves the fields of the class which are owning sides of @ManyToMany associations.
+   *
+   * @param cls - The entity class
+   * @return The owning @ManyToMany fields, an empty list if the class has none
+   */
+  public static List<Field> getOwningManyToManyFields(Class<?> cls) {
+    return OWNING_MANY_TO_MANY_FIELDS.get(cls);
+  }
+
+  /**
+   * Resolves the join table of a @ManyToMany association field. The join table is defined by the owning side, with the {@link JoinTable}
+   * annotation or by default names, for the inverse side the owning field named by 'mappedBy' is resolved and the join columns are
+   * swapped.
+   *
+   * @param field - The @ManyToMany association field
+   * @return The join table seen from the given field
+   * @throws AssociationException if the field named by 'mappedBy' is not a @ManyToMany field of the element class
+   */
+  public static JoinTableMapping getJoinTableMapping(Field field) {
+    String mappedBy = field.getAnnotation(ManyToMany.class).mappedBy();
+    if (mappedBy.isEmpty()) {
+      return getOwningJoinTableMapping(field);
+    }
+    Class<?> elementType = getEntityCollectionElementType(field);
+    Field owningField = Arrays.stream(elementType.getDeclaredFields())
+        .filter(elementField -> elementField.getName().equals(mappedBy) && isOwningManyToMany(elementField))
+        .findFirst()
+        .orElseThrow(() -> new AssociationException("mappedBy [%s] of [%s.%s] is not an owning @ManyToMany field of [%s]"
+            .formatted(mappedBy, field.getDeclaringClass().getSimpleName(), field.getName(), elementType.getName())));
+    JoinTableMapping owningMapping = getOwningJoinTableMapping(owningField);
+    return new JoinTableMapping(owningMapping.tableName(), owningMapping.inverseJoinColumnName(),
+        owningMapping.joinColumnName(), false);
+  }
+
+  private static JoinTableMapping getOwningJoinTableMapping(Field field) {
+    Class<?> ownerType = field.getDeclaringClass();
+    Class<?> elementType = getEntityCollectionElementType(field);
+    JoinTable joinTable = field.getAnnotation(JoinTable.class);
+    String tableName = joinTable == null || joinTable.name().isBlank()
+        ? "%s_%s".formatted(getEntityTableName(ownerType), getEntityTableName(elementType))
+        : joinTable.name();
+    String joinColumnName = joinTable == null || joinTable.joinColumn().name().isBlank()
+        ? generateJoinTableColumnName(ownerType)
+        : joinTable.joinColumn().name();
+    String inverseJoinColumnName = joinTable == null || joinTable.inverseJoinColumn().name().isBlank()
+        ? generateJoinTableColumnName(elementType)
+        : joinTable.inverseJoinColumn().name();
+    return new JoinTableMapping(tableName, joinColumnName, inverseJoinColumnName, true);
+  }
+
+  private static String generateJoinTableColumnName(Class<?> entityType) {
+    return "%s_%s".formatted(NamingUtil.generateTableName(entityType.getSimpleName()).toLowerCase(Locale.ROOT),
+        findEntityIdFieldName(entityType));
+  }
+
   /**
    * Retrieves a list of fields that represent entity properties in the given class.
    *
@@ -235,17 +373,101 @@ public class EntityUtil {
    * @throws EntityParseException if the entity does not define an ID column or if multiple fields are marked with the 'Id' annotation
    */
   public static <T> String findEntityIdFieldName(Class<T> entityClass) {
+    Optional<GeneratedEntityMetadata> metadata = EntityMetadataRegistry.find(entityClass);
+    if (metadata.isPresent()) {
+      return metadata.get().getIdColumnName();
+    }
     return resolveColumnName(findEntityIdField(entityClass));
   }
 
   /**
-   * Retrieves the ID value of the given entity.
+   * Finds the field marked with the 'Version' annotation for the given entity class.
+   *
+   * @param cls - The entity class
+   * @return The version field, or an empty optional if the entity is not versioned
+   * @throws EntityParseException if multiple fields are marked with the 'Version' annotation or the version field has an unsupported type
+   */
+  public static Optional<Field> findEntityVersionField(Class<?> cls) {
+    return VERSION_FIELDS.get(cls);
+  }
+
+  private static Optional<Field> computeEntityVersionField(Class<?> cls) {
+    List<Field> versionFields = Arrays.stream(cls.getDeclaredFields())
+        .filter(field -> field.isAnnotationPresent(Version.class))
+        .toList();
+    if (versionFields.isEmpty()) {
+      return Optional.empty();
+    }
+    if (versionFields.size() > 1) {
+      throw new EntityParseException(
+          "Only one field should be marked with 'Version' annotation in class [%s]".formatted(cls.getName()));
+    }
+    Field versionField = versionFields.get(0);
+    if (!isSupportedVersionType(versionField.getType())) {
+      throw new EntityParseException("Unsupported type [%s] of version field [%s] in class [%s]"
+          .formatted(versionField.getType().getName(), versionField.getName(), cls.getName()));
+    }
+    return Optional.of(versionField);
+  }
+
+  /**
+   * Returns the version of a new entity: zero for numeric versions and the current time for timestamp versions.
+   *
+   * @param versionField - The version field
+   * @return The initial version value
+   */
+  public static Object initialVersion(Field versionField) {
+    return nextVersion(versionField, null);
+  }
+
+  /**
+   * Returns the version following the given one. A numeric version is incremented by one, a timestamp version is set to the current time
+   * with millisecond precision, but at least one millisecond after the current version, so two quick updates never share a version.
+   *
+   * @param versionField   - The version field
+   * @param currentVersion - The current version value, or null for a new entity
+   * @return The next version value
+   */
+  public static Object nextVersion(Field versionField, Object currentVersion) {
+    Class<?> type = versionField.getType();
+    if (type == Timestamp.class) {
+      long now = System.currentTimeMillis();
+      return currentVersion == null ? new Timestamp(now)
+          : new Timestamp(Math.max(now, ((Timestamp) currentVersion).getTime() + 1));
+    }
+    long next = currentVersion == null ? 0 : ((Number) currentVersion).longValue() + 1;
+    if (type == int.class || type == Integer.class) {
+      return (int) next;
+    }
+    if (type == short.class || type == Short.class) {
+      return (short) next;
+    }
+    return next;
+  }
+
+  private static boolean isSupportedVersionType(Class<?> type) {
+    return type == int.class || type == Integer.class
+        || type == short.class || type == Short.class
+        || type == long.class || type == Long.class
+        || type == Timestamp.class;
+  }
+
+  /**
+   * Retrieves the ID value of the given entity. For a lazy proxy the known identifier is returned without loading the entity, for an entity
+   * with generated metadata the id is read by the generated accessor.
    *
    * @param entity - The entity object
    * @return The ID value of the entity object
    * @throws EntityParseException if the entity does not define an ID column or if multiple fields are marked with the 'Id' annotation
    */
   public static Object getEntityId(Object entity) {
+    if (entity instanceof LazyProxy proxy) {
+      return proxy.getBibernateInterceptor().getIdentifier();
+    }
+    Optional<GeneratedEntityMetadata> metadata = EntityMetadataRegistry.find(entity.getClass());
+    if (metadata.isPresent()) {
+      return metadata.get().getId(entity);
+    }
     var idField = findEntityIdField(entity.getClass());
     return readFieldValue(entity, idField);
   }
@@ -262,6 +484,18 @@ public class EntityUtil {
         .collect(Collectors.joining(", "));
   }
 
+  /**
+   * Composes a SELECT block with all columns of the entity class. Uses the generated entity metadata when it is available.
+   *
+   * @param cls - The entity class
+   * @return The composed SELECT block
+   */
+  public static String composeSelectBlock(Class<?> cls) {
+    return EntityMetadataRegistry.find(cls)
+        .map(GeneratedEntityMetadata::getSelectColumns)
+        .orElseGet(() -> composeSelectBlockFromColumns(getClassColumnFields(cls)));
+  }
+
 
   /**
    * Resolves the column name for the given field, from field annotations or return field name if column annotation is absent.
@@ -270,30 +504,8 @@ public class EntityUtil {
    * @return The resolved column name
    */
   public static String resolveColumnName(Field field) {
-    if (field.isAnnotationPresent(Column.class)) {
-      var columnName = field.getAnnotation(Column.class).name();
-      return columnName.isBlank() ? field.getName() : columnName;
-    } else if (field.isAnnotationPresent(JoinColumn.class)) {
-      var columnName = field.getAnnotation(JoinColumn.class).name();
-      return columnName.isBlank() ? field.getName() + "_id" : columnName;
-    } else if (!isSimpleColumn(field)) {
-      return field.getName() + "_id";
-    }
-    return field.getName();
-  }
-
-  private String generateTableName(String className) {
-    StringBuilder builder = new StringBuilder(className);
-    for (int i = 1; i < builder.length() - 1; i++) {
-      if (isUnderscoreRequired(builder.charAt(i - 1), builder.charAt(i), builder.charAt(i + 1))) {
-        builder.insert(i++, '_');
-      }
-    }
-    return builder.toString();
-  }
-
-  private boolean isUnderscoreRequired(final char before, final char current, final char after) {
-    return Character.isLowerCase(before) && Character.isUpperCase(current) && Character.isLowerCase(after);
+    return NamingUtil.resolveColumnName(field.getName(), field.getAnnotation(Column.class),
+        field.getAnnotation(JoinColumn.class), !isSimpleColumn(field));
   }
 
   /**
@@ -351,8 +563,7 @@ public class EntityUtil {
    * @return true if the entity class has at least one 'toOne' relation, false otherwise
    */
   public static <T> boolean hasToOneRelations(Class<T> cls) {
-    return Arrays.stream(cls.getDeclaredFields())
-        .anyMatch(EntityUtil::isToOneRelation);
+    return HAS_TO_ONE_RELATIONS.get(cls);
   }
 
   /**
@@ -480,7 +691,6 @@ public class EntityUtil {
 
   private static <T> Object readToOneRelatedEntityId(T entity, Field field) {
     Object relatedEntity = ReflectionUtil.readFieldValue(entity, field);
-    Field relatedEntityIdField = findEntityIdField(field.getType());
-    return relatedEntity != null ? readFieldValue(relatedEntity, relatedEntityIdField) : null;
+    return relatedEntity != null ? getEntityId(relatedEntity) : null;
   }
 }
@@ -0,0 +1,67 @@
+package com.breskul.bibernate.util;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.JoinColumn;
+import com.breskul.bibernate.annotation.Table;
+
+/**
+ * Utility class with the table and column naming rules. The rules work on annotation values and names only, so they are shared by
+ * {@link EntityUtil} at runtime and by {@link com.breskul.bibernate.metadata.processor.EntityMetadataProcessor} at compile time.
+ */
+public class NamingUtil {
+
+  private NamingUtil() {
+  }
+
+  /**
+   * Resolves the table name of an entity: the name from the {@link Table} annotation, or the name generated from the class name.
+   *
+   * @param table            - The 'Table' annotation of the entity, may be null
+   * @param entitySimpleName - The simple name of the entity class
+   * @return The table name
+   */
+  public static String resolveTableName(Table table, String entitySimpleName) {
+    return table != null ? table.name() : generateTableName(entitySimpleName);
+  }
+
+  /**
+   * Generates a table name from a class name, the camel case words are separated with underscores.
+   *
+   * @param className - The simple class name
+   * @return The generated table name
+   */
+  public static String generateTableName(String className) {
+    StringBuilder builder = new StringBuilder(className);
+    for (int i = 1; i < builder.length() - 1; i++) {
+      if (isUnderscoreRequired(builder.charAt(i - 1), builder.charAt(i), builder.charAt(i + 1))) {
+        builder.insert(i++, '_');
+      }
+    }
+    return builder.toString();
+  }
+
+  /**
+   * Resolves the column name of a field: the name from the {@link Column} or {@link JoinColumn} annotation, or the field name, followed by
+   * {@code _id} for a relation field.
+   *
+   * @param fieldName  - The field name
+   * @param column     - The 'Column' annotation of the field, may be null
+   * @param joinColumn - The 'JoinColumn' annotation of the field, may be null
+   * @param relation   - Whether the field is a relation to other entities
+   * @return The column name
+   */
+  public static String resolveColumnName(String fieldName, Column column, JoinColumn joinColumn,
+      boolean relation) {
+    if (column != null) {
+      return column.name().isBlank() ? fieldName : column.name();
+    }
+    if (joinColumn != null) {
+      return joinColumn.name().isBlank() ? fieldName + "_id" : joinColumn.name();
+    }
+    return relation ? fieldName + "_id" : fieldName;
+  }
+
+  private static boolean isUnderscoreRequired(char before, char current, char after) {
+    return Character.isLowerCase(before) && Character.isUpperCase(current) && Character.isLowerCase(after);
+  }
+}
@@ -0,0 +1,95 @@
+package com.breskul.bibernate.action;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+
+import com.breskul.bibernate.data.CascadeNote;
+import com.breskul.bibernate.data.CascadePerson;
+import com.breskul.bibernate.exception.BibernateException;
+import com.breskul.bibernate.persistence.GenericDao;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class ActionQueueTest {
+
+  @Mock
+  private GenericDao dao;
+
+  private final ActionQueue actionQueue = new ActionQueue();
+
+  @Test
+  void given_deletesOfParentsBeforeChildren_when_executeAll_then_deleteChildrenFirst() {
+    // Arrange
+    CascadePerson john = person(1L);
+    CascadePerson jane = person(2L);
+    CascadeNote johnNote = note(10L, john);
+    CascadeNote janeNote = note(20L, jane);
+    actionQueue.add(new DeleteAction(dao, john));
+    actionQueue.add(new DeleteAction(dao, johnNote));
+    actionQueue.add(new DeleteAction(dao, jane));
+    actionQueue.add(new DeleteAction(dao, janeNote));
+
+    // Act
+    actionQueue.executeAll();
+
+    // Assert
+    InOrder order = inOrder(dao);
+    order.verify(dao).delete(johnNote);
+    order.verify(dao).delete(janeNote);
+    order.verify(dao).delete(john);
+    order.verify(dao).delete(jane);
+  }
+
+  @Test
+  void given_failingAction_when_executeAll_then_keepNotExecutedActions() {
+    // Arrange
+    CascadePerson john = person(1L);
+    CascadePerson jane = person(2L);
+    actionQueue.add(new DeleteAction(dao, john));
+    actionQueue.add(new DeleteAction(dao, jane));
+    doThrow(new BibernateException("failed")).when(dao).delete(same(john));
+
+    // Act & Assert
+    assertThatThrownBy(actionQueue::executeAll).isInstanceOf(BibernateException.class);
+    assertThat(actionQueue.size()).isEqualTo(2);
+  }
+
+  @Test
+  void given_actionFailedOnce_when_executeAllAgain_then_executeFailedAndNotExecutedActions() {
+    // Arrange
+    CascadePerson john = person(1L);
+    CascadePerson jane = person(2L);
+    actionQueue.add(new DeleteAction(dao, john));
+    actionQueue.add(new DeleteAction(dao, jane));
+    doThrow(new BibernateException("failed")).doNothing().when(dao).delete(same(john));
+    assertThatThrownBy(actionQueue::executeAll).isInstanceOf(BibernateException.class);
+
+    // Act
+    int executed = actionQueue.executeAll();
+
+    // Assert
+    assertThat(executed).isEqualTo(2);
+    assertThat(actionQueue.isEmpty()).isTrue();
+    InOrder order = inOrder(dao);
+    order.verify(dao, times(2)).delete(john);
+    order.verify(dao).delete(jane);
+  }
+
+  private static CascadePerson person(Long id) {
+    CascadePerson person = new CascadePerson("John");
+    person.setId(id);
+    return person;
+  }
+
+  private static CascadeNote note(Long id, CascadePerson person) {
+    return new CascadeNote(id, "title", null, person);
+  }
+}
@@ -0,0 +1,102 @@
+package com.breskul.bibernate.benchmark;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.persistence.AsyncSession;
+import com.breskul.bibernate.persistence.Persistence;
+import com.breskul.bibernate.persistence.Session;
+import com.breskul.bibernate.persistence.SessionFactory;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Load benchmark which opens {@value #DEFAULT_SESSIONS} concurrent async sessions against the in-memory H2 database from the test
+ * configuration. Every session finds a person by id, runs a BiQL query and closes. Async sessions on the default executor are compared with
+ * blocking sessions running on a fixed pool of platform threads.
+ * <p>
+ * It is not a unit test and is started manually, with JDK 21 the default executor uses virtual threads:
+ * <pre>
+ *   mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -Djdk.tracePinnedThreads=short -cp target/classes:target/test-classes:$(cat target/cp.txt) \
+ *     com.breskul.bibernate.benchmark.AsyncSessionLoadBenchmark [sessions]
+ * </pre>
+ */
+public class AsyncSessionLoadBenchmark {
+
+  private static final int DEFAULT_SESSIONS = 10_000;
+  private static final int PERSONS = 100;
+  private static final int PLATFORM_THREADS = 200;
+  private static final int ROUNDS = 3;
+
+  public static void main(String[] args) throws Exception {
+    int sessions = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_SESSIONS;
+    SessionFactory sessionFactory = Persistence.createSessionFactory();
+    insertPersons(sessionFactory);
+
+    System.out.printf("Java %s, %d processors, %d sessions%n", Runtime.version(),
+        Runtime.getRuntime().availableProcessors(), sessions);
+    for (int round = 1; round <= ROUNDS; round++) {
+      long start = System.nanoTime();
+      runAsyncSessions(sessionFactory, sessions);
+      report("async sessions", sessions, start);
+
+      start = System.nanoTime();
+      runBlockingSessions(sessionFactory, sessions);
+      report("blocking sessions", sessions, start);
+    }
+  }
+
+  private static void runAsyncSessions(SessionFactory sessionFactory, int sessions) {
+    List<CompletableFuture<?>> results = new ArrayList<>(sessions);
+    for (int i = 0; i < sessions; i++) {
+      AsyncSession session = sessionFactory.openAsyncSession();
+      long id = ThreadLocalRandom.current().nextLong(1, PERSONS + 1);
+      results.add(session.findById(Person.class, id));
+      results.add(session.executeBiQLQuery("from Person where id = %s".formatted(id), Person.class));
+      results.add(session.closeAsync());
+    }
+    CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+  }
+
+  private static void runBlockingSessions(SessionFactory sessionFactory, int sessions) {
+    ExecutorService executor = Executors.newFixedThreadPool(PLATFORM_THREADS);
+    try {
+      List<CompletableFuture<?>> results = new ArrayList<>(sessions);
+      for (int i = 0; i < sessions; i++) {
+        results.add(CompletableFuture.runAsync(() -> {
+          try (Session session = sessionFactory.openSession()) {
+            long id = ThreadLocalRandom.current().nextLong(1, PERSONS + 1);
+            session.findById(Person.class, id);
+            session.executeBiQLQuery("from Person where id = %s".formatted(id), Person.class);
+          } catch (SQLException e) {
+            throw new IllegalStateException(e);
+          }
+        }, executor));
+      }
+      CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).join();
+    } finally {
+      executor.shutdown();
+    }
+  }
+
+  private static void report(String name, int sessions, long start) {
+    long millis = (System.nanoTime() - start) / 1_000_000;
+    System.out.printf("%-18s %6d ms, %8.0f sessions/s%n", name, millis, sessions * 1000.0 / Math.max(1, millis));
+  }
+
+  private static void insertPersons(SessionFactory sessionFactory) throws Exception {
+    try (Session session = sessionFactory.openSession()) {
+      for (long id = 1; id <= PERSONS; id++) {
+        Person person = new Person();
+        person.setId(id);
+        person.setFirstName("First" + id);
+        person.setLastName("Last" + id);
+        session.persist(person);
+      }
+    }
+  }
+}
@@ -0,0 +1,43 @@
+package com.breskul.bibernate.data;
+
+import static com.breskul.bibernate.annotation.CascadeType.ALL;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.OneToMany;
+import com.breskul.bibernate.annotation.Table;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "persons")
+public class CascadePerson {
+
+  @Id
+  private Long id;
+
+  @Column(name = "first_name")
+  private String firstName;
+  @Column(name = "last_name")
+  private String lastName;
+
+  @OneToMany(cascade = ALL, orphanRemoval = true)
+  private List<CascadeNote> notes = new ArrayList<>();
+
+  public CascadePerson(String firstName) {
+    this.firstName = firstName;
+  }
+
+  public CascadeNote addNote(String title) {
+    CascadeNote note = new CascadeNote(null, title, null, this);
+    notes.add(note);
+    return note;
+  }
+}
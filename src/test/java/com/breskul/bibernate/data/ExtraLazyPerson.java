@@ -0,0 +1,31 @@
+package com.breskul.bibernate.data;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.OneToMany;
+import com.breskul.bibernate.annotation.Table;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "persons")
+public class ExtraLazyPerson {
+
+  @Id
+  private Long id;
+
+  @Column(name = "first_name")
+  private String firstName;
+  @Column(name = "last_name")
+  private String lastName;
+
+  @OneToMany(extraLazy = true)
+  private List<ExtraLazyNote> notes = new ArrayList<>();
+}
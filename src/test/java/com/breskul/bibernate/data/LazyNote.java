@@ -0,0 +1,35 @@
+package com.breskul.bibernate.data;
+
+import static com.breskul.bibernate.annotation.FetchType.LAZY;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.JoinColumn;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.annotation.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+@Entity
+@Table(name = "notes")
+public class LazyNote {
+
+  @Id
+  private Long id;
+
+  @Column(name = "title")
+  private String title;
+  @Column(name = "body")
+  private String body;
+
+  @ManyToOne(fetch = LAZY)
+  @JoinColumn(name = "person_id")
+  private Person person;
+}
@@ -0,0 +1,33 @@
+package com.breskul.bibernate.data;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.ManyToMany;
+import com.breskul.bibernate.annotation.Table;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "tags")
+public class Tag {
+
+  @Id
+  private Long id;
+
+  @Column(name = "name")
+  private String name;
+
+  @ManyToMany(mappedBy = "tags")
+  private Set<TaggedPerson> persons = new HashSet<>();
+
+  public Tag(String name) {
+    this.name = name;
+  }
+}
@@ -0,0 +1,41 @@
+package com.breskul.bibernate.data;
+
+import static com.breskul.bibernate.annotation.CascadeType.PERSIST;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.JoinColumn;
+import com.breskul.bibernate.annotation.JoinTable;
+import com.breskul.bibernate.annotation.ManyToMany;
+import com.breskul.bibernate.annotation.Table;
+import java.util.HashSet;
+import java.util.Set;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+@Setter
+@Getter
+@NoArgsConstructor
+@Entity
+@Table(name = "persons")
+public class TaggedPerson {
+
+  @Id
+  private Long id;
+
+  @Column(name = "first_name")
+  private String firstName;
+  @Column(name = "last_name")
+  private String lastName;
+
+  @ManyToMany(cascade = PERSIST)
+  @JoinTable(name = "person_tags", joinColumn = @JoinColumn(name = "person_id"),
+      inverseJoinColumn = @JoinColumn(name = "tag_id"))
+  private Set<Tag> tags = new HashSet<>();
+
+  public TaggedPerson(String firstName) {
+    this.firstName = firstName;
+  }
+}
@@ -0,0 +1,35 @@
+package com.breskul.bibernate.data;
+
+import com.breskul.bibernate.annotation.Column;
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.Table;
+import com.breskul.bibernate.annotation.Version;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.ToString;
+
+@Setter
+@Getter
+@ToString
+@Entity
+@Table(name = "versioned_persons")
+public class VersionedPerson {
+
+  @Id
+  private Long id;
+
+  @Column(name = "first_name")
+  private String firstName;
+
+  @Version
+  private Long version;
+
+  public VersionedPerson() {
+
+  }
+
+  public VersionedPerson(String firstName) {
+    this.firstName = firstName;
+  }
+}
@@ -1,18 +1,30 @@
 package com.breskul.bibernate.ddl;
 
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.then;
 
+import com.breskul.bibernate.exception.SchemaValidationException;
 import com.breskul.bibernate.metadata.Column;
 import com.breskul.bibernate.metadata.EntitiesMetadataPersistence;
 import com.breskul.bibernate.metadata.Table;
 import com.breskul.bibernate.metadata.dto.ForeignKey;
+import com.breskul.bibernate.metadata.dto.TableIndex;
+import com.breskul.bibernate.metadata.tables.Entity1;
+import com.breskul.bibernate.metadata.tables.Entity2;
+import com.breskul.bibernate.metadata.tables.Entity3;
+import com.breskul.bibernate.metadata.tables.Entity4;
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.HashSet;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import javax.sql.DataSource;
+import org.h2.jdbcx.JdbcDataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -35,6 +47,9 @@ public class TableCreationServiceTest {
   FOREIGN KEY (parent_id)
   REFERENCES ParentTable
   """;
+  private static final String CREATE_INDEX_SQL =
+      "CREATE INDEX IF NOT EXISTS IDX_TestTable_parent_id ON TestCatalog.TestSchema.TestTable (parent_id)";
+
   @Mock
   private DataSource dataSource;
 
@@ -63,9 +78,74 @@ public class TableCreationServiceTest {
 
     tableCreationService.processDdl();
 
-    then(statement).should().execute(DROP_TABLE_SQL);
-    then(statement).should().executeUpdate(CREATE_TABLE_SQL);
-    then(statement).should().executeUpdate(CONSTRAINT_SQL);
+    then(statement).should().addBatch(DROP_TABLE_SQL);
+    then(statement).should().addBatch(CREATE_TABLE_SQL);
+    then(statement).should().addBatch(CONSTRAINT_SQL);
+    then(statement).should().addBatch(CREATE_INDEX_SQL);
+    then(statement).should(Mockito.times(4)).executeBatch();
+  }
+
+  @Test
+  void given_severalTables_when_processDdlInParallel_then_eachTableCreatedOnce() throws SQLException {
+    // Arrange
+    Table secondTable = new Table();
+    secondTable.setName("SecondTable");
+    secondTable.setFullName("SecondTable");
+    secondTable.setColumns(prepareColumn());
+    Set<Table> tables = new HashSet<>(prepareTable());
+    tables.add(secondTable);
+    Mockito.when(entitiesMetadataPersistence.getTables()).thenReturn(tables);
+    Mockito.when(dataSource.getConnection()).thenReturn(connection);
+    Mockito.when(connection.createStatement()).thenReturn(statement);
+    tableCreationService = new TableCreationService(dataSource, entitiesMetadataPersistence, false, 2);
+
+    tableCreationService.processDdl();
+
+    then(statement).should().addBatch(CREATE_TABLE_SQL);
+    then(statement).should().addBatch(Mockito.startsWith("CREATE TABLE IF NOT EXISTS SecondTable("));
+    then(statement).should().addBatch(CONSTRAINT_SQL);
+    then(connection).should(Mockito.times(5)).close();
+  }
+
+  @Test
+  void given_partiallyExistingSchema_when_updateSchema_then_missingTablesAndColumnsAdded() throws SQLException {
+    // Arrange
+    DataSource h2DataSource = prepareH2DataSource("schema_update");
+    TableCreationService service = new TableCreationService(h2DataSource, prepareEntitiesMetadata(), false);
+    service.processDdl(DdlMode.UPDATE);
+    try (Connection h2Connection = h2DataSource.getConnection();
+        Statement h2Statement = h2Connection.createStatement()) {
+      h2Statement.execute("INSERT INTO ent_tree(id) VALUES (1)");
+      h2Statement.execute("ALTER TABLE ent_two DROP COLUMN entity3_id");
+      h2Statement.execute("DROP TABLE ent_four CASCADE");
+    }
+    assertThatThrownBy(() -> service.processDdl(DdlMode.VALIDATE))
+        .isInstanceOf(SchemaValidationException.class)
+        .hasMessageContaining("missing table [ent_four]")
+        .hasMessageContaining("missing column [ent_two.entity3_id]");
+
+    // Act
+    service.processDdl(DdlMode.UPDATE);
+
+    // Assert
+    service.processDdl(DdlMode.VALIDATE);
+    try (Connection h2Connection = h2DataSource.getConnection();
+        Statement h2Statement = h2Connection.createStatement();
+        ResultSet resultSet = h2Statement.executeQuery("SELECT COUNT(*) FROM ent_tree")) {
+      resultSet.next();
+      assertThat(resultSet.getInt(1)).isEqualTo(1);
+    }
+  }
+
+  private DataSource prepareH2DataSource(String databaseName) {
+    JdbcDataSource h2DataSource = new JdbcDataSource();
+    h2DataSource.setURL("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1".formatted(databaseName));
+    return h2DataSource;
+  }
+
+  private EntitiesMetadataPersistence prepareEntitiesMetadata() {
+    return EntitiesMetadataPersistence.createInstance(
+        () -> Set.of(Entity1.class, Entity2.class, Entity3.class, Entity4.class));
   }
 
   private Set<Table> prepareTable() {
@@ -76,6 +156,7 @@ public class TableCreationServiceTest {
     table.setFullName("TestCatalog.TestSchema.TestTable");
     table.setColumns(prepareColumn());
     table.addForeignKey(prepareForeignKey());
+    table.addIndex(new TableIndex("TestTable", "IDX_TestTable_parent_id", List.of("parent_id"), false));
     return Set.of(table);
   }
 
@@ -11,6 +11,7 @@ import com.breskul.bibernate.persistence.datasource.propertyreader.ApplicationPr
 import com.breskul.bibernate.persistence.dialect.H2Dialect;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.Statement;
 import javax.sql.DataSource;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.AfterEach;
@@ -42,16 +43,22 @@ public abstract class AbstractIntegrationTest {
     this.genericDao = new GenericDao(connection, persistenceContext, new H2Dialect(), true);
   }
 
+  @SneakyThrows
   @AfterEach
   void tearDown() {
-    dropTables();
+    connection.close();
+    recreateTables();
   }
 
+  /**
+   * Pooled connections are reused, so the init script from the connection URL does not run for the next test and is executed here.
+   */
   @SneakyThrows
-  private void dropTables() {
-    try (PreparedStatement preparedStatement = dataSource.getConnection()
-        .prepareStatement("DROP ALL OBJECTS")) {
-      preparedStatement.execute();
+  private void recreateTables() {
+    try (Connection resetConnection = dataSource.getConnection();
+        Statement statement = resetConnection.createStatement()) {
+      statement.execute("DROP ALL OBJECTS");
+      statement.execute("RUNSCRIPT FROM 'classpath:db/init.sql'");
     }
   }
 
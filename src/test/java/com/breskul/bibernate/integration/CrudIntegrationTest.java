@@ -6,10 +6,14 @@ import static org.junit.jupiter.api.Assertions.assertNull;
 
 import com.breskul.bibernate.data.Person;
 import com.breskul.bibernate.exception.BibernateException;
+import com.breskul.bibernate.exception.EntityQueryException;
+import com.breskul.bibernate.persistence.LockOptions;
 import com.breskul.bibernate.persistence.LockType;
 import com.breskul.bibernate.persistence.Persistence;
 import com.breskul.bibernate.persistence.Session;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -109,6 +113,52 @@ class CrudIntegrationTest extends AbstractIntegrationTest {
     assertNull(deletedPerson);
   }
 
+  @Test
+  @DisplayName("Query with skip locked leaves out rows locked by another transaction")
+  void givenRowLockedInOtherSession_whenQueryWithSkipLocked_thenReturnOnlyNotLockedRows() throws SQLException {
+    Person lockedPerson = createRandomPersonInDb();
+    Person freePerson = createRandomPersonInDb();
+    try (Session lockingSession = Persistence.createSessionFactory().openSession()) {
+      lockingSession.getTransaction().begin();
+      lockingSession.findById(Person.class, lockedPerson.getId(), LockType.PESSIMISTIC_WRITE);
+      session.getTransaction().begin();
+
+      List<Person> result = session.executeNativeQuery(
+          "select * from persons where id in (%d, %d);".formatted(lockedPerson.getId(), freePerson.getId()),
+          Person.class, LockOptions.of(LockType.PESSIMISTIC_WRITE).skipLocked());
+
+      assertThat(result).extracting(Person::getId).containsExactly(freePerson.getId());
+      session.getTransaction().rollback();
+      lockingSession.getTransaction().rollback();
+    }
+  }
+
+  @Test
+  @DisplayName("Find by id with no wait or lock timeout fails when the row is locked by another transaction")
+  void givenRowLockedInOtherSession_whenFindByIdWithNoWaitOrTimeout_thenThrowEntityQueryException() throws SQLException {
+    Person lockedPerson = createRandomPersonInDb();
+    try (Session lockingSession = Persistence.createSessionFactory().openSession()) {
+      lockingSession.getTransaction().begin();
+      lockingSession.findById(Person.class, lockedPerson.getId(), LockType.PESSIMISTIC_WRITE);
+      LockOptions writeLock = LockOptions.of(LockType.PESSIMISTIC_WRITE);
+
+      // a lock timeout error marks the H2 connection as broken in HikariCP, so every attempt uses its own session
+      assertLockNotAcquired(lockedPerson, writeLock.noWait());
+      assertLockNotAcquired(lockedPerson, writeLock.timeout(Duration.ofMillis(100)));
+      lockingSession.getTransaction().rollback();
+    }
+  }
+
+  private void assertLockNotAcquired(Person lockedPerson, LockOptions lockOptions) throws SQLException {
+    try (Session waitingSession = Persistence.createSessionFactory().openSession()) {
+      waitingSession.getTransaction().begin();
+
+      assertThatThrownBy(() -> waitingSession.findById(Person.class, lockedPerson.getId(), lockOptions))
+          .isInstanceOf(EntityQueryException.class)
+          .rootCause().hasMessageContaining("is locked by tx");
+    }
+  }
+
   private Person createRandomPersonInDb() {
     Person person = prepareRandomPerson();
     createPerson(person);
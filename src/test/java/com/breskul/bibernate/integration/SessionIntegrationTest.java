@@ -2,20 +2,55 @@ package com.breskul.bibernate.integration;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
 
 import com.breskul.bibernate.data.AccountPerson;
+import com.breskul.bibernate.data.CascadeNote;
+import com.breskul.bibernate.data.CascadePerson;
+import com.breskul.bibernate.data.CustomNote;
 import com.breskul.bibernate.data.CustomPerson;
 import com.breskul.bibernate.data.DynamicPerson;
+import com.breskul.bibernate.data.ExtraLazyNote;
+import com.breskul.bibernate.data.ExtraLazyPerson;
+import com.breskul.bibernate.data.LazyNote;
 import com.breskul.bibernate.data.Note;
 import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.data.Tag;
+import com.breskul.bibernate.data.TaggedPerson;
+import com.breskul.bibernate.data.VersionedPerson;
+import com.breskul.bibernate.exception.AssociationException;
 import com.breskul.bibernate.exception.BiQLException;
 import com.breskul.bibernate.exception.BibernateException;
+import com.breskul.bibernate.exception.EntityIsNotManagedException;
+import com.breskul.bibernate.exception.LazyInitializationException;
+import com.breskul.bibernate.exception.OptimisticLockException;
+import com.breskul.bibernate.persistence.AsyncSession;
+import com.breskul.bibernate.persistence.FetchProfile;
 import com.breskul.bibernate.persistence.Persistence;
 import com.breskul.bibernate.persistence.Session;
+import com.breskul.bibernate.persistence.SessionFactory;
+import com.breskul.bibernate.proxy.LazyProxy;
+import com.breskul.bibernate.statistics.Statistics;
+import com.breskul.bibernate.util.AssociationUtil;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,15 +59,41 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
 
   private static final AtomicLong ids = new AtomicLong();
 
+  private final List<SessionFactory> sessionFactories = new ArrayList<>();
   private Session session;
   private Person person;
 
   @BeforeEach
   void before() throws SQLException {
-    this.session = Persistence.createSessionFactory().openSession();
+    this.session = createSessionFactory().openSession();
     person = prepareRandomPerson();
   }
 
+  @AfterEach
+  void after() {
+    if (session.isOpen()) {
+      session.close();
+    }
+    sessionFactories.forEach(SessionFactory::close);
+  }
+
+  @Test
+  @DisplayName("Find person and query persons in async session")
+  void givenPersonInDb_whenFindInAsyncSession_thenReturnExpectedPerson() {
+    Person found;
+    List<Person> persons;
+    try (AsyncSession asyncSession = createSessionFactory().openAsyncSession()) {
+      CompletableFuture<Person> foundFuture = asyncSession.findById(Person.class, person.getId());
+      CompletableFuture<List<Person>> personsFuture = asyncSession.executeBiQLQuery(
+          "from Person where id = %s".formatted(person.getId()), Person.class);
+      found = foundFuture.join();
+      persons = personsFuture.join();
+    }
+
+    assertThat(found.getFirstName()).isEqualTo(person.getFirstName());
+    assertThat(persons).extracting(Person::getId).containsExactly(person.getId());
+  }
+
   @Test
   @DisplayName("Find person by bql when it exist in DB")
   void givenPersonInDb_whenFindByBqlFromDb_thenReturnExpectedPerson() {
@@ -111,7 +172,7 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
     session.delete(createdPerson);
     session.close();
 
-    session = Persistence.createSessionFactory().openSession();
+    session = createSessionFactory().openSession();
 
     Person unFlushedPerson = session.findById(Person.class, createdPerson.getId());
     assertThat(unFlushedPerson.getId()).isEqualTo(createdPerson.getId());
@@ -129,9 +190,10 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
     //when
     person.setFirstName("Mike");
     session.flush();
+    session.close();
 
     //then
-    session = Persistence.createSessionFactory().openSession();
+    session = createSessionFactory().openSession();
     Person updatedPerson = session.findById(Person.class, createdPerson.getId());
     assertThat(updatedPerson.getFirstName()).isEqualTo("Mike");
   }
@@ -148,9 +210,10 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
     //when
     note.setPerson(newPerson);
     session.flush();
+    session.close();
 
     //then
-    session = Persistence.createSessionFactory().openSession();
+    session = createSessionFactory().openSession();
     Note updatedNote = session.findById(Note.class, createdNote.getId());
     assertThat(updatedNote.getPerson().getId()).isNotEqualTo(createdPerson.getId());
   }
@@ -182,9 +245,10 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
     // when
     person.setFirstName("Mike");
     session.flush();
+    session.close();
 
     // then
-    session = Persistence.createSessionFactory().openSession();
+    session = createSessionFactory().openSession();
     DynamicPerson updatedPerson = session.findById(DynamicPerson.class, dynamicPerson.getId());
     assertThat(updatedPerson.getFirstName()).isEqualTo("Mike");
   }
@@ -222,6 +286,930 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
   }
 
 
+  @Test
+  @DisplayName("Lazy to-one proxy returns its id and survives dirty checking without loading")
+  void givenNoteWithLazyPerson_whenReadPersonIdAndFlush_thenPersonIsNotLoaded() {
+    Note createdNote = prepareRandomNote(person);
+
+    LazyNote note = session.findById(LazyNote.class, createdNote.getId());
+    Person lazyPerson = note.getPerson();
+
+    assertThat(lazyPerson.getId()).isEqualTo(person.getId());
+    session.flush();
+    assertThat(AssociationUtil.isInitialized(lazyPerson)).isFalse();
+
+    assertThat(lazyPerson.getFirstName()).isEqualTo(person.getFirstName());
+    assertThat(AssociationUtil.isInitialized(lazyPerson)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Extra-lazy collection answers size, contains and get without loading all elements")
+  void givenPersonWithNotes_whenAccessExtraLazyNotes_thenCollectionIsNotLoaded() {
+    Note firstNote = prepareRandomNote(person);
+    Note secondNote = prepareRandomNote(person);
+    prepareRandomNote(person);
+
+    ExtraLazyPerson extraLazyPerson = session.findById(ExtraLazyPerson.class, person.getId());
+    List<ExtraLazyNote> notes = extraLazyPerson.getNotes();
+    ExtraLazyNote note = session.findById(ExtraLazyNote.class, firstNote.getId());
+
+    assertThat(notes.size()).isEqualTo(3);
+    assertThat(notes.isEmpty()).isFalse();
+    assertThat(notes.contains(note)).isTrue();
+    assertThat(notes.get(1).getId()).isEqualTo(secondNote.getId());
+    assertThatThrownBy(() -> notes.get(3)).isInstanceOf(IndexOutOfBoundsException.class);
+    assertThat(AssociationUtil.isInitialized(notes)).isFalse();
+
+    assertThat(notes).extracting(ExtraLazyNote::getId).hasSize(3);
+    assertThat(AssociationUtil.isInitialized(notes)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Extra-lazy collection isEmpty reads at most one row instead of counting the elements")
+  void givenPersonWithAndWithoutNotes_whenExtraLazyIsEmpty_thenExistenceQueryIsUsed() throws SQLException {
+    // Arrange
+    Person personWithoutNotes = prepareRandomPerson();
+    prepareRandomNote(person);
+    prepareRandomNote(person);
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    boolean withNotesEmpty;
+    boolean withoutNotesEmpty;
+    try (Session statisticsSession = sessionFactory.openSession()) {
+      withNotesEmpty = statisticsSession.findById(ExtraLazyPerson.class, person.getId()).getNotes().isEmpty();
+      withoutNotesEmpty = statisticsSession.findById(ExtraLazyPerson.class, personWithoutNotes.getId()).getNotes().isEmpty();
+    }
+
+    // Assert
+    assertThat(withNotesEmpty).isFalse();
+    assertThat(withoutNotesEmpty).isTrue();
+    assertThat(statistics.getQueries()).noneSatisfy(sql -> assertThat(sql).contains("COUNT(*)"));
+    assertThat(statistics.getQueries())
+        .filteredOn(sql -> sql.startsWith("SELECT ? FROM notes"))
+        .singleElement()
+        .satisfies(sql -> assertThat(statistics.getQueryStatistics(sql).getCount()).isEqualTo(2));
+  }
+
+  @Test
+  @DisplayName("Extra-lazy collection get keeps the fetch profile the collection was created with")
+  void givenExtraLazyNotesCreatedWithProfile_whenGet_thenElementUsesProfile() {
+    prepareRandomNote(person);
+    FetchProfile lazyNotePerson = FetchProfile.named("lazy-extra-lazy-note-person")
+        .lazy(ExtraLazyNote.class, "person");
+
+    ExtraLazyPerson extraLazyPerson = session.findById(ExtraLazyPerson.class, person.getId(), lazyNotePerson);
+    ExtraLazyNote note = extraLazyPerson.getNotes().get(0);
+
+    assertThat(note.getPerson()).isInstanceOf(LazyProxy.class);
+    assertThat(AssociationUtil.isInitialized(extraLazyPerson.getNotes())).isFalse();
+  }
+
+  @Test
+  @DisplayName("Lazy association fails fast when it is first accessed after the session is closed")
+  void givenNoteWithLazyPerson_whenAccessPersonAfterSessionClose_thenThrowLazyInitializationException() {
+    Note createdNote = prepareRandomNote(person);
+    prepareRandomNote(person);
+
+    LazyNote note = session.findById(LazyNote.class, createdNote.getId());
+    Person lazyPerson = note.getPerson();
+    ExtraLazyPerson extraLazyPerson = session.findById(ExtraLazyPerson.class, person.getId());
+    List<ExtraLazyNote> notes = extraLazyPerson.getNotes();
+    session.close();
+
+    assertThat(lazyPerson.getId()).isEqualTo(person.getId());
+    assertThatThrownBy(lazyPerson::getFirstName)
+        .isInstanceOf(LazyInitializationException.class)
+        .hasMessageContaining("person");
+    assertThatThrownBy(notes::size).isInstanceOf(LazyInitializationException.class);
+    assertThatThrownBy(notes::iterator).isInstanceOf(LazyInitializationException.class);
+  }
+
+  @Test
+  @DisplayName("Lazy collections loaded concurrently on two threads each keep the fetch profile they were created with")
+  void givenLazyNotesCreatedWithDifferentProfiles_whenLoadConcurrently_thenEachUsesItsOwnProfile() throws Exception {
+    Person anotherPerson = prepareRandomPerson();
+    prepareRandomNote(person);
+    prepareRandomNote(anotherPerson);
+    FetchProfile lazyNotePerson = FetchProfile.named("lazy-note-person").lazy(CustomNote.class, "person");
+    CustomPerson profiledPerson = session.findById(CustomPerson.class, person.getId(), lazyNotePerson);
+    CustomPerson plainPerson = session.findById(CustomPerson.class, anotherPerson.getId());
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    try {
+      Future<List<CustomNote>> profiledNotes = executor.submit(() -> {
+        start.await();
+        return List.copyOf(profiledPerson.getNotes());
+      });
+      Future<List<CustomNote>> plainNotes = executor.submit(() -> {
+        start.await();
+        return List.copyOf(plainPerson.getNotes());
+      });
+      start.countDown();
+
+      assertThat(profiledNotes.get(5, TimeUnit.SECONDS))
+          .singleElement()
+          .satisfies(note -> assertThat(note.getPerson()).isInstanceOf(LazyProxy.class));
+      assertThat(plainNotes.get(5, TimeUnit.SECONDS))
+          .singleElement()
+          .satisfies(note -> assertThat(note.getPerson()).isSameAs(plainPerson));
+    } finally {
+      executor.shutdown();
+    }
+  }
+  @Test
+  @DisplayName("Fetch profile loads lazy collections of all query results with one batch query")
+  void givenPersonsWithNotes_whenQueryWithEagerNotesProfile_thenNotesAreLoadedForAllPersons() {
+    Person anotherPerson = prepareRandomPerson();
+    Note firstNote = prepareRandomNote(person);
+    Note secondNote = prepareRandomNote(person);
+    Note anotherNote = prepareRandomNote(anotherPerson);
+    FetchProfile profile = FetchProfile.named("person-with-notes")
+        .eager(CustomPerson.class, "notes");
+
+    List<CustomPerson> persons = session.executeNativeQuery(
+        "select * from persons where id in (%s, %s) order by id".formatted(person.getId(),
+            anotherPerson.getId()), CustomPerson.class, profile);
+
+    assertThat(persons).hasSize(2);
+    assertThat(persons).allMatch(found -> AssociationUtil.isInitialized(found.getNotes()));
+    assertThat(persons.get(0).getNotes()).extracting(CustomNote::getId)
+        .containsExactlyInAnyOrder(firstNote.getId(), secondNote.getId());
+    assertThat(persons.get(1).getNotes()).extracting(CustomNote::getId)
+        .containsExactly(anotherNote.getId());
+  }
+
+  @Test
+  @DisplayName("Fetch profile batch query splits owner ids into fixed-size IN lists")
+  void givenMorePersonsThanInListChunk_whenQueryWithEagerNotesProfile_thenNotesAreLoadedInChunks() throws SQLException {
+    // Arrange
+    List<Person> persons = Stream.generate(this::prepareRandomPerson).limit(300).toList();
+    persons.forEach(this::prepareRandomNote);
+    FetchProfile profile = FetchProfile.named("person-with-notes").eager(CustomPerson.class, "notes");
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    List<CustomPerson> found;
+    try (Session profileSession = sessionFactory.openSession()) {
+      found = profileSession.executeNativeQuery("select * from persons where id between %s and %s".formatted(
+          persons.get(0).getId(), persons.get(persons.size() - 1).getId()), CustomPerson.class, profile);
+    }
+
+    // Assert
+    assertThat(found).hasSize(300).allSatisfy(foundPerson -> assertThat(foundPerson.getNotes()).hasSize(1));
+    assertThat(statistics.getQueries())
+        .filteredOn(sql -> sql.contains(" IN ("))
+        .singleElement()
+        .satisfies(sql -> assertThat(statistics.getQueryStatistics(sql).getCount()).isEqualTo(2));
+    assertThat(statistics.getLazyInitializationCount()).isZero();
+  }
+
+  @Test
+  @DisplayName("Fetch profile loads to-one associations of all query results with one batch query")
+  void givenNotesOfTwoPersons_whenQueryWithEagerPersonProfile_thenPersonsAreLoadedWithOneQuery() throws SQLException {
+    // Arrange
+    Person anotherPerson = prepareRandomPerson();
+    Note firstNote = prepareRandomNote(person);
+    Note secondNote = prepareRandomNote(person);
+    Note anotherNote = prepareRandomNote(anotherPerson);
+    FetchProfile profile = FetchProfile.named("note-with-person").eager(LazyNote.class, "person");
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    List<LazyNote> notes;
+    try (Session profileSession = sessionFactory.openSession()) {
+      notes = profileSession.executeNativeQuery("select * from notes where id in (%s, %s, %s) order by id".formatted(
+          firstNote.getId(), secondNote.getId(), anotherNote.getId()), LazyNote.class, profile);
+      profileSession.flush();
+    }
+
+    // Assert
+    assertThat(notes).extracting(LazyNote::getPerson).doesNotHaveAnyElementsOfTypes(LazyProxy.class);
+    assertThat(notes).extracting(note -> note.getPerson().getId())
+        .containsExactly(person.getId(), person.getId(), anotherPerson.getId());
+    assertThat(notes.get(0).getPerson()).isSameAs(notes.get(1).getPerson());
+    assertThat(statistics.getQueries())
+        .filteredOn(sql -> sql.contains("FROM persons"))
+        .singleElement()
+        .satisfies(sql -> assertThat(statistics.getQueryStatistics(sql).getCount()).isEqualTo(1));
+    assertThat(statistics.getQueries()).noneSatisfy(sql -> assertThat(sql).startsWith("UPDATE"));
+  }
+
+  @Test
+  @DisplayName("Fetch profile overrides mapped fetch type of to-one association")
+  void givenNoteWithPerson_whenFindByIdWithProfile_thenProfileFetchTypeIsUsed() {
+    Note createdNote = prepareRandomNote(person);
+    FetchProfile eagerPerson = FetchProfile.named("eager-person").eager(LazyNote.class, "person");
+    FetchProfile lazyPerson = FetchProfile.named("lazy-person").lazy(Note.class, "person");
+
+    LazyNote lazyNote = session.findById(LazyNote.class, createdNote.getId(), eagerPerson);
+    Note note = session.findById(Note.class, createdNote.getId(), lazyPerson);
+
+    assertThat(lazyNote.getPerson()).isNotInstanceOf(LazyProxy.class);
+    assertThat(lazyNote.getPerson().getFirstName()).isEqualTo(person.getFirstName());
+    assertThat(note.getPerson()).isInstanceOf(LazyProxy.class);
+    assertThat(AssociationUtil.isInitialized(note.getPerson())).isFalse();
+  }
+
+  @Test
+  void givenProfile_whenAddNotAssociationField_thenThrowAssociationException() {
+    FetchProfile profile = FetchProfile.named("invalid");
+
+    assertThatThrownBy(() -> profile.eager(Note.class, "title"))
+        .isInstanceOf(AssociationException.class)
+        .hasMessageContaining("is not an association");
+    assertThatThrownBy(() -> profile.eager(Note.class, "unknown"))
+        .isInstanceOf(AssociationException.class)
+        .hasMessageContaining("has no field");
+  }
+
+  @Test
+  @DisplayName("Versioned entity gets initial version on persist and next version on every flushed update")
+  void givenVersionedPerson_whenUpdateAndFlushTwice_thenIncrementVersion() throws SQLException {
+    VersionedPerson versionedPerson = new VersionedPerson("John");
+    session.persist(versionedPerson);
+    assertThat(versionedPerson.getVersion()).isZero();
+
+    versionedPerson.setFirstName("Mike");
+    session.flush();
+    versionedPerson.setFirstName("Bob");
+    session.flush();
+    session.flush();
+
+    assertThat(versionedPerson.getVersion()).isEqualTo(2L);
+    try (Session otherSession = createSessionFactory().openSession()) {
+      VersionedPerson updatedPerson = otherSession.findById(VersionedPerson.class, versionedPerson.getId());
+      assertThat(updatedPerson.getFirstName()).isEqualTo("Bob");
+      assertThat(updatedPerson.getVersion()).isEqualTo(2L);
+    }
+  }
+
+  @Test
+  @DisplayName("Update of versioned entity changed by another session throws OptimisticLockException")
+  void givenVersionedPersonUpdatedInOtherSession_whenFlushStaleUpdate_thenThrowOptimisticLockException()
+      throws SQLException {
+    VersionedPerson versionedPerson = new VersionedPerson("John");
+    session.persist(versionedPerson);
+    try (Session otherSession = createSessionFactory().openSession()) {
+      VersionedPerson concurrentPerson = otherSession.findById(VersionedPerson.class, versionedPerson.getId());
+      concurrentPerson.setFirstName("Mike");
+      otherSession.flush();
+    }
+
+    versionedPerson.setFirstName("Bob");
+
+    assertThatThrownBy(() -> session.flush())
+        .isInstanceOf(OptimisticLockException.class)
+        .hasMessage("Entity [%s] with id [%s] and version [0] was updated or deleted by another transaction"
+            .formatted(VersionedPerson.class.getName(), versionedPerson.getId()));
+  }
+
+  @Test
+  @DisplayName("Update of versioned entity changed by a bulk update of another session throws OptimisticLockException")
+  void givenVersionedPersonBulkUpdatedInOtherSession_whenFlushStaleUpdate_thenThrowOptimisticLockException()
+      throws SQLException {
+    VersionedPerson versionedPerson = new VersionedPerson("John");
+    session.persist(versionedPerson);
+    try (Session otherSession = createSessionFactory().openSession()) {
+      otherSession.executeBiQLUpdate("update VersionedPerson p set p.firstName = :name where p.id = :id",
+          VersionedPerson.class, Map.of("name", "Mike", "id", versionedPerson.getId()));
+    }
+
+    versionedPerson.setFirstName("Bob");
+
+    assertThatThrownBy(() -> session.flush())
+        .isInstanceOf(OptimisticLockException.class);
+  }
+
+  @Test
+  @DisplayName("Delete of versioned entity changed by another session throws OptimisticLockException")
+  void givenVersionedPersonUpdatedInOtherSession_whenFlushStaleDelete_thenThrowOptimisticLockException()
+      throws SQLException {
+    VersionedPerson versionedPerson = new VersionedPerson("John");
+    session.persist(versionedPerson);
+    try (Session otherSession = createSessionFactory().openSession()) {
+      VersionedPerson concurrentPerson = otherSession.findById(VersionedPerson.class, versionedPerson.getId());
+      concurrentPerson.setFirstName("Mike");
+      otherSession.flush();
+    }
+
+    session.delete(versionedPerson);
+
+    assertThatThrownBy(() -> session.flush())
+        .isInstanceOf(OptimisticLockException.class);
+  }
+
+  @Test
+  @DisplayName("Session factory statistics record sessions, cache hits, entity operations, queries, flushes and lazy loads")
+  void givenEnabledStatistics_whenUseSession_thenRecordStatistics() throws SQLException {
+    // Arrange
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+    Note createdNote = prepareRandomNote(person);
+
+    // Act
+    try (Session statisticsSession = sessionFactory.openSession()) {
+      Person foundPerson = statisticsSession.findById(Person.class, person.getId());
+      statisticsSession.findById(Person.class, person.getId());
+      foundPerson.setFirstName("Mike");
+      statisticsSession.flush();
+      LazyNote lazyNote = statisticsSession.findById(LazyNote.class, createdNote.getId());
+      lazyNote.getPerson().getFirstName();
+    }
+
+    // Assert
+    assertThat(statistics.getSessionOpenCount()).isEqualTo(1);
+    assertThat(statistics.getSessionCloseCount()).isEqualTo(1);
+    assertThat(statistics.getConnectionAcquisitionTime().getCount()).isEqualTo(1);
+    assertThat(statistics.getFirstLevelCacheHitCount()).isEqualTo(1);
+    assertThat(statistics.getFirstLevelCacheMissCount()).isEqualTo(2);
+    assertThat(statistics.getEntityStatistics(Person.class).getLoadCount()).isPositive();
+    assertThat(statistics.getEntityStatistics(Person.class).getUpdateCount()).isEqualTo(1);
+    assertThat(statistics.getFlushCount()).isEqualTo(1);
+    assertThat(statistics.getLazyInitializationCounts()).containsEntry("LazyNote.person", 1L);
+    assertThat(statistics.getQueries()).anySatisfy(sql -> assertThat(sql).startsWith("UPDATE persons SET"));
+    // the lazy person is taken from the persistence context, so it adds no query
+    assertThat(statistics.getQueryExecutionCount()).isEqualTo(3);
+  }
+
+  @Test
+  @DisplayName("Flushed entity is not updated again by the next flush")
+  void givenFlushedChanges_whenFlushAgain_thenEntityIsNotUpdated() throws SQLException {
+    // Arrange
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    try (Session statisticsSession = sessionFactory.openSession()) {
+      Person foundPerson = statisticsSession.findById(Person.class, person.getId());
+      foundPerson.setFirstName("Mike");
+      statisticsSession.flush();
+
+      // Act
+      statisticsSession.flush();
+
+      // Assert
+      assertThat(statistics.getEntityStatistics(Person.class).getUpdateCount()).isEqualTo(1);
+    }
+  }
+
+  @Test
+  @DisplayName("Changes of read-only entity are not flushed, entity marked modifiable again keeps them")
+  void givenReadOnlyPerson_whenUpdateAndFlush_thenChangesAreNotFlushed() throws SQLException {
+    // Arrange
+    Person foundPerson = session.findById(Person.class, person.getId());
+    String firstName = foundPerson.getFirstName();
+
+    // Act
+    session.setReadOnly(foundPerson, true);
+    foundPerson.setFirstName("Mike");
+    session.flush();
+    session.setReadOnly(foundPerson, false);
+    session.flush();
+
+    // Assert
+    assertThat(session.isReadOnly(foundPerson)).isFalse();
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(Person.class, person.getId()).getFirstName()).isEqualTo(firstName);
+    }
+  }
+
+  @Test
+  @DisplayName("Entities loaded while default read-only is set are read-only")
+  void givenDefaultReadOnly_whenFindPerson_thenPersonIsReadOnly() {
+    // Act
+    session.setDefaultReadOnly(true);
+    Person foundPerson = session.findById(Person.class, person.getId());
+
+    // Assert
+    assertThat(session.isReadOnly(foundPerson)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Evicted entity is not flushed and is loaded again as a new instance")
+  void givenManagedPerson_whenEvictAndUpdateAndFlush_thenChangesAreNotFlushed() throws SQLException {
+    // Arrange
+    Person foundPerson = session.findById(Person.class, person.getId());
+
+    // Act
+    session.evict(foundPerson);
+    foundPerson.setFirstName("Mike");
+    session.flush();
+
+    // Assert
+    assertThat(session.contains(foundPerson)).isFalse();
+    Person reloadedPerson = session.findById(Person.class, person.getId());
+    assertThat(reloadedPerson).isNotSameAs(foundPerson);
+    assertThat(reloadedPerson.getFirstName()).isEqualTo(person.getFirstName());
+  }
+
+  @Test
+  @DisplayName("Evict cascades to the loaded notes of the person, their changes are not flushed")
+  void givenPersonWithLoadedNotes_whenEvictPersonAndUpdateNoteAndFlush_thenNotesAreEvicted() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote note = cascadePerson.addNote("first");
+    session.persist(cascadePerson);
+
+    // Act
+    session.evict(cascadePerson);
+    note.setTitle("changed");
+    session.flush();
+
+    // Assert
+    assertThat(session.contains(cascadePerson)).isFalse();
+    assertThat(session.contains(note)).isFalse();
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadeNote.class, note.getId()).getTitle()).isEqualTo("first");
+    }
+  }
+
+  @Test
+  @DisplayName("Clear evicts all entities and discards pending deletes")
+  void givenDeletedPerson_whenClearAndFlush_thenPersonIsNotDeleted() throws SQLException {
+    // Arrange
+    Person foundPerson = session.findById(Person.class, person.getId());
+    Person anotherPerson = session.findById(Person.class, prepareRandomPerson().getId());
+    session.delete(foundPerson);
+
+    // Act
+    session.clear();
+    session.flush();
+
+    // Assert
+    assertThat(session.contains(anotherPerson)).isFalse();
+    assertThat(session.findById(Person.class, person.getId())).isNotNull();
+  }
+
+  @Test
+  @DisplayName("Reaching managed entity limit flushes and clears the session before the next load")
+  void givenManagedEntityLimit_whenLoadMorePersons_thenSessionIsFlushedAndCleared() throws SQLException {
+    // Arrange
+    Person anotherPerson = prepareRandomPerson();
+    Person thirdPerson = prepareRandomPerson();
+    session.setManagedEntityLimit(2);
+
+    // Act
+    Person firstPerson = session.findById(Person.class, person.getId());
+    firstPerson.setFirstName("Mike");
+    Person secondPerson = session.findById(Person.class, anotherPerson.getId());
+    Person lastPerson = session.findById(Person.class, thirdPerson.getId());
+
+    // Assert
+    assertThat(session.contains(firstPerson)).isFalse();
+    assertThat(session.contains(secondPerson)).isFalse();
+    assertThat(session.contains(lastPerson)).isTrue();
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(Person.class, person.getId()).getFirstName()).isEqualTo("Mike");
+    }
+  }
+
+  @Test
+  void givenNegativeLimit_whenSetManagedEntityLimit_thenThrowIllegalArgumentException() {
+    assertThatThrownBy(() -> session.setManagedEntityLimit(-1))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  @DisplayName("Bulk BiQL update changes all matching rows with one statement and evicts managed entities of the class")
+  void givenManagedPersons_whenExecuteBiQLUpdate_thenRowsAreUpdatedAndPersonsEvicted() throws SQLException {
+    // Arrange
+    Person anotherPerson = prepareRandomPerson();
+    Person managedPerson = session.findById(Person.class, person.getId());
+    managedPerson.setLastName("Pending");
+
+    // Act
+    int result = session.executeBiQLUpdate("update Person p set p.firstName = :name where p.id in (:first, :second)",
+        Person.class, Map.of("name", "Bulk", "first", person.getId(), "second", anotherPerson.getId()));
+
+    // Assert
+    assertThat(result).isEqualTo(2);
+    assertThat(session.contains(managedPerson)).isFalse();
+    Person reloadedPerson = session.findById(Person.class, person.getId());
+    assertThat(reloadedPerson.getFirstName()).isEqualTo("Bulk");
+    assertThat(reloadedPerson.getLastName()).isEqualTo("Pending");
+    assertThat(session.findById(Person.class, anotherPerson.getId()).getFirstName()).isEqualTo("Bulk");
+  }
+
+  @Test
+  @DisplayName("Bulk BiQL update also evicts the managed entities which refer to the evicted entities")
+  void givenManagedPersonWithLoadedNotes_whenExecuteBiQLUpdateOfNotes_thenPersonIsEvicted() throws SQLException {
+    // Arrange
+    Person anotherPerson = prepareRandomPerson();
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote note = cascadePerson.addNote("first");
+    session.persist(cascadePerson);
+    Person unrelatedPerson = session.findById(Person.class, anotherPerson.getId());
+
+    // Act
+    session.executeBiQLUpdate("update CascadeNote n set n.title = :title where n.id = :id", CascadeNote.class,
+        Map.of("title", "Bulk", "id", note.getId()));
+
+    // Assert
+    assertThat(session.contains(note)).isFalse();
+    assertThat(session.contains(cascadePerson)).isFalse();
+    assertThat(session.contains(unrelatedPerson)).isTrue();
+    assertThat(session.findById(CascadePerson.class, cascadePerson.getId()).getNotes())
+        .extracting(CascadeNote::getTitle)
+        .containsExactly("Bulk");
+  }
+
+  @Test
+  @DisplayName("Bulk BiQL delete removes matching rows with one statement")
+  void givenPersonInDb_whenExecuteBiQLDelete_thenRowIsDeleted() {
+    // Act
+    int result = session.executeBiQLUpdate("delete from Person where id = :id", Person.class,
+        Map.of("id", person.getId()));
+
+    // Assert
+    assertThat(result).isEqualTo(1);
+    assertThat(session.findById(Person.class, person.getId())).isNull();
+  }
+
+  @Test
+  @DisplayName("Persist cascades to new notes of the person, the person is inserted first")
+  void givenPersonWithNewNotes_whenPersist_thenNotesArePersisted() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote firstNote = cascadePerson.addNote("first");
+    CascadeNote secondNote = cascadePerson.addNote("second");
+
+    // Act
+    session.persist(cascadePerson);
+
+    // Assert
+    assertThat(firstNote.getId()).isNotNull();
+    assertThat(secondNote.getId()).isNotNull();
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadePerson.class, cascadePerson.getId()).getNotes())
+          .extracting(CascadeNote::getTitle)
+          .containsExactlyInAnyOrder("first", "second");
+    }
+  }
+
+  @Test
+  @DisplayName("Persist inserts the new notes of the person with one batch")
+  void givenPersonWithNewNotes_whenPersist_thenNotesAreInsertedWithOneBatch() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    List<CascadeNote> notes = List.of(cascadePerson.addNote("first"), cascadePerson.addNote("second"),
+        cascadePerson.addNote("third"));
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    try (Session batchSession = sessionFactory.openSession()) {
+      batchSession.persist(cascadePerson);
+    }
+
+    // Assert
+    assertThat(notes).extracting(CascadeNote::getId).doesNotContainNull().doesNotHaveDuplicates();
+    assertThat(statistics.getQueries())
+        .filteredOn(sql -> sql.startsWith("INSERT INTO notes"))
+        .singleElement()
+        .satisfies(sql -> assertThat(statistics.getQueryStatistics(sql).getCount()).isEqualTo(1));
+    try (Session otherSession = sessionFactory.openSession()) {
+      assertThat(otherSession.findById(CascadePerson.class, cascadePerson.getId()).getNotes())
+          .extracting(CascadeNote::getId, CascadeNote::getTitle)
+          .containsExactlyInAnyOrder(tuple(notes.get(0).getId(), "first"), tuple(notes.get(1).getId(), "second"),
+              tuple(notes.get(2).getId(), "third"));
+    }
+  }
+
+  @Test
+  @DisplayName("Persist and flush cascade to new notes with assigned ids")
+  void givenNewNotesWithAssignedIds_whenPersistAndFlush_thenNotesArePersisted() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote firstNote = new CascadeNote(1_000_000 + ids.incrementAndGet(), "first", null, cascadePerson);
+    CascadeNote addedNote = new CascadeNote(1_000_000 + ids.incrementAndGet(), "added", null, cascadePerson);
+    cascadePerson.getNotes().add(firstNote);
+
+    // Act
+    session.persist(cascadePerson);
+    cascadePerson.getNotes().add(addedNote);
+    session.flush();
+
+    // Assert
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadePerson.class, cascadePerson.getId()).getNotes())
+          .extracting(CascadeNote::getId)
+          .containsExactlyInAnyOrder(firstNote.getId(), addedNote.getId());
+    }
+  }
+
+  @Test
+  @DisplayName("Flush does not insert again an evicted note still referenced by its managed person")
+  void givenEvictedNoteOfManagedPerson_whenFlush_thenNoteIsNotInsertedAgain() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote note = cascadePerson.addNote("first");
+    session.persist(cascadePerson);
+    Long noteId = note.getId();
+
+    // Act
+    session.evict(note);
+    session.flush();
+
+    // Assert
+    assertThat(note.getId()).isEqualTo(noteId);
+    assertThat(session.contains(note)).isFalse();
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadePerson.class, cascadePerson.getId()).getNotes())
+          .extracting(CascadeNote::getId)
+          .containsExactly(noteId);
+    }
+  }
+
+  @Test
+  @DisplayName("Flush after a bulk update does not insert again the evicted notes of a managed person")
+  void givenManagedPersonWithNotes_whenExecuteBiQLUpdateAndFlush_thenNotesAreNotInsertedAgain() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote firstNote = cascadePerson.addNote("first");
+    CascadeNote secondNote = cascadePerson.addNote("second");
+    session.persist(cascadePerson);
+
+    // Act
+    session.executeBiQLUpdate("update CascadeNote n set n.title = :title where n.id in (:first, :second)",
+        CascadeNote.class, Map.of("title", "Bulk", "first", firstNote.getId(), "second", secondNote.getId()));
+    session.flush();
+
+    // Assert
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadePerson.class, cascadePerson.getId()).getNotes())
+          .extracting(CascadeNote::getId, CascadeNote::getTitle)
+          .containsExactlyInAnyOrder(tuple(firstNote.getId(), "Bulk"), tuple(secondNote.getId(), "Bulk"));
+    }
+  }
+
+  @Test
+  @DisplayName("Persist rejects an evicted entity")
+  void givenEvictedPerson_whenPersist_thenThrowBibernateException() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    session.persist(cascadePerson);
+    session.evict(cascadePerson);
+
+    // Act & Assert
+    assertThatThrownBy(() -> session.persist(cascadePerson))
+        .isInstanceOf(BibernateException.class)
+        .hasMessageContaining("Detached entity");
+  }
+
+  @Test
+  @DisplayName("Flush persists a new note added to the notes of a managed person")
+  void givenManagedPerson_whenAddNoteAndFlush_thenNoteIsPersisted() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    session.persist(cascadePerson);
+    CascadeNote note = cascadePerson.addNote("added");
+
+    // Act
+    session.flush();
+
+    // Assert
+    assertThat(note.getId()).isNotNull();
+    assertThat(session.contains(note)).isTrue();
+  }
+
+  @Test
+  @DisplayName("Delete cascades to the notes of the person, the notes are deleted first")
+  void givenPersonWithNotes_whenDeleteAndFlush_thenNotesAreDeleted() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote note = cascadePerson.addNote("first");
+    session.persist(cascadePerson);
+
+    // Act
+    try (Session deleteSession = createSessionFactory().openSession()) {
+      deleteSession.delete(deleteSession.findById(CascadePerson.class, cascadePerson.getId()));
+      deleteSession.flush();
+    }
+
+    // Assert
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadePerson.class, cascadePerson.getId())).isNull();
+      assertThat(otherSession.findById(CascadeNote.class, note.getId())).isNull();
+    }
+  }
+
+  @Test
+  @DisplayName("Note removed from the notes of a person with orphan removal is deleted on flush")
+  void givenPersonWithNotes_whenRemoveNoteAndFlush_thenOrphanIsDeleted() throws SQLException {
+    // Arrange
+    CascadePerson cascadePerson = new CascadePerson("John");
+    CascadeNote removedNote = cascadePerson.addNote("removed");
+    CascadeNote keptNote = cascadePerson.addNote("kept");
+    session.persist(cascadePerson);
+
+    // Act
+    try (Session orphanSession = createSessionFactory().openSession()) {
+      CascadePerson foundPerson = orphanSession.findById(CascadePerson.class, cascadePerson.getId());
+      foundPerson.getNotes().removeIf(note -> note.getId().equals(removedNote.getId()));
+      orphanSession.flush();
+    }
+
+    // Assert
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(CascadeNote.class, removedNote.getId())).isNull();
+      assertThat(otherSession.findById(CascadeNote.class, keptNote.getId())).isNotNull();
+    }
+  }
+
+  @Test
+  @DisplayName("Many-to-many collections are loaded lazily with a joined query from both sides")
+  void givenTaggedPerson_whenAccessTags_thenLoadTagsThroughJoinTable() throws SQLException {
+    // Arrange
+    TaggedPerson taggedPerson = persistTaggedPerson("java", "sql");
+
+    // Act & Assert
+    try (Session otherSession = createSessionFactory().openSession()) {
+      TaggedPerson foundPerson = otherSession.findById(TaggedPerson.class, taggedPerson.getId());
+      assertThat(AssociationUtil.isInitialized(foundPerson.getTags())).isFalse();
+      assertThat(foundPerson.getTags()).extracting(Tag::getName).containsExactlyInAnyOrder("java", "sql");
+      Tag tag = foundPerson.getTags().iterator().next();
+      assertThat(tag.getPersons()).extracting(TaggedPerson::getId).containsExactly(taggedPerson.getId());
+    }
+  }
+
+  @Test
+  @DisplayName("Flush inserts and deletes only the join table rows of added and removed elements, in batches")
+  void givenTaggedPerson_whenChangeTagsAndFlush_thenWriteOnlyChangedJoinTableRows() throws SQLException {
+    // Arrange
+    TaggedPerson taggedPerson = persistTaggedPerson("java", "sql", "kotlin");
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    try (Session tagSession = sessionFactory.openSession()) {
+      TaggedPerson foundPerson = tagSession.findById(TaggedPerson.class, taggedPerson.getId());
+      foundPerson.getTags().removeIf(tag -> !tag.getName().equals("java"));
+      foundPerson.getTags().add(new Tag("h2"));
+      foundPerson.getTags().add(new Tag("jdbc"));
+      tagSession.flush();
+    }
+
+    // Assert
+    assertThat(statistics.getQueries())
+        .anySatisfy(sql -> assertThat(sql).startsWith("DELETE FROM person_tags WHERE person_id = ? AND tag_id = ?"))
+        .anySatisfy(sql -> assertThat(sql).startsWith("INSERT INTO person_tags"))
+        .noneSatisfy(sql -> assertThat(sql).startsWith("DELETE FROM person_tags WHERE person_id = ?;"));
+    statistics.getQueries().stream()
+        .filter(sql -> sql.contains("person_tags") && !sql.startsWith("SELECT"))
+        .forEach(sql -> assertThat(statistics.getQueryStatistics(sql).getCount()).isEqualTo(1));
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(TaggedPerson.class, taggedPerson.getId()).getTags())
+          .extracting(Tag::getName)
+          .containsExactlyInAnyOrder("java", "h2", "jdbc");
+    }
+  }
+
+  @Test
+  @DisplayName("Unchanged many-to-many collection writes nothing to the join table on flush")
+  void givenLoadedTags_whenFlushWithoutChanges_thenNoJoinTableStatements() throws SQLException {
+    // Arrange
+    TaggedPerson taggedPerson = persistTaggedPerson("java");
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    try (Session tagSession = sessionFactory.openSession()) {
+      tagSession.findById(TaggedPerson.class, taggedPerson.getId()).getTags().size();
+      tagSession.flush();
+    }
+
+    // Assert
+    assertThat(statistics.getQueries())
+        .noneSatisfy(sql -> assertThat(sql).startsWith("INSERT INTO person_tags"))
+        .noneSatisfy(sql -> assertThat(sql).startsWith("DELETE FROM person_tags"));
+  }
+
+  @Test
+  @DisplayName("Deleting the owner deletes its join table rows but keeps the elements")
+  void givenTaggedPerson_whenDeleteAndFlush_thenDeleteJoinTableRows() throws SQLException {
+    // Arrange
+    TaggedPerson taggedPerson = persistTaggedPerson("java");
+    Tag tag = taggedPerson.getTags().iterator().next();
+
+    // Act
+    try (Session deleteSession = createSessionFactory().openSession()) {
+      deleteSession.delete(deleteSession.findById(TaggedPerson.class, taggedPerson.getId()));
+      deleteSession.flush();
+    }
+
+    // Assert
+    try (Session otherSession = createSessionFactory().openSession()) {
+      assertThat(otherSession.findById(TaggedPerson.class, taggedPerson.getId())).isNull();
+      Tag foundTag = otherSession.findById(Tag.class, tag.getId());
+      assertThat(foundTag).isNotNull();
+      assertThat(foundTag.getPersons()).isEmpty();
+    }
+  }
+
+  @Test
+  @DisplayName("Fetch profile loads many-to-many collections of all query results with one join table query")
+  void givenTwoTaggedPersons_whenQueryWithEagerTagsProfile_thenJoinTableIsReadWithOneQuery() throws SQLException {
+    // Arrange
+    TaggedPerson firstPerson = persistTaggedPerson("java", "sql");
+    TaggedPerson secondPerson = persistTaggedPerson("kotlin");
+    FetchProfile profile = FetchProfile.named("person-with-tags").eager(TaggedPerson.class, "tags");
+    SessionFactory sessionFactory = createSessionFactory();
+    Statistics statistics = sessionFactory.getStatistics();
+    statistics.setEnabled(true);
+
+    // Act
+    List<TaggedPerson> found;
+    try (Session profileSession = sessionFactory.openSession()) {
+      found = profileSession.executeNativeQuery("select * from persons where id in (%s, %s)".formatted(
+          firstPerson.getId(), secondPerson.getId()), TaggedPerson.class, profile);
+    }
+
+    // Assert
+    assertThat(found).hasSize(2).anySatisfy(foundPerson -> assertThat(foundPerson.getTags())
+        .extracting(Tag::getName).containsExactlyInAnyOrder("java", "sql"))
+        .anySatisfy(foundPerson -> assertThat(foundPerson.getTags())
+            .extracting(Tag::getName).containsExactly("kotlin"));
+    assertThat(statistics.getQueries())
+        .filteredOn(sql -> sql.contains("person_tags"))
+        .singleElement()
+        .satisfies(sql -> assertThat(sql).contains(" IN ("))
+        .satisfies(sql -> assertThat(statistics.getQueryStatistics(sql).getCount()).isEqualTo(1));
+    assertThat(statistics.getLazyInitializationCount()).isZero();
+  }
+
+  @Test
+  void givenNotManagedPerson_whenSetReadOnly_thenThrowEntityIsNotManagedException() {
+    Person notManagedPerson = new Person();
+    notManagedPerson.setId(-1L);
+
+    assertThatThrownBy(() -> session.setReadOnly(notManagedPerson, true))
+        .isInstanceOf(EntityIsNotManagedException.class);
+  }
+
+  @Test
+  @DisplayName("Session emits JFR events for queries, hydration, flushes, dirty checking and lazy loads")
+  void givenFlightRecording_whenUseSession_thenEmitEvents() throws Exception {
+    // Arrange
+    Note createdNote = prepareRandomNote(person);
+    Path recordingFile = Files.createTempFile("bibernate", ".jfr");
+    List<RecordedEvent> events;
+
+    // Act
+    try (Recording recording = new Recording()) {
+      List.of("Query", "Hydration", "Flush", "DirtyCheck", "LazyLoad")
+          .forEach(event -> recording.enable("com.breskul.bibernate." + event));
+      recording.start();
+      Person foundPerson = session.findById(Person.class, person.getId());
+      foundPerson.setFirstName("Mike");
+      session.flush();
+      LazyNote lazyNote = session.findById(LazyNote.class, createdNote.getId());
+      lazyNote.getPerson().getFirstName();
+      recording.stop();
+      recording.dump(recordingFile);
+      events = RecordingFile.readAllEvents(recordingFile);
+    } finally {
+      Files.deleteIfExists(recordingFile);
+    }
+
+    // Assert
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.breskul.bibernate.Query");
+      assertThat(event.getString("sql")).startsWith("UPDATE persons SET");
+      assertThat(event.getClass("entityClass").getName()).isEqualTo(Person.class.getName());
+      assertThat(event.getLong("rowCount")).isEqualTo(1);
+    });
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.breskul.bibernate.Hydration");
+      assertThat(event.getClass("entityClass").getName()).isEqualTo(Person.class.getName());
+      assertThat(event.getLong("rowCount")).isEqualTo(1);
+    });
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.breskul.bibernate.DirtyCheck");
+      assertThat(event.getLong("dirtyCount")).isEqualTo(1);
+    });
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.breskul.bibernate.Flush");
+      assertThat(event.getLong("actionCount")).isEqualTo(1);
+    });
+    assertThat(events).anySatisfy(event -> {
+      assertThat(event.getEventType().getName()).isEqualTo("com.breskul.bibernate.LazyLoad");
+      assertThat(event.getClass("entityClass").getName()).isEqualTo(LazyNote.class.getName());
+      assertThat(event.getString("association")).isEqualTo("person");
+    });
+  }
+
   private Person prepareRandomPerson() {
     long id = ids.incrementAndGet();
     Person person = new Person();
@@ -238,4 +1226,23 @@ class SessionIntegrationTest extends AbstractIntegrationTest {
     createNote(note);
     return note;
   }
+
+  /**
+   * Creates a session factory which is closed after the test, so its connection pool does not outlive the test.
+   */
+  private SessionFactory createSessionFactory() {
+    SessionFactory sessionFactory = Persistence.createSessionFactory();
+    sessionFactories.add(sessionFactory);
+    return sessionFactory;
+  }
+
+  private TaggedPerson persistTaggedPerson(String... tagNames) {
+    TaggedPerson taggedPerson = new TaggedPerson("John");
+    for (String tagName : tagNames) {
+      taggedPerson.getTags().add(new Tag(tagName));
+    }
+    session.persist(taggedPerson);
+    session.flush();
+    return taggedPerson;
+  }
 }
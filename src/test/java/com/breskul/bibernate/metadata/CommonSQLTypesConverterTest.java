@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import java.lang.reflect.Field;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.sql.Timestamp;
 
 
 class CommonSQLTypesConverterTest {
@@ -118,6 +119,20 @@ class CommonSQLTypesConverterTest {
         assertThat(dataType.getName()).isEqualTo("BOOLEAN");
     }
 
+    @Test
+    void given_Short_when_getSQLType_than_correctSQLType() throws NoSuchFieldException {
+        Field field = TestClass.class.getDeclaredField("varShort");
+        DataType dataType = CommonSQLTypesConverter.getSQLType(field);
+        assertThat(dataType.getName()).isEqualTo("SMALLINT");
+    }
+
+    @Test
+    void given_Timestamp_when_getSQLType_than_correctSQLType() throws NoSuchFieldException {
+        Field field = TestClass.class.getDeclaredField("varTimestamp");
+        DataType dataType = CommonSQLTypesConverter.getSQLType(field);
+        assertThat(dataType.getName()).isEqualTo("TIMESTAMP");
+    }
+
     @Test
     void given_doubleWithLowPrecision_when_getSQLType_than_returnRealType() throws NoSuchFieldException {
         Field field = AnnotatedColumnsClass.class.getDeclaredField("varDouble");
@@ -189,5 +204,7 @@ class CommonSQLTypesConverterTest {
         public BigInteger varBigInteger;
         public byte[] varByteArray;
         public Boolean varBoolean;
+        public Short varShort;
+        public Timestamp varTimestamp;
     }
 }
\ No newline at end of file
@@ -4,10 +4,12 @@ package com.breskul.bibernate.metadata;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.breskul.bibernate.metadata.dto.ForeignKey;
+import com.breskul.bibernate.metadata.dto.TableIndex;
 import com.breskul.bibernate.metadata.tables.Entity1;
 import com.breskul.bibernate.metadata.tables.Entity2;
 import com.breskul.bibernate.metadata.tables.Entity3;
 import com.breskul.bibernate.metadata.tables.Entity4;
+import com.breskul.bibernate.metadata.tables.Entity5;
 import com.breskul.bibernate.util.EntityUtil;
 import java.lang.reflect.Field;
 import java.util.Set;
@@ -162,4 +164,64 @@ class EntitiesMetadataPersistenceTest {
     assertThat(foreignKeyOpposite.getConstraintName()).startsWith("FK");
   }
 
-}
\ No newline at end of file
+  @Test
+  public void given_sameEntities_when_createMetadataTwice_then_foreignKeyNamesAreEqual() {
+    EntitiesMetadataPersistence anotherMetadataPersistence = EntitiesMetadataPersistence.createInstance(
+        () -> Set.of(Entity1.class, Entity2.class, Entity3.class, Entity4.class));
+    String joinColumnName = EntityUtil.getJoinColumnName(Entity2.class, Entity3.class);
+
+    ForeignKey foreignKey = entitiesMetadataPersistence.getTable(TABLE_TWO_NAME).getForeignKey(joinColumnName);
+    ForeignKey sameForeignKey = anotherMetadataPersistence.getTable(TABLE_TWO_NAME).getForeignKey(joinColumnName);
+
+    assertThat(foreignKey.getConstraintName()).isEqualTo("FK_%s_%s".formatted(TABLE_TWO_NAME, joinColumnName));
+    assertThat(sameForeignKey.getConstraintName()).isEqualTo(foreignKey.getConstraintName());
+  }
+
+  @Test
+  public void given_indexInTableAnnotation_when_convertEntityToTable_then_createDeclaredIndex() {
+    Table table = entitiesMetadataPersistence.getTable(TABLE_ONE_NAME);
+
+    TableIndex index = table.getIndex("ent_one_name_idx");
+
+    assertThat(index).isNotNull();
+    assertThat(index.getColumnNames()).containsExactly("name_from_col");
+    assertThat(index.isUnique()).isTrue();
+  }
+
+  @Test
+  public void given_joinColumns_when_convertEntityToTable_then_indexOnlyNotUniqueJoinColumns() {
+    Table manyToOneTable = entitiesMetadataPersistence.getTable(TABLE_TWO_NAME);
+    Table oneToOneTable = entitiesMetadataPersistence.getTable(TABLE_ONE_NAME);
+    String joinColumnName = EntityUtil.getJoinColumnName(Entity2.class, Entity3.class);
+
+    TableIndex index = manyToOneTable.getIndex("IDX_%s_%s".formatted(TABLE_TWO_NAME, joinColumnName));
+
+    assertThat(index).isNotNull();
+    assertThat(index.getColumnNames()).containsExactly(joinColumnName);
+    assertThat(index.isUnique()).isFalse();
+    assertThat(oneToOneTable.getIndexes()).extracting(TableIndex::getIndexName)
+        .containsExactly("ent_one_name_idx");
+  }
+
+  @Test
+  public void given_manyToManyField_when_convertEntityToTable_then_createJoinTable() {
+    EntitiesMetadataPersistence manyToManyMetadataPersistence = EntitiesMetadataPersistence.createInstance(
+        () -> Set.of(Entity3.class, Entity5.class));
+
+    Table joinTable = manyToManyMetadataPersistence.getTable("ent_five_ent_tree");
+
+    assertThat(joinTable).isNotNull();
+    assertThat(joinTable.getColumns()).extracting(Column::getName).containsExactly("entity5_id", "entity3_id");
+    assertThat(joinTable.getColumn("entity5_id").getJavaType()).isEqualTo(Long.class);
+    assertThat(joinTable.getColumn("entity3_id").getJavaType()).isEqualTo(Integer.class);
+    assertThat(joinTable.getColumn("entity3_id").isNullable()).isFalse();
+    assertThat(joinTable.getForeignKey("entity5_id").getRelatedTableName()).isEqualTo("ent_five");
+    assertThat(joinTable.getForeignKey("entity3_id").getRelatedTableName()).isEqualTo(TABLE_THREE_NAME);
+    assertThat(joinTable.getIndexes())
+        .anySatisfy(index -> {
+          assertThat(index.getColumnNames()).containsExactly("entity5_id", "entity3_id");
+          assertThat(index.isUnique()).isTrue();
+        })
+        .anySatisfy(index -> assertThat(index.getColumnNames()).containsExactly("entity3_id"));
+  }
+}
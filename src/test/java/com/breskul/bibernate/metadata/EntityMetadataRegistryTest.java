@@ -0,0 +1,74 @@
+package com.breskul.bibernate.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.FetchType;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.ManyToOne;
+import com.breskul.bibernate.data.Note;
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.metadata.dto.RelationMetadata;
+import com.breskul.bibernate.metadata.tables.Entity1;
+import com.breskul.bibernate.util.EntityUtil;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+
+class EntityMetadataRegistryTest {
+
+  @Test
+  void givenEntityCompiledWithProcessor_whenFind_thenReturnGeneratedMetadata() {
+    Optional<GeneratedEntityMetadata> metadata = EntityMetadataRegistry.find(Note.class);
+
+    assertThat(metadata).isPresent();
+    assertThat(metadata.get().getEntityClass()).isEqualTo(Note.class);
+    assertThat(metadata.get().getTableName()).isEqualTo("notes");
+    assertThat(metadata.get().getIdFieldName()).isEqualTo("id");
+    assertThat(metadata.get().getIdColumnName()).isEqualTo("id");
+    assertThat(metadata.get().getColumnNames()).containsExactly("id", "title", "body", "person_id");
+    assertThat(metadata.get().getSelectColumns()).isEqualTo("id, title, body, person_id");
+  }
+
+  @Test
+  void givenEntityWithOverriddenColumnNames_whenFind_thenColumnNamesResolvedAsByReflection() {
+    GeneratedEntityMetadata metadata = EntityMetadataRegistry.find(Entity1.class).orElseThrow();
+
+    assertThat(metadata.getColumnNames()).containsExactlyElementsOf(
+        EntityUtil.getClassColumnFields(Entity1.class).stream()
+            .map(EntityUtil::resolveColumnName)
+            .toList());
+    assertThat(metadata.getIdColumnName()).isEqualTo(
+        EntityUtil.resolveColumnName(EntityUtil.findEntityIdField(Entity1.class)));
+  }
+
+  @Test
+  void givenEntityCompiledWithProcessor_whenGetId_thenReadIdWithGeneratedAccessor() {
+    Note note = new Note();
+    note.setId(5L);
+
+    assertThat(EntityMetadataRegistry.find(Note.class).orElseThrow().getId(note)).isEqualTo(5L);
+    assertThat(EntityMetadataRegistry.getEntityClasses()).contains(Note.class, Person.class);
+  }
+
+  @Test
+  void givenEntityWithRelations_whenFind_thenReturnRelationDescriptors() {
+    GeneratedEntityMetadata metadata = EntityMetadataRegistry.find(Note.class).orElseThrow();
+
+    assertThat(metadata.getRelations()).containsExactly(
+        new RelationMetadata("person", ManyToOne.class, Person.class, "person_id", "", FetchType.EAGER));
+    assertThat(metadata.getRelations().get(0).isToOne()).isTrue();
+  }
+
+  @Test
+  void givenPrivateNestedEntity_whenFind_thenReturnEmpty() {
+    assertThat(EntityMetadataRegistry.find(PrivateEntity.class)).isEmpty();
+    assertThat(EntityUtil.getEntityTableName(PrivateEntity.class)).isEqualTo("Private_Entity");
+  }
+
+  @Entity
+  private static class PrivateEntity {
+
+    @Id
+    private Long id;
+  }
+}
@@ -3,13 +3,14 @@ package com.breskul.bibernate.metadata.tables;
 import com.breskul.bibernate.annotation.Column;
 import com.breskul.bibernate.annotation.Entity;
 import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.Index;
 import com.breskul.bibernate.annotation.OneToOne;
 import com.breskul.bibernate.annotation.Table;
 import lombok.Data;
 
 @Data
 @Entity
-@Table(name = "ent_one")
+@Table(name = "ent_one", indexes = @Index(name = "ent_one_name_idx", columnList = "name_from_col", unique = true))
 public class Entity1 {
   @Id
   private Long id;
@@ -0,0 +1,19 @@
+package com.breskul.bibernate.metadata.tables;
+
+import com.breskul.bibernate.annotation.Entity;
+import com.breskul.bibernate.annotation.Id;
+import com.breskul.bibernate.annotation.ManyToMany;
+import com.breskul.bibernate.annotation.Table;
+import java.util.Set;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "ent_five")
+public class Entity5 {
+  @Id
+  private Long id;
+
+  @ManyToMany
+  private Set<Entity3> entities3;
+}
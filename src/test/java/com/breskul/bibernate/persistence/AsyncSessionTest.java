@@ -0,0 +1,94 @@
+package com.breskul.bibernate.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.inOrder;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.exception.BibernateException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class AsyncSessionTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+  @Mock
+  private Session session;
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void givenSubmittedOperations_whenCompleted_thenExecutedInSubmissionOrder() {
+    // Arrange
+    Person person = new Person();
+    given(session.findById(Person.class, 1L)).willReturn(person);
+    given(session.executeBiQLQuery("from Person", Person.class)).willReturn(List.of(person));
+    AsyncSession asyncSession = new AsyncSession(() -> session, executor);
+
+    // Act
+    CompletableFuture<Void> persisted = asyncSession.persist(person);
+    CompletableFuture<Person> found = asyncSession.findById(Person.class, 1L);
+    CompletableFuture<Void> flushed = asyncSession.flush();
+    CompletableFuture<List<Person>> queried = asyncSession.executeBiQLQuery("from Person", Person.class);
+    asyncSession.close();
+
+    // Assert
+    assertThat(persisted).isDone();
+    assertThat(flushed).isDone();
+    assertThat(found.join()).isSameAs(person);
+    assertThat(queried.join()).containsExactly(person);
+    InOrder order = inOrder(session);
+    order.verify(session).persist(person);
+    order.verify(session).findById(Person.class, 1L);
+    order.verify(session).flush();
+    order.verify(session).executeBiQLQuery("from Person", Person.class);
+    order.verify(session).close();
+  }
+
+  @Test
+  void givenFailedOperation_whenNextOperationSubmitted_thenNextOperationStillExecuted() {
+    // Arrange
+    given(session.findById(Person.class, 1L)).willThrow(new BibernateException("Not found"));
+    given(session.findById(Person.class, 2L)).willReturn(new Person());
+    AsyncSession asyncSession = new AsyncSession(() -> session, executor);
+
+    // Act
+    CompletableFuture<Person> failed = asyncSession.findById(Person.class, 1L);
+    CompletableFuture<Person> found = asyncSession.findById(Person.class, 2L);
+
+    // Assert
+    assertThatThrownBy(failed::join)
+        .isInstanceOf(CompletionException.class)
+        .hasCauseInstanceOf(BibernateException.class);
+    assertThat(found.join()).isNotNull();
+  }
+
+  @Test
+  void givenSessionNotOpened_whenOperationSubmitted_thenOperationFailsAndCloseDoesNotThrow() {
+    AsyncSession asyncSession = new AsyncSession(() -> {
+      throw new BibernateException("Failed to open session");
+    }, executor);
+
+    assertThatThrownBy(() -> asyncSession.findById(Person.class, 1L).join())
+        .hasCauseInstanceOf(BibernateException.class)
+        .hasRootCauseMessage("Failed to open session");
+    asyncSession.close();
+    then(session).shouldHaveNoInteractions();
+  }
+}
@@ -0,0 +1,124 @@
+package com.breskul.bibernate.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.breskul.bibernate.data.LazyNote;
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+class QueryLogTest {
+
+  private static final String SQL = "SELECT id FROM persons WHERE first_name = ?";
+
+  private final Logger logger = (Logger) LoggerFactory.getLogger(QueryLog.class);
+  private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+
+  @BeforeEach
+  void setUp() {
+    appender.start();
+    logger.addAppender(appender);
+  }
+
+  @AfterEach
+  void tearDown() {
+    logger.detachAppender(appender);
+  }
+
+  @Test
+  void given_queryAboveThreshold_when_queryExecuted_then_logSqlParametersDurationAndRows() {
+    QueryLog queryLog = new QueryLog(new QueryLogProperties(10, false, 0));
+
+    queryLog.queryExecuted(SQL, new Object[]{"Mike"}, TimeUnit.MILLISECONDS.toNanos(25), 3);
+
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .isEqualTo("Bibernate, slow query: [%s], parameters: [Mike], duration: 25 ms, rows: 3".formatted(SQL));
+  }
+
+  @Test
+  void given_maskedParameters_when_queryExecuted_then_hideParameterValues() {
+    QueryLog queryLog = new QueryLog(new QueryLogProperties(10, true, 0));
+
+    queryLog.queryExecuted(SQL, new Object[]{"Mike", 5L}, TimeUnit.MILLISECONDS.toNanos(25), 1);
+
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .asString()
+        .contains("parameters: [***, ***]")
+        .doesNotContain("Mike");
+  }
+
+  @Test
+  void given_queryBelowThreshold_when_queryExecuted_then_notLog() {
+    QueryLog queryLog = new QueryLog(new QueryLogProperties(10, false, 0));
+
+    queryLog.queryExecuted(SQL, new Object[]{"Mike"}, TimeUnit.MILLISECONDS.toNanos(5), 1);
+
+    assertThat(appender.list).isEmpty();
+  }
+
+  @Test
+  @SneakyThrows
+  void given_sameShapeExecutedByLazyLoads_when_thresholdExceeded_then_warnOnceWithAssociation() {
+    // Arrange
+    QueryLog queryLog = new QueryLog(new QueryLogProperties(0, false, 2));
+    Field association = LazyNote.class.getDeclaredField("person");
+
+    // Act
+    queryLog.lazyLoadQueryExecuted(association, "SELECT id, first_name FROM persons WHERE id IN (?)");
+    queryLog.lazyLoadQueryExecuted(association, "SELECT id, first_name FROM persons WHERE id IN (?, ?)");
+    queryLog.lazyLoadQueryExecuted(association, "SELECT id, first_name FROM persons WHERE id IN (?)");
+    queryLog.lazyLoadQueryExecuted(association, "SELECT id, first_name FROM persons WHERE id IN (?)");
+
+    // Assert
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .isEqualTo("Bibernate, possible N+1 select: [SELECT id, first_name FROM persons WHERE id IN (?)] executed more than 2 times "
+            + "to lazily load [LazyNote.person] association, consider an eager fetch profile for it");
+  }
+
+  @Test
+  @SneakyThrows
+  void given_lazyLoadsOnSeveralThreads_when_thresholdExceeded_then_countEveryExecutionAndWarnOnce() {
+    // Arrange
+    QueryLog queryLog = new QueryLog(new QueryLogProperties(0, false, 3999));
+    Field association = LazyNote.class.getDeclaredField("person");
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // Act
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int thread = 0; thread < 8; thread++) {
+        futures.add(executor.submit(() -> {
+          for (int i = 0; i < 500; i++) {
+            queryLog.lazyLoadQueryExecuted(association, SQL);
+          }
+        }));
+      }
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // Assert
+    assertThat(appender.list).singleElement()
+        .extracting(ILoggingEvent::getFormattedMessage)
+        .asString()
+        .contains("executed more than 3999 times");
+  }
+}
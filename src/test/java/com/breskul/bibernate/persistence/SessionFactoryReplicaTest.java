@@ -0,0 +1,244 @@
+package com.breskul.bibernate.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.exception.BibernateException;
+import com.breskul.bibernate.persistence.datasource.BibernateDataSource;
+import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.ReplicaRouter;
+import com.breskul.bibernate.persistence.datasource.ReplicaRouter.Replica;
+import com.breskul.bibernate.persistence.datasource.ReplicaRouting;
+import com.breskul.bibernate.persistence.datasource.connectionpools.CentralConnectionPoolFactory;
+import com.breskul.bibernate.persistence.dialect.H2Dialect;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.Driver;
+import java.sql.DriverManager;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Properties;
+import java.util.logging.Logger;
+import javax.sql.DataSource;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class SessionFactoryReplicaTest {
+
+  private BibernateDataSource primary;
+  private BibernateDataSource firstReplica;
+  private BibernateDataSource secondReplica;
+  private SessionFactory sessionFactory;
+
+  @BeforeEach
+  void setUp() {
+    primary = createDatabase("primary_db", "Primary");
+    firstReplica = createDatabase("replica_db_1", "Replica1");
+    secondReplica = createDatabase("replica_db_2", "Replica2");
+    ReplicaRouter router = new ReplicaRouter(
+        List.of(new Replica(firstReplica, null), new Replica(secondReplica, null)), ReplicaRouting.ROUND_ROBIN);
+    sessionFactory = new SessionFactory(primary, new H2Dialect(), false, null, router,
+        new BibernateStatistics(false), QueryLogProperties.disabled());
+  }
+
+  @AfterEach
+  void tearDown() {
+    for (BibernateDataSource dataSource : List.of(primary, firstReplica, secondReplica)) {
+      execute(dataSource, "DROP ALL OBJECTS");
+      dataSource.close();
+    }
+  }
+
+  @Test
+  @DisplayName("Read-only sessions use replicas in turn, other sessions use the primary database")
+  @SneakyThrows
+  void givenReplicas_whenOpenSessions_thenRouteReadOnlySessionsToReplicas() {
+    assertThat(findPersonFirstName(sessionFactory.openReadOnlySession())).isEqualTo("Replica1");
+    assertThat(findPersonFirstName(sessionFactory.openReadOnlySession())).isEqualTo("Replica2");
+    assertThat(findPersonFirstName(sessionFactory.openReadOnlySession())).isEqualTo("Replica1");
+    assertThat(findPersonFirstName(sessionFactory.openSession())).isEqualTo("Primary");
+  }
+
+  @Test
+  @DisplayName("Read-only session rejects writes and does not flush changes")
+  @SneakyThrows
+  void givenReadOnlySession_whenWrite_thenThrowAndKeepReplicaUnchanged() {
+    try (Session session = sessionFactory.openReadOnlySession()) {
+      Person person = session.findById(Person.class, 1L);
+      person.setFirstName("Changed");
+
+      assertThat(session.isReadOnly()).isTrue();
+      assertThatThrownBy(() -> session.persist(new Person()))
+          .isInstanceOf(BibernateException.class)
+          .hasMessage("Session is read-only");
+      assertThatThrownBy(() -> session.delete(person))
+          .isInstanceOf(BibernateException.class)
+          .hasMessage("Session is read-only");
+      session.flush();
+    }
+
+    assertThat(findPersonFirstName(sessionFactory.openReadOnlySession())).isEqualTo("Replica2");
+    assertThat(findPersonFirstName(sessionFactory.openReadOnlySession())).isEqualTo("Replica1");
+  }
+
+  @Test
+  @DisplayName("Read-only session returns its pooled connection read-write, so the next session can write")
+  @SneakyThrows
+  void givenBuiltInPool_whenReadOnlySessionClosed_thenNextSessionCanWrite() {
+    PersistenceProperties properties = new PersistenceProperties(
+        "jdbc:readonly:mem:read_only_db;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/init.sql'", "sa", "",
+        ReadOnlyEnforcingDriver.class.getName(), "Bibernate", null, false);
+    BibernateDataSource dataSource = (BibernateDataSource) CentralConnectionPoolFactory.getConnectionPoolFactory(properties.type())
+        .createDataSource(properties);
+    SessionFactory primaryOnlySessionFactory = new SessionFactory(dataSource, new H2Dialect(), false);
+    try {
+      try (Session session = primaryOnlySessionFactory.openReadOnlySession()) {
+        assertThat(session.findById(Person.class, 1L)).isNull();
+      }
+
+      try (Session session = primaryOnlySessionFactory.openSession()) {
+        session.persist(new Person("John", "Doe"));
+      }
+
+      try (Session session = primaryOnlySessionFactory.openReadOnlySession()) {
+        assertThat(session.findById(Person.class, 1L).getFirstName()).isEqualTo("John");
+      }
+    } finally {
+      execute(dataSource, "DROP ALL OBJECTS");
+      dataSource.close();
+    }
+  }
+
+  @Test
+  @DisplayName("Closing the session factory closes the pools of the primary database and of the replicas")
+  void givenSessionFactoryWithReplica_whenClose_thenSessionsCannotBeOpened() {
+    BibernateDataSource primaryPool = openDatabase("primary_db");
+    BibernateDataSource replicaPool = openDatabase("replica_db_1");
+    SessionFactory closedSessionFactory = new SessionFactory(primaryPool, new H2Dialect(), false, null,
+        new ReplicaRouter(List.of(new Replica(replicaPool, null)), ReplicaRouting.ROUND_ROBIN),
+        new BibernateStatistics(false), QueryLogProperties.disabled());
+
+    closedSessionFactory.close();
+
+    assertThatThrownBy(closedSessionFactory::openSession)
+        .isInstanceOf(SQLException.class)
+        .hasMessage("Bibernate connection pool is closed");
+    assertThatThrownBy(closedSessionFactory::openReadOnlySession)
+        .isInstanceOf(SQLException.class)
+        .hasMessage("Bibernate connection pool is closed");
+  }
+
+  private static String findPersonFirstName(Session session) {
+    try (session) {
+      return session.findById(Person.class, 1L).getFirstName();
+    }
+  }
+
+  private static BibernateDataSource createDatabase(String name, String firstName) {
+    BibernateDataSource dataSource = openDatabase(name);
+    execute(dataSource, "insert into persons (id, first_name, last_name) values (1, '%s', 'Doe')".formatted(firstName));
+    return dataSource;
+  }
+
+  private static BibernateDataSource openDatabase(String name) {
+    PersistenceProperties properties = new PersistenceProperties(
+        "jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1;INIT=RUNSCRIPT FROM 'classpath:db/init.sql'".formatted(name), "sa", "", null, null, null, false);
+    return new BibernateDataSource().createDataSource(properties);
+  }
+
+  @SneakyThrows
+  private static void execute(DataSource dataSource, String sql) {
+    try (Connection connection = dataSource.getConnection();
+        Statement statement = connection.createStatement()) {
+      statement.execute(sql);
+    }
+  }
+
+  /**
+   * H2 ignores the read-only flag of a connection, this driver rejects writes through a read-only connection like PostgreSQL does.
+   */
+  public static class ReadOnlyEnforcingDriver implements Driver {
+
+    private static final String URL_PREFIX = "jdbc:readonly:";
+
+    static {
+      try {
+        DriverManager.registerDriver(new ReadOnlyEnforcingDriver());
+      } catch (SQLException e) {
+        throw new ExceptionInInitializerError(e);
+      }
+    }
+
+    @Override
+    public Connection connect(String url, Properties info) throws SQLException {
+      if (!acceptsURL(url)) {
+        return null;
+      }
+      Connection connection = DriverManager.getConnection("jdbc:h2:" + url.substring(URL_PREFIX.length()), info);
+      boolean[] readOnly = {false};
+      return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+          (proxy, method, args) -> {
+            switch (method.getName()) {
+              case "setReadOnly" -> {
+                readOnly[0] = (boolean) args[0];
+                return null;
+              }
+              case "isReadOnly" -> {
+                return readOnly[0];
+              }
+              case "prepareStatement" -> {
+                if (readOnly[0] && !((String) args[0]).stripLeading().toUpperCase().startsWith("SELECT")) {
+                  throw new SQLException("cannot execute statement in a read-only transaction");
+                }
+              }
+              default -> {
+              }
+            }
+            try {
+              return method.invoke(connection, args);
+            } catch (InvocationTargetException e) {
+              throw e.getCause();
+            }
+          });
+    }
+
+    @Override
+    public boolean acceptsURL(String url) {
+      return url.startsWith(URL_PREFIX);
+    }
+
+    @Override
+    public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) {
+      return new DriverPropertyInfo[0];
+    }
+
+    @Override
+    public int getMajorVersion() {
+      return 1;
+    }
+
+    @Override
+    public int getMinorVersion() {
+      return 0;
+    }
+
+    @Override
+    public boolean jdbcCompliant() {
+      return false;
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+      throw new SQLFeatureNotSupportedException();
+    }
+  }
+}
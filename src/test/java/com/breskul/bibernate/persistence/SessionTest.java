@@ -2,15 +2,28 @@ package com.breskul.bibernate.persistence;
 
 import static com.breskul.bibernate.transaction.TransactionStatus.NOT_ACTIVE;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.exception.EntityQueryException;
+import com.breskul.bibernate.persistence.dialect.PostgresDialect;
 import com.breskul.bibernate.transaction.Transaction;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -21,6 +34,12 @@ class SessionTest {
   private DataSource dataSource;
   @Mock
   private Connection connection;
+  @Mock
+  private Statement statement;
+  @Mock
+  private PreparedStatement preparedStatement;
+  @Mock
+  private ResultSet resultSet;
 
   private Session session;
 
@@ -57,4 +76,37 @@ class SessionTest {
     assertThat(transaction).isNotSameAs(transaction1);
     assertThat(transaction1.getStatus()).isEqualTo(NOT_ACTIVE);
   }
-}
\ No newline at end of file
+
+  @Test
+  void givenLockTimeoutInTransaction_whenFindById_thenResetLockTimeoutAfterLockingSelect() throws SQLException {
+    // Arrange
+    Session postgresSession = new Session(dataSource, new PostgresDialect(), false);
+    when(connection.createStatement()).thenReturn(statement);
+    when(connection.prepareStatement(anyString())).thenReturn(preparedStatement);
+    when(preparedStatement.executeQuery()).thenReturn(resultSet);
+    LockOptions lockOptions = LockOptions.of(LockType.PESSIMISTIC_WRITE).timeout(Duration.ofMillis(1500));
+
+    // Act
+    postgresSession.findById(Person.class, 1L, lockOptions);
+
+    // Assert
+    InOrder order = inOrder(statement, preparedStatement);
+    order.verify(statement).execute("SET LOCAL lock_timeout = 1500");
+    order.verify(preparedStatement).executeQuery();
+    order.verify(statement).execute("SET LOCAL lock_timeout = DEFAULT");
+  }
+
+  @Test
+  void givenLockTimeoutInAutoCommit_whenFindById_thenThrowEntityQueryException() throws SQLException {
+    // Arrange
+    Session postgresSession = new Session(dataSource, new PostgresDialect(), false);
+    when(connection.getAutoCommit()).thenReturn(true);
+    LockOptions lockOptions = LockOptions.of(LockType.PESSIMISTIC_WRITE).timeout(Duration.ofMillis(1500));
+
+    // Act & Assert
+    assertThatThrownBy(() -> postgresSession.findById(Person.class, 1L, lockOptions))
+        .isInstanceOf(EntityQueryException.class)
+        .hasMessageContaining("outside a transaction");
+    verify(connection, never()).createStatement();
+  }
+}
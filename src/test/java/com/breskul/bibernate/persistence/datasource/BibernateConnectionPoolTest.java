@@ -0,0 +1,176 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BibernateConnectionPoolTest {
+
+  private final List<Connection> physicalConnections = new ArrayList<>();
+  private BibernateConnectionPool pool;
+
+  @AfterEach
+  void tearDown() {
+    if (pool != null) {
+      pool.close();
+    }
+  }
+
+  @Test
+  @SneakyThrows
+  void given_returnedConnection_when_getConnection_then_reusePhysicalConnection() {
+    // Arrange
+    pool = createPool(new PoolProperties(2, 0, 100, 60_000, 60_000, 0, 0, null));
+
+    // Act
+    Connection first = pool.getConnection();
+    first.close();
+    Connection second = pool.getConnection();
+
+    // Assert
+    assertThat(physicalConnections).hasSize(1);
+    assertThat(first.isClosed()).isTrue();
+    assertThat(second.isClosed()).isFalse();
+    assertThat(pool.getActiveConnections()).isEqualTo(1);
+    assertThat(pool.getIdleConnections()).isZero();
+    then(physicalConnections.get(0)).should(never()).close();
+  }
+
+  @Test
+  @SneakyThrows
+  void given_closedConnection_when_useIt_then_throwSQLException() {
+    pool = createPool(new PoolProperties(1, 0, 100, 60_000, 60_000, 0, 0, null));
+    Connection connection = pool.getConnection();
+    connection.close();
+
+    assertThatThrownBy(connection::createStatement)
+        .isInstanceOf(SQLException.class)
+        .hasMessage("Connection is closed");
+  }
+
+  @Test
+  @SneakyThrows
+  void given_exhaustedPool_when_getConnection_then_throwAfterConnectionTimeout() {
+    // Arrange
+    pool = createPool(new PoolProperties(1, 0, 50, 60_000, 60_000, 0, 0, null));
+    pool.getConnection();
+
+    // Act & Assert
+    assertThatThrownBy(pool::getConnection)
+        .isInstanceOf(SQLTransientConnectionException.class)
+        .hasMessage("Connection is not available, request timed out after 50 ms (active: 1, maximum: 1)");
+    assertThat(physicalConnections).hasSize(1);
+  }
+
+  @Test
+  @SneakyThrows
+  void given_connectionReachedMaxLifetime_when_returned_then_closePhysicalConnection() {
+    // Arrange
+    pool = createPool(new PoolProperties(1, 0, 100, 60_000, 1, 0, 0, null));
+    Connection connection = pool.getConnection();
+    Thread.sleep(5);
+
+    // Act
+    connection.close();
+    pool.getConnection();
+
+    // Assert
+    assertThat(physicalConnections).hasSize(2);
+    then(physicalConnections.get(0)).should().close();
+  }
+
+  @Test
+  @SneakyThrows
+  void given_brokenIdleConnection_when_getConnection_then_openNewConnection() {
+    // Arrange
+    pool = createPool(new PoolProperties(1, 0, 100, 60_000, 60_000, 0, 0, null));
+    pool.getConnection().close();
+    given(physicalConnections.get(0).isValid(anyInt())).willReturn(false);
+    Thread.sleep(BibernateConnectionPool.VALIDATION_BYPASS_MILLIS + 50);
+
+    // Act
+    pool.getConnection();
+
+    // Assert
+    assertThat(physicalConnections).hasSize(2);
+    then(physicalConnections.get(0)).should().close();
+  }
+
+  @Test
+  @SneakyThrows
+  void given_notFinishedTransaction_when_connectionReturned_then_rollbackAndRestoreAutoCommit() {
+    // Arrange
+    pool = createPool(new PoolProperties(1, 0, 100, 60_000, 60_000, 0, 0, null));
+    Connection connection = pool.getConnection();
+    given(physicalConnections.get(0).getAutoCommit()).willReturn(false);
+
+    // Act
+    connection.close();
+
+    // Assert
+    then(physicalConnections.get(0)).should().rollback();
+    then(physicalConnections.get(0)).should().setAutoCommit(true);
+    assertThat(pool.getIdleConnections()).isEqualTo(1);
+  }
+
+  @Test
+  @SneakyThrows
+  void given_readOnlyConnection_when_connectionReturned_then_restoreReadWrite() {
+    // Arrange
+    pool = createPool(new PoolProperties(1, 0, 100, 60_000, 60_000, 0, 0, null));
+    Connection connection = pool.getConnection();
+    given(physicalConnections.get(0).isReadOnly()).willReturn(true);
+
+    // Act
+    connection.close();
+
+    // Assert
+    then(physicalConnections.get(0)).should().setReadOnly(false);
+    assertThat(pool.getIdleConnections()).isEqualTo(1);
+  }
+
+  @Test
+  @SneakyThrows
+  void given_idleConnectionsAboveMinimum_when_evictIdleConnections_then_closeTimedOutConnections() {
+    // Arrange
+    pool = createPool(new PoolProperties(3, 1, 100, 1, 60_000, 0, 0, null));
+    Connection first = pool.getConnection();
+    Connection second = pool.getConnection();
+    Connection third = pool.getConnection();
+    first.close();
+    second.close();
+    third.close();
+    Thread.sleep(5);
+
+    // Act
+    pool.evictIdleConnections();
+
+    // Assert
+    assertThat(pool.getIdleConnections()).isEqualTo(1);
+    then(physicalConnections.get(0)).should().close();
+    then(physicalConnections.get(1)).should().close();
+    then(physicalConnections.get(2)).should(never()).close();
+  }
+
+  private BibernateConnectionPool createPool(PoolProperties poolProperties) {
+    return new BibernateConnectionPool(() -> {
+      Connection connection = mock(Connection.class);
+      given(connection.getAutoCommit()).willReturn(true);
+      physicalConnections.add(connection);
+      return connection;
+    }, poolProperties);
+  }
+}
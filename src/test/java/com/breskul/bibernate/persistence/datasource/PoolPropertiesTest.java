@@ -0,0 +1,45 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.breskul.bibernate.exception.InvalidPropertyValueException;
+import org.junit.jupiter.api.Test;
+
+class PoolPropertiesTest {
+
+  @Test
+  void given_noPoolProperties_when_fromProperties_then_useDefaultsDerivedFromCores() {
+    int expectedPoolSize = Runtime.getRuntime().availableProcessors() * 2 + 1;
+
+    PoolProperties pool = PoolProperties.fromProperties();
+
+    assertThat(pool.maximumPoolSize()).isEqualTo(expectedPoolSize);
+    assertThat(pool.minimumIdle()).isEqualTo(expectedPoolSize);
+    assertThat(pool.connectionTimeout()).isEqualTo(PoolProperties.DEFAULT_CONNECTION_TIMEOUT);
+    assertThat(pool.idleTimeout()).isEqualTo(PoolProperties.DEFAULT_IDLE_TIMEOUT);
+    assertThat(pool.maxLifetime()).isEqualTo(PoolProperties.DEFAULT_MAX_LIFETIME);
+    assertThat(pool.leakDetectionThreshold()).isZero();
+    assertThat(pool.statementCacheSize()).isZero();
+    assertThat(pool.prepareThreshold()).isNull();
+  }
+
+  @Test
+  void given_nullPoolProperties_when_orDefaults_then_returnDefaults() {
+    assertThat(PoolProperties.orDefaults(null)).isEqualTo(PoolProperties.defaults());
+  }
+
+  @Test
+  void given_notPositivePoolSize_when_create_then_throwInvalidPropertyValueException() {
+    assertThatThrownBy(() -> new PoolProperties(0, 0, 1, 1, 1, 0, 0, null))
+        .isInstanceOf(InvalidPropertyValueException.class)
+        .hasMessage("\"%s\" property value should be positive!".formatted(PoolProperties.MAXIMUM_POOL_SIZE));
+  }
+
+  @Test
+  void given_minimumIdleAboveMaximum_when_create_then_throwInvalidPropertyValueException() {
+    assertThatThrownBy(() -> new PoolProperties(2, 3, 1, 1, 1, 0, 0, null))
+        .isInstanceOf(InvalidPropertyValueException.class)
+        .hasMessage("\"%s\" property value should be between 0 and 2!".formatted(PoolProperties.MINIMUM_IDLE));
+  }
+}
@@ -0,0 +1,50 @@
+package com.breskul.bibernate.persistence.datasource;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+import com.breskul.bibernate.persistence.datasource.ReplicaRouter.Replica;
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class ReplicaRouterTest {
+
+  private final DataSource first = mock(DataSource.class);
+  private final DataSource second = mock(DataSource.class);
+  private final DataSource third = mock(DataSource.class);
+
+  @Test
+  void given_roundRobinRouting_when_select_then_useReplicasOneAfterAnother() {
+    ReplicaRouter router = new ReplicaRouter(
+        List.of(new Replica(first, null), new Replica(second, null), new Replica(third, null)), ReplicaRouting.ROUND_ROBIN);
+
+    List<DataSource> selected = List.of(router.select(), router.select(), router.select(), router.select());
+
+    assertThat(selected).containsExactly(first, second, third, first);
+  }
+
+  @Test
+  void given_leastConnectionsRouting_when_select_then_chooseReplicaWithFewestActiveConnections() {
+    ReplicaRouter router = new ReplicaRouter(List.of(new Replica(first, statistics(3)), new Replica(second, statistics(1)),
+        new Replica(third, statistics(1))), ReplicaRouting.LEAST_CONNECTIONS);
+
+    assertThat(router.select()).isSameAs(second);
+  }
+
+  @Test
+  void given_noReplicas_when_createRouter_then_throwIllegalArgumentException() {
+    assertThatThrownBy(() -> new ReplicaRouter(List.of(), ReplicaRouting.ROUND_ROBIN))
+        .isInstanceOf(IllegalArgumentException.class)
+        .hasMessage("At least one replica is required");
+  }
+
+  private static PoolStatistics statistics(int activeConnections) {
+    PoolStatistics statistics = mock(PoolStatistics.class);
+    given(statistics.getActiveConnections()).willReturn(activeConnections);
+    return statistics;
+  }
+}
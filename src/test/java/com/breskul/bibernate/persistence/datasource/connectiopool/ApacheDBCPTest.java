@@ -3,11 +3,14 @@ package com.breskul.bibernate.persistence.datasource.connectiopool;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
 import com.breskul.bibernate.persistence.datasource.connectionpools.ApacheDBCP;
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
 import org.apache.commons.dbcp2.BasicDataSource;
 import org.junit.jupiter.api.Test;
 
@@ -32,4 +35,27 @@ public class ApacheDBCPTest {
     assertEquals("testUser", basicDataSource.getUsername(), "Username should match the mock property");
     assertEquals("testPass", basicDataSource.getPassword(), "Password should match the mock property");
   }
+
+  @Test
+  void testCreateDataSourceWithPoolProperties() {
+    PersistenceProperties properties = new PersistenceProperties("jdbc:testdb:url", "testUser", "testPass", null, null, null, false,
+        new PoolProperties(7, 2, 5_000, 60_000, 120_000, 10_000, 50, 3));
+    ApacheDBCP apacheDBCP = new ApacheDBCP();
+
+    BasicDataSource dataSource = (BasicDataSource) apacheDBCP.createDataSource(properties);
+    PoolStatistics statistics = apacheDBCP.getStatistics(dataSource).orElseThrow();
+
+    assertEquals(7, dataSource.getMaxTotal());
+    assertEquals(2, dataSource.getMinIdle());
+    assertEquals(5_000, dataSource.getMaxWaitMillis());
+    assertEquals(60_000, dataSource.getMinEvictableIdleTimeMillis());
+    assertEquals(120_000, dataSource.getMaxConnLifetimeMillis());
+    assertTrue(dataSource.getRemoveAbandonedOnMaintenance(), "Leak detection should remove abandoned connections");
+    assertEquals(10, dataSource.getRemoveAbandonedTimeout());
+    assertTrue(dataSource.isPoolPreparedStatements(), "Statement cache should be enabled");
+    assertEquals(50, dataSource.getMaxOpenPreparedStatements());
+    assertEquals(7, statistics.getMaximumPoolSize());
+    assertEquals(0, statistics.getActiveConnections());
+    assertEquals(PoolStatistics.NOT_TRACKED, statistics.getThreadsAwaitingConnection());
+  }
 }
@@ -7,6 +7,7 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
 import com.breskul.bibernate.persistence.datasource.connectionpools.C3P0;
 import com.mchange.v2.c3p0.ComboPooledDataSource;
 import org.junit.jupiter.api.Test;
@@ -33,4 +34,23 @@ public class C3P0Test {
     assertEquals("testUser", comboPooledDataSource.getUser(), "Username should match the mock property");
     assertEquals("testPass", comboPooledDataSource.getPassword(), "Password should match the mock property");
   }
+
+  @Test
+  void testCreateDataSourceWithPoolProperties() {
+    PersistenceProperties properties = new PersistenceProperties("jdbc:testdb:url", "testUser", "testPass", null, null, null, false,
+        new PoolProperties(7, 2, 5_000, 60_000, 120_000, 10_000, 50, 3));
+
+    ComboPooledDataSource dataSource = (ComboPooledDataSource) new C3P0().createDataSource(properties);
+
+    assertEquals(7, dataSource.getMaxPoolSize());
+    assertEquals(2, dataSource.getMinPoolSize());
+    assertEquals(5_000, dataSource.getCheckoutTimeout());
+    assertEquals(60, dataSource.getMaxIdleTime());
+    assertEquals(120, dataSource.getMaxConnectionAge());
+    assertEquals(10, dataSource.getUnreturnedConnectionTimeout());
+    assertEquals(50, dataSource.getMaxStatementsPerConnection());
+    assertEquals("3", dataSource.getProperties().getProperty("prepareThreshold"));
+    assertEquals("testUser", dataSource.getUser(), "Driver properties should not replace the user");
+    assertEquals("testPass", dataSource.getPassword(), "Driver properties should not replace the password");
+  }
 }
@@ -3,12 +3,16 @@ package com.breskul.bibernate.persistence.datasource.connectiopool;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertInstanceOf;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.breskul.bibernate.persistence.datasource.PersistenceProperties;
+import com.breskul.bibernate.persistence.datasource.PoolProperties;
 import com.breskul.bibernate.persistence.datasource.connectionpools.HikariCP;
+import com.breskul.bibernate.persistence.datasource.connectionpools.PoolStatistics;
 import com.zaxxer.hikari.HikariDataSource;
+import java.sql.Connection;
 import javax.sql.DataSource;
 import org.junit.jupiter.api.Test;
 
@@ -34,4 +38,31 @@ public class HikariCPTest {
     assertEquals("sa", hikariDataSource.getUsername());
     assertEquals("", hikariDataSource.getPassword());
   }
+
+  @Test
+  void testCreateDataSourceWithPoolProperties() throws Exception {
+    PersistenceProperties properties = new PersistenceProperties("jdbc:h2:mem:hikariPool", "sa", "", null, null, null, false,
+        new PoolProperties(7, 2, 5_000, 60_000, 120_000, 10_000, 50, null));
+    HikariCP hikariCP = new HikariCP();
+
+    // Act
+    try (HikariDataSource dataSource = (HikariDataSource) hikariCP.createDataSource(properties)) {
+      PoolStatistics statistics = hikariCP.getStatistics(dataSource).orElseThrow();
+
+      // Assert
+      assertEquals(7, dataSource.getMaximumPoolSize());
+      assertEquals(2, dataSource.getMinimumIdle());
+      assertEquals(5_000, dataSource.getConnectionTimeout());
+      assertEquals(60_000, dataSource.getIdleTimeout());
+      assertEquals(120_000, dataSource.getMaxLifetime());
+      assertEquals(10_000, dataSource.getLeakDetectionThreshold());
+      assertTrue(dataSource.getDataSourceProperties().isEmpty(), "H2 should not get PostgreSQL driver properties");
+      assertEquals(7, statistics.getMaximumPoolSize());
+      try (Connection ignored = dataSource.getConnection()) {
+        assertEquals(1, statistics.getActiveConnections());
+        assertEquals(0, statistics.getThreadsAwaitingConnection());
+      }
+      assertEquals(0, statistics.getActiveConnections());
+    }
+  }
 }
@@ -2,7 +2,9 @@ package com.breskul.bibernate.persistence.dialect;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.breskul.bibernate.persistence.LockOptions;
 import com.breskul.bibernate.persistence.LockType;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -35,4 +37,33 @@ class H2DialectTest {
 
     assertThat(lockClause).isEqualTo("FOR UPDATE");
   }
-}
\ No newline at end of file
+
+  @Test
+  void givenSkipLockedWriteLock_thenReturnSkipLockedClause() {
+    String lockClause = dialect.getLockOptionsClause(LockOptions.of(LockType.PESSIMISTIC_WRITE).skipLocked());
+
+    assertThat(lockClause).isEqualTo("FOR UPDATE SKIP LOCKED");
+  }
+
+  @Test
+  void givenSkipLockedReadLock_thenReturnEmptyString() {
+    String lockClause = dialect.getLockOptionsClause(LockOptions.of(LockType.PESSIMISTIC_READ).skipLocked());
+
+    assertThat(lockClause).isEmpty();
+  }
+
+  @Test
+  void givenLockTimeout_thenReturnWaitClauseInSeconds() {
+    LockOptions lockOptions = LockOptions.of(LockType.PESSIMISTIC_WRITE).timeout(Duration.ofMillis(1500));
+
+    assertThat(dialect.getLockOptionsClause(lockOptions)).isEqualTo("FOR UPDATE WAIT 1.5");
+    assertThat(dialect.getLockTimeoutStatement(lockOptions)).isNull();
+  }
+
+  @Test
+  void givenLimit_thenReturnLimitOffsetClause() {
+    String limitOffsetClause = dialect.getLimitOffsetClause(1);
+
+    assertThat(limitOffsetClause).isEqualTo("LIMIT 1 OFFSET ?");
+  }
+}
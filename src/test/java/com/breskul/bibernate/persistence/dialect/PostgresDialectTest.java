@@ -2,7 +2,9 @@ package com.breskul.bibernate.persistence.dialect;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.breskul.bibernate.persistence.LockOptions;
 import com.breskul.bibernate.persistence.LockType;
+import java.time.Duration;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -35,4 +37,36 @@ class PostgresDialectTest {
 
     assertThat(lockClause).isEqualTo("FOR UPDATE");
   }
-}
\ No newline at end of file
+
+  @Test
+  void givenSkipLockedWriteLock_thenReturnSkipLockedClause() {
+    String lockClause = dialect.getLockOptionsClause(LockOptions.of(LockType.PESSIMISTIC_WRITE).skipLocked());
+
+    assertThat(lockClause).isEqualTo("FOR UPDATE SKIP LOCKED");
+  }
+
+  @Test
+  void givenNoWaitReadLock_thenReturnNoWaitClause() {
+    String lockClause = dialect.getLockOptionsClause(LockOptions.of(LockType.PESSIMISTIC_READ).noWait());
+
+    assertThat(lockClause).isEqualTo("FOR SHARE NOWAIT");
+  }
+
+  @Test
+  void givenLockTimeout_thenReturnPlainClauseAndLockTimeoutStatement() {
+    LockOptions lockOptions = LockOptions.of(LockType.PESSIMISTIC_WRITE).timeout(Duration.ofMillis(1500));
+
+    assertThat(dialect.getLockOptionsClause(lockOptions)).isEqualTo("FOR UPDATE");
+    assertThat(dialect.getLockTimeoutStatement(lockOptions)).isEqualTo("SET LOCAL lock_timeout = 1500");
+    assertThat(dialect.getLockTimeoutStatement(LockOptions.of(LockType.PESSIMISTIC_WRITE))).isNull();
+    assertThat(dialect.getLockTimeoutResetStatement(lockOptions)).isEqualTo("SET LOCAL lock_timeout = DEFAULT");
+    assertThat(dialect.getLockTimeoutResetStatement(LockOptions.of(LockType.PESSIMISTIC_WRITE))).isNull();
+  }
+
+  @Test
+  void givenLimit_thenReturnLimitOffsetClause() {
+    String limitOffsetClause = dialect.getLimitOffsetClause(1);
+
+    assertThat(limitOffsetClause).isEqualTo("LIMIT 1 OFFSET ?");
+  }
+}
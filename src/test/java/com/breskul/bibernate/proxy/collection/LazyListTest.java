@@ -5,9 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -631,4 +634,34 @@ class LazyListTest {
 
     verify(spyListSupplier, times(1)).get();
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenExtraLazyNotInitialized_thenTargetedQueriesUsedInsteadOfLoading() {
+    ExtraLazyQueries<Integer> queries = mock(ExtraLazyQueries.class);
+    when(queries.count()).thenReturn(3);
+    when(queries.exists()).thenReturn(true);
+    when(queries.contains(2)).thenReturn(true);
+    when(queries.get(1)).thenReturn(5);
+    LazyList<Integer> lazyList = new LazyList<>(() -> List.of(1, 2, 3), queries);
+
+    assertEquals(3, lazyList.size());
+    assertFalse(lazyList.isEmpty());
+    assertTrue(lazyList.contains(2));
+    assertEquals(5, lazyList.get(1));
+    assertFalse(lazyList.isInitialized());
+    verify(queries, times(1)).get(1);
+  }
+
+  @Test
+  void whenExtraLazyInitialized_thenTargetedQueriesAreNotUsed() {
+    ExtraLazyQueries<Integer> queries = mock(ExtraLazyQueries.class);
+    LazyList<Integer> lazyList = new LazyList<>(() -> List.of(1, 2, 3), queries);
+
+    lazyList.iterator();
+
+    assertTrue(lazyList.isInitialized());
+    assertEquals(3, lazyList.size());
+    assertTrue(lazyList.contains(2));
+    verifyNoInteractions(queries);
+  }
+}
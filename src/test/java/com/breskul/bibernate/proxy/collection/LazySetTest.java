@@ -5,9 +5,12 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -414,4 +417,31 @@ class LazySetTest {
 
     verify(spyListSupplier, times(1)).get();
   }
-}
\ No newline at end of file
+
+  @Test
+  void whenExtraLazyNotInitialized_thenTargetedQueriesUsedInsteadOfLoading() {
+    ExtraLazyQueries<Integer> queries = mock(ExtraLazyQueries.class);
+    when(queries.count()).thenReturn(3);
+    when(queries.exists()).thenReturn(true);
+    when(queries.contains(2)).thenReturn(true);
+    LazySet<Integer> lazySet = new LazySet<>(() -> List.of(1, 2, 3), queries);
+
+    assertEquals(3, lazySet.size());
+    assertFalse(lazySet.isEmpty());
+    assertTrue(lazySet.contains(2));
+    assertFalse(lazySet.isInitialized());
+  }
+
+  @Test
+  void whenExtraLazyInitialized_thenTargetedQueriesAreNotUsed() {
+    ExtraLazyQueries<Integer> queries = mock(ExtraLazyQueries.class);
+    LazySet<Integer> lazySet = new LazySet<>(() -> List.of(1, 2, 3), queries);
+
+    lazySet.iterator();
+
+    assertTrue(lazySet.isInitialized());
+    assertEquals(3, lazySet.size());
+    assertTrue(lazySet.contains(2));
+    verifyNoInteractions(queries);
+  }
+}
@@ -2,11 +2,23 @@ package com.breskul.bibernate.proxy.interceptor;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.BDDMockito.then;
 
 import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import lombok.SneakyThrows;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 
 class LazyInterceptorTest {
 
@@ -19,7 +31,7 @@ class LazyInterceptorTest {
 
     // Act
     LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(supplier);
-    Object result = interceptor.intercept(addValueMethod, new Object[]{10});
+    Object result = interceptor.intercept(new Object(), addValueMethod, new Object[]{10});
 
     // Assert
     assertThat(result).isEqualTo(52);
@@ -33,31 +45,147 @@ class LazyInterceptorTest {
     LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(supplier);
 
     // Act
-    assertThatThrownBy(() -> interceptor.intercept(null, null))
+    assertThatThrownBy(() -> interceptor.intercept(null, null, null))
         .isInstanceOf(NullPointerException.class);
   }
 
   @Test
+  @SneakyThrows
   void whenInterceptWithMethodThrowsException_thenExpectedExceptionIsThrown() {
     // Arrange
     Supplier<TestObject> supplier = () -> {
       throw new IllegalStateException("Supplier Exception");
     };
+    Method addValueMethod = TestObject.class.getMethod("addValue", int.class);
     LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(supplier);
 
     // Assert
-    assertThatThrownBy(() -> interceptor.intercept(null, null))
+    assertThatThrownBy(() -> interceptor.intercept(new Object(), addValueMethod, new Object[]{1}))
         .isInstanceOf(IllegalStateException.class).hasMessage("Supplier Exception");
   }
 
+  @Test
+  @SneakyThrows
+  void whenInterceptIdentifierGetter_thenIdentifierReturnedWithoutInitialization() {
+    // Arrange
+    Supplier<TestObject> supplier = Mockito.mock(Supplier.class);
+    Method getIdMethod = TestObject.class.getMethod("getId");
+
+    // Act
+    LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(supplier, 7L, "getId");
+    Object result = interceptor.intercept(new Object(), getIdMethod, new Object[0]);
+
+    // Assert
+    assertThat(result).isEqualTo(7L);
+    assertThat(interceptor.isInitialized()).isFalse();
+    then(supplier).shouldHaveNoInteractions();
+  }
+
+  @Test
+  @SneakyThrows
+  void whenInterceptObjectIdentityMethods_thenProxyIdentityUsedWithoutInitialization() {
+    // Arrange
+    Supplier<TestObject> supplier = Mockito.mock(Supplier.class);
+    Object proxy = new Object();
+    Method hashCodeMethod = Object.class.getMethod("hashCode");
+    Method equalsMethod = Object.class.getMethod("equals", Object.class);
+
+    // Act
+    LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(supplier, 7L, "getId");
+    Object hashCode = interceptor.intercept(proxy, hashCodeMethod, new Object[0]);
+    Object equalsItself = interceptor.intercept(proxy, equalsMethod, new Object[]{proxy});
+    Object equalsOther = interceptor.intercept(proxy, equalsMethod, new Object[]{new Object()});
+
+    // Assert
+    assertThat(hashCode).isEqualTo(System.identityHashCode(proxy));
+    assertThat(equalsItself).isEqualTo(true);
+    assertThat(equalsOther).isEqualTo(false);
+    then(supplier).shouldHaveNoInteractions();
+  }
+
+  @Test
+  @SneakyThrows
+  void whenInterceptOtherMethod_thenObjectInitialized() {
+    // Arrange
+    Supplier<TestObject> supplier = () -> new TestObject(42);
+    Method addValueMethod = TestObject.class.getMethod("addValue", int.class);
+    LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(supplier, 7L, "getId");
+
+    // Act
+    interceptor.intercept(new Object(), addValueMethod, new Object[]{1});
+
+    // Assert
+    assertThat(interceptor.isInitialized()).isTrue();
+  }
+
+  @Test
+  @SneakyThrows
+  void whenSupplierReturnsNull_thenNullResultCachedAndSupplierCalledOnce() {
+    // Arrange
+    AtomicInteger supplierCalls = new AtomicInteger();
+    LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(() -> {
+      supplierCalls.incrementAndGet();
+      return null;
+    }, 7L, "getId");
+
+    // Act
+    TestObject first = interceptor.getObject();
+    TestObject second = interceptor.getObject();
+
+    // Assert
+    assertThat(first).isNull();
+    assertThat(second).isNull();
+    assertThat(supplierCalls).hasValue(1);
+    assertThat(interceptor.isInitialized()).isTrue();
+    assertThat(interceptor.getIdentifier()).isEqualTo(7L);
+  }
+
+  @Test
+  @SneakyThrows
+  void whenObjectRequestedConcurrently_thenSupplierCalledOnce() {
+    // Arrange
+    AtomicInteger supplierCalls = new AtomicInteger();
+    LazyInterceptor<TestObject> interceptor = new LazyInterceptor<>(() -> {
+      supplierCalls.incrementAndGet();
+      return new TestObject(42);
+    });
+    int threads = 8;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+    // Act
+    List<Future<TestObject>> results = new ArrayList<>();
+    for (int i = 0; i < threads; i++) {
+      results.add(executor.submit(() -> {
+        start.await();
+        return interceptor.getObject();
+      }));
+    }
+    start.countDown();
+    Set<TestObject> objects = new HashSet<>();
+    for (Future<TestObject> result : results) {
+      objects.add(result.get(5, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+
+    // Assert
+    assertThat(supplierCalls).hasValue(1);
+    assertThat(objects).hasSize(1);
+  }
+
   private static class TestObject {
 
+    private Long id;
     private int value;
 
     public TestObject(int value) {
       this.value = value;
     }
 
+    public Long getId() {
+      return id;
+    }
+
     public int addValue(int addend) {
       this.value += addend;
       return this.value;
@@ -7,7 +7,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import com.breskul.bibernate.data.Note;
 import com.breskul.bibernate.data.Person;
 import com.breskul.bibernate.data.PhotoComment;
+import com.breskul.bibernate.data.VersionedPerson;
 import com.breskul.bibernate.exception.BiQLException;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
@@ -89,4 +91,65 @@ class BiQLMapperTest {
     //then
     assertThat(actual).isEqualTo(expected);
   }
-}
\ No newline at end of file
+
+  @ParameterizedTest
+  @CsvSource(delimiter = '|', value = {
+      "update Person p set p.firstName = :name where p.id = :id | update persons set first_name = ? where id = ?",
+      "update Person set firstName = 'firstName', lastName = :name | update persons set first_name = 'firstName', last_name = ?",
+      "delete from Person p where p.lastName = :name or p.firstName = :name | delete from persons where last_name = ? or first_name = ?",
+      "DELETE FROM Person | delete from persons"
+  })
+  void givenBulkBql_whenBulkBqlToSql_thenShouldGenerateSingleStatement(String bql, String expected) {
+    //when
+    BiQLStatement actual = BiQLMapper.bulkBqlToSql(bql, Person.class);
+    //then
+    assertThat(actual.sql()).isEqualTo(expected);
+  }
+
+  @Test
+  void givenVersionedEntity_whenBulkUpdateBqlToSql_thenShouldIncrementVersion() {
+    //when
+    BiQLStatement actual = BiQLMapper.bulkBqlToSql("update VersionedPerson p set p.firstName = :name where p.id = :id",
+        VersionedPerson.class);
+    //then
+    assertThat(actual.sql())
+        .isEqualTo("update versioned_persons set version = version + 1, first_name = ? where id = ?");
+  }
+
+  @Test
+  void givenRepeatedNamedParameter_whenBindParameters_thenShouldOrderValuesByPlaceholders() {
+    //given
+    BiQLStatement statement = BiQLMapper.bulkBqlToSql(
+        "update Person p set p.firstName = :name where p.lastName = :name and p.id = :id", Person.class);
+    //when
+    Object[] values = statement.bindParameters(Map.of("id", 1L, "name", "Mike"));
+    //then
+    assertThat(statement.parameterNames()).containsExactly("name", "name", "id");
+    assertThat(values).containsExactly("Mike", "Mike", 1L);
+  }
+
+  @Test
+  void givenMissingParameter_whenBindParameters_thenShouldThrowBiQLException() {
+    BiQLStatement statement = BiQLMapper.bulkBqlToSql("delete from Person where id = :id", Person.class);
+
+    assertThatThrownBy(() -> statement.bindParameters(Map.of()))
+        .isInstanceOf(BiQLException.class)
+        .hasMessage("Value of parameter [id] is not provided");
+  }
+
+  @ParameterizedTest
+  @ValueSource(strings = {"update Person p where p.id = 1", "delete Person where id = 1", "from Person",
+      "update Person p set p.firstName = 'unclosed", "update Person p set", "update Person p setfirstName = 1"})
+  void givenInvalidBulkBql_whenBulkBqlToSql_thenShouldThrowBiQLException(String bql) {
+    assertThatThrownBy(() -> BiQLMapper.bulkBqlToSql(bql, Person.class))
+        .isInstanceOf(BiQLException.class)
+        .hasMessage("BiQL has incorrect structure");
+  }
+
+  @Test
+  void givenUnknownAliasedField_whenBulkBqlToSql_thenShouldThrowBiQLException() {
+    assertThatThrownBy(() -> BiQLMapper.bulkBqlToSql("update Person p set p.age = 1", Person.class))
+        .isInstanceOf(BiQLException.class)
+        .hasMessage("Entity Person does not have field age");
+  }
+}
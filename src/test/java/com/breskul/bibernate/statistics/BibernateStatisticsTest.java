@@ -0,0 +1,88 @@
+package com.breskul.bibernate.statistics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.breskul.bibernate.data.Person;
+import java.time.Duration;
+import org.junit.jupiter.api.Test;
+
+class BibernateStatisticsTest {
+
+  @Test
+  void given_sqlWithLiterals_when_toSqlShape_then_replaceLiteralsAndCollapseInList() {
+    String shape = BibernateStatistics.toSqlShape(
+        "select * from persons p1  where p1.id in (1, 2, 3) and first_name = 'O''Neil' and age > 2.5");
+
+    assertThat(shape).isEqualTo("select * from persons p1 where p1.id IN (?) and first_name = ? and age > ?");
+  }
+
+  @Test
+  void given_preparedStatementsWithDifferentInListSizes_when_queryExecuted_then_countOneShape() {
+    // Arrange
+    BibernateStatistics statistics = new BibernateStatistics(true);
+
+    // Act
+    statistics.queryExecuted("SELECT id FROM notes WHERE person_id IN (?, ?)", statistics.startTime());
+    statistics.queryExecuted("SELECT id FROM notes WHERE person_id IN (?)", statistics.startTime());
+
+    // Assert
+    assertThat(statistics.getQueryExecutionCount()).isEqualTo(2);
+    assertThat(statistics.getQueries()).containsExactly("SELECT id FROM notes WHERE person_id IN (?)");
+    assertThat(statistics.getQueryStatistics("SELECT id FROM notes WHERE person_id IN (?)").getCount()).isEqualTo(2);
+  }
+
+  @Test
+  void given_disabledStatistics_when_record_then_keepCountersAtZero() {
+    // Arrange
+    BibernateStatistics statistics = new BibernateStatistics(false);
+
+    // Act
+    long startTime = statistics.startTime();
+    statistics.queryExecuted("select 1", startTime);
+    statistics.entityLoaded(Person.class);
+    statistics.firstLevelCacheHit();
+    statistics.flushed(startTime);
+    statistics.lazyInitialized(Person.class, "notes");
+
+    // Assert
+    assertThat(startTime).isZero();
+    assertThat(statistics.getQueryExecutionCount()).isZero();
+    assertThat(statistics.getQueries()).isEmpty();
+    assertThat(statistics.getEntityStatistics(Person.class).getLoadCount()).isZero();
+    assertThat(statistics.getFirstLevelCacheHitCount()).isZero();
+    assertThat(statistics.getFlushCount()).isZero();
+    assertThat(statistics.getLazyInitializationCounts()).isEmpty();
+  }
+
+  @Test
+  void given_recordedStatistics_when_clear_then_resetAllCounters() {
+    BibernateStatistics statistics = new BibernateStatistics(true);
+    statistics.entityInserted(Person.class);
+    statistics.lazyInitialized(Person.class, "notes");
+    statistics.flushed(statistics.startTime());
+
+    statistics.clear();
+
+    assertThat(statistics.getEntityClasses()).isEmpty();
+    assertThat(statistics.getLazyInitializationCount()).isZero();
+    assertThat(statistics.getFlushCount()).isZero();
+  }
+
+  @Test
+  void given_executionTimes_when_record_then_countInHistogramBuckets() {
+    // Arrange
+    TimingStatistics timing = new TimingStatistics();
+
+    // Act
+    timing.record(5_000);
+    timing.record(500_000);
+    timing.record(2_000_000);
+    timing.record(20_000_000_000L);
+
+    // Assert
+    assertThat(timing.getCount()).isEqualTo(4);
+    assertThat(timing.getBucketCounts()).containsExactly(1, 0, 1, 1, 0, 0, 0, 1);
+    assertThat(timing.getMaxTime()).isEqualTo(Duration.ofSeconds(20));
+    assertThat(timing.getTotalTime()).isEqualTo(Duration.ofNanos(20_002_505_000L));
+  }
+}
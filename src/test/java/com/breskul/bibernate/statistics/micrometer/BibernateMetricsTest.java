@@ -0,0 +1,71 @@
+package com.breskul.bibernate.statistics.micrometer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.breskul.bibernate.data.Person;
+import com.breskul.bibernate.statistics.BibernateStatistics;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class BibernateMetricsTest {
+
+  private final BibernateStatistics statistics = new BibernateStatistics(true);
+  private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+  @Test
+  void given_recordedStatistics_when_bindTo_then_publishCountersAndTimers() {
+    // Arrange
+    statistics.sessionOpened(statistics.startTime());
+    statistics.firstLevelCacheHit();
+    statistics.firstLevelCacheMiss();
+    statistics.firstLevelCacheMiss();
+    statistics.entityLoaded(Person.class);
+    statistics.flushed(statistics.startTime());
+
+    // Act
+    new BibernateMetrics(statistics, Tags.of("factory", "main")).bindTo(registry);
+
+    // Assert
+    assertThat(registry.get(BibernateMetrics.SESSIONS_OPEN).tag("factory", "main").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get(BibernateMetrics.CACHE_REQUESTS).tag("result", "hit").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get(BibernateMetrics.CACHE_REQUESTS).tag("result", "miss").functionCounter().count()).isEqualTo(2);
+    assertThat(registry.get(BibernateMetrics.ENTITY_OPERATIONS)
+        .tags("entity", Person.class.getName(), "operation", "load").functionCounter().count()).isEqualTo(1);
+    assertThat(registry.get(BibernateMetrics.FLUSHES).functionTimer().count()).isEqualTo(1);
+  }
+
+  @Test
+  void given_boundMetrics_when_newQueryShapeAndAssociationRecorded_then_registerMeters() {
+    // Arrange
+    new BibernateMetrics(statistics).bindTo(registry);
+
+    // Act
+    statistics.queryExecuted("SELECT * FROM persons WHERE id = 1", statistics.startTime());
+    statistics.queryExecuted("SELECT * FROM persons WHERE id = 2", statistics.startTime());
+    statistics.lazyInitialized(Person.class, "notes");
+
+    // Assert
+    FunctionTimer queryTimer = registry.get(BibernateMetrics.QUERY).tag("sql", "SELECT * FROM persons WHERE id = ?")
+        .functionTimer();
+    assertThat(queryTimer.count()).isEqualTo(2);
+    assertThat(registry.get(BibernateMetrics.QUERY_EXECUTIONS).functionCounter().count()).isEqualTo(2);
+    assertThat(registry.get(BibernateMetrics.LAZY_INITIALIZATIONS).tag("association", "Person.notes")
+        .functionCounter().count()).isEqualTo(1);
+  }
+
+  @Test
+  void given_boundMetrics_when_statisticsCleared_then_reportZero() {
+    // Arrange
+    new BibernateMetrics(statistics).bindTo(registry);
+    statistics.queryExecuted("SELECT 1", statistics.startTime());
+
+    // Act
+    statistics.clear();
+
+    // Assert
+    assertThat(registry.get(BibernateMetrics.QUERY).tag("sql", "SELECT ?").functionTimer().count()).isZero();
+    assertThat(registry.get(BibernateMetrics.QUERY_EXECUTIONS).functionCounter().count()).isZero();
+  }
+}
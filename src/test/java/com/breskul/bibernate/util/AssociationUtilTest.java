@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.then;
 
 import com.breskul.bibernate.exception.AssociationException;
+import com.breskul.bibernate.proxy.LazyProxy;
 import com.breskul.bibernate.proxy.collection.LazyList;
 import com.breskul.bibernate.proxy.collection.LazySet;
 import java.lang.reflect.Field;
@@ -395,6 +396,67 @@ class AssociationUtilTest {
             .formatted(ClassWithoutNoArgsConstructor.class));
   }
 
+  @Test
+  @DisplayName("When lazy proxy is created several times for the same type then proxy class is "
+      + "generated only once")
+  @Order(23)
+  @SneakyThrows
+  void whenGetLazyObjectProxyTwiceForSameType_thenProxyClassIsReused() {
+    // data
+    Field inputProxyField = EntityObjectHolder.class.getDeclaredField(PROXY_FIELD_NAME);
+    // when
+    Object firstProxy = AssociationUtil.getLazyObjectProxy(inputProxyField,
+        this::getDelegateObject);
+    Object secondProxy = AssociationUtil.getLazyObjectProxy(inputProxyField,
+        this::getDelegateObject);
+    // verify
+    assertThat(firstProxy).isNotSameAs(secondProxy);
+    assertThat(firstProxy.getClass()).isSameAs(secondProxy.getClass());
+    assertThat(firstProxy.getClass())
+        .isSameAs(AssociationUtil.getLazyProxyClass(ProxyEntity.class));
+  }
+
+  @Test
+  @DisplayName("When lazy proxy is created then each proxy instance has its own interceptor")
+  @Order(24)
+  @SneakyThrows
+  void whenGetLazyObjectProxyTwiceForSameType_thenEachProxyHasOwnDelegate() {
+    // data
+    Field inputProxyField = EntityObjectHolder.class.getDeclaredField(PROXY_FIELD_NAME);
+    // when
+    ProxyEntity firstProxy = (ProxyEntity) AssociationUtil.getLazyObjectProxy(inputProxyField,
+        () -> new ProxyEntity("first", 1));
+    ProxyEntity secondProxy = (ProxyEntity) AssociationUtil.getLazyObjectProxy(inputProxyField,
+        () -> new ProxyEntity("second", 2));
+    // verify
+    assertThat(firstProxy).isInstanceOf(LazyProxy.class);
+    assertThat(((LazyProxy) firstProxy).getBibernateInterceptor())
+        .isNotSameAs(((LazyProxy) secondProxy).getBibernateInterceptor());
+    assertThat(firstProxy.getStringField()).isEqualTo("first");
+    assertThat(secondProxy.getStringField()).isEqualTo("second");
+  }
+
+  @Test
+  @DisplayName("Getter of a field is resolved by get, is and accessor names returning the field type")
+  @Order(25)
+  @SneakyThrows
+  void whenFindGetterName_thenBeanBooleanAndAccessorGettersResolved() {
+    // when
+    var getter = AssociationUtil.findGetterName(GetterEntity.class,
+        GetterEntity.class.getDeclaredField("name"));
+    var booleanGetter = AssociationUtil.findGetterName(GetterEntity.class,
+        GetterEntity.class.getDeclaredField("active"));
+    var accessor = AssociationUtil.findGetterName(GetterEntity.class,
+        GetterEntity.class.getDeclaredField("code"));
+    var missing = AssociationUtil.findGetterName(GetterEntity.class,
+        GetterEntity.class.getDeclaredField("hidden"));
+    // verify
+    assertThat(getter).contains("getName");
+    assertThat(booleanGetter).contains("isActive");
+    assertThat(accessor).contains("code");
+    assertThat(missing).isEmpty();
+  }
+
   private ProxyEntity getDelegateObject() {
     return new ProxyEntity("string", 100);
   }
@@ -430,6 +492,33 @@ class AssociationUtilTest {
     private Integer integerField;
   }
 
+  /**
+   * Class with a bean getter, a boolean getter, an accessor named as its field and a getter returning another type.
+   */
+  public static class GetterEntity {
+
+    private String name;
+    private boolean active;
+    private Long code;
+    private Long hidden;
+
+    public String getName() {
+      return name;
+    }
+
+    public boolean isActive() {
+      return active;
+    }
+
+    public Long code() {
+      return code;
+    }
+
+    public String getHidden() {
+      return String.valueOf(hidden);
+    }
+  }
+
   /**
    * Class with object field for class that throws exception in no-args constructor for testing
    * purpose
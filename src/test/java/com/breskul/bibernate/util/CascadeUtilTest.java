@@ -0,0 +1,59 @@
+package com.breskul.bibernate.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.breskul.bibernate.annotation.CascadeType;
+import com.breskul.bibernate.data.CascadeNote;
+import com.breskul.bibernate.data.CascadePerson;
+import com.breskul.bibernate.data.Note;
+import com.breskul.bibernate.data.Person;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class CascadeUtilTest {
+
+  @Test
+  void given_orphanRemovalCollection_when_isCascaded_then_cascadeRemoveAndPersist() throws NoSuchFieldException {
+    // Act & Assert
+    assertThat(CascadeUtil.isCascaded(CascadePerson.class.getDeclaredField("notes"), CascadeType.PERSIST)).isTrue();
+    assertThat(CascadeUtil.isCascaded(CascadePerson.class.getDeclaredField("notes"), CascadeType.REMOVE)).isTrue();
+    assertThat(CascadeUtil.isCascaded(CascadeNote.class.getDeclaredField("person"), CascadeType.REMOVE)).isFalse();
+  }
+
+  @Test
+  void given_aggregate_when_collectCascaded_then_returnRootAndSelectedChildren() {
+    // Arrange
+    CascadePerson person = new CascadePerson("John");
+    CascadeNote first = person.addNote("first");
+    CascadeNote stored = person.addNote("stored");
+    stored.setId(1L);
+
+    // Act
+    List<Object> cascaded = CascadeUtil.collectCascaded(person, CascadeType.PERSIST, entity -> EntityUtil.getEntityId(entity) == null);
+
+    // Assert
+    assertThat(cascaded).containsExactly(person, first);
+  }
+
+  @Test
+  void given_childrenBeforeParents_when_sortByForeignKeys_then_parentsFirstAndClassesGrouped() {
+    // Arrange
+    Person firstPerson = new Person("John", "Doe");
+    Person secondPerson = new Person("Jane", "Doe");
+    Note firstNote = new Note(null, "first", null, firstPerson);
+    Note secondNote = new Note(null, "second", null, secondPerson);
+
+    // Act
+    List<Object> sorted = CascadeUtil.sortByForeignKeys(List.of(firstNote, firstPerson, secondNote, secondPerson));
+
+    // Assert
+    assertThat(sorted).containsExactly(firstPerson, secondPerson, firstNote, secondNote);
+  }
+
+  @Test
+  void given_referencingAndReferencedClasses_when_getForeignKeyDepth_then_referencingIsDeeper() {
+    // Act & Assert
+    assertThat(CascadeUtil.getForeignKeyDepth(Person.class)).isZero();
+    assertThat(CascadeUtil.getForeignKeyDepth(Note.class)).isEqualTo(1);
+  }
+}
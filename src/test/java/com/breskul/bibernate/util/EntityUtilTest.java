@@ -14,10 +14,12 @@ import com.breskul.bibernate.annotation.ManyToOne;
 import com.breskul.bibernate.annotation.OneToMany;
 import com.breskul.bibernate.annotation.OneToOne;
 import com.breskul.bibernate.annotation.Table;
+import com.breskul.bibernate.annotation.Version;
 import com.breskul.bibernate.exception.EntityParseException;
 import com.breskul.bibernate.persistence.context.snapshot.EntityPropertySnapshot;
 import com.breskul.bibernate.persistence.context.snapshot.EntityRelationSnapshot;
 import java.lang.reflect.Field;
+import java.sql.Timestamp;
 import java.util.List;
 import java.util.Set;
 import java.util.function.Predicate;
@@ -421,6 +423,41 @@ class EntityUtilTest {
     assertThat(entityClasses).contains(TestEntity.class, RelatedEntity.class);
   }
 
+  @Test
+  void givenVersionedEntity_whenFindEntityVersionField_thenShouldReturnVersionField() throws NoSuchFieldException {
+    assertThat(EntityUtil.findEntityVersionField(VersionedEntity.class))
+        .contains(VersionedEntity.class.getDeclaredField("version"));
+    assertThat(EntityUtil.findEntityVersionField(TestEntity.class)).isEmpty();
+  }
+
+  @Test
+  void givenUnsupportedVersionType_whenFindEntityVersionField_thenShouldThrowEntityParseException() {
+    assertThatExceptionOfType(EntityParseException.class)
+        .isThrownBy(() -> EntityUtil.findEntityVersionField(StringVersionEntity.class))
+        .withMessage("Unsupported type [java.lang.String] of version field [version] in class [%s]"
+            .formatted(StringVersionEntity.class.getName()));
+  }
+
+  @Test
+  void givenNumericVersion_whenNextVersion_thenShouldIncrementWithFieldType() throws NoSuchFieldException {
+    Field intVersion = VersionedEntity.class.getDeclaredField("version");
+    Field longVersion = StringVersionEntity.class.getDeclaredField("counter");
+
+    assertThat(EntityUtil.initialVersion(intVersion)).isEqualTo(0);
+    assertThat(EntityUtil.nextVersion(intVersion, 41)).isEqualTo(42);
+    assertThat(EntityUtil.nextVersion(longVersion, 41L)).isEqualTo(42L);
+  }
+
+  @Test
+  void givenTimestampVersion_whenNextVersion_thenShouldBeLaterThanCurrentVersion() throws NoSuchFieldException {
+    Field timestampVersion = VersionedEntity.class.getDeclaredField("updatedAt");
+    Timestamp future = new Timestamp(System.currentTimeMillis() + 60_000);
+
+    Object next = EntityUtil.nextVersion(timestampVersion, future);
+
+    assertThat(next).isEqualTo(new Timestamp(future.getTime() + 1));
+  }
+
   /**
    * This class represents a test entity.
    */
@@ -505,4 +542,28 @@ class EntityUtilTest {
   static class DynamicUpdateEntity {
 
   }
-}
\ No newline at end of file
+
+  @Entity
+  static class VersionedEntity {
+
+    @Id
+    private Long id;
+
+    @Version
+    private int version;
+
+    private Timestamp updatedAt;
+  }
+
+  @Entity
+  static class StringVersionEntity {
+
+    @Id
+    private Long id;
+
+    @Version
+    private String version;
+
+    private Long counter;
+  }
+}
@@ -18,4 +18,24 @@ create table if not exists notes
     title     varchar(256),
     body      varchar(256),
     person_id bigint references persons
-)
\ No newline at end of file
+);
+
+create table if not exists versioned_persons
+(
+    id         bigint auto_increment primary key,
+    first_name varchar(256),
+    version    bigint
+);
+
+create table if not exists tags
+(
+    id   bigint auto_increment primary key,
+    name varchar(256)
+);
+
+create table if not exists person_tags
+(
+    person_id bigint not null references persons,
+    tag_id    bigint not null references tags,
+    unique (person_id, tag_id)
+)